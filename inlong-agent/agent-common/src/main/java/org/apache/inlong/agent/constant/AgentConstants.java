@@ -44,6 +44,12 @@ public class AgentConstants {
 
     public static final String AGENT_ROCKS_DB_PATH = "agent.rocks.db.path";
     public static final String DEFAULT_AGENT_ROCKS_DB_PATH = ".rocksdb";
+    // interval in ms to commit the buffered writes in one batch, 0 means writing every update at once
+    public static final String AGENT_ROCKS_DB_WRITE_INTERVAL = "agent.rocks.db.write.interval";
+    public static final long DEFAULT_AGENT_ROCKS_DB_WRITE_INTERVAL = 1000L;
+    // whether to sync the write ahead log on every batch commit
+    public static final String AGENT_ROCKS_DB_WRITE_SYNC = "agent.rocks.db.write.sync";
+    public static final boolean DEFAULT_AGENT_ROCKS_DB_WRITE_SYNC = false;
 
     public static final String AGENT_UNIQ_ID = "agent.uniq.id";
     public static final String AGENT_DB_INSTANCE_NAME = "agent.db.instance.name";
@@ -196,4 +202,10 @@ public class AgentConstants {
 
     public static final String AGENT_JOB_STORE_TIME = "agent.job.store.time";
     public static final long DEFAULT_JOB_STORE_TIME = 10 * 60 * 1000;
+
+    // snapshot reading of large files, the threads and the memory of read ahead chunks are shared by all jobs
+    public static final String AGENT_FILE_SNAPSHOT_THREADS = "agent.fileSnapshot.threads";
+    public static final int DEFAULT_AGENT_FILE_SNAPSHOT_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final String AGENT_FILE_SNAPSHOT_MEMORY_BYTES = "agent.fileSnapshot.memoryBytes";
+    public static final long DEFAULT_AGENT_FILE_SNAPSHOT_MEMORY_BYTES = 256 * 1024 * 1024L;
 }
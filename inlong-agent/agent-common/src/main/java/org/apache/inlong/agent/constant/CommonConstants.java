@@ -30,6 +30,7 @@ public class CommonConstants {
     public static final String PROXY_INLONG_GROUP_ID = "proxy.inlongGroupId";
     public static final String DEFAULT_PROXY_INLONG_GROUP_ID = "default_inlong_group_id";
     public static final String POSITION_SUFFIX = ".position";
+    public static final String SNAPSHOT_CHECKPOINT_SUFFIX = ".snapshotCheckpoint";
 
     public static final String PROXY_INLONG_STREAM_ID = "proxy.inlongStreamId";
     public static final String DEFAULT_PROXY_INLONG_STREAM_ID = "default_inlong_stream_id";
@@ -99,6 +100,21 @@ public class CommonConstants {
     public static final String PROXY_RETRY_SLEEP = "proxy.retry.sleep";
     public static final long DEFAULT_PROXY_RETRY_SLEEP = 500;
 
+    // spill the batches which proxy can not accept into the disk buffer of sdk, and resend them when proxy recovers
+    public static final String PROXY_SPILL_ENABLE = "proxy.spill.enable";
+    public static final boolean DEFAULT_PROXY_SPILL_ENABLE = false;
+
+    // spill directory, relative to agent home
+    public static final String PROXY_SPILL_PATH = "proxy.spill.path";
+    public static final String DEFAULT_PROXY_SPILL_PATH = ".spill";
+
+    // max disk bytes used by the disk buffer of one sender
+    public static final String PROXY_SPILL_MAX_BYTES = "proxy.spill.maxBytes";
+    public static final long DEFAULT_PROXY_SPILL_MAX_BYTES = 1024 * 1024 * 1024L;
+
+    public static final String PROXY_SPILL_SEGMENT_BYTES = "proxy.spill.segmentBytes";
+    public static final long DEFAULT_PROXY_SPILL_SEGMENT_BYTES = 64 * 1024 * 1024L;
+
     public static final String FIELD_SPLITTER = "proxy.field.splitter";
     public static final String DEFAULT_FIELD_SPLITTER = "|";
 
@@ -60,6 +60,8 @@ public class JobConstants extends CommonConstants {
     public static final String JOB_CYCLE_UNIT = "job.fileJob.cycleUnit";
     public static final String JOB_FILE_TRIGGER_TYPE = "job.fileJob.collectType";
     public static final String JOB_FILE_LINE_END_PATTERN = "job.fileJob.line.endPattern";
+    // json array of filter and projection rules applied to every line before it is sent
+    public static final String JOB_FILE_LINE_FILTER_RULES = "job.fileJob.line.filterRules";
     public static final String JOB_FILE_CONTENT_COLLECT_TYPE = "job.fileJob.contentCollectType";
     public static final String JOB_FILE_META_ENV_LIST = "job.fileJob.envList";
     public static final String JOB_FILE_META_FILTER_BY_LABELS = "job.fileJob.filterMetaByLabels";
@@ -68,6 +70,10 @@ public class JobConstants extends CommonConstants {
     public static final String JOB_FILE_MONITOR_INTERVAL = "job.fileJob.monitorInterval";
     public static final String JOB_FILE_MONITOR_STATUS = "job.fileJob.monitorStatus";
     public static final String JOB_FILE_MONITOR_EXPIRE = "job.fileJob.monitorExpire";
+    // read the existing content of large files by chunks in parallel
+    public static final String JOB_FILE_SNAPSHOT_MIN_SIZE = "job.fileJob.snapshot.minSize";
+    public static final String JOB_FILE_SNAPSHOT_CHUNK_SIZE = "job.fileJob.snapshot.chunkSize";
+    public static final String JOB_FILE_SNAPSHOT_PARALLELISM = "job.fileJob.snapshot.parallelism";
 
     // Binlog job
     public static final String JOB_DATABASE_USER = "job.binlogJob.user";
@@ -197,4 +203,14 @@ public class JobConstants extends CommonConstants {
      */
     public static final String JOB_FILE_MONITOR_DEFAULT_EXPIRE = "-1";
 
+    /**
+     * files whose unread content is smaller than this size in bytes are read line by line,
+     * a negative value disables chunked reading.
+     */
+    public static final long DEFAULT_JOB_FILE_SNAPSHOT_MIN_SIZE = 256 * 1024 * 1024L;
+
+    public static final long DEFAULT_JOB_FILE_SNAPSHOT_CHUNK_SIZE = 16 * 1024 * 1024L;
+
+    public static final int DEFAULT_JOB_FILE_SNAPSHOT_PARALLELISM = 4;
+
 }
@@ -17,12 +17,18 @@
 
 package org.apache.inlong.agent.db;
 
+import org.apache.inlong.agent.common.AgentThreadFactory;
 import org.apache.inlong.agent.conf.AgentConfiguration;
 import org.apache.inlong.agent.constant.AgentConstants;
+import org.apache.inlong.agent.metrics.AgentMetricItem;
+import org.apache.inlong.agent.metrics.AgentMetricItemSet;
 import org.apache.inlong.common.db.CommandEntity;
+import org.apache.inlong.common.metric.MetricRegister;
 
 import com.google.gson.Gson;
 import org.rocksdb.AbstractImmutableNativeReference;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
@@ -32,27 +38,45 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.Statistics;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_COMPONENT_NAME;
 
 /**
  * DB implement based on the Rocks DB.
+ * <p/>
+ * Updates are buffered in memory and committed in one write batch every write interval, the latest value of
+ * a key wins, so that the positions of thousands of files updated again and again are written once per interval.
+ * Reads of a single key see the buffered value, and searches commit the buffered writes before iterating.
  */
 public class RocksDbImp implements Db {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RocksDbImp.class);
     private static final Gson GSON = new Gson();
+    // marks a buffered delete, values are json strings and never empty
+    private static final byte[] DELETED = new byte[0];
+    // small write buffer and bloom filter for the small and frequently updated keys
+    private static final long WRITE_BUFFER_SIZE = 4 * 1024 * 1024L;
+    private static final int MAX_WRITE_BUFFER_NUMBER = 2;
+    private static final int BLOOM_FILTER_BITS_PER_KEY = 10;
 
     private final AgentConfiguration conf;
     private final RocksDB db;
@@ -61,6 +85,14 @@ public class RocksDbImp implements Db {
     private ConcurrentHashMap<String, ColumnFamilyHandle> columnHandlesMap;
     private ConcurrentHashMap<String, ColumnFamilyDescriptor> columnDescriptorMap;
     private String storePath;
+    // buffered writes of every column family, key is the family name
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, byte[]>> pendingWrites =
+            new ConcurrentHashMap<>();
+    private final long writeInterval;
+    private final WriteOptions writeOptions;
+    private final ScheduledExecutorService flushExecutor;
+    private final AgentMetricItemSet dbMetrics;
+    private final Map<String, String> dimensions;
 
     public RocksDbImp() {
         // init rocks db
@@ -68,10 +100,45 @@ public class RocksDbImp implements Db {
         this.db = initEnv();
         // add a command column family
         addColumnFamily(commandFamilyName);
+
+        this.dbMetrics = new AgentMetricItemSet(this.getClass().getSimpleName());
+        this.dimensions = new HashMap<>();
+        this.dimensions.put(KEY_COMPONENT_NAME, this.getClass().getSimpleName());
+        MetricRegister.register(dbMetrics);
+
+        this.writeOptions = new WriteOptions().setSync(conf.getBoolean(
+                AgentConstants.AGENT_ROCKS_DB_WRITE_SYNC, AgentConstants.DEFAULT_AGENT_ROCKS_DB_WRITE_SYNC));
+        this.writeInterval = conf.getLong(
+                AgentConstants.AGENT_ROCKS_DB_WRITE_INTERVAL, AgentConstants.DEFAULT_AGENT_ROCKS_DB_WRITE_INTERVAL);
+        if (writeInterval > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(new AgentThreadFactory("rocksdb-flush"));
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, writeInterval, writeInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flushExecutor = null;
+        }
     }
 
     private static ColumnFamilyDescriptor getColumnFamilyDescriptor(byte[] columnFamilyName) {
-        return new ColumnFamilyDescriptor(columnFamilyName, new ColumnFamilyOptions());
+        return new ColumnFamilyDescriptor(columnFamilyName, createColumnFamilyOptions());
+    }
+
+    private static ColumnFamilyOptions createColumnFamilyOptions() {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setFilterPolicy(new BloomFilter(BLOOM_FILTER_BITS_PER_KEY, false))
+                .setCacheIndexAndFilterBlocks(true);
+        return new ColumnFamilyOptions()
+                .setWriteBufferSize(WRITE_BUFFER_SIZE)
+                .setMaxWriteBufferNumber(MAX_WRITE_BUFFER_NUMBER)
+                .setLevelCompactionDynamicLevelBytes(true)
+                .setTableFormatConfig(tableConfig);
+    }
+
+    /**
+     * Get db metrics
+     */
+    public AgentMetricItem getDbMetrics() {
+        return dbMetrics.findMetricItem(dimensions);
     }
 
     private RocksDB initEnv() {
@@ -117,7 +184,7 @@ public class RocksDbImp implements Db {
 
     private List<ColumnFamilyDescriptor> loadManagedColumnFamilies(DBOptions dbOptions) throws RocksDBException {
         final List<ColumnFamilyDescriptor> managedColumnFamilies = new ArrayList<>();
-        final Options options = new Options(dbOptions, new ColumnFamilyOptions());
+        final Options options = new Options(dbOptions, createColumnFamilyOptions());
         List<byte[]> existing = RocksDB.listColumnFamilies(options, storePath);
 
         if (existing.isEmpty()) {
@@ -151,7 +218,7 @@ public class RocksDbImp implements Db {
     public KeyValueEntity get(String key) {
         requireNonNull(key);
         try {
-            byte[] bytes = db.get(columnHandlesMap.get(defaultFamilyName), key.getBytes());
+            byte[] bytes = read(defaultFamilyName, key);
             return bytes == null ? null : GSON.fromJson(new String(bytes), KeyValueEntity.class);
         } catch (Exception e) {
             throw new RuntimeException("get key value entity error", e);
@@ -161,7 +228,7 @@ public class RocksDbImp implements Db {
     @Override
     public CommandEntity getCommand(String commandId) {
         try {
-            byte[] bytes = db.get(columnHandlesMap.get(commandFamilyName), commandId.getBytes());
+            byte[] bytes = read(commandFamilyName, commandId);
             return bytes == null ? null : GSON.fromJson(new String(bytes), CommandEntity.class);
         } catch (Exception e) {
             throw new RuntimeException("get command value error", e);
@@ -172,7 +239,7 @@ public class RocksDbImp implements Db {
     public CommandEntity putCommand(CommandEntity entity) {
         requireNonNull(entity);
         try {
-            db.put(columnHandlesMap.get(commandFamilyName), entity.getId().getBytes(), GSON.toJson(entity).getBytes());
+            write(commandFamilyName, entity.getId(), GSON.toJson(entity).getBytes());
         } catch (Exception e) {
             throw new RuntimeException("put value to rocks db error", e);
         }
@@ -189,7 +256,7 @@ public class RocksDbImp implements Db {
     public KeyValueEntity put(KeyValueEntity entity) {
         requireNonNull(entity);
         try {
-            db.put(columnHandlesMap.get(defaultFamilyName), entity.getKey().getBytes(), GSON.toJson(entity).getBytes());
+            write(defaultFamilyName, entity.getKey(), GSON.toJson(entity).getBytes());
         } catch (Exception e) {
             throw new RuntimeException("put value to rocks db error", e);
         }
@@ -205,7 +272,7 @@ public class RocksDbImp implements Db {
             return null;
         }
         try {
-            db.delete(columnHandlesMap.get(defaultFamilyName), key.getBytes());
+            write(defaultFamilyName, key, DELETED);
             return keyValueEntity;
         } catch (Exception e) {
             throw new RuntimeException("remove value from rocks db error", e);
@@ -215,6 +282,7 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> searchWithKeyPrefix(StateSearchKey searchKey, String keyPrefix) {
         List<KeyValueEntity> results = new LinkedList<>();
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -231,6 +299,7 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> search(StateSearchKey searchKey) {
         List<KeyValueEntity> results = new LinkedList<>();
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -247,6 +316,7 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> search(List<StateSearchKey> searchKeys) {
         List<KeyValueEntity> results = new LinkedList<>();
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -263,6 +333,7 @@ public class RocksDbImp implements Db {
     @Override
     public List<CommandEntity> searchCommands(boolean isAcked) {
         List<CommandEntity> results = new LinkedList<>();
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(commandFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -278,6 +349,7 @@ public class RocksDbImp implements Db {
 
     @Override
     public KeyValueEntity searchOne(StateSearchKey searchKey) {
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -293,6 +365,7 @@ public class RocksDbImp implements Db {
 
     @Override
     public KeyValueEntity searchOne(String fileName) {
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -309,6 +382,7 @@ public class RocksDbImp implements Db {
     @Override
     public List<KeyValueEntity> findAll(String prefix) {
         List<KeyValueEntity> results = new LinkedList<>();
+        flush();
         try (final RocksIterator it = db.newIterator(columnHandlesMap.get(defaultFamilyName))) {
             it.seekToFirst();
             while (it.isValid()) {
@@ -322,8 +396,95 @@ public class RocksDbImp implements Db {
         return results;
     }
 
+    /**
+     * Read a key, the buffered value is returned if it has not been committed.
+     */
+    private byte[] read(String familyName, String key) throws RocksDBException {
+        ConcurrentHashMap<String, byte[]> pending = pendingWrites.get(familyName);
+        byte[] bytes = pending == null ? null : pending.get(key);
+        if (bytes != null) {
+            return bytes == DELETED ? null : bytes;
+        }
+        return db.get(columnHandlesMap.get(familyName), key.getBytes());
+    }
+
+    /**
+     * Buffer the write, or write it at once if the write interval is disabled.
+     *
+     * @param value value of key, {@link #DELETED} to delete the key
+     */
+    private void write(String familyName, String key, byte[] value) throws RocksDBException {
+        if (flushExecutor == null) {
+            long start = System.currentTimeMillis();
+            if (value == DELETED) {
+                db.delete(columnHandlesMap.get(familyName), writeOptions, key.getBytes());
+            } else {
+                db.put(columnHandlesMap.get(familyName), writeOptions, key.getBytes(), value);
+            }
+            updateWriteMetrics(1, start);
+            return;
+        }
+        pendingWrites.computeIfAbsent(familyName, name -> new ConcurrentHashMap<>()).put(key, value);
+    }
+
+    /**
+     * Commit the buffered writes in one write batch, keys updated during the commit are kept for the next one.
+     */
+    public synchronized void flush() {
+        if (pendingWrites.values().stream().allMatch(Map::isEmpty)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<String, Map<String, byte[]>> committing = new HashMap<>();
+        int keyCount = 0;
+        try (WriteBatch batch = new WriteBatch()) {
+            for (Map.Entry<String, ConcurrentHashMap<String, byte[]>> family : pendingWrites.entrySet()) {
+                ColumnFamilyHandle handle = columnHandlesMap.get(family.getKey());
+                Map<String, byte[]> familyWrites = new HashMap<>(family.getValue());
+                for (Map.Entry<String, byte[]> entry : familyWrites.entrySet()) {
+                    if (entry.getValue() == DELETED) {
+                        batch.delete(handle, entry.getKey().getBytes());
+                    } else {
+                        batch.put(handle, entry.getKey().getBytes(), entry.getValue());
+                    }
+                }
+                keyCount += familyWrites.size();
+                committing.put(family.getKey(), familyWrites);
+            }
+            db.write(writeOptions, batch);
+        } catch (RocksDBException e) {
+            throw new RuntimeException("write batch to rocks db error", e);
+        }
+        // remove the committed values only, newer values of the same keys wait for the next commit
+        committing.forEach((familyName, familyWrites) -> {
+            ConcurrentHashMap<String, byte[]> pending = pendingWrites.get(familyName);
+            familyWrites.forEach(pending::remove);
+        });
+        updateWriteMetrics(keyCount, start);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            LOGGER.error("flush buffered writes to rocks db error", t);
+        }
+    }
+
+    private void updateWriteMetrics(int keyCount, long start) {
+        AgentMetricItem metricItem = getDbMetrics();
+        metricItem.dbWriteBatchCount.incrementAndGet();
+        metricItem.dbWriteKeyCount.addAndGet(keyCount);
+        metricItem.dbWriteLatency.addAndGet(System.currentTimeMillis() - start);
+    }
+
     @Override
     public void close() throws IOException {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        flush();
+        writeOptions.close();
         db.close();
         columnHandlesMap.values().forEach(AbstractImmutableNativeReference::close);
         columnHandlesMap.clear();
@@ -18,6 +18,7 @@
 package org.apache.inlong.agent.message;
 
 import org.apache.inlong.agent.conf.JobProfile;
+import org.apache.inlong.agent.metrics.AgentMetricItem;
 import org.apache.inlong.agent.utils.AgentUtils;
 import org.apache.inlong.common.msg.AttributeConstants;
 
@@ -58,7 +59,10 @@ public class PackProxyMessage {
     // streamId -> list of proxyMessage
     private final LinkedBlockingQueue<ProxyMessage> messageQueue;
     private final AtomicLong queueSize = new AtomicLong(0);
+    private final AgentMetricItem metricItem;
     private int currentSize;
+    // time when the oldest message in queue was added, used to compute the pack latency
+    private volatile long oldestMessageTime;
     /**
      * extra map used when sending to dataproxy
      */
@@ -69,7 +73,16 @@ public class PackProxyMessage {
      * Init PackBusMessage
      */
     public PackProxyMessage(String jobId, JobProfile jobConf, String groupId, String streamId) {
+        this(jobId, jobConf, groupId, streamId, null);
+    }
+
+    /**
+     * Init PackBusMessage with metric item, which records pack count, size and latency
+     */
+    public PackProxyMessage(String jobId, JobProfile jobConf, String groupId, String streamId,
+            AgentMetricItem metricItem) {
         this.jobId = jobId;
+        this.metricItem = metricItem;
         this.maxPackSize = jobConf.getInt(PROXY_PACKAGE_MAX_SIZE, DEFAULT_PROXY_PACKAGE_MAX_SIZE);
         this.maxQueueNumber = jobConf.getInt(PROXY_INLONG_STREAM_ID_QUEUE_MAX_NUMBER,
                 DEFAULT_PROXY_INLONG_STREAM_ID_QUEUE_MAX_NUMBER);
@@ -111,6 +124,9 @@ public class PackProxyMessage {
                         + "maybe proxy get stuck", maxQueueNumber);
                 return false;
             }
+            if (messageQueue.isEmpty()) {
+                oldestMessageTime = System.currentTimeMillis();
+            }
             messageQueue.put(message);
             queueSize.addAndGet(message.getBody().length);
             return true;
@@ -140,6 +156,7 @@ public class PackProxyMessage {
             // refresh cache time.
             currentCacheTime = currentTime;
             long resultBatchSize = 0;
+            long packLatency = currentTime - oldestMessageTime;
             List<byte[]> result = new ArrayList<>();
             while (!messageQueue.isEmpty()) {
                 // pre check message size
@@ -168,14 +185,26 @@ public class PackProxyMessage {
                     result.add(message.getBody());
                 }
             }
+            if (!messageQueue.isEmpty()) {
+                oldestMessageTime = currentTime;
+            }
             // make sure result is not empty.
             if (!result.isEmpty()) {
+                updatePackStatistics(resultBatchSize, packLatency);
                 return new BatchProxyMessage(jobId, groupId, streamId, result, AgentUtils.getCurrentTime(), extraMap);
             }
         }
         return null;
     }
 
+    private void updatePackStatistics(long packBytes, long packLatency) {
+        if (metricItem != null) {
+            metricItem.pluginPackCount.incrementAndGet();
+            metricItem.pluginPackBytes.addAndGet(packBytes);
+            metricItem.pluginPackLatency.addAndGet(packLatency);
+        }
+    }
+
     public Map<String, String> getExtraMap() {
         return extraMap;
     }
@@ -33,6 +33,7 @@ public class AgentMetricItem extends MetricItem {
     public static final String KEY_INLONG_GROUP_ID = "inlongGroupId";
     public static final String KEY_INLONG_STREAM_ID = "inlongStreamId";
     public static final String KEY_COMPONENT_NAME = "componentName"; // for TaskManager, JobManager
+    public static final String KEY_FILTER_RULE = "filterRule"; // for line filter rules of reader
 
     // job
     public static final String M_JOB_RUNNING_COUNT = "jobRunningCount";
@@ -54,6 +55,20 @@ public class AgentMetricItem extends MetricItem {
     public static final String M_PLUGIN_SEND_FAIL_COUNT = "pluginSendFailCount";
     public static final String M_PLUGIN_READ_SUCCESS_COUNT = "pluginReadSuccessCount";
     public static final String M_PLUGIN_SEND_SUCCESS_COUNT = "pluginSendSuccessCount";
+    public static final String M_PLUGIN_SPILL_COUNT = "pluginSpillCount";
+    public static final String M_PLUGIN_SPILL_BYTES = "pluginSpillBytes";
+    public static final String M_PLUGIN_REPLAY_COUNT = "pluginReplayCount";
+    public static final String M_PLUGIN_SPILL_DROP_COUNT = "pluginSpillDropCount";
+    public static final String M_PLUGIN_PACK_COUNT = "pluginPackCount";
+    public static final String M_PLUGIN_PACK_BYTES = "pluginPackBytes";
+    public static final String M_PLUGIN_PACK_COMPRESSED_BYTES = "pluginPackCompressedBytes";
+    public static final String M_PLUGIN_PACK_LATENCY = "pluginPackLatency";
+    public static final String M_PLUGIN_FILTER_DROP_COUNT = "pluginFilterDropCount";
+    public static final String M_PLUGIN_FILTER_HIT_COUNT = "pluginFilterHitCount";
+    // db
+    public static final String M_DB_WRITE_BATCH_COUNT = "dbWriteBatchCount";
+    public static final String M_DB_WRITE_KEY_COUNT = "dbWriteKeyCount";
+    public static final String M_DB_WRITE_LATENCY = "dbWriteLatency";
 
     @Dimension
     public String pluginId;
@@ -92,4 +107,37 @@ public class AgentMetricItem extends MetricItem {
     public AtomicLong pluginReadSuccessCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong pluginSendSuccessCount = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong pluginSpillCount = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pluginSpillBytes = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong pluginReplayCount = new AtomicLong(0);
+    // spilled messages dropped in the replay since proxy will never accept them
+    @CountMetric
+    public AtomicLong pluginSpillDropCount = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong pluginPackCount = new AtomicLong(0);
+    // raw bytes of packs, compression ratio is pluginPackBytes / pluginPackCompressedBytes
+    @CountMetric
+    public AtomicLong pluginPackBytes = new AtomicLong(0);
+    // bytes of packs as sent, after compression, for the proxy sink they are the pack bodies encoded by the sdk
+    @CountMetric
+    public AtomicLong pluginPackCompressedBytes = new AtomicLong(0);
+    // sum of pack latency in ms, average latency is pluginPackLatency / pluginPackCount
+    @CountMetric
+    public AtomicLong pluginPackLatency = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong pluginFilterDropCount = new AtomicLong(0);
+    // lines matched by a line filter rule, counted in the item of the rule
+    @CountMetric
+    public AtomicLong pluginFilterHitCount = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong dbWriteBatchCount = new AtomicLong(0);
+    // average batch size is dbWriteKeyCount / dbWriteBatchCount
+    @CountMetric
+    public AtomicLong dbWriteKeyCount = new AtomicLong(0);
+    // sum of batch write latency in ms, average latency is dbWriteLatency / dbWriteBatchCount
+    @CountMetric
+    public AtomicLong dbWriteLatency = new AtomicLong(0);
 }
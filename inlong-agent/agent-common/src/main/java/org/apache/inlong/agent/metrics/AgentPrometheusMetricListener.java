@@ -36,9 +36,11 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -46,14 +48,27 @@ import static org.apache.inlong.agent.constant.AgentConstants.DEFAULT_PROMETHEUS
 import static org.apache.inlong.agent.constant.AgentConstants.PROMETHEUS_EXPORTER_PORT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_COMPONENT_NAME;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_PLUGIN_ID;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_DB_WRITE_BATCH_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_DB_WRITE_KEY_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_DB_WRITE_LATENCY;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_FATAL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_JOB_RUNNING_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_FILTER_DROP_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_FILTER_HIT_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_BYTES;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_COMPRESSED_BYTES;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_PACK_LATENCY;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_READ_SUCCESS_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_REPLAY_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SEND_SUCCESS_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SPILL_BYTES;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SPILL_COUNT;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.M_PLUGIN_SPILL_DROP_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_SINK_FAIL_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_SINK_SUCCESS_COUNT;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.M_SOURCE_FAIL_COUNT;
@@ -71,6 +86,8 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
 
     public static final String DEFAULT_DIMENSION_LABEL = "dimension";
     public static final String HYPHEN_SYMBOL = "-";
+    // gauge is the sum of current values, not accumulated between snapshots
+    public static final Set<String> GAUGE_METRICS = Collections.singleton(M_PLUGIN_SPILL_BYTES);
     private static final Logger LOGGER = LoggerFactory.getLogger(AgentPrometheusMetricListener.class);
     protected HTTPServer httpServer;
     private AgentMetricItem metricItem;
@@ -110,6 +127,20 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
         metricValueMap.put(M_PLUGIN_SEND_FAIL_COUNT, metricItem.pluginSendFailCount);
         metricValueMap.put(M_PLUGIN_READ_SUCCESS_COUNT, metricItem.pluginReadSuccessCount);
         metricValueMap.put(M_PLUGIN_SEND_SUCCESS_COUNT, metricItem.pluginSendSuccessCount);
+        metricValueMap.put(M_PLUGIN_SPILL_COUNT, metricItem.pluginSpillCount);
+        metricValueMap.put(M_PLUGIN_SPILL_BYTES, metricItem.pluginSpillBytes);
+        metricValueMap.put(M_PLUGIN_REPLAY_COUNT, metricItem.pluginReplayCount);
+        metricValueMap.put(M_PLUGIN_SPILL_DROP_COUNT, metricItem.pluginSpillDropCount);
+        metricValueMap.put(M_PLUGIN_PACK_COUNT, metricItem.pluginPackCount);
+        metricValueMap.put(M_PLUGIN_PACK_BYTES, metricItem.pluginPackBytes);
+        metricValueMap.put(M_PLUGIN_PACK_COMPRESSED_BYTES, metricItem.pluginPackCompressedBytes);
+        metricValueMap.put(M_PLUGIN_PACK_LATENCY, metricItem.pluginPackLatency);
+        metricValueMap.put(M_PLUGIN_FILTER_DROP_COUNT, metricItem.pluginFilterDropCount);
+        metricValueMap.put(M_PLUGIN_FILTER_HIT_COUNT, metricItem.pluginFilterHitCount);
+
+        metricValueMap.put(M_DB_WRITE_BATCH_COUNT, metricItem.dbWriteBatchCount);
+        metricValueMap.put(M_DB_WRITE_KEY_COUNT, metricItem.dbWriteKeyCount);
+        metricValueMap.put(M_DB_WRITE_LATENCY, metricItem.dbWriteLatency);
 
         int metricsServerPort = AgentConfiguration.getAgentConf()
                 .getInt(PROMETHEUS_EXPORTER_PORT, DEFAULT_PROMETHEUS_EXPORTER_PORT);
@@ -143,6 +174,21 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
         totalCounter.addMetric(Arrays.asList(M_PLUGIN_SEND_FAIL_COUNT), metricItem.pluginSendFailCount.get());
         totalCounter.addMetric(Arrays.asList(M_PLUGIN_READ_SUCCESS_COUNT), metricItem.pluginReadSuccessCount.get());
         totalCounter.addMetric(Arrays.asList(M_PLUGIN_SEND_SUCCESS_COUNT), metricItem.pluginSendSuccessCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_SPILL_COUNT), metricItem.pluginSpillCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_SPILL_BYTES), metricItem.pluginSpillBytes.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_REPLAY_COUNT), metricItem.pluginReplayCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_SPILL_DROP_COUNT), metricItem.pluginSpillDropCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_PACK_COUNT), metricItem.pluginPackCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_PACK_BYTES), metricItem.pluginPackBytes.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_PACK_COMPRESSED_BYTES),
+                metricItem.pluginPackCompressedBytes.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_PACK_LATENCY), metricItem.pluginPackLatency.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_FILTER_DROP_COUNT), metricItem.pluginFilterDropCount.get());
+        totalCounter.addMetric(Arrays.asList(M_PLUGIN_FILTER_HIT_COUNT), metricItem.pluginFilterHitCount.get());
+
+        totalCounter.addMetric(Arrays.asList(M_DB_WRITE_BATCH_COUNT), metricItem.dbWriteBatchCount.get());
+        totalCounter.addMetric(Arrays.asList(M_DB_WRITE_KEY_COUNT), metricItem.dbWriteKeyCount.get());
+        totalCounter.addMetric(Arrays.asList(M_DB_WRITE_LATENCY), metricItem.dbWriteLatency.get());
         List<MetricFamilySamples> mfs = new ArrayList<>();
         mfs.add(totalCounter);
 
@@ -178,6 +224,19 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
             addCounterMetricFamily(M_PLUGIN_SEND_FAIL_COUNT, itemValue, idCounter);
             addCounterMetricFamily(M_PLUGIN_READ_SUCCESS_COUNT, itemValue, idCounter);
             addCounterMetricFamily(M_PLUGIN_SEND_SUCCESS_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_SPILL_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_SPILL_BYTES, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_REPLAY_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_PACK_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_PACK_BYTES, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_PACK_COMPRESSED_BYTES, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_PACK_LATENCY, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_FILTER_DROP_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_PLUGIN_FILTER_HIT_COUNT, itemValue, idCounter);
+
+            addCounterMetricFamily(M_DB_WRITE_BATCH_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_DB_WRITE_KEY_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_DB_WRITE_LATENCY, itemValue, idCounter);
             mfs.add(idCounter);
         }
         return mfs;
@@ -185,6 +244,7 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
 
     @Override
     public void snapshot(String domain, List<MetricItemValue> itemValues) {
+        GAUGE_METRICS.forEach(fieldName -> this.metricValueMap.get(fieldName).set(0));
         for (MetricItemValue itemValue : itemValues) {
             // total
             for (Entry<String, MetricValue> entry : itemValue.getMetrics().entrySet()) {
@@ -220,6 +280,10 @@ public class AgentPrometheusMetricListener extends Collector implements MetricLi
                     dimensionMetricValue.getMetrics().put(metricValue.name, metricValue);
                     continue;
                 }
+                if (GAUGE_METRICS.contains(fieldName)) {
+                    metricValue.value = entry.getValue().value;
+                    continue;
+                }
                 metricValue.value += entry.getValue().value;
             }
         }
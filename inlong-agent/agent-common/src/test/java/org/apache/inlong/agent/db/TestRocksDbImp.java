@@ -116,6 +116,25 @@ public class TestRocksDbImp {
         Assert.assertEquals("searchKey1", entityResult.getKey());
     }
 
+    @Test
+    public void testBufferedWrites() {
+        db.flush();
+        for (int i = 0; i < 100; i++) {
+            db.put(new KeyValueEntity("bufferedKey", "value" + i, "test"));
+        }
+        Assert.assertEquals("value99", db.get("bufferedKey").getJsonValue());
+        long keyCount = db.getDbMetrics().dbWriteKeyCount.get();
+        db.flush();
+        // the updates of the same key are committed once
+        Assert.assertTrue(db.getDbMetrics().dbWriteKeyCount.get() - keyCount <= 1);
+        Assert.assertEquals("value99", db.get("bufferedKey").getJsonValue());
+
+        db.remove("bufferedKey");
+        Assert.assertNull(db.get("bufferedKey"));
+        db.flush();
+        Assert.assertNull(db.get("bufferedKey"));
+    }
+
     @Test
     public void testBinlogJobStore() {
         JobProfile jobProfile = JobProfile.parseJsonFile("binlogJob.json");
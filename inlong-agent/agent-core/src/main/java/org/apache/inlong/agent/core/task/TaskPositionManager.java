@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.apache.inlong.agent.constant.CommonConstants.POSITION_SUFFIX;
+import static org.apache.inlong.agent.constant.CommonConstants.SNAPSHOT_CHECKPOINT_SUFFIX;
 import static org.apache.inlong.agent.constant.FetcherConstants.AGENT_HEARTBEAT_INTERVAL;
 import static org.apache.inlong.agent.constant.FetcherConstants.DEFAULT_AGENT_FETCHER_INTERVAL;
 
@@ -47,12 +48,15 @@ public class TaskPositionManager extends AbstractDaemon {
     private final JobProfileDb jobConfDb;
     private final AgentConfiguration conf;
     private ConcurrentHashMap<String, ConcurrentHashMap<String, Long>> jobTaskPositionMap;
+    // job id -> read file name -> chunk boundaries of snapshot read
+    private ConcurrentHashMap<String, ConcurrentHashMap<String, String>> jobSnapshotCheckpointMap;
 
     private TaskPositionManager(AgentManager agentManager) {
         this.conf = AgentConfiguration.getAgentConf();
         this.agentManager = agentManager;
         this.jobConfDb = agentManager.getJobManager().getJobConfDb();
         this.jobTaskPositionMap = new ConcurrentHashMap<>();
+        this.jobSnapshotCheckpointMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -114,6 +118,11 @@ public class TaskPositionManager extends AbstractDaemon {
     private void flushJobProfile(String jobId, JobProfile jobProfile) {
         jobTaskPositionMap.get(jobId).forEach(
                 (fileName, position) -> jobProfile.setLong(fileName + POSITION_SUFFIX, position));
+        ConcurrentHashMap<String, String> snapshotCheckpoints = jobSnapshotCheckpointMap.get(jobId);
+        if (snapshotCheckpoints != null) {
+            snapshotCheckpoints.forEach(
+                    (fileName, checkpoint) -> jobProfile.set(fileName + SNAPSHOT_CHECKPOINT_SUFFIX, checkpoint));
+        }
         if (jobConfDb.checkJobfinished(jobProfile)) {
             LOGGER.info("Cannot update job profile {}, delete memory job in jobTaskPosition", jobId);
             deleteJobPosition(jobId);
@@ -124,6 +133,7 @@ public class TaskPositionManager extends AbstractDaemon {
 
     private void deleteJobPosition(String jobId) {
         jobTaskPositionMap.remove(jobId);
+        jobSnapshotCheckpointMap.remove(jobId);
     }
 
     @Override
@@ -156,6 +166,14 @@ public class TaskPositionManager extends AbstractDaemon {
         }
     }
 
+    /**
+     * update chunk boundaries of the snapshot read, they are flushed together with the sink position
+     */
+    public void updateSnapshotCheckpoint(String jobInstanceId, String sourcePath, String checkpoint) {
+        jobSnapshotCheckpointMap.computeIfAbsent(jobInstanceId, k -> new ConcurrentHashMap<>())
+                .put(sourcePath, checkpoint);
+    }
+
     public ConcurrentHashMap<String, Long> getTaskPositionMap(String jobId) {
         return jobTaskPositionMap.get(jobId);
     }
@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.filter;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled filter and projection rules evaluated on the raw bytes of a line, rules are applied in order.
+ * <p/>
+ * Regex is matched against the bytes directly, every byte is seen as one char, so literal text of pattern
+ * matches its UTF-8 bytes while '.' matches one byte instead of one character.
+ * The chain is thread safe, so that it can be shared by the chunk workers of a file.
+ */
+public class LineFilterChain {
+
+    private static final Gson GSON = new Gson();
+    private static final String DEFAULT_DELIMITER = "|";
+
+    private final List<CompiledRule> rules;
+
+    private LineFilterChain(List<CompiledRule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * Parse rules from json array.
+     *
+     * @return null if there is no rule
+     * @throws IllegalArgumentException if a rule is illegal
+     */
+    public static LineFilterChain parse(String json) {
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        List<LineFilterRule> rules = GSON.fromJson(json, new TypeToken<List<LineFilterRule>>() {
+        }.getType());
+        if (rules == null || rules.isEmpty()) {
+            return null;
+        }
+        List<CompiledRule> compiledRules = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            compiledRules.add(compile(rules.get(i), i));
+        }
+        return new LineFilterChain(compiledRules);
+    }
+
+    /**
+     * Apply the rules to the line.
+     *
+     * @return bytes of the line after projection, the same array if not changed, null if the line is dropped
+     */
+    public byte[] apply(byte[] line) {
+        byte[] result = line;
+        for (CompiledRule rule : rules) {
+            result = rule.apply(result);
+            if (result == null) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of lines matched by each rule, in rule order.
+     */
+    public Map<String, Long> getRuleHits() {
+        Map<String, Long> hits = new LinkedHashMap<>();
+        rules.forEach(rule -> hits.put(rule.name, rule.hits.get()));
+        return Collections.unmodifiableMap(hits);
+    }
+
+    /**
+     * Report the number of lines matched by each rule since the last report, rules without new hits are skipped.
+     */
+    public void reportRuleHits(BiConsumer<String, Long> reporter) {
+        for (CompiledRule rule : rules) {
+            long hits = rule.unreportedHits.getAndSet(0);
+            if (hits > 0) {
+                reporter.accept(rule.name, hits);
+            }
+        }
+    }
+
+    private static CompiledRule compile(LineFilterRule rule, int index) {
+        String type = rule.getType();
+        String name = StringUtils.isBlank(rule.getName()) ? index + "-" + type : rule.getName();
+        byte[] delimiter = StringUtils.defaultIfEmpty(rule.getDelimiter(), DEFAULT_DELIMITER)
+                .getBytes(StandardCharsets.UTF_8);
+        if (LineFilterRule.TYPE_PROJECT.equals(type)) {
+            if (rule.getFields() == null || rule.getFields().isEmpty()) {
+                throw new IllegalArgumentException("fields of project rule " + name + " is empty");
+            }
+            int[] fields = rule.getFields().stream().mapToInt(Integer::intValue).toArray();
+            return new ProjectRule(name, delimiter, fields);
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("type of rule " + name + " is empty");
+        }
+        if (StringUtils.isEmpty(rule.getPattern())) {
+            throw new IllegalArgumentException("pattern of rule " + name + " is empty");
+        }
+        byte[] pattern = rule.getPattern().getBytes(StandardCharsets.UTF_8);
+        switch (type) {
+            case LineFilterRule.TYPE_INCLUDE:
+                return new ContainsRule(name, pattern, true);
+            case LineFilterRule.TYPE_EXCLUDE:
+                return new ContainsRule(name, pattern, false);
+            case LineFilterRule.TYPE_PREFIX:
+                return new PrefixRule(name, pattern);
+            case LineFilterRule.TYPE_MATCH:
+                return new RegexRule(name, toBytePattern(pattern), true);
+            case LineFilterRule.TYPE_NOT_MATCH:
+                return new RegexRule(name, toBytePattern(pattern), false);
+            case LineFilterRule.TYPE_EXTRACT:
+                return new ExtractRule(name, toBytePattern(pattern), delimiter);
+            default:
+                throw new IllegalArgumentException("unknown type " + type + " of rule " + name);
+        }
+    }
+
+    private static Pattern toBytePattern(byte[] pattern) {
+        return Pattern.compile(new String(pattern, StandardCharsets.ISO_8859_1));
+    }
+
+    private static int indexOf(byte[] data, int from, int to, byte[] target) {
+        outer: for (int i = from; i <= to - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (data[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private abstract static class CompiledRule {
+
+        final String name;
+        final AtomicLong hits = new AtomicLong(0);
+        final AtomicLong unreportedHits = new AtomicLong(0);
+
+        CompiledRule(String name) {
+            this.name = name;
+        }
+
+        void hit() {
+            hits.incrementAndGet();
+            unreportedHits.incrementAndGet();
+        }
+
+        abstract byte[] apply(byte[] line);
+    }
+
+    private static class ContainsRule extends CompiledRule {
+
+        private final byte[] pattern;
+        private final boolean keepMatched;
+
+        ContainsRule(String name, byte[] pattern, boolean keepMatched) {
+            super(name);
+            this.pattern = pattern;
+            this.keepMatched = keepMatched;
+        }
+
+        @Override
+        byte[] apply(byte[] line) {
+            boolean matched = indexOf(line, 0, line.length, pattern) >= 0;
+            if (matched) {
+                hit();
+            }
+            return matched == keepMatched ? line : null;
+        }
+    }
+
+    private static class PrefixRule extends CompiledRule {
+
+        private final byte[] prefix;
+
+        PrefixRule(String name, byte[] prefix) {
+            super(name);
+            this.prefix = prefix;
+        }
+
+        @Override
+        byte[] apply(byte[] line) {
+            if (indexOf(line, 0, Math.min(line.length, prefix.length), prefix) != 0) {
+                return null;
+            }
+            hit();
+            return line;
+        }
+    }
+
+    private static class RegexRule extends CompiledRule {
+
+        private final Pattern pattern;
+        private final boolean keepMatched;
+
+        RegexRule(String name, Pattern pattern, boolean keepMatched) {
+            super(name);
+            this.pattern = pattern;
+            this.keepMatched = keepMatched;
+        }
+
+        @Override
+        byte[] apply(byte[] line) {
+            boolean matched = pattern.matcher(new ByteCharSequence(line, 0, line.length)).find();
+            if (matched) {
+                hit();
+            }
+            return matched == keepMatched ? line : null;
+        }
+    }
+
+    private static class ExtractRule extends CompiledRule {
+
+        private final Pattern pattern;
+        private final byte[] delimiter;
+
+        ExtractRule(String name, Pattern pattern, byte[] delimiter) {
+            super(name);
+            this.pattern = pattern;
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        byte[] apply(byte[] line) {
+            Matcher matcher = pattern.matcher(new ByteCharSequence(line, 0, line.length));
+            if (!matcher.find()) {
+                return null;
+            }
+            hit();
+            if (matcher.groupCount() == 0) {
+                return copyOf(line, matcher.start(), matcher.end());
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(line.length);
+            for (int group = 1; group <= matcher.groupCount(); group++) {
+                if (group > 1) {
+                    out.write(delimiter, 0, delimiter.length);
+                }
+                if (matcher.start(group) >= 0) {
+                    out.write(line, matcher.start(group), matcher.end(group) - matcher.start(group));
+                }
+            }
+            return out.toByteArray();
+        }
+
+        private static byte[] copyOf(byte[] line, int start, int end) {
+            byte[] result = new byte[end - start];
+            System.arraycopy(line, start, result, 0, result.length);
+            return result;
+        }
+    }
+
+    private static class ProjectRule extends CompiledRule {
+
+        private final byte[] delimiter;
+        private final int[] fields;
+        private final int fieldCount;
+
+        ProjectRule(String name, byte[] delimiter, int[] fields) {
+            super(name);
+            this.delimiter = delimiter;
+            this.fields = fields;
+            int maxField = 0;
+            for (int field : fields) {
+                if (field < 0) {
+                    throw new IllegalArgumentException("field index " + field + " of rule " + name + " is negative");
+                }
+                maxField = Math.max(maxField, field);
+            }
+            this.fieldCount = maxField + 1;
+        }
+
+        @Override
+        byte[] apply(byte[] line) {
+            // only the boundaries of the fields are recorded, no field is copied until output
+            int[] starts = new int[fieldCount];
+            int[] ends = new int[fieldCount];
+            int found = 0;
+            int start = 0;
+            while (found < fieldCount) {
+                int end = indexOf(line, start, line.length, delimiter);
+                starts[found] = start;
+                ends[found] = end < 0 ? line.length : end;
+                found++;
+                if (end < 0) {
+                    break;
+                }
+                start = end + delimiter.length;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(line.length);
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    out.write(delimiter, 0, delimiter.length);
+                }
+                int field = fields[i];
+                if (field < found) {
+                    out.write(line, starts[field], ends[field] - starts[field]);
+                }
+            }
+            hit();
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * View bytes as chars without decoding, every byte is one char.
+     */
+    private static class ByteCharSequence implements CharSequence {
+
+        private final byte[] data;
+        private final int offset;
+        private final int length;
+
+        ByteCharSequence(byte[] data, int offset, int length) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (data[offset + index] & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new ByteCharSequence(data, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
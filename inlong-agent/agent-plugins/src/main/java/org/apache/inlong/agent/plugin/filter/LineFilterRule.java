@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.filter;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Filter or projection rule of a line, deserialized from the json array in job profile, such as
+ * <pre>
+ * [{"type": "exclude", "pattern": "DEBUG"},
+ *  {"type": "project", "delimiter": "|", "fields": [0, 2, 5]}]
+ * </pre>
+ */
+@Data
+public class LineFilterRule {
+
+    /**
+     * keep lines containing the pattern
+     */
+    public static final String TYPE_INCLUDE = "include";
+    /**
+     * drop lines containing the pattern
+     */
+    public static final String TYPE_EXCLUDE = "exclude";
+    /**
+     * keep lines starting with the pattern
+     */
+    public static final String TYPE_PREFIX = "prefix";
+    /**
+     * keep lines in which the regex is found
+     */
+    public static final String TYPE_MATCH = "match";
+    /**
+     * drop lines in which the regex is found
+     */
+    public static final String TYPE_NOT_MATCH = "notMatch";
+    /**
+     * replace the line with the capture groups of the regex joined by delimiter, drop the line if not found
+     */
+    public static final String TYPE_EXTRACT = "extract";
+    /**
+     * split the line by delimiter and keep the fields in order, missing fields are left empty
+     */
+    public static final String TYPE_PROJECT = "project";
+
+    private String name;
+    private String type;
+    private String pattern;
+    private String delimiter;
+    private List<Integer> fields;
+}
@@ -122,7 +122,8 @@ public class KafkaSink extends AbstractSink {
                     (s, packProxyMessage) -> {
                         if (packProxyMessage == null) {
                             packProxyMessage =
-                                    new PackProxyMessage(jobInstanceId, jobConf, inlongGroupId, inlongStreamId);
+                                    new PackProxyMessage(jobInstanceId, jobConf, inlongGroupId, inlongStreamId,
+                                            sinkMetric);
                             packProxyMessage.generateExtraMap(proxyMessage.getDataKey());
                             packProxyMessage.addTopicAndDataTime(topic, System.currentTimeMillis());
                         }
@@ -231,7 +232,9 @@ public class KafkaSink extends AbstractSink {
             return;
         }
 
-        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, batchMsg.getInLongMsg().buildArray());
+        byte[] packBody = batchMsg.getInLongMsg().buildArray();
+        sinkMetric.pluginPackCompressedBytes.addAndGet(packBody.length);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, packBody);
         sinkMetric.pluginSendCount.addAndGet(batchMsg.getMsgCnt());
         if (asyncSend) {
             producer.send(record, new AsyncSinkCallback(System.currentTimeMillis(), batchMsg));
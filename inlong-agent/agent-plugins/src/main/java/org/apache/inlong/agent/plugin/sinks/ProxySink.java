@@ -91,7 +91,7 @@ public class ProxySink extends AbstractSink {
                     (s, packProxyMessage) -> {
                         if (packProxyMessage == null) {
                             packProxyMessage = new PackProxyMessage(jobInstanceId, jobConf, inlongGroupId,
-                                    proxyMessage.getInlongStreamId());
+                                    proxyMessage.getInlongStreamId(), sinkMetric);
                             packProxyMessage.generateExtraMap(proxyMessage.getDataKey());
                         }
                         // add message to package proxy
@@ -167,7 +167,7 @@ public class ProxySink extends AbstractSink {
         fieldSplitter = jobConf.get(CommonConstants.FIELD_SPLITTER, DEFAULT_FIELD_SPLITTER).getBytes(
                 StandardCharsets.UTF_8);
         executorService.execute(flushCache());
-        senderManager = new SenderManager(jobConf, inlongGroupId, sourceName);
+        senderManager = new SenderManager(jobConf, inlongGroupId, sourceName, sinkMetric);
         try {
             senderManager.addMessageSender();
             senderManager.Start();
@@ -29,7 +29,6 @@ import org.apache.inlong.agent.metrics.audit.AuditUtils;
 import org.apache.inlong.agent.plugin.Message;
 import org.apache.inlong.agent.utils.AgentUtils;
 import org.apache.inlong.agent.utils.ThreadUtils;
-import org.apache.inlong.common.msg.InLongMsg;
 import org.apache.inlong.common.pojo.dataproxy.MQClusterInfo;
 
 import com.google.common.base.Preconditions;
@@ -166,7 +165,8 @@ public class PulsarSink extends AbstractSink {
                             (s, packProxyMessage) -> {
                                 if (packProxyMessage == null) {
                                     packProxyMessage =
-                                            new PackProxyMessage(jobInstanceId, jobConf, inlongGroupId, inlongStreamId);
+                                            new PackProxyMessage(jobInstanceId, jobConf, inlongGroupId, inlongStreamId,
+                                                    sinkMetric);
                                     packProxyMessage.generateExtraMap(proxyMessage.getDataKey());
                                     packProxyMessage.addTopicAndDataTime(topic, System.currentTimeMillis());
                                 }
@@ -277,11 +277,12 @@ public class PulsarSink extends AbstractSink {
             LOGGER.error("send job[{}] data err, empty pulsar producer", jobInstanceId);
             return;
         }
-        InLongMsg message = batchMsg.getInLongMsg();
+        byte[] packBody = batchMsg.getInLongMsg().buildArray();
+        sinkMetric.pluginPackCompressedBytes.addAndGet(packBody.length);
         sinkMetric.pluginSendCount.addAndGet(batchMsg.getMsgCnt());
         if (asyncSend) {
             CompletableFuture<MessageId> future = producer.newMessage().eventTime(batchMsg.getDataTime())
-                    .value(message.buildArray()).sendAsync();
+                    .value(packBody).sendAsync();
             future.whenCompleteAsync((m, t) -> {
                 if (t != null) {
                     // send error
@@ -302,7 +303,7 @@ public class PulsarSink extends AbstractSink {
 
         } else {
             try {
-                producer.newMessage().eventTime(batchMsg.getDataTime()).value(message.buildArray()).send();
+                producer.newMessage().eventTime(batchMsg.getDataTime()).value(packBody).send();
                 sendQueueSemaphore.release();
                 updateSuccessSendMetrics(batchMsg);
             } catch (PulsarClientException e) {
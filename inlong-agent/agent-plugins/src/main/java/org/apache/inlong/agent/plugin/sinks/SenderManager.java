@@ -20,6 +20,7 @@ package org.apache.inlong.agent.plugin.sinks;
 import org.apache.inlong.agent.common.AgentThreadFactory;
 import org.apache.inlong.agent.conf.AgentConfiguration;
 import org.apache.inlong.agent.conf.JobProfile;
+import org.apache.inlong.agent.constant.AgentConstants;
 import org.apache.inlong.agent.constant.CommonConstants;
 import org.apache.inlong.agent.core.task.TaskPositionManager;
 import org.apache.inlong.agent.message.BatchProxyMessage;
@@ -35,11 +36,13 @@ import org.apache.inlong.sdk.dataproxy.DefaultMessageSender;
 import org.apache.inlong.sdk.dataproxy.ProxyClientConfig;
 import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
 import org.apache.inlong.sdk.dataproxy.SendResult;
+import org.apache.inlong.sdk.dataproxy.network.DiskBuffer;
 
 import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -55,13 +58,22 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_BATCH_FLUSH_INTERVAL;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_SPILL_ENABLE;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_SPILL_MAX_BYTES;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_SPILL_PATH;
+import static org.apache.inlong.agent.constant.CommonConstants.DEFAULT_PROXY_SPILL_SEGMENT_BYTES;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_BATCH_FLUSH_INTERVAL;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_SPILL_ENABLE;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_SPILL_MAX_BYTES;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_SPILL_PATH;
+import static org.apache.inlong.agent.constant.CommonConstants.PROXY_SPILL_SEGMENT_BYTES;
 import static org.apache.inlong.agent.constant.FetcherConstants.AGENT_MANAGER_AUTH_SECRET_ID;
 import static org.apache.inlong.agent.constant.FetcherConstants.AGENT_MANAGER_AUTH_SECRET_KEY;
 import static org.apache.inlong.agent.constant.FetcherConstants.AGENT_MANAGER_VIP_HTTP_HOST;
 import static org.apache.inlong.agent.constant.FetcherConstants.AGENT_MANAGER_VIP_HTTP_PORT;
 import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_JOB_PROXY_SEND;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_PROXY_SEND;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_COMPONENT_NAME;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_INLONG_GROUP_ID;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_INLONG_STREAM_ID;
 import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_PLUGIN_ID;
@@ -115,6 +127,19 @@ public class SenderManager {
     private String authSecretId;
     private String authSecretKey;
     protected int batchFlushInterval;
+    // the disk buffer of sdk spills the batches which proxy can not accept, it is disabled if spillDir is null
+    private File spillDir;
+    private long spillMaxBytes;
+    private int spillSegmentBytes;
+    // the disk buffers belong to the senders of the group, so their size is reported on a metric item of its own
+    private Map<String, String> spillDimensions;
+    // metric item of the sink, which records the pack bytes before and after compression
+    private AgentMetricItem packMetric;
+
+    public SenderManager(JobProfile jobConf, String inlongGroupId, String sourcePath, AgentMetricItem packMetric) {
+        this(jobConf, inlongGroupId, sourcePath);
+        this.packMetric = packMetric;
+    }
 
     public SenderManager(JobProfile jobConf, String inlongGroupId, String sourcePath) {
         AgentConfiguration conf = AgentConfiguration.getAgentConf();
@@ -165,6 +190,17 @@ public class SenderManager {
         this.metricItemSet = new AgentMetricItemSet(metricName);
         MetricRegister.register(metricItemSet);
         resendQueue = new LinkedBlockingQueue<>();
+        if (jobConf.getBoolean(PROXY_SPILL_ENABLE, DEFAULT_PROXY_SPILL_ENABLE)) {
+            String parentPath = conf.get(AgentConstants.AGENT_HOME, AgentConstants.DEFAULT_AGENT_HOME);
+            spillDir = new File(new File(parentPath, conf.get(PROXY_SPILL_PATH, DEFAULT_PROXY_SPILL_PATH)),
+                    inlongGroupId);
+            spillMaxBytes = jobConf.getLong(PROXY_SPILL_MAX_BYTES, DEFAULT_PROXY_SPILL_MAX_BYTES);
+            spillSegmentBytes = (int) Math.min(Integer.MAX_VALUE,
+                    jobConf.getLong(PROXY_SPILL_SEGMENT_BYTES, DEFAULT_PROXY_SPILL_SEGMENT_BYTES));
+            spillDimensions = new HashMap<>();
+            spillDimensions.put(KEY_INLONG_GROUP_ID, inlongGroupId);
+            spillDimensions.put(KEY_COMPONENT_NAME, DiskBuffer.class.getSimpleName());
+        }
     }
 
     public void Start() {
@@ -216,7 +252,7 @@ public class SenderManager {
      * @param tagName group id
      * @return DefaultMessageSender
      */
-    private DefaultMessageSender createMessageSender(String tagName) throws Exception {
+    private DefaultMessageSender createMessageSender(String tagName, int senderIndex) throws Exception {
 
         ProxyClientConfig proxyClientConfig = new ProxyClientConfig(
                 localhost, isLocalVisit, managerHost, managerPort, tagName, netTag, authSecretId, authSecretKey);
@@ -227,6 +263,13 @@ public class SenderManager {
         proxyClientConfig.setIoThreadNum(ioThreadNum);
         proxyClientConfig.setEnableBusyWait(enableBusyWait);
         proxyClientConfig.setProtocolType(ProtocolType.TCP);
+        if (spillDir != null) {
+            // the sender of the same index replays the packs spilled by its predecessor after restart
+            proxyClientConfig.setDiskBufferPath(new File(spillDir, "sender-" + senderIndex).getAbsolutePath());
+            proxyClientConfig.setDiskBufferMaxBytes(spillMaxBytes);
+            proxyClientConfig.setDiskBufferSegmentBytes(spillSegmentBytes);
+            proxyClientConfig.setDiskBufferListener(new SpillListener());
+        }
 
         DefaultMessageSender sender = new DefaultMessageSender(proxyClientConfig, SHARED_FACTORY);
         sender.setMsgtype(msgType);
@@ -246,7 +289,7 @@ public class SenderManager {
         if (senderList.size() > maxSenderPerGroup) {
             return;
         }
-        DefaultMessageSender sender = createMessageSender(inlongGroupId);
+        DefaultMessageSender sender = createMessageSender(inlongGroupId, senderList.size());
         senderList.add(sender);
     }
 
@@ -296,6 +339,7 @@ public class SenderManager {
                     if (callback != null) {
                         sendBatchWithRetryCount(callback.batchMessage, callback.retry + 1);
                     }
+                    updateSpillMetric();
                 } catch (Exception ex) {
                     LOGGER.error("error caught", ex);
                 } catch (Throwable t) {
@@ -307,6 +351,23 @@ public class SenderManager {
         };
     }
 
+    /**
+     * Report bytes of the packs waiting for replay in the disk buffers of the group senders.
+     */
+    private void updateSpillMetric() {
+        List<DefaultMessageSender> senderList = SENDER_MAP.get(inlongGroupId);
+        if (spillDir == null || senderList == null) {
+            return;
+        }
+        long backlogBytes = 0;
+        for (DefaultMessageSender sender : senderList) {
+            if (sender.getDiskBuffer() != null) {
+                backlogBytes += sender.getDiskBuffer().getBacklogBytes();
+            }
+        }
+        getMetricItem(spillDimensions).pluginSpillBytes.set(backlogBytes);
+    }
+
     /**
      * put the data into resend queue and will be resent later.
      *
@@ -328,6 +389,8 @@ public class SenderManager {
         private final int retry;
         private final BatchProxyMessage batchMessage;
         private final int msgCnt;
+        // length of the pack body on the wire, reported by the encoder of the sdk
+        private volatile int encodedLength = -1;
 
         AgentSenderCallback(BatchProxyMessage batchMessage, int retry) {
             this.batchMessage = batchMessage;
@@ -346,6 +409,9 @@ public class SenderManager {
                 AuditUtils.add(AuditUtils.AUDIT_ID_AGENT_SEND_SUCCESS, groupId, streamId, dataTime, msgCnt,
                         batchMessage.getTotalSize());
                 getMetricItem(groupId, streamId).pluginSendSuccessCount.addAndGet(msgCnt);
+                if (packMetric != null && encodedLength >= 0) {
+                    packMetric.pluginPackCompressedBytes.addAndGet(encodedLength);
+                }
                 if (sourcePath != null) {
                     taskPositionManager.updateSinkPosition(batchMessage.getJobId(), sourcePath, msgCnt, false);
                 }
@@ -357,6 +423,11 @@ public class SenderManager {
             }
         }
 
+        @Override
+        public void onMessageEncoded(int rawLength, int encodedLength) {
+            this.encodedLength = encodedLength;
+        }
+
         @Override
         public void onException(Throwable e) {
             getMetricItem(batchMessage.getGroupId(), batchMessage.getStreamId()).pluginSendFailCount.addAndGet(msgCnt);
@@ -364,4 +435,26 @@ public class SenderManager {
         }
     }
 
+    /**
+     * listener of the disk buffer of sender, the spilled batches have been acked with OK to the sender callback
+     */
+    private class SpillListener implements DiskBuffer.Listener {
+
+        @Override
+        public void onSpilled(String groupId, String streamId, int messageCount) {
+            getMetricItem(groupId, streamId).pluginSpillCount.addAndGet(messageCount);
+        }
+
+        @Override
+        public void onReplayed(String groupId, String streamId, int messageCount) {
+            getMetricItem(groupId, streamId).pluginReplayCount.addAndGet(messageCount);
+        }
+
+        @Override
+        public void onDropped(String groupId, String streamId, int messageCount, SendResult result) {
+            LOGGER.error("drop {} spilled messages of groupId {}, streamId {}, proxy will never accept them, error {}",
+                    messageCount, groupId, streamId, result);
+            getMetricItem(groupId, streamId).pluginSpillDropCount.addAndGet(messageCount);
+        }
+    }
 }
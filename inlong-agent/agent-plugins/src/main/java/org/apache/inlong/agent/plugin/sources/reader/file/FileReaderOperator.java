@@ -28,6 +28,7 @@ import org.apache.inlong.agent.message.DefaultMessage;
 import org.apache.inlong.agent.metrics.audit.AuditUtils;
 import org.apache.inlong.agent.plugin.Message;
 import org.apache.inlong.agent.plugin.Validator;
+import org.apache.inlong.agent.plugin.filter.LineFilterChain;
 import org.apache.inlong.agent.plugin.sources.reader.AbstractReader;
 import org.apache.inlong.agent.plugin.utils.FileDataUtils;
 import org.apache.inlong.agent.plugin.validator.PatternValidator;
@@ -54,6 +55,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -67,12 +69,20 @@ import java.util.stream.Collectors;
 import static org.apache.inlong.agent.constant.CommonConstants.COMMA;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_KEY_DATA;
 import static org.apache.inlong.agent.constant.CommonConstants.PROXY_SEND_PARTITION_KEY;
+import static org.apache.inlong.agent.constant.CommonConstants.SNAPSHOT_CHECKPOINT_SUFFIX;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_JOB_FILE_SNAPSHOT_CHUNK_SIZE;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_JOB_FILE_SNAPSHOT_MIN_SIZE;
+import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_JOB_FILE_SNAPSHOT_PARALLELISM;
 import static org.apache.inlong.agent.constant.JobConstants.DEFAULT_JOB_READ_WAIT_TIMEOUT;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_LINE_END_PATTERN;
+import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_LINE_FILTER_RULES;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_MAX_WAIT;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_META_ENV_LIST;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_MONITOR_DEFAULT_STATUS;
 import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_MONITOR_STATUS;
+import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_SNAPSHOT_CHUNK_SIZE;
+import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_SNAPSHOT_MIN_SIZE;
+import static org.apache.inlong.agent.constant.JobConstants.JOB_FILE_SNAPSHOT_PARALLELISM;
 import static org.apache.inlong.agent.constant.KubernetesConstants.KUBERNETES;
 import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT;
 import static org.apache.inlong.agent.constant.MetadataConstants.DATA_CONTENT_TIME;
@@ -80,6 +90,7 @@ import static org.apache.inlong.agent.constant.MetadataConstants.ENV_CVM;
 import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_FILE_NAME;
 import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_HOST_NAME;
 import static org.apache.inlong.agent.constant.MetadataConstants.METADATA_SOURCE_IP;
+import static org.apache.inlong.agent.metrics.AgentMetricItem.KEY_FILTER_RULE;
 
 /**
  * File reader entrance
@@ -94,10 +105,12 @@ public class FileReaderOperator extends AbstractReader {
     private static final int LINE_SEPARATOR_SIZE = System.lineSeparator().getBytes(StandardCharsets.UTF_8).length;
     private static final SimpleDateFormat RECORD_TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
     private static final Gson GSON = new Gson();
+    // max number of chunk boundaries kept in the snapshot checkpoint
+    private static final int MAX_SNAPSHOT_CHECKPOINTS = 16;
 
     public File file;
     public int position = 0;
-    public int bytePosition = 0;
+    public long bytePosition = 0;
     private long readEndpoint = Long.MAX_VALUE;
     public String md5;
     public Map<String, String> metadata;
@@ -111,6 +124,16 @@ public class FileReaderOperator extends AbstractReader {
     private long lastTime = 0;
     private List<Validator> validators = new ArrayList<>();
     public boolean firstStored = false;
+    // reader for the existing content of large file, null when tailing
+    private volatile FileSnapshotReader snapshotReader;
+    // chunk boundaries which have been read, each is line position and byte position
+    private final LinkedList<long[]> snapshotCheckpoints = new LinkedList<>();
+    // filter and projection rules of lines, null if there is no rule
+    private LineFilterChain lineFilter;
+    // bytes of the lines returned by the last read from position or line, including dropped lines
+    private long lastReadBytes = 0;
+    // dropped lines not counted in the sink position yet, each is line position before them and number of lines
+    private final LinkedList<long[]> pendingDrops = new LinkedList<>();
 
     private final BlockingQueue<String> queue = new LinkedBlockingQueue<>(CACHE_QUEUE_SIZE);
     private final StringBuffer sb = new StringBuffer();
@@ -226,6 +249,7 @@ public class FileReaderOperator extends AbstractReader {
             super.init(jobConf);
             this.instanceId = jobConf.getInstanceId();
             initReadTimeout(jobConf);
+            lineFilter = LineFilterChain.parse(jobConf.get(JOB_FILE_LINE_FILTER_RULES, ""));
             String md5 = AgentUtils.getFileMd5(file);
             if (StringUtils.isNotBlank(this.md5) && !this.md5.equals(md5)) {
                 LOGGER.warn("md5 is differ from origin, origin: {}, new {}", this.md5, md5);
@@ -247,9 +271,11 @@ public class FileReaderOperator extends AbstractReader {
                     && this.firstStored) {
                 LOGGER.info("FileReaderOperator DataCollectType INCREMENT: start bytePosition {},{}",
                         file.length(), file.getAbsolutePath());
-                this.bytePosition = (int) file.length();
+                this.bytePosition = file.length();
 
                 storeRocksDB();
+            } else {
+                initSnapshotReader(jobConf);
             }
 
             try {
@@ -274,12 +300,51 @@ public class FileReaderOperator extends AbstractReader {
         }
     }
 
+    /**
+     * Read the existing content by chunks in parallel if the unread part of file is large enough.
+     */
+    private void initSnapshotReader(JobProfile jobConf) throws IOException {
+        long minSize = jobConf.getLong(JOB_FILE_SNAPSHOT_MIN_SIZE, DEFAULT_JOB_FILE_SNAPSHOT_MIN_SIZE);
+        if (minSize < 0 || file.length() - bytePosition < minSize) {
+            return;
+        }
+        snapshotReader = FileSnapshotReader.create(file, bytePosition,
+                jobConf.getLong(JOB_FILE_SNAPSHOT_CHUNK_SIZE, DEFAULT_JOB_FILE_SNAPSHOT_CHUNK_SIZE),
+                jobConf.getInt(JOB_FILE_SNAPSHOT_PARALLELISM, DEFAULT_JOB_FILE_SNAPSHOT_PARALLELISM), lineFilter);
+    }
+
+    /**
+     * Whether the existing content of file is being read by chunks.
+     */
+    public boolean isSnapshotReading() {
+        return snapshotReader != null;
+    }
+
+    /**
+     * Stop reading by chunks, e.g. the file has been rotated.
+     */
+    public void stopSnapshotReading() {
+        FileSnapshotReader reader = snapshotReader;
+        if (reader != null) {
+            reader.close();
+            snapshotReader = null;
+        }
+        snapshotCheckpoints.clear();
+        pendingDrops.clear();
+    }
+
     @Override
     public void destroy() {
         finished = true;
         queue.clear();
+        stopSnapshotReading();
         LOGGER.info("destroy reader with read {} num {}",
                 metricName, readerMetric == null ? 0 : readerMetric.pluginReadCount.get());
+        if (lineFilter != null) {
+            reportFilterHits();
+            LOGGER.info("destroy reader of {} with filter rule hits {}", file.getAbsolutePath(),
+                    lineFilter.getRuleHits());
+        }
     }
 
     public boolean filterMessage(String message) {
@@ -326,16 +391,24 @@ public class FileReaderOperator extends AbstractReader {
         // every line (include empty line) should be sent, otherwise the read position will be offset when
         // restarting and recovering. In the same time, Regex end line spiltted line also has this problem, because
         // recovering is based on line position.
-        List<String> lines = bytePosition == 0 ? readFromLine(position) : readFromPos(bytePosition);
+        creditDroppedLines();
+        FileSnapshotReader reader = snapshotReader;
+        List<String> lines;
+        if (reader != null) {
+            lines = reader.read(BATCH_READ_SIZE);
+        } else {
+            lines = bytePosition == 0 ? readFromLine(position) : readFromPos(bytePosition);
+        }
         if (!lines.isEmpty()) {
             LOGGER.info("path is {}, line is {}, byte position is {}, reads data lines {}",
                     file.getName(), position, bytePosition, lines.size());
         }
-        List<String> resultLines = lines;
+        // lines dropped by the filter rules are null, they still move the position
+        List<String> resultLines = dropFilteredLines(lines);
         // TODO line regular expression matching
         if (jobConf.hasKey(JOB_FILE_LINE_END_PATTERN)) {
             Pattern pattern = Pattern.compile(jobConf.get(JOB_FILE_LINE_END_PATTERN));
-            resultLines = lines.stream().flatMap(line -> {
+            resultLines = resultLines.stream().flatMap(line -> {
                 sb.append(line + System.lineSeparator());
                 String data = sb.toString();
                 Matcher matcher = pattern.matcher(data);
@@ -364,10 +437,21 @@ public class FileReaderOperator extends AbstractReader {
                 LOGGER.error("fetchData offer failed {}", e.getMessage());
             }
         });
-        bytePosition += lines.stream()
-                .mapToInt(line -> line.getBytes(StandardCharsets.UTF_8).length + LINE_SEPARATOR_SIZE)
-                .sum();
         position += lines.size();
+        if (reader != null) {
+            if (reader.atChunkBoundary()) {
+                bytePosition = reader.getReadOffset();
+                storeSnapshotCheckpoint();
+            }
+            if (reader.isFinished()) {
+                LOGGER.info("snapshot read of {} finished at line {}, byte position {}",
+                        file.getAbsolutePath(), position, bytePosition);
+                reader.close();
+                snapshotReader = null;
+            }
+        } else {
+            bytePosition += lastReadBytes;
+        }
         if (position >= readEndpoint) {
             finished = true;
         }
@@ -376,6 +460,7 @@ public class FileReaderOperator extends AbstractReader {
     private List<String> readFromLine(int lineNum) throws IOException {
         String line = null;
         List<String> lines = new ArrayList<>();
+        lastReadBytes = 0;
         BufferedReader reader = null;
         try {
             reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
@@ -384,7 +469,9 @@ public class FileReaderOperator extends AbstractReader {
             while ((line = reader.readLine()) != null) {
                 if (++count > lineNum) {
                     LOGGER.debug("read from line line-num {},  data {}", lineNum, line);
-                    lines.add(line);
+                    byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+                    lastReadBytes += bytes.length + LINE_SEPARATOR_SIZE;
+                    lines.add(lineFilter == null ? line : applyFilter(bytes));
                 }
                 if (lines.size() >= FileReaderOperator.BATCH_READ_SIZE) {
                     break;
@@ -400,15 +487,20 @@ public class FileReaderOperator extends AbstractReader {
         return lines;
     }
 
-    private List<String> readFromPos(int pos) throws IOException {
+    private List<String> readFromPos(long pos) throws IOException {
         String line = null;
         List<String> lines = new ArrayList<>();
+        lastReadBytes = 0;
         RandomAccessFile input = null;
         try {
             input = new RandomAccessFile(file, "r");
-            input.skipBytes(pos);
+            input.seek(pos);
             while ((line = input.readLine()) != null) {
-                String lineChart = new String(line.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+                // RandomAccessFile decodes every byte as one char, so the raw bytes of line are recovered here,
+                // filter rules are applied on them before decoding as UTF-8
+                byte[] bytes = line.getBytes(StandardCharsets.ISO_8859_1);
+                lastReadBytes += bytes.length + LINE_SEPARATOR_SIZE;
+                String lineChart = lineFilter == null ? new String(bytes, StandardCharsets.UTF_8) : applyFilter(bytes);
                 LOGGER.debug("read from pos pos-num {}, data {}", pos, lineChart);
                 lines.add(lineChart);
                 if (lines.size() >= FileReaderOperator.BATCH_READ_SIZE) {
@@ -425,16 +517,100 @@ public class FileReaderOperator extends AbstractReader {
         return lines;
     }
 
-    private int getStartBytePosition(int lineNum) throws IOException {
-        int startBytePosition = 0;
+    /**
+     * Apply the filter rules on the raw bytes of line.
+     *
+     * @return null if the line is dropped
+     */
+    private String applyFilter(byte[] bytes) {
+        byte[] result = lineFilter.apply(bytes);
+        return result == null ? null : new String(result, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Remove the lines dropped by filter rules, they are counted in the sink position later by
+     * {@link #creditDroppedLines()}, otherwise the position would fall behind and the dropped lines would be read
+     * again after restart.
+     */
+    private List<String> dropFilteredLines(List<String> lines) {
+        if (lineFilter == null) {
+            return lines;
+        }
+        List<String> keptLines = new ArrayList<>(lines.size());
+        int dropped = 0;
+        for (String line : lines) {
+            if (line != null) {
+                keptLines.add(line);
+                continue;
+            }
+            // lines before the dropped one must be acked first, so remember where it is
+            long before = position + keptLines.size();
+            long[] last = pendingDrops.peekLast();
+            if (last != null && last[0] + last[1] == before) {
+                last[1]++;
+            } else {
+                pendingDrops.add(new long[]{before, 1});
+            }
+            dropped++;
+        }
+        if (dropped > 0 && readerMetric != null) {
+            readerMetric.pluginFilterDropCount.addAndGet(dropped);
+        }
+        reportFilterHits();
+        return keptLines;
+    }
+
+    /**
+     * Add the hits of the filter rules to the metric items of the reader, one item per rule.
+     */
+    private void reportFilterHits() {
+        if (metricItemSet == null) {
+            return;
+        }
+        lineFilter.reportRuleHits((rule, hits) -> {
+            Map<String, String> ruleDimensions = new HashMap<>(dimensions);
+            ruleDimensions.put(KEY_FILTER_RULE, rule);
+            metricItemSet.findMetricItem(ruleDimensions).pluginFilterHitCount.addAndGet(hits);
+        });
+    }
+
+    /**
+     * Count the dropped lines in the sink position once all the lines before them have been acked, the sink
+     * position only moves by acks, so it reaches a dropped line after the lines before it are sent.
+     */
+    private void creditDroppedLines() {
+        if (pendingDrops.isEmpty()) {
+            return;
+        }
+        String jobInstanceId = getJobInstanceId();
+        if (jobInstanceId == null) {
+            pendingDrops.clear();
+            return;
+        }
+        TaskPositionManager manager = TaskPositionManager.getInstance();
+        Map<String, Long> positions = manager.getTaskPositionMap(jobInstanceId);
+        long sinkPosition = positions == null ? 0 : positions.getOrDefault(getReadSource(), 0L);
+        long[] head;
+        while ((head = pendingDrops.peek()) != null && sinkPosition >= head[0]) {
+            pendingDrops.poll();
+            manager.updateSinkPosition(jobInstanceId, getReadSource(), head[1], false);
+            sinkPosition += head[1];
+        }
+    }
+
+    private long getStartBytePosition(int lineNum) throws IOException {
+        // start from the nearest chunk boundary before the line, instead of scanning from the beginning of file
+        long[] checkpoint = loadSnapshotCheckpoint(lineNum);
+        long startBytePosition = checkpoint[1];
         BufferedReader reader = null;
         try {
-            LOGGER.info("get start line {}", lineNum);
+            LOGGER.info("get start line {} from checkpoint line {}, byte position {}",
+                    lineNum, checkpoint[0], checkpoint[1]);
             String line = null;
-            List<String> lines = new ArrayList<>();
-            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
-                    StandardCharsets.UTF_8));
-            int count = 0;
+            FileInputStream input = new FileInputStream(file);
+            input.getChannel().position(startBytePosition);
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            long count = checkpoint[0];
             while ((line = reader.readLine()) != null) {
                 if (++count > lineNum) {
                     LOGGER.info("get startBytePosition end at line {}", count);
@@ -454,6 +630,54 @@ public class FileReaderOperator extends AbstractReader {
         return startBytePosition;
     }
 
+    /**
+     * Load the chunk boundaries stored by the previous snapshot read, in format of "line:byte,line:byte".
+     *
+     * @return the nearest boundary not after the line, [0, 0] if there is none
+     */
+    private long[] loadSnapshotCheckpoint(int lineNum) {
+        long[] result = new long[]{0, 0};
+        // the stored boundaries replace the ones of an earlier load
+        snapshotCheckpoints.clear();
+        if (jobConf == null) {
+            return result;
+        }
+        String checkpoints = jobConf.get(file.getAbsolutePath() + SNAPSHOT_CHECKPOINT_SUFFIX, "");
+        for (String checkpoint : StringUtils.split(checkpoints, COMMA)) {
+            String[] items = checkpoint.split(":");
+            if (items.length != 2) {
+                continue;
+            }
+            long line = Long.parseLong(items[0]);
+            long offset = Long.parseLong(items[1]);
+            if (line <= lineNum && line >= result[0] && offset <= file.length()) {
+                result[0] = line;
+                result[1] = offset;
+            }
+            snapshotCheckpoints.add(new long[]{line, offset});
+        }
+        return result;
+    }
+
+    /**
+     * Store the boundary of the chunk just read, so that restart can seek to it instead of scanning the file.
+     */
+    private void storeSnapshotCheckpoint() {
+        String jobInstanceId = getJobInstanceId();
+        if (jobInstanceId == null) {
+            return;
+        }
+        snapshotCheckpoints.removeIf(checkpoint -> checkpoint[0] == position);
+        snapshotCheckpoints.add(new long[]{position, bytePosition});
+        while (snapshotCheckpoints.size() > MAX_SNAPSHOT_CHECKPOINTS) {
+            snapshotCheckpoints.removeFirst();
+        }
+        String checkpoints = snapshotCheckpoints.stream()
+                .map(checkpoint -> checkpoint[0] + ":" + checkpoint[1])
+                .collect(Collectors.joining(COMMA));
+        TaskPositionManager.getInstance().updateSnapshotCheckpoint(jobInstanceId, getReadSource(), checkpoints);
+    }
+
     private void isFirstStore() {
         if (!jobConf.hasKey(JobConstants.JOB_STORE_TIME)) {
             LOGGER.info("isFirstStore {},{}", file.getAbsolutePath(), this.firstStored);
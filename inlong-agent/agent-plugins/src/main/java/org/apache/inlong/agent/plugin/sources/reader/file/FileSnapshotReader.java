@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources.reader.file;
+
+import org.apache.inlong.agent.common.AgentThreadFactory;
+import org.apache.inlong.agent.conf.AgentConfiguration;
+import org.apache.inlong.agent.plugin.filter.LineFilterChain;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.inlong.agent.constant.AgentConstants.AGENT_FILE_SNAPSHOT_MEMORY_BYTES;
+import static org.apache.inlong.agent.constant.AgentConstants.AGENT_FILE_SNAPSHOT_THREADS;
+import static org.apache.inlong.agent.constant.AgentConstants.DEFAULT_AGENT_FILE_SNAPSHOT_MEMORY_BYTES;
+import static org.apache.inlong.agent.constant.AgentConstants.DEFAULT_AGENT_FILE_SNAPSHOT_THREADS;
+
+/**
+ * Read the existing content of a large file by chunks in parallel.
+ * <p/>
+ * The content between start offset and end offset is split into chunks aligned to line boundaries,
+ * at most parallelism chunks are read ahead by the shared workers, and lines are handed out in file order,
+ * so that the line position stored for the file keeps its meaning.
+ * <p/>
+ * The workers and a byte budget for the chunks read ahead are shared by all readers of the agent, a chunk
+ * reserves its raw size from the budget before it is read, and releases it once its lines are handed out.
+ */
+public class FileSnapshotReader implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSnapshotReader.class);
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int BUDGET_UNIT = 1024;
+    /**
+     * chunk worker thread pool shared by all files
+     */
+    private static final ThreadPoolExecutor EXECUTOR_SERVICE;
+    /**
+     * budget in KB of the chunks read ahead by all files
+     */
+    private static final int BUDGET_PERMITS;
+    private static final Semaphore BUDGET;
+
+    static {
+        AgentConfiguration conf = AgentConfiguration.getAgentConf();
+        int threads = Math.max(1, conf.getInt(AGENT_FILE_SNAPSHOT_THREADS, DEFAULT_AGENT_FILE_SNAPSHOT_THREADS));
+        EXECUTOR_SERVICE = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new AgentThreadFactory("snapshot-file"));
+        EXECUTOR_SERVICE.allowCoreThreadTimeOut(true);
+        long budgetBytes = conf.getLong(AGENT_FILE_SNAPSHOT_MEMORY_BYTES, DEFAULT_AGENT_FILE_SNAPSHOT_MEMORY_BYTES);
+        BUDGET_PERMITS = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budgetBytes / BUDGET_UNIT));
+        BUDGET = new Semaphore(BUDGET_PERMITS);
+    }
+
+    private final File file;
+    private final long endOffset;
+    private final long chunkSize;
+    private final int parallelism;
+    private final LineFilterChain lineFilter;
+    private final LinkedList<PendingChunk> pendingChunks = new LinkedList<>();
+    // offset where the next chunk to be submitted starts
+    private long nextChunkOffset;
+    // offset after the last line handed out of fully consumed chunks
+    private long readOffset;
+    private Chunk currentChunk;
+    // budget permits held by the current chunk
+    private int currentPermits;
+    private int currentLineIndex;
+    private volatile boolean closed = false;
+
+    private FileSnapshotReader(File file, long startOffset, long endOffset, long chunkSize, int parallelism,
+            LineFilterChain lineFilter) {
+        this.file = file;
+        this.endOffset = endOffset;
+        this.chunkSize = chunkSize;
+        this.parallelism = Math.max(1, parallelism);
+        this.lineFilter = lineFilter;
+        this.nextChunkOffset = startOffset;
+        this.readOffset = startOffset;
+    }
+
+    /**
+     * Create snapshot reader for the complete lines after start offset.
+     *
+     * @return null if there is no complete line after start offset
+     */
+    public static FileSnapshotReader create(File file, long startOffset, long chunkSize, int parallelism)
+            throws IOException {
+        return create(file, startOffset, chunkSize, parallelism, null);
+    }
+
+    /**
+     * Create snapshot reader, the filter rules are applied by the chunk workers on the raw bytes of lines,
+     * and the dropped lines are handed out as null so that the line position still counts them.
+     */
+    public static FileSnapshotReader create(File file, long startOffset, long chunkSize, int parallelism,
+            LineFilterChain lineFilter) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long endOffset = lastLineEnd(channel, startOffset, channel.size());
+            if (endOffset <= startOffset) {
+                return null;
+            }
+            LOGGER.info("snapshot read file {} from {} to {} by chunk size {}, parallelism {}",
+                    file.getAbsolutePath(), startOffset, endOffset, chunkSize, parallelism);
+            FileSnapshotReader reader = new FileSnapshotReader(file, startOffset, endOffset, chunkSize, parallelism,
+                    lineFilter);
+            reader.submitChunks(channel);
+            return reader;
+        }
+    }
+
+    /**
+     * Read lines from the head chunk, lines of different chunks are never returned in one call.
+     *
+     * @return empty list if the snapshot is finished
+     */
+    public List<String> read(int maxLines) throws IOException {
+        if (currentChunk == null || currentLineIndex >= currentChunk.lines.size()) {
+            if (currentChunk != null) {
+                readOffset = currentChunk.endOffset;
+                releaseCurrentChunk();
+            }
+            if (pendingChunks.isEmpty() && nextChunkOffset < endOffset) {
+                // the budget has been used up by other readers, wait for the next chunk
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    submitChunks(channel);
+                }
+            }
+            if (pendingChunks.isEmpty()) {
+                return Collections.emptyList();
+            }
+            PendingChunk pending = pendingChunks.removeFirst();
+            currentPermits = pending.permits;
+            currentChunk = takeChunk(pending.future);
+            currentLineIndex = 0;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                submitChunks(channel);
+            }
+        }
+        int end = Math.min(currentChunk.lines.size(), currentLineIndex + maxLines);
+        List<String> lines = new ArrayList<>(currentChunk.lines.subList(currentLineIndex, end));
+        currentLineIndex = end;
+        if (currentLineIndex >= currentChunk.lines.size()) {
+            readOffset = currentChunk.endOffset;
+            releaseCurrentChunk();
+        }
+        return lines;
+    }
+
+    /**
+     * Whether all lines handed out so far end exactly at a chunk boundary.
+     */
+    public boolean atChunkBoundary() {
+        return currentChunk == null;
+    }
+
+    /**
+     * Byte offset after the last line of fully consumed chunks.
+     */
+    public long getReadOffset() {
+        return readOffset;
+    }
+
+    public boolean isFinished() {
+        return atChunkBoundary() && pendingChunks.isEmpty() && nextChunkOffset >= endOffset;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (PendingChunk pending : pendingChunks) {
+            pending.future.cancel(true);
+            BUDGET.release(pending.permits);
+        }
+        pendingChunks.clear();
+        releaseCurrentChunk();
+    }
+
+    /**
+     * Budget in KB left for the chunks read ahead by all readers.
+     */
+    static int availableBudget() {
+        return BUDGET.availablePermits();
+    }
+
+    private void releaseCurrentChunk() {
+        currentChunk = null;
+        BUDGET.release(currentPermits);
+        currentPermits = 0;
+    }
+
+    private Chunk takeChunk(Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading chunk of " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("read chunk of " + file + " error", e.getCause());
+        }
+    }
+
+    /**
+     * Keep at most parallelism chunks being read ahead within the shared budget, the reader waits for the budget
+     * only if it has no chunk left, so a reader never waits while holding the budget.
+     */
+    private void submitChunks(FileChannel channel) throws IOException {
+        while (!closed && pendingChunks.size() < parallelism && nextChunkOffset < endOffset) {
+            long chunkStart = nextChunkOffset;
+            long chunkEnd = nextLineStart(channel, Math.min(chunkStart + chunkSize, endOffset), endOffset);
+            int permits = (int) Math.min(BUDGET_PERMITS, (chunkEnd - chunkStart + BUDGET_UNIT - 1) / BUDGET_UNIT);
+            if (!BUDGET.tryAcquire(permits)) {
+                if (!pendingChunks.isEmpty() || currentChunk != null) {
+                    return;
+                }
+                try {
+                    while (!BUDGET.tryAcquire(permits, 1, TimeUnit.SECONDS)) {
+                        if (closed) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for the snapshot budget of " + file, e);
+                }
+            }
+            nextChunkOffset = chunkEnd;
+            pendingChunks.add(new PendingChunk(EXECUTOR_SERVICE.submit(() -> readChunk(chunkStart, chunkEnd)),
+                    permits));
+        }
+    }
+
+    private Chunk readChunk(long start, long end) throws IOException {
+        List<String> lines = new ArrayList<>();
+        ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream(1024);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(READ_BUFFER_SIZE, end - start));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = start;
+            while (position < end && !closed) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                int len = channel.read(buffer, position);
+                if (len < 0) {
+                    break;
+                }
+                byte[] data = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < len; i++) {
+                    if (data[i] == LINE_FEED) {
+                        lineBuffer.write(data, lineStart, i - lineStart);
+                        lines.add(toLine(lineBuffer));
+                        lineStart = i + 1;
+                    }
+                }
+                lineBuffer.write(data, lineStart, len - lineStart);
+                position += len;
+            }
+        }
+        return new Chunk(lines, end);
+    }
+
+    private String toLine(ByteArrayOutputStream lineBuffer) {
+        byte[] bytes = lineBuffer.toByteArray();
+        int len = bytes.length;
+        if (len > 0 && bytes[len - 1] == CARRIAGE_RETURN) {
+            len--;
+        }
+        lineBuffer.reset();
+        if (lineFilter == null) {
+            return new String(bytes, 0, len, StandardCharsets.UTF_8);
+        }
+        byte[] result = lineFilter.apply(len == bytes.length ? bytes : Arrays.copyOf(bytes, len));
+        return result == null ? null : new String(result, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Find the start of the first line at or after offset.
+     */
+    private static long nextLineStart(FileChannel channel, long offset, long limit) throws IOException {
+        if (offset >= limit) {
+            return limit;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = offset - 1;
+        while (position < limit) {
+            buffer.clear();
+            int len = channel.read(buffer, position);
+            if (len <= 0) {
+                break;
+            }
+            for (int i = 0; i < len; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return Math.min(position + i + 1, limit);
+                }
+            }
+            position += len;
+        }
+        return limit;
+    }
+
+    /**
+     * Find the end of the last complete line before size, the line being written is left to the tailing reader.
+     */
+    private static long lastLineEnd(FileChannel channel, long start, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = size;
+        while (position > start) {
+            int len = (int) Math.min(buffer.capacity(), position - start);
+            position -= len;
+            buffer.clear();
+            buffer.limit(len);
+            channel.read(buffer, position);
+            for (int i = len - 1; i >= 0; i--) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return start;
+    }
+
+    private static class PendingChunk {
+
+        private final Future<Chunk> future;
+        private final int permits;
+
+        PendingChunk(Future<Chunk> future, int permits) {
+            this.future = future;
+            this.permits = permits;
+        }
+    }
+
+    private static class Chunk {
+
+        private final List<String> lines;
+        private final long endOffset;
+
+        Chunk(List<String> lines, long endOffset) {
+            this.lines = lines;
+            this.endOffset = endOffset;
+        }
+    }
+}
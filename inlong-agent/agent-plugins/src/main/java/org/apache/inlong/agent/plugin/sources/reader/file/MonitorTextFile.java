@@ -121,7 +121,10 @@ public final class MonitorTextFile {
                     if (fileReaderOperator.inited) {
                         listen();
                     }
-                    TimeUnit.MILLISECONDS.sleep(interval);
+                    // read the existing content of file as fast as the queue drains
+                    if (!fileReaderOperator.isSnapshotReading()) {
+                        TimeUnit.MILLISECONDS.sleep(interval);
+                    }
                 }
             } catch (Exception e) {
                 LOGGER.error(String.format("monitor %s error", fileReaderOperator.file.getName()), e);
@@ -159,7 +162,7 @@ public final class MonitorTextFile {
             }
 
             try {
-                if (!fileReaderOperator.hasDataRemaining()) {
+                if (fileReaderOperator.isSnapshotReading() || !fileReaderOperator.hasDataRemaining()) {
                     fileReaderOperator.fetchData();
                 }
             } catch (Exception e) {
@@ -172,6 +175,7 @@ public final class MonitorTextFile {
          */
         private void resetPosition() {
             LOGGER.info("reset position {}", fileReaderOperator.file.toPath());
+            fileReaderOperator.stopSnapshotReading();
             fileReaderOperator.position = 0;
             fileReaderOperator.bytePosition = 0;
 
@@ -179,6 +183,8 @@ public final class MonitorTextFile {
             if (jobInstanceId != null) {
                 TaskPositionManager.getInstance().updateSinkPosition(
                         jobInstanceId, fileReaderOperator.getReadSource(), 0, true);
+                TaskPositionManager.getInstance().updateSnapshotCheckpoint(
+                        jobInstanceId, fileReaderOperator.getReadSource(), "");
             }
         }
 
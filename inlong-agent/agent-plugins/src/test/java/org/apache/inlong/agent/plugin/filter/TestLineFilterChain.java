@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.filter;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestLineFilterChain {
+
+    private static String apply(LineFilterChain chain, String line) {
+        byte[] result = chain.apply(line.getBytes(StandardCharsets.UTF_8));
+        return result == null ? null : new String(result, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFilterAndProject() {
+        LineFilterChain chain = LineFilterChain.parse("[{\"name\": \"noDebug\", \"type\": \"exclude\", "
+                + "\"pattern\": \"DEBUG\"}, {\"type\": \"prefix\", \"pattern\": \"2023\"}, "
+                + "{\"type\": \"project\", \"delimiter\": \"|\", \"fields\": [3, 0, 9]}]");
+        assertNull(apply(chain, "2023-01-01|DEBUG|main|detail"));
+        assertNull(apply(chain, "2022-01-01|INFO|main|detail"));
+        assertEquals("detail|2023-01-01|", apply(chain, "2023-01-01|INFO|main|detail"));
+
+        Map<String, Long> hits = chain.getRuleHits();
+        assertEquals(Long.valueOf(1), hits.get("noDebug"));
+        assertEquals(Long.valueOf(1), hits.get("1-prefix"));
+        assertEquals(Long.valueOf(1), hits.get("2-project"));
+
+        // reported hits are the new hits since the last report
+        Map<String, Long> reported = new HashMap<>();
+        chain.reportRuleHits(reported::put);
+        assertEquals(hits, reported);
+        apply(chain, "2023-01-02|DEBUG|main|detail");
+        reported.clear();
+        chain.reportRuleHits(reported::put);
+        assertEquals(Collections.singletonMap("noDebug", 1L), reported);
+        assertEquals(Long.valueOf(2), chain.getRuleHits().get("noDebug"));
+    }
+
+    @Test
+    public void testRegexOnBytes() {
+        LineFilterChain chain = LineFilterChain.parse("[{\"type\": \"match\", \"pattern\": \"用户=\\\\d+\"}, "
+                + "{\"type\": \"extract\", \"pattern\": \"用户=(\\\\d+).*cost=(\\\\d+)\", \"delimiter\": \",\"}]");
+        assertEquals("42,7", apply(chain, "登录 用户=42 cost=7ms"));
+        assertNull(apply(chain, "登录 用户=abc cost=7ms"));
+        assertNull(apply(chain, "登录 用户=42"));
+    }
+
+    @Test
+    public void testNoRule() {
+        assertNull(LineFilterChain.parse(""));
+        assertNull(LineFilterChain.parse("[]"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRule() {
+        LineFilterChain.parse("[{\"type\": \"unknown\", \"pattern\": \"a\"}]");
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.agent.plugin.sources.reader.file;
+
+import org.apache.inlong.agent.plugin.AgentBaseTestsHelper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FileSnapshotReaderTest {
+
+    private AgentBaseTestsHelper helper;
+    private File file;
+
+    @Before
+    public void setUp() {
+        helper = new AgentBaseTestsHelper(FileSnapshotReaderTest.class.getName()).setupAgentHome();
+        file = new File(helper.getTestRootDir().toFile(), "snapshot.log");
+    }
+
+    @After
+    public void teardown() {
+        helper.teardownAgentHome();
+    }
+
+    @Test
+    public void testReadInOrderByChunks() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            content.append("line").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        // the last line is still being written and is left to the tailing reader
+        content.append("partial");
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+
+        FileSnapshotReader reader = FileSnapshotReader.create(file, 0, 100, 3);
+        List<String> lines = new ArrayList<>();
+        while (!reader.isFinished()) {
+            List<String> batch = reader.read(7);
+            lines.addAll(batch);
+            if (reader.atChunkBoundary() && reader.getReadOffset() > 0) {
+                // chunks always end right after a line feed
+                assertEquals('\n', content.charAt((int) reader.getReadOffset() - 1));
+            }
+        }
+        reader.close();
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("line" + i, lines.get(i));
+        }
+        assertEquals(content.length() - "partial".length(), reader.getReadOffset());
+    }
+
+    @Test
+    public void testStartFromOffset() throws Exception {
+        Files.write(file.toPath(), "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+        FileSnapshotReader reader = FileSnapshotReader.create(file, 2, 1, 1);
+        List<String> lines = new ArrayList<>();
+        while (!reader.isFinished()) {
+            lines.addAll(reader.read(10));
+            assertTrue(reader.atChunkBoundary());
+        }
+        reader.close();
+        assertEquals(2, lines.size());
+        assertEquals("b", lines.get(0));
+        assertEquals("c", lines.get(1));
+        assertNull(FileSnapshotReader.create(file, 6, 1, 1));
+    }
+
+    @Test
+    public void testBudgetReleased() throws Exception {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append("line").append(i).append('\n');
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        int budget = FileSnapshotReader.availableBudget();
+
+        FileSnapshotReader reader = FileSnapshotReader.create(file, 0, 8 * 1024, 4);
+        assertEquals(7, reader.read(7).size());
+        // the chunks read ahead hold the budget until they are consumed or the reader is closed
+        assertTrue(FileSnapshotReader.availableBudget() < budget);
+        reader.close();
+        assertEquals(budget, FileSnapshotReader.availableBudget());
+
+        reader = FileSnapshotReader.create(file, 0, 8 * 1024, 4);
+        int lines = 0;
+        while (!reader.isFinished()) {
+            lines += reader.read(100).size();
+        }
+        assertEquals(10000, lines);
+        assertEquals(budget, FileSnapshotReader.availableBudget());
+        reader.close();
+        assertEquals(budget, FileSnapshotReader.availableBudget());
+    }
+}
@@ -21,20 +21,17 @@ import org.apache.inlong.audit.protocol.AuditApi;
 import org.apache.inlong.audit.send.SenderManager;
 import org.apache.inlong.audit.util.AuditConfig;
 import org.apache.inlong.audit.util.Config;
+import org.apache.inlong.audit.util.StatAccumulator;
 import org.apache.inlong.audit.util.StatInfo;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.inlong.audit.protocol.AuditApi.BaseCommand.Type.AUDIT_REQUEST;
@@ -45,15 +42,11 @@ import static org.apache.inlong.audit.protocol.AuditApi.BaseCommand.Type.AUDIT_R
 public class AuditOperator {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AuditOperator.class);
-    private static final String FIELD_SEPARATORS = ":";
     private static final int BATCH_NUM = 100;
     private static final AuditOperator AUDIT_OPERATOR = new AuditOperator();
     private static final ReentrantLock GLOBAL_LOCK = new ReentrantLock();
     private static final int PERIOD = 1000 * 60;
-    private final ConcurrentHashMap<String, StatInfo> countMap = new ConcurrentHashMap<>();
-    private final HashMap<String, StatInfo> threadCountMap = new HashMap<>();
-    private final ConcurrentHashMap<String, StatInfo> deleteCountMap = new ConcurrentHashMap<>();
-    private final List<String> deleteKeyList = new ArrayList<>();
+    private final StatAccumulator accumulator = new StatAccumulator();
     private final Config config = new Config();
     private final Timer timer = new Timer();
     private int packageId = 1;
@@ -134,21 +127,7 @@ public class AuditOperator {
      */
     public void add(int auditID, String inlongGroupID, String inlongStreamID, Long logTime, long count, long size) {
         long delayTime = System.currentTimeMillis() - logTime;
-        String key = (logTime / PERIOD) + FIELD_SEPARATORS + inlongGroupID + FIELD_SEPARATORS
-                + inlongStreamID + FIELD_SEPARATORS + auditID;
-        addByKey(key, count, size, delayTime);
-    }
-
-    /**
-     * Add audit info by key.
-     */
-    private void addByKey(String key, long count, long size, long delayTime) {
-        if (countMap.get(key) == null) {
-            countMap.put(key, new StatInfo(0L, 0L, 0L));
-        }
-        countMap.get(key).count.addAndGet(count);
-        countMap.get(key).size.addAndGet(size);
-        countMap.get(key).delay.addAndGet(delayTime * count);
+        accumulator.add(logTime / PERIOD, inlongGroupID, inlongStreamID, auditID, count, size, delayTime * count);
     }
 
     /**
@@ -157,28 +136,8 @@ public class AuditOperator {
     public synchronized void send() {
         manager.clearBuffer();
         resetStat();
-        // Retrieve statistics from the list of objects without statistics to be eliminated
-        for (Map.Entry<String, StatInfo> entry : this.deleteCountMap.entrySet()) {
-            this.sumThreadGroup(entry.getKey(), entry.getValue());
-        }
-        this.deleteCountMap.clear();
-        for (Map.Entry<String, StatInfo> entry : countMap.entrySet()) {
-            String key = entry.getKey();
-            StatInfo value = entry.getValue();
-            // If there is no data, enter the list to be eliminated
-            if (value.count.get() == 0) {
-                this.deleteKeyList.add(key);
-                continue;
-            }
-            this.sumThreadGroup(key, value);
-        }
-
-        // Clean up obsolete statistical data objects
-        for (String key : this.deleteKeyList) {
-            StatInfo value = this.countMap.remove(key);
-            this.deleteCountMap.put(key, value);
-        }
-        this.deleteKeyList.clear();
+        // merge the stat of all threads
+        Map<StatAccumulator.Key, StatInfo> threadCountMap = accumulator.drain();
 
         long sdkTime = Calendar.getInstance().getTimeInMillis();
         AuditApi.AuditMessageHeader msgHeader = AuditApi.AuditMessageHeader.newBuilder()
@@ -190,18 +149,17 @@ public class AuditOperator {
         requestBuild.setMsgHeader(msgHeader).setRequestId(manager.nextRequestId());
 
         // process the stat info for all threads
-        for (Map.Entry<String, StatInfo> entry : threadCountMap.entrySet()) {
-            String[] keyArray = entry.getKey().split(FIELD_SEPARATORS);
-            long logTime = Long.parseLong(keyArray[0]) * PERIOD;
-            String inlongGroupID = keyArray[1];
-            String inlongStreamID = keyArray[2];
-            String auditID = keyArray[3];
+        for (Map.Entry<StatAccumulator.Key, StatInfo> entry : threadCountMap.entrySet()) {
+            StatAccumulator.Key key = entry.getKey();
             StatInfo value = entry.getValue();
+            if (value.count.get() == 0) {
+                continue;
+            }
             AuditApi.AuditMessageBody msgBody = AuditApi.AuditMessageBody.newBuilder()
-                    .setLogTs(logTime)
-                    .setInlongGroupId(inlongGroupID)
-                    .setInlongStreamId(inlongStreamID)
-                    .setAuditId(auditID)
+                    .setLogTs(key.getPeriod() * PERIOD)
+                    .setInlongGroupId(String.valueOf(key.getGroupId()))
+                    .setInlongStreamId(String.valueOf(key.getStreamId()))
+                    .setAuditId(String.valueOf(key.getAuditId()))
                     .setCount(value.count.get())
                     .setSize(value.size.get())
                     .setDelay(value.delay.get())
@@ -219,7 +177,6 @@ public class AuditOperator {
             sendByBaseCommand(requestBuild.build());
             requestBuild.clearMsgBody();
         }
-        threadCountMap.clear();
 
         LOGGER.info("finish report audit data");
     }
@@ -233,26 +190,6 @@ public class AuditOperator {
         manager.send(baseCommand.build());
     }
 
-    /**
-     * Summary
-     */
-    private void sumThreadGroup(String key, StatInfo statInfo) {
-        long count = statInfo.count.getAndSet(0);
-        if (0 == count) {
-            return;
-        }
-        if (threadCountMap.get(key) == null) {
-            threadCountMap.put(key, new StatInfo(0, 0, 0));
-        }
-
-        long size = statInfo.size.getAndSet(0);
-        long delay = statInfo.delay.getAndSet(0);
-
-        threadCountMap.get(key).count.addAndGet(count);
-        threadCountMap.get(key).size.addAndGet(size);
-        threadCountMap.get(key).delay.addAndGet(delay);
-    }
-
     /**
      * Reset statistics
      */
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.util;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Accumulator of the audit stat by period, groupId, streamId and auditId. The writers are spread over stripes
+ * by thread, a stripe has its own map of cells and a reusable probe key, so adding to an existing cell does not
+ * allocate and rarely contends. The stripes are swapped with their spare maps and merged when drained.
+ */
+public class StatAccumulator {
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    public StatAccumulator() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StatAccumulator(int concurrency) {
+        int size = 1;
+        while (size < concurrency) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * add the stat to the cell of the key
+     *
+     * @param period   index of the period of the log time
+     * @param groupId  inlong groupId
+     * @param streamId inlong streamId
+     * @param auditId  audit id
+     * @param count    count of the messages
+     * @param size     size of the messages
+     * @param delay    total delay of the messages
+     */
+    public void add(long period, String groupId, String streamId, int auditId, long count, long size, long delay) {
+        Stripe stripe = stripes[(int) spread(Thread.currentThread().getId()) & mask];
+        synchronized (stripe) {
+            Key probe = stripe.probe.set(period, groupId, streamId, auditId);
+            long[] cell = stripe.cells.get(probe);
+            if (cell == null) {
+                cell = new long[3];
+                stripe.cells.put(new Key().set(period, groupId, streamId, auditId), cell);
+            }
+            cell[0] += count;
+            cell[1] += size;
+            cell[2] += delay;
+        }
+    }
+
+    /**
+     * drain the stat of all the stripes, the stat added during the draining goes to the next draining
+     *
+     * @return the merged stat by key
+     */
+    public Map<Key, StatInfo> drain() {
+        Map<Key, StatInfo> result = new HashMap<>();
+        for (Stripe stripe : stripes) {
+            Map<Key, long[]> cells;
+            synchronized (stripe) {
+                cells = stripe.cells;
+                stripe.cells = stripe.spare;
+                stripe.spare = cells;
+            }
+            // the spare map is only touched by the drainer, which is serialized by the caller
+            for (Map.Entry<Key, long[]> entry : cells.entrySet()) {
+                long[] cell = entry.getValue();
+                StatInfo statInfo = result.get(entry.getKey());
+                if (statInfo == null) {
+                    result.put(entry.getKey(), new StatInfo(cell[0], cell[1], cell[2]));
+                } else {
+                    statInfo.count.addAndGet(cell[0]);
+                    statInfo.size.addAndGet(cell[1]);
+                    statInfo.delay.addAndGet(cell[2]);
+                }
+            }
+            cells.clear();
+        }
+        return result;
+    }
+
+    private static long spread(long h) {
+        h ^= (h >>> 16);
+        return h ^ (h >>> 8);
+    }
+
+    /**
+     * stat cells of the threads mapped to a stripe
+     */
+    private static class Stripe {
+
+        private final Key probe = new Key();
+        private Map<Key, long[]> cells = new HashMap<>();
+        private Map<Key, long[]> spare = new HashMap<>();
+    }
+
+    /**
+     * composite key of the stat
+     */
+    public static class Key {
+
+        private long period;
+        private String groupId;
+        private String streamId;
+        private int auditId;
+        private int hash;
+
+        private Key set(long period, String groupId, String streamId, int auditId) {
+            this.period = period;
+            this.groupId = groupId;
+            this.streamId = streamId;
+            this.auditId = auditId;
+            int h = Long.hashCode(period);
+            h = 31 * h + (groupId == null ? 0 : groupId.hashCode());
+            h = 31 * h + (streamId == null ? 0 : streamId.hashCode());
+            this.hash = 31 * h + auditId;
+            return this;
+        }
+
+        public long getPeriod() {
+            return period;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getStreamId() {
+            return streamId;
+        }
+
+        public int getAuditId() {
+            return auditId;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return period == other.period && auditId == other.auditId
+                    && stringEquals(groupId, other.groupId) && stringEquals(streamId, other.streamId);
+        }
+
+        private static boolean stringEquals(String a, String b) {
+            return a == b || (a != null && a.equals(b));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micro benchmark of StatAccumulator against the ConcurrentHashMap of String keys which AuditOperator used before,
+ * run it by the main method.
+ * The writer threads add the stat of a set of keys while a drainer drains the stat periodically as the send timer
+ * does, it reports the time per add and the heap bytes allocated by the writers per add.
+ * Usage: StatAccumulatorBenchmark [threads] [keys] [iterations]
+ */
+public class StatAccumulatorBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int PERIOD = 1000 * 60;
+    private static final long DRAIN_INTERVAL_MS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 2000000;
+        String[] groupIds = new String[keys];
+        String[] streamIds = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            groupIds[i] = "group_" + (i % 10);
+            streamIds[i] = "stream_" + i;
+        }
+
+        System.out.printf("threads:%d, keys:%d, iterations:%d%n", threads, keys, iterations);
+        LegacyStatMap legacy = new LegacyStatMap();
+        run("ConcurrentHashMap", legacy::add, legacy::drain, threads, groupIds, streamIds, iterations);
+        StatAccumulator accumulator = new StatAccumulator();
+        run("StatAccumulator", accumulator::add, accumulator::drain, threads, groupIds, streamIds, iterations);
+    }
+
+    private static void run(String name, Adder adder, Runnable drainer, int threads, String[] groupIds,
+            String[] streamIds, int iterations) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            add(adder, drainer, threads, groupIds, streamIds, iterations);
+        }
+        long startNanos = System.nanoTime();
+        long allocatedBytes = add(adder, drainer, threads, groupIds, streamIds, iterations);
+        long costNanos = System.nanoTime() - startNanos;
+        long ops = (long) threads * iterations;
+        System.out.printf("%-17s: %8.1f ns/op, %8.2f Mops/s, %8.1f bytes/op allocated%n", name,
+                (double) costNanos * threads / ops, ops * 1000.0 / costNanos, (double) allocatedBytes / ops);
+    }
+
+    private static long add(Adder adder, Runnable drainer, int threads, String[] groupIds, String[] streamIds,
+            int iterations) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong allocatedBytes = new AtomicLong(0);
+        long logTime = System.currentTimeMillis();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                    long startBytes = getAllocatedBytes();
+                    for (int i = 0; i < iterations; i++) {
+                        int key = (i + offset) % groupIds.length;
+                        adder.add(logTime / PERIOD, groupIds[key], streamIds[key], key % 4, 1, 100, 10);
+                    }
+                    allocatedBytes.addAndGet(getAllocatedBytes() - startBytes);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            writer.start();
+        }
+        start.countDown();
+        while (!done.await(DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+            drainer.run();
+        }
+        drainer.run();
+        return allocatedBytes.get();
+    }
+
+    /**
+     * the heap bytes allocated by the current thread
+     */
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private interface Adder {
+
+        void add(long period, String groupId, String streamId, int auditId, long count, long size, long delay);
+    }
+
+    /**
+     * the stat map of AuditOperator before StatAccumulator, keyed by the joined String of the fields
+     */
+    private static class LegacyStatMap {
+
+        private static final String FIELD_SEPARATORS = ":";
+        private final ConcurrentHashMap<String, StatInfo> countMap = new ConcurrentHashMap<>();
+
+        private void add(long period, String groupId, String streamId, int auditId, long count, long size,
+                long delay) {
+            String key = period + FIELD_SEPARATORS + groupId + FIELD_SEPARATORS
+                    + streamId + FIELD_SEPARATORS + auditId;
+            if (countMap.get(key) == null) {
+                countMap.put(key, new StatInfo(0L, 0L, 0L));
+            }
+            countMap.get(key).count.addAndGet(count);
+            countMap.get(key).size.addAndGet(size);
+            countMap.get(key).delay.addAndGet(delay);
+        }
+
+        private void drain() {
+            Map<String, StatInfo> threadCountMap = new HashMap<>();
+            for (Map.Entry<String, StatInfo> entry : countMap.entrySet()) {
+                StatInfo statInfo = entry.getValue();
+                long count = statInfo.count.getAndSet(0);
+                if (count == 0) {
+                    continue;
+                }
+                threadCountMap.put(entry.getKey(), new StatInfo(count, statInfo.size.getAndSet(0),
+                        statInfo.delay.getAndSet(0)));
+            }
+        }
+    }
+}
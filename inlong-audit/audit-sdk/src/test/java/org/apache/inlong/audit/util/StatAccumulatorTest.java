@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StatAccumulatorTest {
+
+    @Test
+    public void addAndDrain() {
+        StatAccumulator accumulator = new StatAccumulator(4);
+        accumulator.add(1, "group", "stream", 3, 2, 20, 6);
+        accumulator.add(1, new String("group"), "stream", 3, 1, 10, 3);
+        accumulator.add(2, "group", "stream", 3, 1, 10, 3);
+        Map<StatAccumulator.Key, StatInfo> stat = accumulator.drain();
+        assertEquals(2, stat.size());
+        for (Map.Entry<StatAccumulator.Key, StatInfo> entry : stat.entrySet()) {
+            long expected = entry.getKey().getPeriod() == 1 ? 3 : 1;
+            assertEquals("group", entry.getKey().getGroupId());
+            assertEquals(3, entry.getKey().getAuditId());
+            assertEquals(expected, entry.getValue().count.get());
+            assertEquals(expected * 10, entry.getValue().size.get());
+            assertEquals(expected * 3, entry.getValue().delay.get());
+        }
+        // the drained stat is not reported again
+        assertTrue(accumulator.drain().isEmpty());
+    }
+
+    @Test
+    public void concurrentWritersAndDrainer() throws Exception {
+        int threadNum = 16;
+        int addNum = 100000;
+        StatAccumulator accumulator = new StatAccumulator(8);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int i = 0; i < threadNum; i++) {
+            Thread writer = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < addNum; j++) {
+                    accumulator.add(j & 1, "group", "stream" + (j & 3), 1, 1, 2, 3);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        startLatch.countDown();
+        long count = 0;
+        long size = 0;
+        while (writers.stream().anyMatch(Thread::isAlive)) {
+            for (StatInfo statInfo : accumulator.drain().values()) {
+                count += statInfo.count.get();
+                size += statInfo.size.get();
+            }
+        }
+        for (StatInfo statInfo : accumulator.drain().values()) {
+            count += statInfo.count.get();
+            size += statInfo.size.get();
+        }
+        // nothing is lost or counted twice while draining
+        assertEquals((long) threadNum * addNum, count);
+        assertEquals(2L * threadNum * addNum, size);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Getter
+@Setter
+public class RollupConfig {
+
+    @Value("${audit.config.rollup.enable:false}")
+    private boolean enable;
+
+    // how long the windows wait for the records behind the max log time
+    @Value("${audit.config.rollup.allowedLatenessMs:60000}")
+    private long allowedLatenessMs;
+
+    // max time a window is held before it is written, whatever the watermark is
+    @Value("${audit.config.rollup.maxHoldMs:30000}")
+    private long maxHoldMs;
+
+    @Value("${audit.config.rollup.flushIntervalMs:1000}")
+    private long flushIntervalMs;
+
+    @Value("${audit.config.rollup.batchSize:500}")
+    private int batchSize;
+
+    // max batches kept for retry per storage after failing to write, the oldest ones are dropped beyond it
+    @Value("${audit.config.rollup.maxRetryBatches:100}")
+    private int maxRetryBatches;
+
+    @Value("${audit.config.rollup.metricIntervalMs:60000}")
+    private long metricIntervalMs;
+}
@@ -19,10 +19,15 @@ package org.apache.inlong.audit.db.dao;
 
 import org.apache.inlong.audit.db.entities.AuditDataPo;
 
+import org.apache.ibatis.annotations.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface AuditDataDao {
 
     int insert(AuditDataPo auditDataPo);
+
+    int insertBatch(@Param("list") List<AuditDataPo> auditDataPoList);
 }
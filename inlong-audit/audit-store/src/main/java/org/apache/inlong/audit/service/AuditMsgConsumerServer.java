@@ -19,6 +19,7 @@ package org.apache.inlong.audit.service;
 
 import org.apache.inlong.audit.config.ClickHouseConfig;
 import org.apache.inlong.audit.config.MessageQueueConfig;
+import org.apache.inlong.audit.config.RollupConfig;
 import org.apache.inlong.audit.config.StoreConfig;
 import org.apache.inlong.audit.consts.ConfigConstants;
 import org.apache.inlong.audit.db.dao.AuditDataDao;
@@ -43,6 +44,7 @@ import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -53,7 +55,7 @@ import java.util.List;
 import java.util.Properties;
 
 @Service
-public class AuditMsgConsumerServer implements InitializingBean {
+public class AuditMsgConsumerServer implements InitializingBean, DisposableBean {
 
     private static final Logger LOG = LoggerFactory.getLogger(AuditMsgConsumerServer.class);
     @Autowired
@@ -66,8 +68,13 @@ public class AuditMsgConsumerServer implements InitializingBean {
     private StoreConfig storeConfig;
     @Autowired
     private ClickHouseConfig chConfig;
+    @Autowired
+    private RollupConfig rollupConfig;
     // ClickHouseService
     private ClickHouseService ckService;
+    // RollupService
+    private RollupService rollupService;
+    private BaseConsume mqConsume;
 
     private static final String DEFAULT_CONFIG_PROPERTIES = "application.properties";
 
@@ -83,7 +90,6 @@ public class AuditMsgConsumerServer implements InitializingBean {
      */
     public void afterPropertiesSet() {
         List<MQInfo> mqInfoList = getClusterFromManager();
-        BaseConsume mqConsume = null;
         List<InsertData> insertServiceList = this.getInsertServiceList();
 
         for (MQInfo mqInfo : mqInfoList) {
@@ -112,9 +118,36 @@ public class AuditMsgConsumerServer implements InitializingBean {
         if (storeConfig.isClickHouseStore()) {
             ckService.start();
         }
+        if (rollupService != null) {
+            rollupService.start();
+        }
         mqConsume.start();
     }
 
+    /**
+     * Destroy bean, the consumer is stopped first, then the rollup windows are flushed before the storages are closed
+     */
+    @Override
+    public void destroy() {
+        if (mqConsume != null) {
+            mqConsume.stop();
+        }
+        if (rollupService != null) {
+            try {
+                rollupService.close();
+            } catch (Exception e) {
+                LOG.error("Close rollup service failure!", e);
+            }
+        }
+        if (ckService != null) {
+            try {
+                ckService.close();
+            } catch (Exception e) {
+                LOG.error("Close clickhouse service failure!", e);
+            }
+        }
+    }
+
     /**
      * getInsertServiceList
      *
@@ -122,8 +155,10 @@ public class AuditMsgConsumerServer implements InitializingBean {
      */
     private List<InsertData> getInsertServiceList() {
         List<InsertData> insertServiceList = new ArrayList<>();
+        // the row stores are written through the rollup if enabled
+        List<InsertData> rollupServiceList = rollupConfig.isEnable() ? new ArrayList<>() : insertServiceList;
         if (storeConfig.isMysqlStore()) {
-            insertServiceList.add(new MySqlService(auditDataDao));
+            rollupServiceList.add(new MySqlService(auditDataDao));
         }
         if (storeConfig.isElasticsearchStore()) {
             insertServiceList.add(esService);
@@ -131,7 +166,11 @@ public class AuditMsgConsumerServer implements InitializingBean {
         if (storeConfig.isClickHouseStore()) {
             // create ck object
             ckService = new ClickHouseService(chConfig);
-            insertServiceList.add(ckService);
+            rollupServiceList.add(ckService);
+        }
+        if (rollupServiceList != insertServiceList && !rollupServiceList.isEmpty()) {
+            rollupService = new RollupService(rollupConfig, rollupServiceList);
+            insertServiceList.add(rollupService);
         }
         return insertServiceList;
     }
@@ -191,12 +191,15 @@ public class ClickHouseService implements InsertData, AutoCloseable {
     }
 
     /**
-     * close
+     * close, the queued data is written before closing the connection
      * @throws Exception Exception when closing ClickHouse connection.
      */
     @Override
     public void close() throws Exception {
-        this.conn.close();
         this.timerService.shutdown();
+        this.timerService.awaitTermination(chConfig.getProcessIntervalMs(), TimeUnit.MILLISECONDS);
+        this.needBatchOutput.set(true);
+        this.processOutput();
+        this.conn.close();
     }
 }
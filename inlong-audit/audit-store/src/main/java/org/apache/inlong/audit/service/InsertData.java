@@ -19,6 +19,8 @@ package org.apache.inlong.audit.service;
 
 import org.apache.inlong.audit.protocol.AuditData;
 
+import java.util.List;
+
 /**
  * Insert Data interface
  */
@@ -28,4 +30,13 @@ public interface InsertData {
      * insert audit data to storage.
      */
     void insert(AuditData msgBody);
+
+    /**
+     * insert a batch of audit data to storage, one by one unless the storage supports batch writing.
+     */
+    default void insertBatch(List<AuditData> msgBodyList) {
+        for (AuditData msgBody : msgBodyList) {
+            insert(msgBody);
+        }
+    }
 }
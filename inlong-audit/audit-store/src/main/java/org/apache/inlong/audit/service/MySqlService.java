@@ -21,7 +21,9 @@ import org.apache.inlong.audit.db.dao.AuditDataDao;
 import org.apache.inlong.audit.db.entities.AuditDataPo;
 import org.apache.inlong.audit.protocol.AuditData;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * MySqlService
@@ -36,6 +38,22 @@ public class MySqlService implements InsertData {
 
     @Override
     public void insert(AuditData msgBody) {
+        dao.insert(toPo(msgBody));
+    }
+
+    @Override
+    public void insertBatch(List<AuditData> msgBodyList) {
+        if (msgBodyList.isEmpty()) {
+            return;
+        }
+        List<AuditDataPo> poList = new ArrayList<>(msgBodyList.size());
+        for (AuditData msgBody : msgBodyList) {
+            poList.add(toPo(msgBody));
+        }
+        dao.insertBatch(poList);
+    }
+
+    private AuditDataPo toPo(AuditData msgBody) {
         AuditDataPo po = new AuditDataPo();
         po.setIp(msgBody.getIp());
         po.setThreadId(msgBody.getThreadId());
@@ -49,7 +67,7 @@ public class MySqlService implements InsertData {
         po.setInlongGroupId(msgBody.getInlongGroupId());
         po.setInlongStreamId(msgBody.getInlongStreamId());
         po.setSize(msgBody.getSize());
-        dao.insert(po);
+        return po;
     }
 
 }
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.RollupConfig;
+import org.apache.inlong.audit.protocol.AuditData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RollupService, merges the audit data by log minute, groupId, streamId and auditId before writing them to
+ * the storages. A window is written once the watermark, the max log time seen minus the allowed lateness,
+ * passes its end, or once it has been held for the max hold time. The late data is merged into a new window
+ * and written with the next flush, the queries sum the count by log time, so the extra rows are harmless.
+ * A batch failing to be written to a storage is kept and retried for that storage with the next flush.
+ */
+public class RollupService implements InsertData, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RollupService.class);
+    private static final long WINDOW_MS = 60 * 1000L;
+
+    private final RollupConfig rollupConfig;
+    private final List<InsertData> insertServiceList;
+    private final ConcurrentHashMap<WindowKey, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong maxLogTs = new AtomicLong(Long.MIN_VALUE);
+    private final ScheduledExecutorService timerService = Executors.newSingleThreadScheduledExecutor();
+    // batches waiting to be written of every storage, guarded by this
+    private final Map<InsertData, Deque<List<AuditData>>> pendingBatches = new HashMap<>();
+
+    // metrics
+    private final AtomicLong inputCount = new AtomicLong(0);
+    private final AtomicLong outputCount = new AtomicLong(0);
+    private final AtomicLong lateCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private long lastInputCount = 0;
+    private long lastOutputCount = 0;
+    private long lastReportTime = System.currentTimeMillis();
+
+    /**
+     * Constructor
+     * @param rollupConfig rollup config, such as allowed lateness, max hold time and batch size.
+     * @param insertServiceList services that the merged audit data is written to.
+     */
+    public RollupService(RollupConfig rollupConfig, List<InsertData> insertServiceList) {
+        this.rollupConfig = rollupConfig;
+        this.insertServiceList = insertServiceList;
+    }
+
+    /**
+     * start
+     */
+    public void start() {
+        timerService.scheduleWithFixedDelay(() -> {
+            try {
+                flush(false);
+            } catch (Throwable t) {
+                LOG.error("Rollup flush failure!", t);
+            }
+        }, rollupConfig.getFlushIntervalMs(), rollupConfig.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * insert
+     * @param msgBody audit data reading from Pulsar or other MessageQueue.
+     */
+    @Override
+    public void insert(AuditData msgBody) {
+        long windowStart = msgBody.getLogTs() - Math.floorMod(msgBody.getLogTs(), WINDOW_MS);
+        long watermark = maxLogTs.accumulateAndGet(msgBody.getLogTs(), Math::max)
+                - rollupConfig.getAllowedLatenessMs();
+        if (windowStart + WINDOW_MS <= watermark) {
+            lateCount.incrementAndGet();
+        }
+        inputCount.incrementAndGet();
+        WindowKey key = new WindowKey(windowStart, msgBody.getInlongGroupId(), msgBody.getInlongStreamId(),
+                msgBody.getAuditId());
+        windows.compute(key, (k, window) -> {
+            if (window == null) {
+                window = new Window(System.currentTimeMillis());
+            }
+            window.add(msgBody);
+            return window;
+        });
+    }
+
+    /**
+     * flush the closed windows to the storages
+     * @param force whether to flush all the windows, such as on closing.
+     */
+    synchronized void flush(boolean force) {
+        long now = System.currentTimeMillis();
+        long watermark = maxLogTs.get() - rollupConfig.getAllowedLatenessMs();
+        List<AuditData> output = new ArrayList<>();
+        Iterator<Map.Entry<WindowKey, Window>> it = windows.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<WindowKey, Window> entry = it.next();
+            WindowKey key = entry.getKey();
+            if (force || key.windowStart + WINDOW_MS <= watermark
+                    || now - entry.getValue().createTime >= rollupConfig.getMaxHoldMs()) {
+                // remove under the lock of the key, so no record is added to a window after it is written
+                Window window = windows.remove(key);
+                if (window != null) {
+                    output.add(window.toAuditData(key));
+                }
+            }
+        }
+        int batchSize = Math.max(1, rollupConfig.getBatchSize());
+        List<List<AuditData>> batches = new ArrayList<>();
+        for (int i = 0; i < output.size(); i += batchSize) {
+            batches.add(new ArrayList<>(output.subList(i, Math.min(i + batchSize, output.size()))));
+        }
+        for (InsertData insertData : insertServiceList) {
+            Deque<List<AuditData>> pending = pendingBatches.computeIfAbsent(insertData, k -> new ArrayDeque<>());
+            pending.addAll(batches);
+            this.writeBatches(insertData, pending);
+        }
+        outputCount.addAndGet(output.size());
+        if (now - lastReportTime >= rollupConfig.getMetricIntervalMs()) {
+            reportMetrics(now);
+        }
+    }
+
+    /**
+     * write the pending batches to the storage in order, stop at the first failure and keep the rest for retry
+     */
+    private void writeBatches(InsertData insertData, Deque<List<AuditData>> pending) {
+        while (!pending.isEmpty()) {
+            try {
+                insertData.insertBatch(pending.peekFirst());
+                pending.pollFirst();
+            } catch (Exception e) {
+                LOG.error("Insert rollup audit data failure, {} batches will be retried!", pending.size(), e);
+                break;
+            }
+        }
+        while (pending.size() > Math.max(0, rollupConfig.getMaxRetryBatches())) {
+            List<AuditData> batch = pending.pollFirst();
+            droppedCount.addAndGet(batch.size());
+            LOG.error("Drop {} rollup audit data after failing to insert them, too many batches to retry",
+                    batch.size());
+        }
+    }
+
+    private int getPendingBatchCount() {
+        int count = 0;
+        for (Deque<List<AuditData>> pending : pendingBatches.values()) {
+            count += pending.size();
+        }
+        return count;
+    }
+
+    private void reportMetrics(long now) {
+        long input = inputCount.get();
+        long output = outputCount.get();
+        long periodInput = input - lastInputCount;
+        long periodOutput = output - lastOutputCount;
+        LOG.info("Rollup merged {} audit data into {} rows in {}ms, compression factor {}, late {}, open windows {},"
+                + " pending batches {}, dropped {}",
+                periodInput, periodOutput, now - lastReportTime,
+                String.format("%.2f", periodOutput == 0 ? 0.0 : (double) periodInput / periodOutput),
+                lateCount.get(), windows.size(), getPendingBatchCount(), droppedCount.get());
+        lastInputCount = input;
+        lastOutputCount = output;
+        lastReportTime = now;
+    }
+
+    public long getInputCount() {
+        return inputCount.get();
+    }
+
+    public long getOutputCount() {
+        return outputCount.get();
+    }
+
+    public long getLateCount() {
+        return lateCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * close, flush all the windows
+     */
+    @Override
+    public void close() {
+        this.timerService.shutdown();
+        try {
+            this.timerService.awaitTermination(rollupConfig.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+        int pendingBatchCount;
+        synchronized (this) {
+            pendingBatchCount = this.getPendingBatchCount();
+        }
+        if (pendingBatchCount > 0) {
+            LOG.error("Rollup closed with {} batches failing to be inserted", pendingBatchCount);
+        }
+    }
+
+    /**
+     * key of the rollup window
+     */
+    private static class WindowKey {
+
+        private final long windowStart;
+        private final String groupId;
+        private final String streamId;
+        private final String auditId;
+        private final int hash;
+
+        private WindowKey(long windowStart, String groupId, String streamId, String auditId) {
+            this.windowStart = windowStart;
+            this.groupId = groupId;
+            this.streamId = streamId;
+            this.auditId = auditId;
+            this.hash = Objects.hash(windowStart, groupId, streamId, auditId);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WindowKey)) {
+                return false;
+            }
+            WindowKey other = (WindowKey) o;
+            return windowStart == other.windowStart && Objects.equals(groupId, other.groupId)
+                    && Objects.equals(streamId, other.streamId) && Objects.equals(auditId, other.auditId);
+        }
+    }
+
+    /**
+     * merged audit data of a window, only touched under the lock of its key
+     */
+    private static class Window {
+
+        private final long createTime;
+        private String ip;
+        private String dockerId;
+        private String threadId;
+        private long sdkTs;
+        private long count;
+        private long size;
+        private long delay;
+        private int records;
+
+        private Window(long createTime) {
+            this.createTime = createTime;
+        }
+
+        private void add(AuditData data) {
+            if (records++ == 0) {
+                ip = data.getIp();
+                dockerId = data.getDockerId();
+                threadId = data.getThreadId();
+            } else {
+                // keep the source fields only if all the merged data share them
+                ip = Objects.equals(ip, data.getIp()) ? ip : "";
+                dockerId = Objects.equals(dockerId, data.getDockerId()) ? dockerId : "";
+                threadId = Objects.equals(threadId, data.getThreadId()) ? threadId : "";
+            }
+            sdkTs = Math.max(sdkTs, data.getSdkTs());
+            count += data.getCount();
+            size += data.getSize();
+            delay += data.getDelay();
+        }
+
+        private AuditData toAuditData(WindowKey key) {
+            AuditData data = new AuditData();
+            data.setIp(ip);
+            data.setDockerId(dockerId);
+            data.setThreadId(threadId);
+            data.setSdkTs(sdkTs);
+            data.setLogTs(key.windowStart);
+            data.setInlongGroupId(key.groupId);
+            data.setInlongStreamId(key.streamId);
+            data.setAuditId(key.auditId);
+            data.setCount(count);
+            data.setSize(size);
+            data.setDelay(delay);
+            return data;
+        }
+    }
+}
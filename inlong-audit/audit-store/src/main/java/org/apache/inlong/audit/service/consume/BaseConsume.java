@@ -27,16 +27,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public abstract class BaseConsume {
 
     private static final Logger LOG = LoggerFactory.getLogger(BaseConsume.class);
+    protected static final long STOP_WAIT_MS = 10000L;
 
     private final Gson gson = new Gson();
 
     protected List<InsertData> insertServiceList;
     protected StoreConfig storeConfig;
     protected MessageQueueConfig mqConfig;
+    protected volatile boolean running = true;
+    // the messages are handled under the read lock, stop takes the write lock to wait for them
+    private final ReentrantReadWriteLock handleLock = new ReentrantReadWriteLock();
+    private volatile boolean stopped = false;
 
     public BaseConsume(List<InsertData> insertServiceList, StoreConfig storeConfig,
             MessageQueueConfig mqConfig) {
@@ -47,20 +53,69 @@ public abstract class BaseConsume {
 
     public abstract void start();
 
+    /**
+     * stop the fetchers or the listeners of the message queue
+     */
+    protected abstract void stopConsumer();
+
+    /**
+     * stop consuming, it returns after the messages in handling are passed to the insert services,
+     * the messages arriving later are rejected and left unacked
+     */
+    public void stop() {
+        this.running = false;
+        try {
+            this.stopConsumer();
+        } catch (Exception e) {
+            LOG.error("Stop audit consumer failure!", e);
+        }
+        this.stopped = true;
+        handleLock.writeLock().lock();
+        handleLock.writeLock().unlock();
+    }
+
     /**
      * handleMessage
      * @param body
      * @throws Exception
      */
     protected void handleMessage(String body) throws Exception {
-        AuditData msgBody = gson.fromJson(body, AuditData.class);
-        this.insertServiceList.forEach((service) -> {
+        handleLock.readLock().lock();
+        try {
+            if (stopped) {
+                throw new IllegalStateException("Audit consumer is stopped");
+            }
+            AuditData msgBody = gson.fromJson(body, AuditData.class);
+            this.insertServiceList.forEach((service) -> {
+                try {
+                    service.insert(msgBody);
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            });
+        } finally {
+            handleLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * join the fetcher threads after they are told to stop
+     * @param threads
+     */
+    protected static void joinThreads(Thread... threads) {
+        long deadline = System.currentTimeMillis() + STOP_WAIT_MS;
+        for (Thread thread : threads) {
+            long waitMs = deadline - System.currentTimeMillis();
+            if (thread == null || waitMs <= 0) {
+                continue;
+            }
             try {
-                service.insert(msgBody);
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
+                thread.join(waitMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
-        });
+        }
     }
 
 }
@@ -27,6 +27,7 @@ import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
 import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
@@ -44,6 +45,7 @@ public class KafkaConsume extends BaseConsume {
     private KafkaConsumer<String, byte[]> consumer;
     private String serverUrl;
     private String topic;
+    private Thread fetchThread;
 
     /**
      * Constructor
@@ -69,9 +71,20 @@ public class KafkaConsume extends BaseConsume {
 
         initConsumer(mqConfig);
 
-        Thread thread = new Thread(new Fetcher(consumer, topic, isAutoCommit, mqConfig.getFetchWaitMs()),
+        fetchThread = new Thread(new Fetcher(consumer, topic, isAutoCommit, mqConfig.getFetchWaitMs()),
                 "KafkaConsume_Fetcher_Thread");
-        thread.start();
+        fetchThread.start();
+    }
+
+    /**
+     * wake up the fetcher, which commits the handled offsets and closes the consumer
+     */
+    @Override
+    protected void stopConsumer() {
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+        joinThreads(fetchThread);
     }
 
     protected void initConsumer(MessageQueueConfig mqConfig) {
@@ -105,7 +118,7 @@ public class KafkaConsume extends BaseConsume {
 
         @Override
         public void run() {
-            while (true) {
+            while (running) {
                 try {
                     // Set the waiting time of the consumer to 100ms
                     ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(fetchWaitMs));
@@ -121,10 +134,20 @@ public class KafkaConsume extends BaseConsume {
                             consumer.commitAsync();
                         }
                     }
+                } catch (WakeupException e) {
+                    LOG.info("kafka consumer is woken up to stop");
                 } catch (Exception e) {
                     LOG.error("kafka consumer get message error {}", e.getMessage());
                 }
             }
+            try {
+                if (!isAutoCommit) {
+                    consumer.commitSync();
+                }
+                consumer.close();
+            } catch (Exception e) {
+                LOG.error("kafka consumer close error {}", e.getMessage());
+            }
         }
     }
 }
@@ -44,6 +44,7 @@ public class PulsarConsume extends BaseConsume {
 
     private static final Logger LOG = LoggerFactory.getLogger(PulsarConsume.class);
     private final ConcurrentHashMap<String, List<Consumer<byte[]>>> topicConsumerMap = new ConcurrentHashMap<>();
+    private PulsarClient pulsarClient;
 
     /**
      * Constructor
@@ -64,10 +65,34 @@ public class PulsarConsume extends BaseConsume {
                 "no pulsar topic specified");
         Preconditions.checkArgument(StringUtils.isNotEmpty(mqConfig.getPulsarConsumerSubName()),
                 "no pulsar consumeSubName specified");
-        PulsarClient pulsarClient = getOrCreatePulsarClient(pulsarUrl);
+        pulsarClient = getOrCreatePulsarClient(pulsarUrl);
         updateConcurrentConsumer(pulsarClient);
     }
 
+    /**
+     * close the consumers, so that no new message is delivered to the listeners
+     */
+    @Override
+    protected void stopConsumer() {
+        for (List<Consumer<byte[]>> consumers : topicConsumerMap.values()) {
+            for (Consumer<byte[]> consumer : consumers) {
+                try {
+                    consumer.close();
+                } catch (PulsarClientException e) {
+                    LOG.error("close consumer of topic {} err {}", consumer.getTopic(), e);
+                }
+            }
+        }
+        topicConsumerMap.clear();
+        if (pulsarClient != null) {
+            try {
+                pulsarClient.close();
+            } catch (PulsarClientException e) {
+                LOG.error("close pulsar client err {}", e);
+            }
+        }
+    }
+
     private PulsarClient getOrCreatePulsarClient(String pulsarServerUrl) {
         LOG.info("start consumer pulsarServerUrl = {}", pulsarServerUrl);
         PulsarClient pulsarClient = null;
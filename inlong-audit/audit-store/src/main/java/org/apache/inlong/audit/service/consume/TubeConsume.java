@@ -45,6 +45,7 @@ public class TubeConsume extends BaseConsume {
     private String masterUrl;
     private String topic;
     private int fetchThreadCnt = 4;
+    private Thread[] fetchRunners;
 
     /**
      * Constructor
@@ -69,13 +70,33 @@ public class TubeConsume extends BaseConsume {
 
         initConsumer();
 
-        Thread[] fetchRunners = new Thread[fetchThreadCnt];
+        fetchRunners = new Thread[fetchThreadCnt];
         for (int i = 0; i < fetchThreadCnt; i++) {
             fetchRunners[i] = new Thread(new Fetcher(pullConsumer, topic), "TubeConsume_Fetcher_Thread_" + i);
             fetchRunners[i].start();
         }
     }
 
+    /**
+     * stop the fetchers, and then shutdown the consumer
+     */
+    @Override
+    protected void stopConsumer() {
+        if (fetchRunners != null) {
+            joinThreads(fetchRunners);
+        }
+        try {
+            if (pullConsumer != null) {
+                pullConsumer.shutdown();
+            }
+            if (sessionFactory != null) {
+                sessionFactory.shutdown();
+            }
+        } catch (Throwable e) {
+            LOG.error("shutdown tube consumer error {}", e.getMessage());
+        }
+    }
+
     private void initConsumer() {
         LOG.info("init tube consumer, topic:{}, masterList:{}", topic, masterUrl);
         ConsumerConfig consumerConfig = new ConsumerConfig(masterUrl, mqConfig.getTubeConsumerGroupName());
@@ -106,14 +127,14 @@ public class TubeConsume extends BaseConsume {
             ConsumerResult csmResult;
 
             // wait partition status ready
-            while (true) {
+            while (running) {
                 if (pullMessageConsumer.isPartitionsReady(5000) || pullMessageConsumer.isShutdown()) {
                     LOG.warn("tube partition is not ready or consumer is shutdown!");
                     break;
                 }
             }
             // consume messages
-            while (true) {
+            while (running) {
                 if (pullMessageConsumer.isShutdown()) {
                     LOG.warn("consumer is shutdown!");
                     break;
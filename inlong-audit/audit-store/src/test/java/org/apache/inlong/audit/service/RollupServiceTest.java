@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service;
+
+import org.apache.inlong.audit.config.RollupConfig;
+import org.apache.inlong.audit.protocol.AuditData;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class RollupServiceTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    private final List<AuditData> output = new ArrayList<>();
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private int failures;
+    private RollupService rollupService;
+
+    @Before
+    public void setUp() {
+        RollupConfig config = new RollupConfig();
+        config.setAllowedLatenessMs(MINUTE);
+        config.setMaxHoldMs(Long.MAX_VALUE);
+        config.setFlushIntervalMs(1000);
+        config.setBatchSize(2);
+        config.setMetricIntervalMs(MINUTE);
+        config.setMaxRetryBatches(2);
+        InsertData sink = new InsertData() {
+
+            @Override
+            public void insert(AuditData msgBody) {
+                insertBatch(Collections.singletonList(msgBody));
+            }
+
+            @Override
+            public void insertBatch(List<AuditData> msgBodyList) {
+                if (failures > 0) {
+                    failures--;
+                    throw new IllegalStateException("mock insert failure");
+                }
+                batchSizes.add(msgBodyList.size());
+                output.addAll(msgBodyList);
+            }
+        };
+        rollupService = new RollupService(config, Collections.singletonList(sink));
+    }
+
+    @Test
+    public void testMergeByMinute() {
+        long minute = 100 * MINUTE;
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream", 1, 10));
+        rollupService.insert(buildAuditData("2.2.2.2", minute + 1000, "stream", 2, 20));
+        rollupService.insert(buildAuditData("1.1.1.1", minute + 2000, "stream2", 3, 30));
+        rollupService.insert(buildAuditData("1.1.1.1", minute + MINUTE, "stream", 4, 40));
+        // nothing is closed before the watermark passes the window
+        rollupService.flush(false);
+        Assert.assertTrue(output.isEmpty());
+
+        rollupService.flush(true);
+        Assert.assertEquals(3, output.size());
+        Assert.assertEquals(Integer.valueOf(2), batchSizes.get(0));
+        for (AuditData data : output) {
+            if (data.getLogTs() == minute && "stream".equals(data.getInlongStreamId())) {
+                Assert.assertEquals(3, data.getCount());
+                Assert.assertEquals(30, data.getSize());
+                Assert.assertEquals("", data.getIp());
+            } else if (data.getLogTs() == minute) {
+                Assert.assertEquals(3, data.getCount());
+                Assert.assertEquals("1.1.1.1", data.getIp());
+            } else {
+                Assert.assertEquals(minute + MINUTE, data.getLogTs());
+                Assert.assertEquals(4, data.getCount());
+            }
+        }
+        Assert.assertEquals(4, rollupService.getInputCount());
+        Assert.assertEquals(3, rollupService.getOutputCount());
+    }
+
+    @Test
+    public void testWatermarkAndLateData() {
+        long minute = 100 * MINUTE;
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream", 1, 10));
+        rollupService.insert(buildAuditData("1.1.1.1", minute + 2 * MINUTE, "stream", 1, 10));
+        // the watermark passes the end of the first window only
+        rollupService.flush(false);
+        Assert.assertEquals(1, output.size());
+        Assert.assertEquals(minute, output.get(0).getLogTs());
+
+        // the late data is counted and written with the next flush
+        rollupService.insert(buildAuditData("1.1.1.1", minute + 1000, "stream", 5, 50));
+        Assert.assertEquals(1, rollupService.getLateCount());
+        rollupService.flush(false);
+        Assert.assertEquals(2, output.size());
+        Assert.assertEquals(minute, output.get(1).getLogTs());
+        Assert.assertEquals(5, output.get(1).getCount());
+
+        rollupService.close();
+        Assert.assertEquals(3, output.size());
+        Assert.assertEquals(minute + 2 * MINUTE, output.get(2).getLogTs());
+    }
+
+    @Test
+    public void testRetryFailedBatch() {
+        long minute = 100 * MINUTE;
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream", 1, 10));
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream2", 2, 20));
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream3", 3, 30));
+        // the first batch fails, the second one waits behind it
+        failures = 1;
+        rollupService.flush(true);
+        Assert.assertTrue(output.isEmpty());
+
+        // both batches are written with the next flush
+        rollupService.flush(false);
+        Assert.assertEquals(3, output.size());
+        Assert.assertEquals(0, rollupService.getDroppedCount());
+        rollupService.flush(false);
+        Assert.assertEquals(3, output.size());
+    }
+
+    @Test
+    public void testDropOldestBatchBeyondLimit() {
+        long minute = 100 * MINUTE;
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream", 1, 10));
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream2", 2, 20));
+        rollupService.insert(buildAuditData("1.1.1.1", minute, "stream3", 3, 30));
+        failures = 2;
+        rollupService.flush(true);
+        rollupService.insert(buildAuditData("1.1.1.1", minute + MINUTE, "stream", 4, 40));
+        // three batches are pending after failing again, the oldest one is dropped
+        rollupService.flush(true);
+        Assert.assertEquals(2, rollupService.getDroppedCount());
+
+        rollupService.close();
+        Assert.assertEquals(2, output.size());
+        Assert.assertEquals(minute + MINUTE, output.get(1).getLogTs());
+        Assert.assertEquals(4, output.get(1).getCount());
+    }
+
+    private AuditData buildAuditData(String ip, long logTs, String streamId, long count, long size) {
+        AuditData data = new AuditData();
+        data.setIp(ip);
+        data.setDockerId("docker");
+        data.setThreadId("thread");
+        data.setSdkTs(logTs);
+        data.setLogTs(logTs);
+        data.setInlongGroupId("group");
+        data.setInlongStreamId(streamId);
+        data.setAuditId("1");
+        data.setCount(count);
+        data.setSize(size);
+        data.setDelay(count);
+        return data;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.audit.service.consume;
+
+import org.apache.inlong.audit.protocol.AuditData;
+import org.apache.inlong.audit.service.InsertData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BaseConsumeTest {
+
+    @Test
+    public void testStopWaitsForHandlingMessages() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<AuditData> output = Collections.synchronizedList(new ArrayList<>());
+        InsertData sink = msgBody -> {
+            inserting.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            output.add(msgBody);
+        };
+        List<String> stopCalls = Collections.synchronizedList(new ArrayList<>());
+        BaseConsume consume = new BaseConsume(Collections.singletonList(sink), null, null) {
+
+            @Override
+            public void start() {
+            }
+
+            @Override
+            protected void stopConsumer() {
+                stopCalls.add("stopConsumer");
+            }
+        };
+        Thread handler = new Thread(() -> {
+            try {
+                consume.handleMessage("{\"auditId\":\"1\",\"count\":1}");
+            } catch (Exception e) {
+                Assert.fail(e.getMessage());
+            }
+        });
+        handler.start();
+        Assert.assertTrue(inserting.await(10, TimeUnit.SECONDS));
+
+        Thread stopper = new Thread(consume::stop);
+        stopper.start();
+        // stop waits for the message in handling
+        stopper.join(200);
+        Assert.assertTrue(stopper.isAlive());
+        Assert.assertEquals(Collections.singletonList("stopConsumer"), stopCalls);
+        release.countDown();
+        stopper.join(10000);
+        Assert.assertFalse(stopper.isAlive());
+        Assert.assertEquals(1, output.size());
+
+        // the messages after stop are rejected, so they are not acked
+        try {
+            consume.handleMessage("{\"auditId\":\"1\",\"count\":1}");
+            Assert.fail("the message is handled after stop");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(1, output.size());
+        }
+    }
+}
@@ -17,12 +17,21 @@
 
 package org.apache.inlong.dataproxy.source2;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.http.HttpContentDecompressor;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -61,25 +70,77 @@ public class InLongMessageFactory extends ChannelInitializer<SocketChannel> {
                     new ReadTimeoutHandler(source.getMaxReadIdleTimeMs(), TimeUnit.MILLISECONDS));
         } else if (source.getProtocolName().equalsIgnoreCase(SourceConstants.SRC_PROTOCOL_TYPE_HTTP)) {
             // add http message codec
-            ch.pipeline().addLast("msgCodec", new HttpServerCodec());
-            ch.pipeline().addLast("msgAggregator", new HttpObjectAggregator(source.getMaxMsgLength()));
+            HttpServerCodec httpCodec = new HttpServerCodec();
+            if (source instanceof SimpleHttpSource && ((SimpleHttpSource) source).isHttp2Enabled()) {
+                // the connection starting with the http2 preface is switched to http2 with prior knowledge,
+                // and each http2 stream gets its own http message pipeline, so the requests are multiplexed
+                HttpServerUpgradeHandler upgradeHandler = new HttpServerUpgradeHandler(httpCodec, protocol -> null);
+                ch.pipeline().addLast("msgCodec", new CleartextHttp2ServerUpgradeHandler(httpCodec, upgradeHandler,
+                        new ChannelInitializer<Channel>() {
+
+                            @Override
+                            protected void initChannel(Channel channel) {
+                                // the http messages are handled by the streams, the connection handlers
+                                // would also swallow the read complete events which flush the streams
+                                channel.pipeline().remove("msgDecompressor");
+                                channel.pipeline().remove("msgAggregator");
+                                if (channel.pipeline().get("messageHandler") != null) {
+                                    channel.pipeline().remove("messageHandler");
+                                }
+                                channel.pipeline().addLast(Http2FrameCodecBuilder.forServer().build(),
+                                        new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+
+                                            @Override
+                                            protected void initChannel(Http2StreamChannel streamChannel) {
+                                                streamChannel.pipeline().addLast("msgCodec",
+                                                        new Http2StreamFrameToHttpObjectCodec(true));
+                                                addHttpMessageHandlers(streamChannel);
+                                            }
+                                        }));
+                            }
+                        }));
+            } else {
+                ch.pipeline().addLast("msgCodec", httpCodec);
+            }
             ch.pipeline().addLast("readTimeoutHandler",
                     new ReadTimeoutHandler(source.getMaxReadIdleTimeMs(), TimeUnit.MILLISECONDS));
-
+            addHttpMessageHandlers(ch);
+            return;
         }
         // build message handler
-        if (source.getChannelProcessor() != null) {
-            try {
-                Class<? extends ChannelInboundHandlerAdapter> clazz =
-                        (Class<? extends ChannelInboundHandlerAdapter>) Class.forName(source.getMessageHandlerName());
-                Constructor<?> ctor = clazz.getConstructor(BaseSource.class);
-                ChannelInboundHandlerAdapter messageHandler =
-                        (ChannelInboundHandlerAdapter) ctor.newInstance(source);
-                ch.pipeline().addLast("messageHandler", messageHandler);
-            } catch (Exception e) {
-                LOG.error("{} newInstance {} failure!", source.getName(),
-                        source.getMessageHandlerName(), e);
-            }
+        ChannelHandler messageHandler = buildMessageHandler();
+        if (messageHandler != null) {
+            ch.pipeline().addLast("messageHandler", messageHandler);
+        }
+    }
+
+    /**
+     * add the decompressor, aggregator and message handler after the http message codec
+     *
+     * @param ch channel of the connection or the http2 stream
+     */
+    private void addHttpMessageHandlers(Channel ch) {
+        ch.pipeline().addLast("msgDecompressor", new HttpContentDecompressor());
+        ch.pipeline().addLast("msgAggregator", new HttpObjectAggregator(source.getMaxMsgLength()));
+        ChannelHandler messageHandler = buildMessageHandler();
+        if (messageHandler != null) {
+            ch.pipeline().addLast("messageHandler", messageHandler);
+        }
+    }
+
+    private ChannelHandler buildMessageHandler() {
+        if (source.getChannelProcessor() == null) {
+            return null;
+        }
+        try {
+            Class<? extends ChannelInboundHandlerAdapter> clazz =
+                    (Class<? extends ChannelInboundHandlerAdapter>) Class.forName(source.getMessageHandlerName());
+            Constructor<?> ctor = clazz.getConstructor(BaseSource.class);
+            return (ChannelInboundHandlerAdapter) ctor.newInstance(source);
+        } catch (Exception e) {
+            LOG.error("{} newInstance {} failure!", source.getName(),
+                    source.getMessageHandlerName(), e);
+            return null;
         }
     }
 }
@@ -44,6 +44,7 @@ public class SimpleHttpSource extends BaseSource implements Configurable {
     private ServerBootstrap bootstrap;
     private boolean tcpNoDelay;
     private int highWaterMark;
+    private boolean http2Enabled;
 
     public SimpleHttpSource() {
         super();
@@ -62,6 +63,9 @@ public class SimpleHttpSource extends BaseSource implements Configurable {
         Preconditions.checkArgument((this.highWaterMark >= SourceConstants.VAL_MIN_TCP_HIGH_WATER_MARK),
                 SourceConstants.VAL_DEF_TCP_HIGH_WATER_MARK + " must be >= "
                         + SourceConstants.VAL_MIN_TCP_HIGH_WATER_MARK);
+        // get http2 enabled parameter
+        this.http2Enabled = context.getBoolean(SourceConstants.SRCCXT_HTTP2_ENABLED,
+                SourceConstants.VAL_DEF_HTTP2_ENABLED);
     }
 
     @Override
@@ -104,6 +108,10 @@ public class SimpleHttpSource extends BaseSource implements Configurable {
         super.stop();
     }
 
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
     @Override
     public String getProtocolName() {
         return SourceConstants.SRC_PROTOCOL_TYPE_HTTP;
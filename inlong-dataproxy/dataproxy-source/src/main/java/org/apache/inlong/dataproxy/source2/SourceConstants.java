@@ -94,6 +94,9 @@ public class SourceConstants {
     public static final long VAL_DEF_READ_IDLE_TIME_MS = 3 * 60 * 1000;
     public static final long VAL_MIN_READ_IDLE_TIME_MS = 60 * 1000;
     public static final long VAL_MAX_READ_IDLE_TIME_MS = 70 * 60 * 1000;
+    // whether accept http2 cleartext connections with prior knowledge on http source
+    public static final String SRCCXT_HTTP2_ENABLED = "http2Enabled";
+    public static final boolean VAL_DEF_HTTP2_ENABLED = false;
     // source protocol type
     public static final String SRC_PROTOCOL_TYPE_TCP = "tcp";
     public static final String SRC_PROTOCOL_TYPE_UDP = "udp";
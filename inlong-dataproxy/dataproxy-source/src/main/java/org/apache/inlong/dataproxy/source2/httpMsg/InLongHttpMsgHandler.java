@@ -42,10 +42,12 @@ import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.CharsetUtil;
 import org.apache.commons.lang3.StringUtils;
@@ -59,6 +61,7 @@ import org.slf4j.LoggerFactory;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.netty.handler.codec.http.HttpUtil.is100ContinueExpected;
@@ -123,7 +126,7 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
             }
         }
         // check requested service url
-        if (!reqUri.startsWith(hbSrvUrl) || !reqUri.startsWith(msgSrvUrl)) {
+        if (!reqUri.startsWith(hbSrvUrl) && !reqUri.startsWith(msgSrvUrl)) {
             source.fileMetricEventInc(StatConstants.EVENT_HTTP_INVALIDURI);
             sendErrorMsg(ctx, HttpResponseStatus.NOT_IMPLEMENTED, "Not supported uri!");
             return;
@@ -163,9 +166,9 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
     private boolean processMessage(ChannelHandlerContext ctx, FullHttpRequest req,
             long msgRcvTime, String clientIp) throws Exception {
         // get and check groupId
-        HttpHeaders headers = req.headers();
+        Map<String, List<String>> params = getRequestParams(req);
         StringBuilder strBuff = new StringBuilder(512);
-        String groupId = headers.get(AttributeConstants.GROUP_ID);
+        String groupId = getRequestField(req, params, AttributeConstants.GROUP_ID);
         if (StringUtils.isEmpty(groupId)) {
             source.fileMetricEventInc(StatConstants.EVENT_HTTP_WITHOUTGROUPID);
             sendResponse(ctx, DataProxyErrCode.MISS_REQUIRED_GROUPID_ARGUMENT.getErrCode(),
@@ -175,7 +178,7 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
             return false;
         }
         // get and check streamId
-        String streamId = headers.get(AttributeConstants.STREAM_ID);
+        String streamId = getRequestField(req, params, AttributeConstants.STREAM_ID);
         if (StringUtils.isEmpty(streamId)) {
             source.fileMetricEventInc(StatConstants.EVENT_HTTP_WITHOUTSTREAMID);
             sendResponse(ctx, DataProxyErrCode.MISS_REQUIRED_STREAMID_ARGUMENT.getErrCode(),
@@ -201,7 +204,7 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
         }
         // get and check dt
         long dataTime = msgRcvTime;
-        String dt = headers.get(AttributeConstants.DATA_TIME);
+        String dt = getRequestField(req, params, AttributeConstants.DATA_TIME);
         if (StringUtils.isNotEmpty(dt)) {
             try {
                 dataTime = Long.parseLong(dt);
@@ -210,12 +213,12 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
             }
         }
         // get char set
-        String charset = headers.get(AttrConstants.CHARSET);
+        String charset = getRequestField(req, params, AttrConstants.CHARSET);
         if (StringUtils.isBlank(charset)) {
             charset = AttrConstants.CHARSET;
         }
         // get and check body
-        String body = headers.get(AttrConstants.BODY);
+        String body = getRequestField(req, params, AttrConstants.BODY);
         if (StringUtils.isBlank(body)) {
             if (body == null) {
                 source.fileMetricEventInc(StatConstants.EVENT_HTTP_NOBODY);
@@ -242,7 +245,7 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
             return false;
         }
         // get message count
-        String strMsgCount = headers.get(AttributeConstants.MESSAGE_COUNT);
+        String strMsgCount = getRequestField(req, params, AttributeConstants.MESSAGE_COUNT);
         int intMsgCnt = NumberUtils.toInt(strMsgCount, 1);
         strMsgCount = String.valueOf(intMsgCnt);
         // build message attributes
@@ -328,6 +331,32 @@ public class InLongHttpMsgHandler extends SimpleChannelInboundHandler<FullHttpRe
         }
     }
 
+    /**
+     * get the parameters in the query string and in the form content of the request
+     */
+    private Map<String, List<String>> getRequestParams(FullHttpRequest req) {
+        Map<String, List<String>> params = new HashMap<>(new QueryStringDecoder(req.uri()).parameters());
+        String contentType = req.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (req.method() == HttpMethod.POST && req.content().isReadable() && contentType != null
+                && contentType.startsWith(HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED.toString())) {
+            params.putAll(new QueryStringDecoder(req.content().toString(CharsetUtil.UTF_8), false).parameters());
+        }
+        return params;
+    }
+
+    /**
+     * get the field from the headers, or from the parameters if the header is absent
+     */
+    private String getRequestField(FullHttpRequest req, Map<String, List<String>> params, String name) {
+        HttpHeaders headers = req.headers();
+        String value = headers.get(name);
+        if (value != null) {
+            return value;
+        }
+        List<String> values = params.get(name);
+        return (values == null || values.isEmpty()) ? null : values.get(0);
+    }
+
     private boolean checkClose(FullHttpRequest req) {
         String connStatus = req.headers().get("Connection");
         return !StringUtils.isBlank(connStatus) && "close".equalsIgnoreCase(connStatus);
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.dataproxy.source2;
+
+import org.apache.inlong.common.enums.DataProxyErrCode;
+import org.apache.inlong.common.msg.AttributeConstants;
+import org.apache.inlong.dataproxy.config.ConfigManager;
+import org.apache.inlong.dataproxy.consts.AttrConstants;
+import org.apache.inlong.dataproxy.utils.MockUtils;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.util.CharsetUtil;
+import org.apache.flume.Event;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TestInLongMessageFactory, the http source with http2 enabled serves both http2 with prior knowledge
+ * and http/1.1 by the real message handler
+ */
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.script.*", "com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*",
+        "org.w3c.*"})
+@PrepareForTest({ConfigManager.class})
+public class TestInLongMessageFactory {
+
+    private static final String MSG_URI = "/dataproxy/message";
+    private static final long WAIT_SECONDS = 10;
+
+    private final List<Event> events = new CopyOnWriteArrayList<>();
+    private EventLoopGroup group;
+    private Channel serverChannel;
+    private int port;
+
+    @Before
+    public void setUp() throws Exception {
+        MockUtils.mockConfigManager();
+        SimpleHttpSource source = MockUtils.mockHttpSource(true, events);
+        group = new NioEventLoopGroup(2);
+        serverChannel = new ServerBootstrap().group(group)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new InLongMessageFactory(source))
+                .bind("127.0.0.1", 0).sync().channel();
+        port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverChannel.close().sync();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).sync();
+    }
+
+    /**
+     * testHttp2Streams, the requests of concurrent streams over one connection are all processed
+     */
+    @Test
+    public void testHttp2Streams() throws Exception {
+        Channel channel = new Bootstrap().group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(Http2FrameCodecBuilder.forClient().build(),
+                                new Http2MultiplexHandler(new ResponseHandler(new CompletableFuture<>())));
+                    }
+                })
+                .connect("127.0.0.1", port).sync().channel();
+        List<CompletableFuture<FullHttpResponse>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CompletableFuture<FullHttpResponse> future = new CompletableFuture<>();
+            futures.add(future);
+            Http2StreamChannel stream = new Http2StreamChannelBootstrap(channel)
+                    .handler(new ChannelInitializer<Http2StreamChannel>() {
+
+                        @Override
+                        protected void initChannel(Http2StreamChannel ch) {
+                            ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false),
+                                    new HttpObjectAggregator(SourceConstants.VAL_DEF_MAX_MSG_LENGTH),
+                                    new ResponseHandler(future));
+                        }
+                    })
+                    .open().sync().getNow();
+            stream.writeAndFlush(newRequest("body" + i)).addListener(writeFuture -> {
+                if (!writeFuture.isSuccess()) {
+                    future.completeExceptionally(writeFuture.cause());
+                }
+            });
+        }
+        for (CompletableFuture<FullHttpResponse> future : futures) {
+            Assert.assertEquals(DataProxyErrCode.SUCCESS.getErrCode(), getCode(future));
+        }
+        Assert.assertEquals(3, events.size());
+        channel.close().sync();
+    }
+
+    /**
+     * testHttp1, the connection without the http2 preface is still served by http/1.1
+     */
+    @Test
+    public void testHttp1() throws Exception {
+        CompletableFuture<FullHttpResponse> future = new CompletableFuture<>();
+        Channel channel = new Bootstrap().group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new HttpClientCodec(),
+                                new HttpObjectAggregator(SourceConstants.VAL_DEF_MAX_MSG_LENGTH),
+                                new ResponseHandler(future));
+                    }
+                })
+                .connect("127.0.0.1", port).sync().channel();
+        FullHttpRequest request = newRequest("body");
+        request.headers().set(HttpHeaderNames.HOST, "127.0.0.1:" + port);
+        channel.writeAndFlush(request);
+        Assert.assertEquals(DataProxyErrCode.SUCCESS.getErrCode(), getCode(future));
+        Assert.assertEquals(1, events.size());
+        channel.close().sync();
+    }
+
+    private static FullHttpRequest newRequest(String body) {
+        String content = AttributeConstants.GROUP_ID + "=" + MockUtils.INLONG_GROUP_ID1
+                + "&" + AttributeConstants.STREAM_ID + "=stream1&" + AttrConstants.BODY + "=" + body;
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, MSG_URI,
+                Unpooled.copiedBuffer(content, CharsetUtil.UTF_8));
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED);
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+        return request;
+    }
+
+    /**
+     * get the code of the json result, such as {"code":"0","msg":"Ok"}
+     */
+    private static int getCode(CompletableFuture<FullHttpResponse> future) throws Exception {
+        FullHttpResponse response = future.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        String result = response.content().toString(CharsetUtil.UTF_8);
+        response.release();
+        int begin = result.indexOf("\"code\":\"") + "\"code\":\"".length();
+        return Integer.parseInt(result.substring(begin, result.indexOf('"', begin)));
+    }
+
+    /**
+     * ResponseHandler
+     */
+    private static class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        private final CompletableFuture<FullHttpResponse> future;
+
+        private ResponseHandler(CompletableFuture<FullHttpResponse> future) {
+            super(false);
+            this.future = future;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            future.complete(response);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            future.completeExceptionally(cause);
+        }
+    }
+}
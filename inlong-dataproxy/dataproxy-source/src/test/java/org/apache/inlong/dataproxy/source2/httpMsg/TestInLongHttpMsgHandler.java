@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.dataproxy.source2.httpMsg;
+
+import org.apache.inlong.common.enums.DataProxyErrCode;
+import org.apache.inlong.common.msg.AttributeConstants;
+import org.apache.inlong.dataproxy.config.ConfigManager;
+import org.apache.inlong.dataproxy.consts.AttrConstants;
+import org.apache.inlong.dataproxy.consts.ConfigConstants;
+import org.apache.inlong.dataproxy.utils.MockUtils;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.CharsetUtil;
+import org.apache.flume.Event;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TestInLongHttpMsgHandler
+ */
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore({"javax.management.*", "javax.script.*", "com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*",
+        "org.w3c.*"})
+@PrepareForTest({ConfigManager.class})
+public class TestInLongHttpMsgHandler {
+
+    private static final String MSG_URI = "/dataproxy/message";
+    private static final String HB_URI = "/dataproxy/heartbeat";
+
+    /**
+     * testFormContent, the fields of a message are read from the form content
+     */
+    @Test
+    public void testFormContent() throws Exception {
+        List<Event> events = new ArrayList<>();
+        EmbeddedChannel channel = newChannel(events);
+        String content = AttributeConstants.GROUP_ID + "=" + MockUtils.INLONG_GROUP_ID1
+                + "&" + AttributeConstants.STREAM_ID + "=stream1"
+                + "&" + AttributeConstants.DATA_TIME + "=1600000000000"
+                + "&" + AttrConstants.BODY + "=a%26b";
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, MSG_URI,
+                Unpooled.copiedBuffer(content, CharsetUtil.UTF_8));
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED);
+        Assert.assertEquals(DataProxyErrCode.SUCCESS.getErrCode(), send(channel, request));
+        Assert.assertEquals(1, events.size());
+        Event event = events.get(0);
+        Assert.assertEquals(MockUtils.INLONG_GROUP_ID1, event.getHeaders().get(AttributeConstants.GROUP_ID));
+        Assert.assertEquals("stream1", event.getHeaders().get(AttributeConstants.STREAM_ID));
+        Assert.assertEquals("1600000000000", event.getHeaders().get(AttributeConstants.DATA_TIME));
+        Assert.assertEquals(MockUtils.SINK_DATA_ID, event.getHeaders().get(ConfigConstants.TOPIC_KEY));
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * testQueryStringAndHeaders, the headers take precedence over the query string
+     */
+    @Test
+    public void testQueryStringAndHeaders() throws Exception {
+        List<Event> events = new ArrayList<>();
+        EmbeddedChannel channel = newChannel(events);
+        String uri = MSG_URI + "?" + AttributeConstants.GROUP_ID + "=" + MockUtils.INLONG_GROUP_ID1
+                + "&" + AttributeConstants.STREAM_ID + "=stream1&" + AttrConstants.BODY + "=body";
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+        request.headers().set(AttributeConstants.STREAM_ID, "stream2");
+        Assert.assertEquals(DataProxyErrCode.SUCCESS.getErrCode(), send(channel, request));
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals("stream2", events.get(0).getHeaders().get(AttributeConstants.STREAM_ID));
+        // the missing field is reported
+        request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET,
+                MSG_URI + "?" + AttrConstants.BODY + "=body");
+        Assert.assertEquals(DataProxyErrCode.MISS_REQUIRED_GROUPID_ARGUMENT.getErrCode(), send(channel, request));
+        Assert.assertEquals(1, events.size());
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * testServiceUri, either the heartbeat or the message uri is accepted
+     */
+    @Test
+    public void testServiceUri() throws Exception {
+        EmbeddedChannel channel = newChannel(new ArrayList<>());
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, HB_URI);
+        Assert.assertEquals(DataProxyErrCode.SUCCESS.getErrCode(), send(channel, request));
+        request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/dataproxy/unknown");
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+        Assert.assertEquals(HttpResponseStatus.NOT_IMPLEMENTED, response.status());
+        response.release();
+        channel.finishAndReleaseAll();
+    }
+
+    private EmbeddedChannel newChannel(List<Event> events) throws Exception {
+        MockUtils.mockConfigManager();
+        return new EmbeddedChannel(new InLongHttpMsgHandler(MockUtils.mockHttpSource(false, events)));
+    }
+
+    /**
+     * send the request and get the code of the response
+     */
+    private static int send(EmbeddedChannel channel, FullHttpRequest request) {
+        channel.writeInbound(request);
+        FullHttpResponse response = channel.readOutbound();
+        Assert.assertEquals(HttpResponseStatus.OK, response.status());
+        String result = response.content().toString(CharsetUtil.UTF_8);
+        response.release();
+        return getCode(result);
+    }
+
+    /**
+     * get the code of the json result, such as {"code":"0","msg":"Ok"}
+     */
+    static int getCode(String result) {
+        int begin = result.indexOf("\"code\":\"") + "\"code\":\"".length();
+        return Integer.parseInt(result.substring(begin, result.indexOf('"', begin)));
+    }
+}
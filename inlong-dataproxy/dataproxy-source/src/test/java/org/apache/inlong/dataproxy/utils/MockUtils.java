@@ -18,10 +18,15 @@
 package org.apache.inlong.dataproxy.utils;
 
 import org.apache.inlong.common.metric.MetricRegister;
+import org.apache.inlong.dataproxy.config.ConfigManager;
+import org.apache.inlong.dataproxy.source2.SimpleHttpSource;
+import org.apache.inlong.dataproxy.source2.SourceConstants;
+import org.apache.inlong.dataproxy.source2.httpMsg.InLongHttpMsgHandler;
 
 import org.apache.flume.Channel;
 import org.apache.flume.Event;
 import org.apache.flume.Transaction;
+import org.apache.flume.channel.ChannelProcessor;
 import org.apache.flume.event.EventBuilder;
 import org.apache.pulsar.client.api.ClientBuilder;
 import org.apache.pulsar.client.api.MessageId;
@@ -32,6 +37,7 @@ import org.apache.pulsar.client.api.TypedMessageBuilder;
 import org.powermock.api.mockito.PowerMockito;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
@@ -151,6 +157,39 @@ public class MockUtils {
         return producer;
     }
 
+    /**
+     * mockConfigManager, the mq clusters are ready and every stream has a topic,
+     * the test should prepare ConfigManager for the static mock
+     */
+    public static ConfigManager mockConfigManager() throws Exception {
+        ConfigManager configManager = PowerMockito.mock(ConfigManager.class);
+        PowerMockito.mockStatic(ConfigManager.class);
+        PowerMockito.when(ConfigManager.getInstance()).thenReturn(configManager);
+        PowerMockito.when(configManager.needChkIllegalIP()).thenReturn(false);
+        PowerMockito.when(configManager.isMqClusterReady()).thenReturn(true);
+        PowerMockito.when(configManager.getTopicName(anyString(), anyString())).thenReturn(SINK_DATA_ID);
+        return configManager;
+    }
+
+    /**
+     * mockHttpSource, the events processed by the source are added to the list
+     */
+    public static SimpleHttpSource mockHttpSource(boolean http2Enabled, List<Event> events) throws Exception {
+        SimpleHttpSource source = PowerMockito.mock(SimpleHttpSource.class);
+        PowerMockito.when(source.getProtocolName()).thenReturn(SourceConstants.SRC_PROTOCOL_TYPE_HTTP);
+        PowerMockito.when(source.isHttp2Enabled()).thenReturn(http2Enabled);
+        PowerMockito.when(source.getMaxMsgLength()).thenReturn(SourceConstants.VAL_DEF_MAX_MSG_LENGTH);
+        PowerMockito.when(source.getMaxReadIdleTimeMs()).thenReturn(SourceConstants.VAL_DEF_READ_IDLE_TIME_MS);
+        PowerMockito.when(source.getMessageHandlerName()).thenReturn(InLongHttpMsgHandler.class.getName());
+        PowerMockito.when(source.getDefTopic()).thenReturn(SINK_DATA_ID);
+        PowerMockito.when(source.isRejectService()).thenReturn(false);
+        ChannelProcessor channelProcessor = PowerMockito.mock(ChannelProcessor.class);
+        PowerMockito.doAnswer(invocation -> events.add(invocation.getArgument(0)))
+                .when(channelProcessor).processEvent(any());
+        PowerMockito.when(source.getChannelProcessor()).thenReturn(channelProcessor);
+        return source;
+    }
+
     /**
      * mockMetricRegister
      */
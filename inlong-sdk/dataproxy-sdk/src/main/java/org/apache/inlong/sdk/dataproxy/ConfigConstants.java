@@ -47,6 +47,19 @@ public class ConfigConstants {
 
     public static final int PROXY_UPDATE_MAX_RETRY = 10;
 
+    /* Configure the http sender, the request bodies not smaller than the threshold are compressed. */
+    public static final int DEFAULT_HTTP_COMPRESS_THRESHOLD = 1024;
+    public static final int MAX_HTTP_RESPONSE_LENGTH = 64 * 1024;
+
+    /* Configure the batching of async single message sending, batching is disabled if linger is 0. */
+    public static final int DEFAULT_BATCH_LINGER_MS = 0;
+    public static final int DEFAULT_BATCH_MAX_BYTES = 64 * 1024;
+    public static final int DEFAULT_BATCH_MAX_COUNT = 1000;
+
+    /* Configure the disk buffer of async message sending, the disk buffer is disabled if its path is null. */
+    public static final long DEFAULT_DISK_BUFFER_MAX_BYTES = 1024L * 1024 * 1024;
+    public static final int DEFAULT_DISK_BUFFER_SEGMENT_BYTES = 64 * 1024 * 1024;
+
     public static final int MAX_LINE_CNT = 30;
 
     /* Default connection,connect timeout in milliseconds. */
@@ -22,9 +22,12 @@ import org.apache.inlong.common.util.MessageUtils;
 import org.apache.inlong.sdk.dataproxy.codec.EncodeObject;
 import org.apache.inlong.sdk.dataproxy.config.ProxyConfigEntry;
 import org.apache.inlong.sdk.dataproxy.config.ProxyConfigManager;
+import org.apache.inlong.sdk.dataproxy.network.DiskBuffer;
 import org.apache.inlong.sdk.dataproxy.network.ProxysdkException;
+import org.apache.inlong.sdk.dataproxy.network.RecordAccumulator;
 import org.apache.inlong.sdk.dataproxy.network.Sender;
 import org.apache.inlong.sdk.dataproxy.network.SequentialID;
+import org.apache.inlong.sdk.dataproxy.network.SyncSendCallback;
 import org.apache.inlong.sdk.dataproxy.network.Utils;
 import org.apache.inlong.sdk.dataproxy.threads.IndexCollectThread;
 import org.apache.inlong.sdk.dataproxy.threads.ManagerFetcherThread;
@@ -33,6 +36,7 @@ import org.apache.inlong.sdk.dataproxy.utils.ProxyUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,6 +49,7 @@ public class DefaultMessageSender implements MessageSender {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMessageSender.class);
     private static final long DEFAULT_SEND_TIMEOUT = 100;
     private static final TimeUnit DEFAULT_SEND_TIMEUNIT = TimeUnit.MILLISECONDS;
+    private static final long DISK_BUFFER_REPLAY_TIMEOUT_MS = 3000L;
     private static final ConcurrentHashMap<Integer, DefaultMessageSender> CACHE_SENDER =
             new ConcurrentHashMap<>();
     private static final AtomicBoolean MANAGER_FETCHER_THREAD_STARTED = new AtomicBoolean(false);
@@ -52,6 +57,10 @@ public class DefaultMessageSender implements MessageSender {
     private static final SequentialID idGenerator = new SequentialID(Utils.getLocalIp());
     private final Sender sender;
     private final IndexCollectThread indexCol;
+    /* Accumulator of async single messages, null if batching is disabled */
+    private final RecordAccumulator accumulator;
+    /* Disk buffer of async packs that proxies can not accept, null if it is disabled */
+    private final DiskBuffer diskBuffer;
     /* Store index <groupId_streamId,cnt> */
     private final Map<String, Long> storeIndex = new ConcurrentHashMap<String, Long>();
     private String groupId;
@@ -72,6 +81,24 @@ public class DefaultMessageSender implements MessageSender {
         groupId = configure.getGroupId();
         indexCol = new IndexCollectThread(storeIndex);
         indexCol.start();
+        if (configure.getDiskBufferPath() != null) {
+            diskBuffer = new DiskBuffer(configure.getDiskBufferPath(), configure.getDiskBufferMaxBytes(),
+                    configure.getDiskBufferSegmentBytes(), configure.getBatchMaxCount(), configure.getBatchMaxBytes(),
+                    configure.isFile(), this::replayPack, configure.getDiskBufferListener());
+        } else {
+            diskBuffer = null;
+        }
+        if (configure.getBatchLingerMs() > 0) {
+            accumulator = new RecordAccumulator(configure.getBatchLingerMs(), configure.getBatchMaxBytes(),
+                    configure.getBatchMaxCount(),
+                    (callback, bodyList, batchGroupId, streamId, dt, timeout, timeUnit, isProxySend) -> {
+                        validatePack(bodyList, dt);
+                        sendPack(callback, bodyList, batchGroupId, streamId, dt, idGenerator.getNextId(),
+                                timeout, timeUnit, isProxySend);
+                    }, sender);
+        } else {
+            accumulator = null;
+        }
 
         if (configure.isEnableSaveManagerVIps()
                 && configure.isLocalVisit()
@@ -219,6 +246,16 @@ public class DefaultMessageSender implements MessageSender {
             return SendResult.INVALID_ATTRIBUTES;
         }
         addIndexCnt(groupId, streamId, 1);
+        if (accumulator != null) {
+            // group commit, the concurrent callers share one pack and wait for its ack
+            SyncSendCallback callback = new SyncSendCallback();
+            try {
+                accumulator.append(callback, body, groupId, streamId, dt, timeout, timeUnit, isProxySend);
+            } catch (ProxysdkException e) {
+                return SyncSendCallback.toSendResult(e);
+            }
+            return callback.get(timeUnit.toMillis(timeout) + accumulator.getLingerMs());
+        }
 
         String proxySend = "";
         if (isProxySend) {
@@ -451,7 +488,25 @@ public class DefaultMessageSender implements MessageSender {
             throw new ProxysdkException(SendResult.INVALID_ATTRIBUTES.toString());
         }
         addIndexCnt(groupId, streamId, 1);
+        if (accumulator != null) {
+            accumulator.append(callback, body, groupId, streamId, dt, timeout, timeUnit, isProxySend);
+            return;
+        }
+        if (diskBuffer != null) {
+            final long packDt = dt;
+            diskBuffer.send(callback, Collections.singletonList(body), groupId, streamId, dt, isProxySend,
+                    packCallback -> sendBody(packCallback, body, groupId, streamId, packDt, msgUUID,
+                            timeout, timeUnit, isProxySend));
+            return;
+        }
+        sendBody(callback, body, groupId, streamId, dt, msgUUID, timeout, timeUnit, isProxySend);
+    }
 
+    /**
+     * send a validated single message
+     */
+    private void sendBody(SendMessageCallback callback, byte[] body, String groupId, String streamId, long dt,
+            String msgUUID, long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException {
         String proxySend = "";
         if (isProxySend) {
             proxySend = AttributeConstants.MESSAGE_PROXY_SEND + "=true";
@@ -563,10 +618,56 @@ public class DefaultMessageSender implements MessageSender {
             String groupId, String streamId, long dt, String msgUUID,
             long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException {
         dt = ProxyUtils.covertZeroDt(dt);
+        validatePack(bodyList, dt);
+        addIndexCnt(groupId, streamId, bodyList.size());
+        sendPack(callback, bodyList, groupId, streamId, dt, msgUUID, timeout, timeUnit, isProxySend);
+    }
+
+    /**
+     * validate a pack before it is sent, by the list send and by the accumulator
+     */
+    private static void validatePack(List<byte[]> bodyList, long dt) throws ProxysdkException {
         if (!ProxyUtils.isBodyValid(bodyList) || !ProxyUtils.isDtValid(dt)) {
             throw new ProxysdkException(SendResult.INVALID_ATTRIBUTES.toString());
         }
-        addIndexCnt(groupId, streamId, bodyList.size());
+    }
+
+    /**
+     * resend a pack replayed from the disk buffer, and wait for its result
+     */
+    private SendResult replayPack(List<byte[]> bodyList, String groupId, String streamId, long dt,
+            boolean isProxySend) {
+        SyncSendCallback callback = new SyncSendCallback();
+        try {
+            sendBodyList(callback, bodyList, groupId, streamId, dt, null,
+                    DISK_BUFFER_REPLAY_TIMEOUT_MS, TimeUnit.MILLISECONDS, isProxySend);
+        } catch (ProxysdkException e) {
+            return SyncSendCallback.toSendResult(e);
+        }
+        return callback.get(DISK_BUFFER_REPLAY_TIMEOUT_MS);
+    }
+
+    /**
+     * send a batch of validated messages as one pack, by the disk buffer if it is enabled
+     */
+    private void sendPack(SendMessageCallback callback, List<byte[]> bodyList,
+            String groupId, String streamId, long dt, String msgUUID,
+            long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException {
+        if (diskBuffer == null) {
+            sendBodyList(callback, bodyList, groupId, streamId, dt, msgUUID, timeout, timeUnit, isProxySend);
+            return;
+        }
+        diskBuffer.send(callback, bodyList, groupId, streamId, dt, isProxySend,
+                packCallback -> sendBodyList(packCallback, bodyList, groupId, streamId, dt, msgUUID,
+                        timeout, timeUnit, isProxySend));
+    }
+
+    /**
+     * send a batch of validated messages as one pack
+     */
+    private void sendBodyList(SendMessageCallback callback, List<byte[]> bodyList,
+            String groupId, String streamId, long dt, String msgUUID,
+            long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException {
         String proxySend = "";
         if (isProxySend) {
             proxySend = AttributeConstants.MESSAGE_PROXY_SEND + "=true";
@@ -835,6 +936,33 @@ public class DefaultMessageSender implements MessageSender {
         return sendMetric(body, groupId, streamId, dt, sid, "", msgUUID, timeout, timeUnit, "file");
     }
 
+    /**
+     * send the accumulated messages immediately, do nothing if batching is disabled
+     */
+    public void flush() {
+        if (accumulator != null) {
+            accumulator.flush();
+        }
+    }
+
+    /**
+     * get the accumulator of async single messages, such as for its batch size and linger metrics
+     *
+     * @return null if batching is disabled
+     */
+    public RecordAccumulator getAccumulator() {
+        return accumulator;
+    }
+
+    /**
+     * get the disk buffer of async packs, such as for its spilled bytes and replay lag metrics
+     *
+     * @return null if the disk buffer is disabled
+     */
+    public DiskBuffer getDiskBuffer() {
+        return diskBuffer;
+    }
+
     private void shutdownInternalThreads() {
         indexCol.shutDown();
         managerFetcherThread.shutdown();
@@ -846,6 +974,12 @@ public class DefaultMessageSender implements MessageSender {
         if (sender.getClusterId() != -1) {
             CACHE_SENDER.remove(sender.getClusterId());
         }
+        if (accumulator != null) {
+            accumulator.close();
+        }
+        if (diskBuffer != null) {
+            diskBuffer.close();
+        }
         sender.close();
         shutdownInternalThreads();
     }
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.dataproxy;
 
+import org.apache.inlong.sdk.dataproxy.network.DiskBuffer;
 import org.apache.inlong.sdk.dataproxy.network.ProxysdkException;
 import org.apache.inlong.sdk.dataproxy.network.Utils;
 
@@ -77,6 +78,28 @@ public class ProxyClientConfig {
     // interval for async worker in microseconds.
     private int asyncWorkerInterval = 500;
     private boolean cleanHttpCacheWhenClosing = false;
+    // whether multiplex the batch posts over http2 connections to the proxies
+    private boolean enableHttp2 = false;
+    // min bytes of a http request body to compress it with gzip, disabled if it is 0
+    private int httpCompressThreshold = ConfigConstants.DEFAULT_HTTP_COMPRESS_THRESHOLD;
+
+    // config for batching of async single message sending
+    // linger time in milliseconds to merge the messages of same groupId and streamId, disabled if it is 0
+    private int batchLingerMs = ConfigConstants.DEFAULT_BATCH_LINGER_MS;
+    // max bytes of bodies in one batch
+    private int batchMaxBytes = ConfigConstants.DEFAULT_BATCH_MAX_BYTES;
+    // max count of messages in one batch
+    private int batchMaxCount = ConfigConstants.DEFAULT_BATCH_MAX_COUNT;
+
+    // config for disk buffer of async message sending
+    // directory of the segment files of the packs that proxies can not accept, disabled if it is null
+    private String diskBufferPath = null;
+    // max bytes of all the segment files
+    private long diskBufferMaxBytes = ConfigConstants.DEFAULT_DISK_BUFFER_MAX_BYTES;
+    // max bytes of one segment file
+    private int diskBufferSegmentBytes = ConfigConstants.DEFAULT_DISK_BUFFER_SEGMENT_BYTES;
+    // listener of the spilled, replayed and dropped packs, it is set before the sender starts to replay
+    private DiskBuffer.Listener diskBufferListener = null;
 
     // config for metric collector
     // whether use groupId as key for metric, default is true
@@ -396,6 +419,78 @@ public class ProxyClientConfig {
         this.cleanHttpCacheWhenClosing = cleanHttpCacheWhenClosing;
     }
 
+    public boolean isEnableHttp2() {
+        return enableHttp2;
+    }
+
+    public void setEnableHttp2(boolean enableHttp2) {
+        this.enableHttp2 = enableHttp2;
+    }
+
+    public int getHttpCompressThreshold() {
+        return httpCompressThreshold;
+    }
+
+    public void setHttpCompressThreshold(int httpCompressThreshold) {
+        this.httpCompressThreshold = httpCompressThreshold;
+    }
+
+    public int getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(int batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
+    public int getBatchMaxBytes() {
+        return batchMaxBytes;
+    }
+
+    public void setBatchMaxBytes(int batchMaxBytes) {
+        this.batchMaxBytes = batchMaxBytes;
+    }
+
+    public int getBatchMaxCount() {
+        return batchMaxCount;
+    }
+
+    public void setBatchMaxCount(int batchMaxCount) {
+        this.batchMaxCount = batchMaxCount;
+    }
+
+    public String getDiskBufferPath() {
+        return diskBufferPath;
+    }
+
+    public void setDiskBufferPath(String diskBufferPath) {
+        this.diskBufferPath = diskBufferPath;
+    }
+
+    public long getDiskBufferMaxBytes() {
+        return diskBufferMaxBytes;
+    }
+
+    public void setDiskBufferMaxBytes(long diskBufferMaxBytes) {
+        this.diskBufferMaxBytes = diskBufferMaxBytes;
+    }
+
+    public int getDiskBufferSegmentBytes() {
+        return diskBufferSegmentBytes;
+    }
+
+    public void setDiskBufferSegmentBytes(int diskBufferSegmentBytes) {
+        this.diskBufferSegmentBytes = diskBufferSegmentBytes;
+    }
+
+    public DiskBuffer.Listener getDiskBufferListener() {
+        return diskBufferListener;
+    }
+
+    public void setDiskBufferListener(DiskBuffer.Listener diskBufferListener) {
+        this.diskBufferListener = diskBufferListener;
+    }
+
     public boolean isUseGroupIdAsKey() {
         return useGroupIdAsKey;
     }
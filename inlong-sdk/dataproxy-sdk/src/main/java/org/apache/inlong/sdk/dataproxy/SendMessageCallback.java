@@ -24,4 +24,8 @@ public interface SendMessageCallback {
 
     /* Invoked when a message transportation interrupted by an exception. */
     public void onException(Throwable e);
+
+    /* Invoked on the io thread when the message body is encoded, with its length before and after compression. */
+    default void onMessageEncoded(int rawLength, int encodedLength) {
+    }
 }
@@ -20,6 +20,7 @@ package org.apache.inlong.sdk.dataproxy.codec;
 import org.apache.inlong.common.enums.DataProxyErrCode;
 import org.apache.inlong.common.msg.AttributeConstants;
 import org.apache.inlong.common.msg.MsgType;
+import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
 import org.apache.inlong.sdk.dataproxy.SendResult;
 import org.apache.inlong.sdk.dataproxy.config.EncryptConfigEntry;
 
@@ -63,6 +64,8 @@ public class EncodeObject {
     private String secretKey = "";
     private String msgUUID = null;
     private EncryptConfigEntry encryptEntry = null;
+    // callback of the message, notified when the body is encoded
+    private SendMessageCallback callback;
 
     private SendResult sendResult = SendResult.OK;
     private String errMsg;
@@ -327,6 +330,14 @@ public class EncodeObject {
         return isEncrypt;
     }
 
+    public SendMessageCallback getCallback() {
+        return callback;
+    }
+
+    public void setCallback(SendMessageCallback callback) {
+        this.callback = callback;
+    }
+
     public EncryptConfigEntry getEncryptEntry() {
         return encryptEntry;
     }
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.dataproxy.codec;
 
+import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
 import org.apache.inlong.sdk.dataproxy.config.EncryptConfigEntry;
 import org.apache.inlong.sdk.dataproxy.config.EncryptInfo;
 import org.apache.inlong.sdk.dataproxy.network.Utils;
@@ -24,50 +25,45 @@ import org.apache.inlong.sdk.dataproxy.utils.EncryptUtil;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
 import java.security.SecureRandom;
-import java.util.Iterator;
 import java.util.List;
 
 import static org.apache.inlong.sdk.dataproxy.ConfigConstants.FLAG_ALLOW_AUTH;
 import static org.apache.inlong.sdk.dataproxy.ConfigConstants.FLAG_ALLOW_COMPRESS;
 import static org.apache.inlong.sdk.dataproxy.ConfigConstants.FLAG_ALLOW_ENCRYPT;
 
+/**
+ * Encoder of the messages of type 3, 5, 7 and 8.
+ * The headers, attributes and bodies are written directly into the buffers of the channel allocator, the bodies
+ * are compressed from one pooled direct buffer into another, and the bodies from COMPOSITE_BODY_SIZE bytes are
+ * not copied into the frame but composed with its header and trailer.
+ */
 public class ProtocolEncoder extends MessageToMessageEncoder<EncodeObject> {
 
     private static final Logger logger = LoggerFactory
             .getLogger(ProtocolEncoder.class);
+    private static final int COMPOSITE_BODY_SIZE = 32 * 1024;
+    // length of the header before the body, including the total length
+    private static final int HEADER_LENGTH_3_5 = 4 + 1 + 4;
+    private static final int HEADER_LENGTH_7 = 4 + 1 + 2 + 2 + 2 + 4 + 2 + 4 + 4;
 
     protected void encode(ChannelHandlerContext ctx,
             EncodeObject message, List<Object> out) throws Exception {
         ByteBuf buf = null;
         try {
-            EncodeObject object = message;
-            if (object.getMsgtype() == 3) {
-                buf = writeToBuf3(object);
-            }
-            if (object.getMsgtype() == 5) {
-                buf = writeToBuf5(object);
-            }
-
-            if (object.getMsgtype() == 7) {
-                buf = writeToBuf7(object);
-            }
-            if (object.getMsgtype() == 8) {
-                buf = writeToBuf8(object);
-            }
+            buf = encode(ctx.alloc(), message);
         } catch (Exception e) {
-            logger.error("{}", e.getMessage());
-            e.printStackTrace();
+            logger.error("fail to encode message of type {}", message.getMsgtype(), e);
         }
         if (buf != null) {
             out.add(buf);
@@ -76,247 +72,142 @@ public class ProtocolEncoder extends MessageToMessageEncoder<EncodeObject> {
         }
     }
 
-    private ByteBuf writeToBuf8(EncodeObject object) {
-        ByteBuf buf = null;
-        try {
-            String endAttr = object.getCommonattr();
-            if (object.isAuth()) {
-                if (Utils.isNotBlank(endAttr)) {
-                    endAttr = endAttr + "&";
-                }
-                long timestamp = System.currentTimeMillis();
-                int nonce = new SecureRandom(String.valueOf(timestamp).getBytes()).nextInt(Integer.MAX_VALUE);
-                endAttr = endAttr + "_userName=" + object.getUserName() + "&_clientIP=" + Utils.getLocalIp()
-                        + "&_signature=" + Utils.generateSignature(object.getUserName(),
-                                timestamp, nonce, object.getSecretKey())
-                        + "&_timeStamp=" + timestamp + "&_nonce=" + nonce;
-            }
-            if (Utils.isNotBlank(object.getMsgUUID())) {
-                if (Utils.isNotBlank(endAttr)) {
-                    endAttr = endAttr + "&";
-                }
-                endAttr = endAttr + "msgUUID=" + object.getMsgUUID();
-            }
-            int msgType = 8;
-            if (object.isAuth()) {
-                msgType |= FLAG_ALLOW_AUTH;
+    /**
+     * encode the message into the buffers of the allocator
+     *
+     * @param alloc allocator of the buffers
+     * @param object message
+     * @return the encoded message owned by the caller, or null if the message type is unknown or it has no body
+     * @throws Exception
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, EncodeObject object) throws Exception {
+        switch (object.getMsgtype()) {
+            case 3:
+            case 5:
+                return writeToBuf35(alloc, object);
+            case 7:
+                return writeToBuf7(alloc, object);
+            case 8:
+                return writeToBuf8(alloc, object);
+            default:
+                return null;
+        }
+    }
+
+    private ByteBuf writeToBuf8(ByteBufAllocator alloc, EncodeObject object) throws Exception {
+        String endAttr = object.getCommonattr();
+        if (object.isAuth()) {
+            if (Utils.isNotBlank(endAttr)) {
+                endAttr = endAttr + "&";
             }
-            int totalLength = 1 + 4 + 1 + 4 + 2 + endAttr.getBytes("utf8").length + 2;
-            buf = ByteBufAllocator.DEFAULT.buffer(4 + totalLength);
-            buf.writeInt(totalLength);
-            buf.writeByte(msgType);
-            buf.writeInt((int) object.getDt());
-            buf.writeByte(1);
-            buf.writeInt(0);
-            buf.writeShort(endAttr.getBytes("utf8").length);
-            if (endAttr.getBytes("utf8").length > 0) {
-                buf.writeBytes(endAttr.getBytes("utf8"));
+            long timestamp = System.currentTimeMillis();
+            int nonce = new SecureRandom(String.valueOf(timestamp).getBytes()).nextInt(Integer.MAX_VALUE);
+            endAttr = endAttr + "_userName=" + object.getUserName() + "&_clientIP=" + Utils.getLocalIp()
+                    + "&_signature=" + Utils.generateSignature(object.getUserName(),
+                            timestamp, nonce, object.getSecretKey())
+                    + "&_timeStamp=" + timestamp + "&_nonce=" + nonce;
+        }
+        if (Utils.isNotBlank(object.getMsgUUID())) {
+            if (Utils.isNotBlank(endAttr)) {
+                endAttr = endAttr + "&";
             }
-            buf.writeShort(0xee01);
-        } catch (Exception e) {
-            logger.error(e.getMessage());
+            endAttr = endAttr + "msgUUID=" + object.getMsgUUID();
+        }
+        int msgType = 8;
+        if (object.isAuth()) {
+            msgType |= FLAG_ALLOW_AUTH;
         }
+        int attrLength = ByteBufUtil.utf8Bytes(endAttr);
+        int totalLength = 1 + 4 + 1 + 4 + 2 + attrLength + 2;
+        ByteBuf buf = alloc.buffer(4 + totalLength);
+        buf.writeInt(totalLength);
+        buf.writeByte(msgType);
+        buf.writeInt((int) object.getDt());
+        buf.writeByte(1);
+        buf.writeInt(0);
+        buf.writeShort(attrLength);
+        ByteBufUtil.writeUtf8(buf, endAttr);
+        buf.writeShort(0xee01);
         return buf;
     }
 
-    private ByteBuf constructBody(byte[] body, EncodeObject object,
-            int totalLength, int cnt) throws UnsupportedEncodingException {
-        ByteBuf buf = null;
-        if (body != null) {
-            if (object.isCompress()) {
-                body = processCompress(body);
-            }
-            String endAttr = object.getCommonattr();
-            if (object.isEncrypt()) {
-                EncryptConfigEntry encryptEntry = object.getEncryptEntry();
-                if (encryptEntry != null) {
-                    if (Utils.isNotBlank(endAttr)) {
-                        endAttr = endAttr + "&";
-                    }
-                    EncryptInfo encryptInfo = encryptEntry.getRsaEncryptInfo();
-                    endAttr = endAttr + "_userName=" + object.getUserName()
-                            + "&_encyVersion=" + encryptInfo.getVersion()
-                            + "&_encyAesKey=" + encryptInfo.getRsaEncryptedKey();
-                    body = EncryptUtil.aesEncrypt(body, encryptInfo.getAesKey());
-                }
-            }
-            if (!object.isGroupIdTransfer()) {
-                if (Utils.isNotBlank(endAttr)) {
-                    endAttr = endAttr + "&";
-                }
-                endAttr = (endAttr + "groupId=" + object.getGroupId() + "&streamId=" + object.getStreamId());
-            }
-            if (Utils.isNotBlank(object.getMsgUUID())) {
+    private ByteBuf writeToBuf7(ByteBufAllocator alloc, EncodeObject object) throws Exception {
+        int rawLength = rawBodyLength(object);
+        if (rawLength < 0) {
+            return null;
+        }
+        int cnt = 1;
+        if (object.getBodylist() != null && object.getBodylist().size() != 0) {
+            cnt = object.getCnt() > 0 ? object.getCnt() : object.getBodylist().size();
+        }
+        String endAttr = object.getCommonattr();
+        EncryptInfo encryptInfo = null;
+        if (object.isEncrypt()) {
+            EncryptConfigEntry encryptEntry = object.getEncryptEntry();
+            if (encryptEntry != null) {
                 if (Utils.isNotBlank(endAttr)) {
                     endAttr = endAttr + "&";
                 }
-                endAttr = endAttr + "msgUUID=" + object.getMsgUUID();
-            }
-
-            int msgType = 7;
-            if (object.isEncrypt()) {
-                msgType |= FLAG_ALLOW_ENCRYPT;
+                encryptInfo = encryptEntry.getRsaEncryptInfo();
+                endAttr = endAttr + "_userName=" + object.getUserName()
+                        + "&_encyVersion=" + encryptInfo.getVersion()
+                        + "&_encyAesKey=" + encryptInfo.getRsaEncryptedKey();
             }
-            if (object.isCompress()) {
-                msgType |= FLAG_ALLOW_COMPRESS;
-            }
-            totalLength = totalLength + body.length + endAttr.getBytes("utf8").length;
-            buf = ByteBufAllocator.DEFAULT.buffer(4 + totalLength);
-            buf.writeInt(totalLength);
-            buf.writeByte(msgType);
-            buf.writeShort(object.getGroupIdNum());
-            buf.writeShort(object.getStreamIdNum());
-            String bitStr = object.isSupportLF() ? "1" : "0";
-            bitStr += (object.getMessageKey().equals("minute")) ? "1" : "0";
-            bitStr += (object.getMessageKey().equals("file")) ? "1" : "0";
-            bitStr += !object.isGroupIdTransfer() ? "1" : "0";
-            bitStr += object.isReport() ? "1" : "0";
-            bitStr += "0";
-            buf.writeShort(Integer.parseInt(bitStr, 2));
-            buf.writeInt((int) object.getDt());
-
-            buf.writeShort(cnt);
-            buf.writeInt(Integer.valueOf(object.getMessageId()));
-
-            buf.writeInt(body.length);
-            buf.writeBytes(body);
-
-            buf.writeShort(endAttr.getBytes("utf8").length);
-            buf.writeBytes(endAttr.getBytes("utf8"));
-            buf.writeShort(0xee01);
         }
-        return buf;
-    }
-
-    private ByteBuf writeToBuf7(EncodeObject object) {
-        ByteBuf buf = null;
-        try {
-            int totalLength = 1 + 2 + 2 + 2 + 4 + 2 + 4 + 4 + 2 + 2;
-            byte[] body = null;
-            int cnt = 1;
-
-            if (object.getBodylist() != null && object.getBodylist().size() != 0) {
-                if (object.getCnt() > 0) {
-                    cnt = object.getCnt();
-                } else {
-                    cnt = object.getBodylist().size();
-                }
-
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                Iterator<byte[]> iter = object.getBodylist().iterator();
-
-                if (object.isSupportLF()) {
-                    ByteArrayOutputStream data = new ByteArrayOutputStream();
-                    int len = object.getBodylist().size();
-                    for (int i = 0; i < len - 1; i++) {
-                        data.write(object.getBodylist().get(i));
-                        data.write("\n".getBytes("utf8"));
-                    }
-                    data.write(object.getBodylist().get(len - 1));
-                    ByteBuffer databuffer = ByteBuffer.allocate(4);
-                    databuffer.putInt(data.toByteArray().length);
-                    out.write(databuffer.array());
-                    out.write(data.toByteArray());
-                } else {
-                    while (iter.hasNext()) {
-                        byte[] entry = iter.next();
-                        ByteBuffer databuffer = ByteBuffer.allocate(4);
-                        databuffer.putInt(entry.length);
-                        out.write(databuffer.array());
-                        out.write(entry);
-                    }
-                }
-                body = out.toByteArray();
+        if (!object.isGroupIdTransfer()) {
+            if (Utils.isNotBlank(endAttr)) {
+                endAttr = endAttr + "&";
             }
-            // send single message one time
-            if (object.getBodyBytes() != null && object.getBodyBytes().length != 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-
-                ByteBuffer databuffer = ByteBuffer.allocate(4);
-                databuffer.putInt(object.getBodyBytes().length);
-                out.write(databuffer.array());
-                out.write(object.getBodyBytes());
-                body = out.toByteArray();
+            endAttr = (endAttr + "groupId=" + object.getGroupId() + "&streamId=" + object.getStreamId());
+        }
+        if (Utils.isNotBlank(object.getMsgUUID())) {
+            if (Utils.isNotBlank(endAttr)) {
+                endAttr = endAttr + "&";
             }
+            endAttr = endAttr + "msgUUID=" + object.getMsgUUID();
+        }
 
-            buf = constructBody(body, object, totalLength, cnt);
-        } catch (Exception e) {
-            logger.error("writeToBuf7 has {}", e);
+        int msgType = 7;
+        if (object.isEncrypt()) {
+            msgType |= FLAG_ALLOW_ENCRYPT;
         }
-        return buf;
+        if (object.isCompress()) {
+            msgType |= FLAG_ALLOW_COMPRESS;
+        }
+        return writeFrame(alloc, object, rawLength, encryptInfo, msgType, cnt, endAttr);
     }
 
-    private ByteBuf writeToBuf5(EncodeObject object) {
-        ByteBuf buf = null;
-        try {
-            int totalLength = 1 + 4 + 4;
-            byte[] body = null;
-
-            // send multiple messages one time
-            if (object.getBodylist() != null && object.getBodylist().size() != 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                Iterator<byte[]> iter = object.getBodylist().iterator();
-                while (iter.hasNext()) {
-                    byte[] entry = iter.next();
-                    ByteBuffer byteBuffer = ByteBuffer.allocate(4);
-                    byteBuffer.putInt(entry.length);
-                    out.write(byteBuffer.array());
-                    out.write(entry);
+    private ByteBuf writeToBuf35(ByteBufAllocator alloc, EncodeObject object) throws Exception {
+        int rawLength = rawBodyLength(object);
+        if (rawLength < 0) {
+            return null;
+        }
+        String msgAttrs = object.getAttributes();
+        EncryptInfo encryptInfo = null;
+        if (object.isEncrypt()) {
+            EncryptConfigEntry encryptEntry = object.getEncryptEntry();
+            if (encryptEntry != null) {
+                if (Utils.isNotBlank(msgAttrs)) {
+                    msgAttrs = msgAttrs + "&";
                 }
-                body = out.toByteArray();
+                encryptInfo = encryptEntry.getRsaEncryptInfo();
+                msgAttrs = msgAttrs + "_userName=" + object.getUserName()
+                        + "&_encyVersion=" + encryptInfo.getVersion()
+                        + "&_encyAesKey=" + encryptInfo.getRsaEncryptedKey();
             }
-            // send single message one time
-            if (object.getBodyBytes() != null && object.getBodyBytes().length != 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                ByteBuffer byteBuffer = ByteBuffer.allocate(4);
-                byteBuffer.putInt(object.getBodyBytes().length);
-                out.write(byteBuffer.array());
-                out.write(object.getBodyBytes());
-                body = out.toByteArray();
+        }
+        if (Utils.isNotBlank(object.getMsgUUID())) {
+            if (Utils.isNotBlank(msgAttrs)) {
+                msgAttrs = msgAttrs + "&";
             }
-            if (body != null) {
-                String msgAttrs = object.getAttributes();
-                if (object.isCompress()) {
-                    body = processCompress(body);
-                }
-                if (object.isEncrypt()) {
-                    EncryptConfigEntry encryptEntry = object.getEncryptEntry();
-                    if (encryptEntry != null) {
-                        if (Utils.isNotBlank(msgAttrs)) {
-                            msgAttrs = msgAttrs + "&";
-                        }
-                        EncryptInfo encryptInfo = encryptEntry.getRsaEncryptInfo();
-                        msgAttrs = msgAttrs + "_userName=" + object.getUserName()
-                                + "&_encyVersion=" + encryptInfo.getVersion()
-                                + "&_encyAesKey=" + encryptInfo.getRsaEncryptedKey();
-                        body = EncryptUtil.aesEncrypt(body, encryptInfo.getAesKey());
-                    }
-                }
-                if (Utils.isNotBlank(object.getMsgUUID())) {
-                    if (Utils.isNotBlank(msgAttrs)) {
-                        msgAttrs = msgAttrs + "&";
-                    }
-                    msgAttrs = msgAttrs + "msgUUID=" + object.getMsgUUID();
-                }
+            msgAttrs = msgAttrs + "msgUUID=" + object.getMsgUUID();
+        }
 
-                int msgType = 5;
-                if (object.isEncrypt()) {
-                    msgType |= FLAG_ALLOW_ENCRYPT;
-                }
-                totalLength = totalLength + body.length + msgAttrs.getBytes("utf8").length;
-                buf = ByteBufAllocator.DEFAULT.buffer(4 + totalLength);
-                buf.writeInt(totalLength);
-                buf.writeByte(msgType);
-                buf.writeInt(body.length);
-                buf.writeBytes(body);
-                buf.writeInt(msgAttrs.getBytes("utf8").length);
-                buf.writeBytes(msgAttrs.getBytes("utf8"));
-            }
-        } catch (Exception e) {
-            logger.error("{}", e.getMessage());
-            e.printStackTrace();
+        int msgType = object.getMsgtype();
+        if (object.isEncrypt()) {
+            msgType |= FLAG_ALLOW_ENCRYPT;
         }
-        return buf;
+        return writeFrame(alloc, object, rawLength, encryptInfo, msgType, 1, msgAttrs);
     }
 
     /*
@@ -331,86 +222,214 @@ public class ProtocolEncoder extends MessageToMessageEncoder<EncodeObject> {
      * buf; }
      */
 
-    private ByteBuf writeToBuf3(EncodeObject object) {
-        ByteBuf buf = null;
-        try {
-            int totalLength = 1 + 4 + 4;
-            byte[] body = null;
+    /**
+     * write the frame of header, body and trailer, the plain body is written directly into the frame,
+     * and the processed body is copied into the frame or composed with the header and trailer if it is large
+     */
+    private ByteBuf writeFrame(ByteBufAllocator alloc, EncodeObject object, int rawLength,
+            EncryptInfo encryptInfo, int msgType, int cnt, String attrs) throws Exception {
+        int headerLength = object.getMsgtype() == 7 ? HEADER_LENGTH_7 : HEADER_LENGTH_3_5;
+        int attrLength = ByteBufUtil.utf8Bytes(attrs);
+        int trailerLength = object.getMsgtype() == 7 ? 2 + attrLength + 2 : 4 + attrLength;
+        boolean isSingleBody = object.getBodyBytes() != null && object.getBodyBytes().length != 0;
+        if (!object.isCompress() && encryptInfo == null
+                && (!isSingleBody || object.getBodyBytes().length < COMPOSITE_BODY_SIZE)) {
+            notifyEncoded(object, rawLength, rawLength);
+            ByteBuf frame = alloc.buffer(headerLength + rawLength + trailerLength);
+            try {
+                writeHeader(frame, object, msgType, cnt, headerLength + rawLength + trailerLength - 4, rawLength);
+                writeRawBody(frame, object);
+                writeTrailer(frame, object, attrs, attrLength);
+            } catch (Exception e) {
+                frame.release();
+                throw e;
+            }
+            return frame;
+        }
 
-            // send multiple messages one time
-            if (object.getBodylist() != null && object.getBodylist().size() != 0) {
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                Iterator<byte[]> iter = object.getBodylist().iterator();
-                while (iter.hasNext()) {
-                    byte[] entry = iter.next();
-                    out.write(entry);
-                    out.write("\n".getBytes("utf8"));
-                }
-                body = out.toByteArray();
+        ByteBuf body = processBody(alloc, object, rawLength, encryptInfo);
+        int bodyLength = body.readableBytes();
+        notifyEncoded(object, rawLength, bodyLength);
+        int totalLength = headerLength + bodyLength + trailerLength - 4;
+        if (bodyLength < COMPOSITE_BODY_SIZE) {
+            ByteBuf frame = alloc.buffer(headerLength + bodyLength + trailerLength);
+            try {
+                writeHeader(frame, object, msgType, cnt, totalLength, bodyLength);
+                frame.writeBytes(body);
+                writeTrailer(frame, object, attrs, attrLength);
+            } catch (Exception e) {
+                frame.release();
+                throw e;
+            } finally {
+                body.release();
+            }
+            return frame;
+        }
+        ByteBuf header = null;
+        ByteBuf trailer = null;
+        try {
+            header = alloc.buffer(headerLength);
+            writeHeader(header, object, msgType, cnt, totalLength, bodyLength);
+            trailer = alloc.buffer(trailerLength);
+            writeTrailer(trailer, object, attrs, attrLength);
+        } catch (Exception e) {
+            body.release();
+            if (header != null) {
+                header.release();
             }
-            // send single message one time
-            if (object.getBodyBytes() != null && object.getBodyBytes().length != 0) {
-                body = object.getBodyBytes();
+            if (trailer != null) {
+                trailer.release();
             }
-            if (body != null) {
-                String msgAttrs = object.getAttributes();
-                if (object.isCompress()) {
-                    body = processCompress(body);
-                }
-                if (object.isEncrypt()) {
-                    EncryptConfigEntry encryptEntry = object.getEncryptEntry();
-                    if (encryptEntry != null) {
-                        if (Utils.isNotBlank(msgAttrs)) {
-                            msgAttrs = msgAttrs + "&";
-                        }
-                        EncryptInfo encryptInfo = encryptEntry.getRsaEncryptInfo();
-                        msgAttrs = msgAttrs + "_userName=" + object.getUserName()
-                                + "&_encyVersion=" + encryptInfo.getVersion()
-                                + "&_encyAesKey=" + encryptInfo.getRsaEncryptedKey();
-                        body = EncryptUtil.aesEncrypt(body, encryptInfo.getAesKey());
-                    }
-                }
-                if (Utils.isNotBlank(object.getMsgUUID())) {
-                    if (Utils.isNotBlank(msgAttrs)) {
-                        msgAttrs = msgAttrs + "&";
-                    }
-                    msgAttrs = msgAttrs + "msgUUID=" + object.getMsgUUID();
-                }
+            throw e;
+        }
+        CompositeByteBuf frame = alloc.compositeBuffer(3);
+        frame.addComponents(true, header, body, trailer);
+        return frame;
+    }
+
+    private void writeHeader(ByteBuf buf, EncodeObject object, int msgType, int cnt,
+            int totalLength, int bodyLength) {
+        buf.writeInt(totalLength);
+        buf.writeByte(msgType);
+        if (object.getMsgtype() == 7) {
+            buf.writeShort(object.getGroupIdNum());
+            buf.writeShort(object.getStreamIdNum());
+            int bits = 0;
+            bits |= object.isSupportLF() ? 0x20 : 0;
+            bits |= "minute".equals(object.getMessageKey()) ? 0x10 : 0;
+            bits |= "file".equals(object.getMessageKey()) ? 0x08 : 0;
+            bits |= !object.isGroupIdTransfer() ? 0x04 : 0;
+            bits |= object.isReport() ? 0x02 : 0;
+            buf.writeShort(bits);
+            buf.writeInt((int) object.getDt());
+            buf.writeShort(cnt);
+            buf.writeInt(Integer.parseInt(object.getMessageId()));
+        }
+        buf.writeInt(bodyLength);
+    }
+
+    private void writeTrailer(ByteBuf buf, EncodeObject object, String attrs, int attrLength) {
+        if (object.getMsgtype() == 7) {
+            buf.writeShort(attrLength);
+            ByteBufUtil.writeUtf8(buf, attrs);
+            buf.writeShort(0xee01);
+        } else {
+            buf.writeInt(attrLength);
+            ByteBufUtil.writeUtf8(buf, attrs);
+        }
+    }
 
-                int msgType = 3;
-                if (object.isEncrypt()) {
-                    msgType |= FLAG_ALLOW_ENCRYPT;
+    private static void notifyEncoded(EncodeObject object, int rawLength, int encodedLength) {
+        SendMessageCallback callback = object.getCallback();
+        if (callback == null) {
+            return;
+        }
+        try {
+            callback.onMessageEncoded(rawLength, encodedLength);
+        } catch (Throwable e) {
+            logger.error("message callback onMessageEncoded exception", e);
+        }
+    }
+
+    /**
+     * compress and encrypt the body if required, or wrap the single large body without copying it
+     */
+    private ByteBuf processBody(ByteBufAllocator alloc, EncodeObject object, int rawLength,
+            EncryptInfo encryptInfo) throws Exception {
+        if (!object.isCompress() && encryptInfo == null) {
+            byte[] bodyBytes = object.getBodyBytes();
+            if (object.getMsgtype() == 3) {
+                return Unpooled.wrappedBuffer(bodyBytes);
+            }
+            return Unpooled.wrappedBuffer(Unpooled.copyInt(bodyBytes.length), Unpooled.wrappedBuffer(bodyBytes));
+        }
+        ByteBuf body = alloc.directBuffer(rawLength);
+        try {
+            writeRawBody(body, object);
+            if (object.isCompress()) {
+                ByteBuf compressed = alloc.directBuffer(Snappy.maxCompressedLength(rawLength));
+                try {
+                    int len = Snappy.compress(body.nioBuffer(), compressed.nioBuffer(0, compressed.capacity()));
+                    compressed.writerIndex(len);
+                } catch (IOException e) {
+                    compressed.release();
+                    throw e;
                 }
-                totalLength = totalLength + body.length + msgAttrs.getBytes("utf8").length;
-                buf = ByteBufAllocator.DEFAULT.buffer(4 + totalLength);
-                buf.writeInt(totalLength);
-                buf.writeByte(msgType);
-                buf.writeInt(body.length);
-                buf.writeBytes(body);
-                buf.writeInt(msgAttrs.getBytes("utf8").length);
-                buf.writeBytes(msgAttrs.getBytes("utf8"));
+                body.release();
+                body = compressed;
+            }
+            if (encryptInfo != null) {
+                byte[] encrypted = EncryptUtil.aesEncrypt(ByteBufUtil.getBytes(body), encryptInfo.getAesKey());
+                body.release();
+                body = Unpooled.wrappedBuffer(encrypted);
             }
         } catch (Exception e) {
-            logger.error("{}", e.getMessage());
-            e.printStackTrace();
+            body.release();
+            throw e;
         }
-        return buf;
+        return body;
     }
 
-    private byte[] processCompress(byte[] body) {
-        try {
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            out.write(body);
-            int guessLen = Snappy.maxCompressedLength(out.size());
-            byte[] tmpData = new byte[guessLen];
-            int len = Snappy.compress(out.toByteArray(), 0, out.size(),
-                    tmpData, 0);
-            body = new byte[len];
-            System.arraycopy(tmpData, 0, body, 0, len);
-        } catch (IOException e) {
-            logger.error("{}", e.getMessage());
-            e.printStackTrace();
+    /**
+     * the length of the body before compression, the single body takes precedence over the body list
+     *
+     * @return -1 if there is no body
+     */
+    private static int rawBodyLength(EncodeObject object) {
+        int msgType = object.getMsgtype();
+        if (object.getBodyBytes() != null && object.getBodyBytes().length != 0) {
+            return msgType == 3 ? object.getBodyBytes().length : 4 + object.getBodyBytes().length;
+        }
+        List<byte[]> bodyList = object.getBodylist();
+        if (bodyList == null || bodyList.size() == 0) {
+            return -1;
+        }
+        int length = 0;
+        for (byte[] entry : bodyList) {
+            length += entry.length;
+        }
+        if (msgType == 3) {
+            // every message ends with a line feed
+            return length + bodyList.size();
+        } else if (msgType == 7 && object.isSupportLF()) {
+            // messages are joined by line feeds after the total length
+            return 4 + length + bodyList.size() - 1;
+        }
+        // every message starts with its length
+        return length + 4 * bodyList.size();
+    }
+
+    private static void writeRawBody(ByteBuf buf, EncodeObject object) {
+        int msgType = object.getMsgtype();
+        byte[] bodyBytes = object.getBodyBytes();
+        if (bodyBytes != null && bodyBytes.length != 0) {
+            if (msgType != 3) {
+                buf.writeInt(bodyBytes.length);
+            }
+            buf.writeBytes(bodyBytes);
+            return;
+        }
+        List<byte[]> bodyList = object.getBodylist();
+        if (msgType == 3) {
+            for (byte[] entry : bodyList) {
+                buf.writeBytes(entry);
+                buf.writeByte('\n');
+            }
+        } else if (msgType == 7 && object.isSupportLF()) {
+            int lengthIndex = buf.writerIndex();
+            buf.writeInt(0);
+            for (int i = 0; i < bodyList.size(); i++) {
+                if (i > 0) {
+                    buf.writeByte('\n');
+                }
+                buf.writeBytes(bodyList.get(i));
+            }
+            buf.setInt(lengthIndex, buf.writerIndex() - lengthIndex - 4);
+        } else {
+            for (byte[] entry : bodyList) {
+                buf.writeInt(entry.length);
+                buf.writeBytes(entry);
+            }
         }
-        return body;
     }
 }
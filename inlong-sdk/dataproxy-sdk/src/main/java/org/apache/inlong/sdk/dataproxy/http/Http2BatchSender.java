@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.http;
+
+import org.apache.inlong.common.enums.DataProxyErrCode;
+import org.apache.inlong.sdk.dataproxy.ConfigConstants;
+import org.apache.inlong.sdk.dataproxy.ProxyClientConfig;
+import org.apache.inlong.sdk.dataproxy.SendResult;
+import org.apache.inlong.sdk.dataproxy.config.HostInfo;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2Settings;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamChannelBootstrap;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HTTP/2 sender of the message batches. A batch is posted as a stream of the kept alive connection to a proxy,
+ * the streams are multiplexed, so the batches in flight do not wait for the acks of each other. The connections
+ * are cleartext HTTP/2 with prior knowledge, and the request bodies are compressed with gzip above the threshold.
+ */
+public class Http2BatchSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(Http2BatchSender.class);
+    private static final String MESSAGE_URI = "/dataproxy/message";
+
+    private final ProxyClientConfig proxyClientConfig;
+    private final EventLoopGroup eventLoopGroup;
+    private final Bootstrap bootstrap;
+    // connections by host, a connection is replaced after it is closed
+    private final ConcurrentHashMap<HostInfo, ChannelFuture> connections = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    public Http2BatchSender(ProxyClientConfig proxyClientConfig) {
+        this.proxyClientConfig = proxyClientConfig;
+        this.eventLoopGroup = new NioEventLoopGroup(proxyClientConfig.getIoThreadNum(),
+                new DefaultThreadFactory("http2-batch-sender"));
+        this.bootstrap = new Bootstrap()
+                .group(eventLoopGroup)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) proxyClientConfig.getConnectTimeoutMillis())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(
+                                Http2FrameCodecBuilder.forClient()
+                                        .initialSettings(Http2Settings.defaultSettings().pushEnabled(false))
+                                        // the streams over the limit of the proxy wait instead of failing
+                                        .encoderEnforceMaxConcurrentStreams(true)
+                                        .build(),
+                                new Http2MultiplexHandler(new PushRejectHandler()));
+                    }
+                });
+    }
+
+    /**
+     * post a batch to the first reachable proxy of the hosts
+     *
+     * @param hosts    proxies in order of preference
+     * @param bodies   bodies of the batch
+     * @param groupId  groupId
+     * @param streamId streamId
+     * @param dt       data time
+     * @param timeout  timeout of the batch
+     * @param timeUnit unit of the timeout
+     * @return future completed with the result of the ack
+     */
+    public CompletableFuture<SendResult> send(List<HostInfo> hosts, List<String> bodies, String groupId,
+            String streamId, long dt, long timeout, TimeUnit timeUnit) {
+        CompletableFuture<SendResult> future = new CompletableFuture<>();
+        if (closed || hosts.isEmpty()) {
+            future.complete(SendResult.NO_CONNECTION);
+            return future;
+        }
+        byte[] content;
+        boolean compressed;
+        try {
+            content = URLEncodedUtils.format(InternalHttpSender.getHeaders(bodies, groupId, streamId, dt),
+                    StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+            compressed = proxyClientConfig.getHttpCompressThreshold() > 0
+                    && content.length >= proxyClientConfig.getHttpCompressThreshold();
+            if (compressed) {
+                content = gzip(content);
+            }
+        } catch (IOException e) {
+            logger.error("fail to compress the batch of {}/{}", groupId, streamId, e);
+            future.complete(SendResult.UNKOWN_ERROR);
+            return future;
+        }
+        send(hosts, 0, content, compressed, timeUnit.toMillis(timeout), future);
+        return future;
+    }
+
+    private void send(List<HostInfo> hosts, int index, byte[] content, boolean compressed, long timeoutMs,
+            CompletableFuture<SendResult> future) {
+        HostInfo hostInfo = hosts.get(index);
+        getConnection(hostInfo).addListener((ChannelFuture connectFuture) -> {
+            if (!connectFuture.isSuccess()) {
+                logger.error("fail to connect to {}", hostInfo, connectFuture.cause());
+                if (index + 1 < hosts.size()) {
+                    send(hosts, index + 1, content, compressed, timeoutMs, future);
+                } else {
+                    future.complete(SendResult.NO_CONNECTION);
+                }
+                return;
+            }
+            new Http2StreamChannelBootstrap(connectFuture.channel())
+                    .handler(new ChannelInitializer<Http2StreamChannel>() {
+
+                        @Override
+                        protected void initChannel(Http2StreamChannel ch) {
+                            ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false),
+                                    new HttpObjectAggregator(ConfigConstants.MAX_HTTP_RESPONSE_LENGTH),
+                                    new AckHandler(future));
+                        }
+                    })
+                    .open()
+                    .addListener((Future<Http2StreamChannel> streamFuture) -> {
+                        if (!streamFuture.isSuccess()) {
+                            logger.error("fail to open stream to {}", hostInfo, streamFuture.cause());
+                            future.complete(SendResult.CONNECTION_BREAK);
+                            return;
+                        }
+                        writeRequest(streamFuture.getNow(), hostInfo, content, compressed, timeoutMs, future);
+                    });
+        });
+    }
+
+    private void writeRequest(Http2StreamChannel stream, HostInfo hostInfo, byte[] content, boolean compressed,
+            long timeoutMs, CompletableFuture<SendResult> future) {
+        ScheduledFuture<?> timeoutTask = stream.eventLoop().schedule(() -> {
+            if (future.complete(SendResult.TIMEOUT)) {
+                stream.close();
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> timeoutTask.cancel(false));
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, MESSAGE_URI,
+                Unpooled.wrappedBuffer(content));
+        request.headers().set(HttpHeaderNames.HOST, hostInfo.getHostName() + ":" + hostInfo.getPortNumber());
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED);
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, content.length);
+        if (compressed) {
+            request.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.GZIP);
+        }
+        stream.writeAndFlush(request).addListener(writeFuture -> {
+            if (!writeFuture.isSuccess()) {
+                logger.error("fail to post batch to {}", hostInfo, writeFuture.cause());
+                future.complete(SendResult.CONNECTION_BREAK);
+                stream.close();
+            }
+        });
+    }
+
+    private ChannelFuture getConnection(HostInfo hostInfo) {
+        ChannelFuture connection = connections.get(hostInfo);
+        if (isAlive(connection)) {
+            return connection;
+        }
+        return connections.compute(hostInfo, (key, oldConnection) -> {
+            if (isAlive(oldConnection)) {
+                return oldConnection;
+            }
+            if (oldConnection != null) {
+                oldConnection.channel().close();
+            }
+            // the connect listeners run before the channel is active, when the http2 preface is sent,
+            // so the connection is ready for the streams after the event loop has processed the activation
+            ChannelFuture connectFuture = bootstrap.connect(hostInfo.getHostName(), hostInfo.getPortNumber());
+            ChannelPromise readyPromise = connectFuture.channel().newPromise();
+            connectFuture.addListener(future -> {
+                if (future.isSuccess()) {
+                    connectFuture.channel().eventLoop().execute(readyPromise::trySuccess);
+                } else {
+                    readyPromise.tryFailure(future.cause());
+                }
+            });
+            return readyPromise;
+        });
+    }
+
+    private boolean isAlive(ChannelFuture connection) {
+        return connection != null && (!connection.isDone() || connection.channel().isActive());
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * close the connections
+     */
+    public void close() {
+        closed = true;
+        for (ChannelFuture connection : connections.values()) {
+            connection.channel().close();
+        }
+        connections.clear();
+        eventLoopGroup.shutdownGracefully();
+    }
+
+    /**
+     * completes the future of a batch with the ack of its stream
+     */
+    private static class AckHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+
+        private final CompletableFuture<SendResult> future;
+
+        AckHandler(CompletableFuture<SendResult> future) {
+            this.future = future;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            future.complete(parseAck(response));
+            ctx.close();
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            future.complete(SendResult.CONNECTION_BREAK);
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.debug("exception caught in stream {}", ctx.channel(), cause);
+            future.complete(SendResult.CONNECTION_BREAK);
+            ctx.close();
+        }
+
+        private SendResult parseAck(FullHttpResponse response) {
+            String returnStr = response.content().toString(CharsetUtil.UTF_8);
+            if (!HttpResponseStatus.OK.equals(response.status())) {
+                logger.debug("get error status {} of response {}", response.status(), returnStr);
+                return SendResult.UNKOWN_ERROR;
+            }
+            try {
+                JsonObject jsonRes = new JsonParser().parse(returnStr).getAsJsonObject();
+                if (jsonRes.has("code")) {
+                    if (jsonRes.get("code").getAsInt() == DataProxyErrCode.SUCCESS.getErrCode()) {
+                        return SendResult.OK;
+                    }
+                    logger.debug("get error response {}", returnStr);
+                    return SendResult.INVALID_DATA;
+                }
+            } catch (Exception e) {
+                logger.debug("fail to parse response {}", returnStr, e);
+            }
+            return SendResult.UNKOWN_ERROR;
+        }
+    }
+
+    /**
+     * the proxies do not push, the stream opened by the remote is closed
+     */
+    @ChannelHandler.Sharable
+    private static class PushRejectHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ReferenceCountUtil.release(msg);
+            ctx.close();
+        }
+    }
+}
@@ -44,9 +44,11 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -63,6 +65,9 @@ public class InternalHttpSender {
     private final ExecutorService workerServices = Executors
             .newCachedThreadPool();
     private CloseableHttpClient httpClient;
+    private final Http2BatchSender http2Sender;
+    // permits of the http2 batches in flight, the same bound as the cached messages
+    private final Semaphore http2InFlight;
     private final JsonParser jsonParser = new JsonParser();
     private boolean bShutDown = false;
 
@@ -72,6 +77,8 @@ public class InternalHttpSender {
         this.proxyClientConfig = proxyClientConfig;
         this.hostList = hostList;
         this.messageCache = messageCache;
+        this.http2Sender = proxyClientConfig.isEnableHttp2() ? new Http2BatchSender(proxyClientConfig) : null;
+        this.http2InFlight = new Semaphore(proxyClientConfig.getTotalAsyncCallbackSize());
         submitWorkThread();
     }
 
@@ -90,7 +97,7 @@ public class InternalHttpSender {
      * @param dt
      * @return
      */
-    private ArrayList<BasicNameValuePair> getHeaders(List<String> bodies,
+    static ArrayList<BasicNameValuePair> getHeaders(List<String> bodies,
             String groupId, String streamId, long dt) {
         ArrayList<BasicNameValuePair> params = new ArrayList<BasicNameValuePair>();
         params.add(new BasicNameValuePair("groupId", groupId));
@@ -134,7 +141,17 @@ public class InternalHttpSender {
                 try {
                     while (!messageCache.isEmpty()) {
                         HttpMessage httpMessage = messageCache.poll();
-                        if (httpMessage != null) {
+                        if (httpMessage != null && http2Sender != null) {
+                            // post without waiting for the ack, the acks complete the callbacks in any order
+                            http2InFlight.acquire();
+                            http2Sender.send(getRandomHostInfo(), httpMessage.getBodies(),
+                                    httpMessage.getGroupId(), httpMessage.getStreamId(), httpMessage.getDt(),
+                                    httpMessage.getTimeout(), httpMessage.getTimeUnit())
+                                    .thenAccept(result -> {
+                                        http2InFlight.release();
+                                        httpMessage.getCallback().onMessageAck(result);
+                                    });
+                        } else if (httpMessage != null) {
                             SendResult result = sendMessageWithHostInfo(
                                     httpMessage.getBodies(), httpMessage.getGroupId(),
                                     httpMessage.getStreamId(), httpMessage.getDt(),
@@ -245,6 +262,17 @@ public class InternalHttpSender {
             long timeout, TimeUnit timeUnit) {
 
         List<HostInfo> randomHostList = getRandomHostInfo();
+        if (http2Sender != null) {
+            try {
+                return http2Sender.send(randomHostList, bodies, groupId, streamId, dt, timeout, timeUnit).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return SendResult.THREAD_INTERRUPT;
+            } catch (ExecutionException e) {
+                logger.error("error while sending data", e);
+                return SendResult.UNKOWN_ERROR;
+            }
+        }
         Exception tmpException = null;
         for (HostInfo hostInfo : randomHostList) {
             try {
@@ -274,5 +302,8 @@ public class InternalHttpSender {
             httpClient.close();
         }
         workerServices.shutdown();
+        if (http2Sender != null) {
+            http2Sender.close();
+        }
     }
 }
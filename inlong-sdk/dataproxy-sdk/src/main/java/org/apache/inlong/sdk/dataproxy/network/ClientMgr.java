@@ -39,15 +39,18 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -67,8 +70,10 @@ public class ClientMgr {
     // clientMapData + clientMapHB = clientMap
     private final ConcurrentHashMap<HostInfo, NettyClient> clientMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<HostInfo, AtomicLong> lastBadHostMap = new ConcurrentHashMap<>();
-    // clientList is the valueSet of clientMapData
-    private final ArrayList<NettyClient> clientList = new ArrayList<>();
+    // clientList is the valueSet of clientMapData, changed by addDataClient, removeDataClient and clearDataClients
+    private final CopyOnWriteArrayList<NettyClient> clientList = new CopyOnWriteArrayList<>();
+    // immutable snapshot of clientList for the lock-free selection of clients
+    private volatile NettyClient[] clientSnapshot = new NettyClient[0];
     private final Map<HostInfo, int[]> channelLoadMapData = new ConcurrentHashMap<>();
     private final Map<HostInfo, int[]> channelLoadMapHB = new ConcurrentHashMap<>();
     /**
@@ -77,7 +82,7 @@ public class ClientMgr {
     private final ReentrantReadWriteLock fsLock = new ReentrantReadWriteLock(true);
     private List<HostInfo> proxyInfoList = new ArrayList<>();
     private Bootstrap bootstrap;
-    private int currentIndex = 0;
+    private final AtomicInteger currentIndex = new AtomicInteger(0);
     private ProxyClientConfig configure;
     private Sender sender;
     private int aliveConnections;
@@ -299,7 +304,7 @@ public class ClientMgr {
             // create data channel
             if (bSuccess) {
                 clientMapData.put(host, client);
-                clientList.add(client);
+                addDataClient(client);
                 clientMap.put(host, client);
                 logger.info("build a connection success! {},channel {}", host.getHostName(), client.getChannel());
             } else {
@@ -374,53 +379,63 @@ public class ClientMgr {
         }
     }
 
-    public synchronized NettyClient getClientByRoundRobin() {
-        NettyClient client = null;
-        if (clientList.isEmpty()) {
-            return null;
-        }
-        int currSize = clientList.size();
-        for (int retryTime = 0; retryTime < currSize; retryTime++) {
-            currentIndex = (++currentIndex) % currSize;
-            client = clientList.get(currentIndex);
+    private synchronized void addDataClient(NettyClient client) {
+        clientList.add(client);
+        clientSnapshot = clientList.toArray(new NettyClient[0]);
+    }
+
+    private synchronized void removeDataClient(NettyClient client) {
+        clientList.remove(client);
+        clientSnapshot = clientList.toArray(new NettyClient[0]);
+    }
+
+    private synchronized void clearDataClients() {
+        clientList.clear();
+        clientSnapshot = new NettyClient[0];
+    }
+
+    /**
+     * get the data clients, such as for the in-flight count and ack latency of every proxy
+     *
+     * @return immutable snapshot of the data clients
+     */
+    public List<NettyClient> getDataClients() {
+        return Collections.unmodifiableList(Arrays.asList(clientSnapshot));
+    }
+
+    public NettyClient getClientByRoundRobin() {
+        NettyClient[] clients = clientSnapshot;
+        for (int retryTime = 0; retryTime < clients.length; retryTime++) {
+            NettyClient client = clients[nextIndex(clients.length)];
             if (client != null && client.isActive()) {
-                break;
+                return client;
             }
         }
-        if (client == null || !client.isActive()) {
-            return null;
-        }
-        // logger.info("get a client {}", client.getChannel());
-        return client;
+        return null;
     }
 
-    public synchronized NettyClient getClientByRandom() {
-        NettyClient client;
-        if (clientList.isEmpty()) {
+    public NettyClient getClientByRandom() {
+        NettyClient[] clients = clientSnapshot;
+        if (clients.length == 0) {
             return null;
         }
-        int currSize = clientList.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         int maxRetry = this.configure.getMaxRetry();
-        Random random = new Random(System.currentTimeMillis());
         do {
-            int randomId = random.nextInt();
-            client = clientList.get(randomId % currSize);
+            NettyClient client = clients[random.nextInt(clients.length)];
             if (client != null && client.isActive()) {
-                break;
+                return client;
             }
             maxRetry--;
         } while (maxRetry > 0);
-        if (client == null || !client.isActive()) {
-            return null;
-        }
-        return client;
+        return null;
     }
 
     // public synchronized NettyClient getClientByLeastConnections() {}
 
-    public synchronized NettyClient getClientByConsistencyHash(String messageId) {
+    public NettyClient getClientByConsistencyHash(String messageId) {
         NettyClient client;
-        if (clientList.isEmpty()) {
+        if (clientSnapshot.length == 0) {
             return null;
         }
         String hash = ConsistencyHashUtil.hashMurMurHash(messageId);
@@ -430,59 +445,84 @@ public class ClientMgr {
         return client;
     }
 
-    public synchronized NettyClient getClientByWeightRoundRobin() {
-        NettyClient client = null;
-        double maxWeight = Double.MIN_VALUE;
-        int clientId = 0;
-        if (clientList.isEmpty()) {
+    public NettyClient getClientByWeightRoundRobin() {
+        NettyClient[] clients = clientSnapshot;
+        if (clients.length == 0) {
             return null;
         }
-        int currSize = clientList.size();
-        for (int retryTime = 0; retryTime < currSize; retryTime++) {
-            currentIndex = (++currentIndex) % currSize;
-            client = clientList.get(currentIndex);
-            if (client != null && client.isActive() && client.getWeight() > maxWeight) {
-                clientId = currentIndex;
+        NettyClient result = null;
+        double maxWeight = Double.MIN_VALUE;
+        int startIndex = nextIndex(clients.length);
+        for (int retryTime = 0; retryTime < clients.length; retryTime++) {
+            NettyClient client = clients[(startIndex + retryTime) % clients.length];
+            if (client == null || !client.isActive()) {
+                continue;
+            }
+            double weight = client.getWeight();
+            if (weight > maxWeight) {
+                maxWeight = weight;
+                result = client;
             }
         }
-        if (client == null || !client.isActive()) {
-            return null;
-        }
-        return clientList.get(clientId);
+        return result;
     }
 
     // public synchronized NettyClient getClientByWeightLeastConnections(){}
 
-    public synchronized NettyClient getClientByWeightRandom() {
-        NettyClient client;
-        double maxWeight = Double.MIN_VALUE;
-        int clientId = 0;
-        if (clientList.isEmpty()) {
-            return null;
+    public NettyClient getClientByWeightRandom() {
+        // the weight is the load of the local host, it is the same for all the clients
+        return getClientByRandom();
+    }
+
+    /**
+     * choose the less loaded of two random active clients, the load is the in-flight count and ack latency
+     */
+    public NettyClient getClientByPowerOfTwoChoices() {
+        NettyClient[] clients = clientSnapshot;
+        if (clients.length < 2) {
+            return getClientByRandom();
         }
-        int currSize = clientList.size();
-        int maxRetry = this.configure.getMaxRetry();
-        Random random = new Random(System.currentTimeMillis());
+        return chooseByPowerOfTwoChoices(clients, this.configure.getMaxRetry());
+    }
+
+    /**
+     * choose the active client with the lower load score of two random ones, at least two clients are given
+     *
+     * @return the chosen client, or null if no active client is found in maxRetry choices
+     */
+    static NettyClient chooseByPowerOfTwoChoices(NettyClient[] clients, int maxRetry) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         do {
-            int randomId = random.nextInt();
-            client = clientList.get(randomId % currSize);
-            if (client != null && client.isActive()) {
-                clientId = randomId;
-                break;
+            int first = random.nextInt(clients.length);
+            int second = random.nextInt(clients.length - 1);
+            if (second >= first) {
+                second++;
+            }
+            NettyClient firstClient = clients[first];
+            NettyClient secondClient = clients[second];
+            boolean isFirstActive = firstClient != null && firstClient.isActive();
+            boolean isSecondActive = secondClient != null && secondClient.isActive();
+            if (isFirstActive && isSecondActive) {
+                return firstClient.getLoadScore() <= secondClient.getLoadScore() ? firstClient : secondClient;
+            } else if (isFirstActive) {
+                return firstClient;
+            } else if (isSecondActive) {
+                return secondClient;
             }
             maxRetry--;
         } while (maxRetry > 0);
-        if (client == null || !client.isActive()) {
-            return null;
-        }
-        return clientList.get(clientId);
+        return null;
+    }
+
+    private int nextIndex(int size) {
+        return (currentIndex.incrementAndGet() & Integer.MAX_VALUE) % size;
     }
 
     public NettyClient getContainProxy(String proxyip) {
         if (proxyip == null) {
             return null;
         }
-        for (NettyClient tmpClient : clientList) {
+        for (NettyClient tmpClient : clientSnapshot) {
             if (tmpClient != null && tmpClient.getServerIP() != null && tmpClient.getServerIP().equals(proxyip)) {
                 return tmpClient;
             }
@@ -521,7 +561,7 @@ public class ClientMgr {
 
         channelLoadMapData.clear();
         channelLoadMapHB.clear();
-        clientList.clear();
+        clearDataClients();
         sender.clearCallBack();
     }
 
@@ -674,13 +714,13 @@ public class ClientMgr {
                     sender.waitForAckForChannel(client.getChannel());
                     client.close();
 
-                    clientList.remove(clientMapData.get(dataHost));
+                    removeDataClient(clientMapData.get(dataHost));
                     clientMap.remove(dataHost);
                     clientMapData.remove(dataHost);
                     // channelLoadMapData.remove(dataHost);
                     clientMapData.put(hbHost, clientMapHB.get(hbHost));
                     // channelLoadMapData.put(hbHost,listHB.get(i).getValue());
-                    clientList.add(clientMapHB.get(hbHost));
+                    addDataClient(clientMapHB.get(hbHost));
                     clientMapHB.remove(hbHost);
                 }
             }
@@ -763,7 +803,7 @@ public class ClientMgr {
         while (it.hasNext() && clientMapData.size() < aliveConnections) {
             Map.Entry<HostInfo, NettyClient> entry = it.next();
             clientMapData.put(entry.getKey(), entry.getValue());
-            clientList.add(entry.getValue());
+            addDataClient(entry.getValue());
             channelLoadMapHB.remove(entry.getKey());
             it.remove();
         }
@@ -865,7 +905,7 @@ public class ClientMgr {
                 client.close();
                 clientMapData.remove(hostInfo);
                 clientMap.remove(hostInfo);
-                clientList.remove(client);
+                removeDataClient(client);
 
                 channelLoadMapData.remove(hostInfo);
                 logger.info("remove this client {}", hostInfo.getHostName());
@@ -1017,10 +1057,26 @@ public class ClientMgr {
             case WEIGHT_RANDOM:
                 client = getClientByWeightRandom();
                 break;
+            case POWER_OF_TWO_CHOICES:
+                client = getClientByPowerOfTwoChoices();
+                break;
         }
         return client;
     }
 
+    /**
+     * print the in-flight count and ack latency of every data client
+     */
+    private void printProxyLoads() {
+        for (NettyClient client : clientSnapshot) {
+            if (client != null) {
+                logger.info("proxy {}:{} active {}, inflight {}, ewma ack latency {} ms",
+                        client.getServerIP(), client.getServerPort(), client.isActive(),
+                        client.getInflightCount(), String.format("%.2f", client.getEwmaLatencyMs()));
+            }
+        }
+    }
+
     private class SendHBThread extends Thread {
 
         private final int[] random = {17, 19, 23, 31, 37};
@@ -1042,6 +1098,7 @@ public class ClientMgr {
                     loadCycle++;
                     sendHeartBeat();
                     replaceBadConnectionHB();
+                    printProxyLoads();
                     try {
                         int index = (int) (Math.random() * random.length);
                         Thread.sleep((random[index]) * 1000);
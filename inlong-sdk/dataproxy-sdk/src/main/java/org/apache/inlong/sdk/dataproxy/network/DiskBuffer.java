@@ -0,0 +1,512 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.network;
+
+import org.apache.inlong.sdk.commons.segment.SegmentLog;
+import org.apache.inlong.sdk.dataproxy.FileCallback;
+import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
+import org.apache.inlong.sdk.dataproxy.SendResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk buffer of the async packs. A pack is appended to a SegmentLog when the proxies can not accept it, that is
+ * no connection, full callback buffer, timeout or broken connection, and its callback is acked with OK since the
+ * SDK has stored it. While the log has a backlog, the new packs are appended behind it to keep the order.
+ * The replay thread resends the packs in order when the proxies recover, merging the adjacent packs of the same
+ * groupId, streamId, proxy send flag and data time in seconds, and commits them after they are acked. The packs
+ * which the proxies will never accept are committed and reported to the {@link Listener} as dropped, since they
+ * have been acked to the caller.
+ * The packs failed in the callbacks, which run on the netty I/O and timeout threads, are spilled by a dedicated
+ * spill thread, so the disk I/O never blocks those threads.
+ */
+public class DiskBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DiskBuffer.class);
+    private static final long PRINT_INTERVAL_MS = 60 * 1000L;
+    private static final long REPLAY_RETRY_INTERVAL_MS = 1000L;
+    private static final long REPLAY_WAIT_MS = 1000L;
+    private static final int SPILL_QUEUE_SIZE = 1024;
+    private static final long SPILL_CLOSE_WAIT_MS = 3000L;
+
+    private final SegmentLog log;
+    private final int maxPackCount;
+    private final int maxPackBytes;
+    private final boolean isFile;
+    private final Replayer replayer;
+    private final Listener listener;
+    private final Thread replayThread;
+    private final ThreadPoolExecutor spillExecutor;
+    private final Object appendSignal = new Object();
+    private volatile boolean bShutDown = false;
+    // metrics of the spilled and replayed packs
+    private final AtomicLong spilledBytes = new AtomicLong(0);
+    private final AtomicLong spilledCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicLong replayedCount = new AtomicLong(0);
+    private final AtomicLong droppedCount = new AtomicLong(0);
+    private volatile long replayLagMs = 0;
+
+    public DiskBuffer(String path, long maxBytes, int segmentBytes, int maxPackCount, int maxPackBytes,
+            boolean isFile, Replayer replayer, Listener listener) throws IOException {
+        this.log = new SegmentLog(new File(path), maxBytes, segmentBytes);
+        this.maxPackCount = maxPackCount;
+        this.maxPackBytes = maxPackBytes;
+        this.isFile = isFile;
+        this.replayer = replayer;
+        this.listener = listener;
+        this.spillExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(SPILL_QUEUE_SIZE), r -> {
+                    Thread thread = new Thread(r, "DiskBufferSpillThread");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.replayThread = new Thread(this::runReplay, "DiskBufferReplayThread");
+        this.replayThread.setDaemon(true);
+        this.replayThread.start();
+    }
+
+    /**
+     * send a pack by the sender, or append it to the log if the proxies can not accept it
+     *
+     * @param callback callback of the pack
+     * @param bodyList message data
+     * @param groupId groupId
+     * @param streamId streamId
+     * @param dt data report timestamp
+     * @param isProxySend true: dataproxy doesn't return response message until data is sent to MQ
+     * @param packSender sender of the pack
+     */
+    public void send(SendMessageCallback callback, List<byte[]> bodyList, String groupId, String streamId,
+            long dt, boolean isProxySend, PackSender packSender) throws ProxysdkException {
+        Pack pack = new Pack(groupId, streamId, dt, isProxySend, bodyList);
+        // keep the order behind the backlog, the pack is sent directly only if the log is full
+        boolean hasBacklog = !log.isEmpty();
+        if (hasBacklog && spill(pack)) {
+            ack(callback);
+            return;
+        }
+        try {
+            packSender.send(new SpillCallback(callback, pack));
+        } catch (ProxysdkException e) {
+            if (!hasBacklog && isSpillable(SyncSendCallback.toSendResult(e)) && spill(pack)) {
+                ack(callback);
+                return;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * finish the queued spills, stop the replay thread and close the log,
+     * the uncommitted packs are replayed after a restart
+     */
+    public void close() {
+        logger.info("begin to close DiskBuffer!");
+        bShutDown = true;
+        spillExecutor.shutdown();
+        replayThread.interrupt();
+        try {
+            if (!spillExecutor.awaitTermination(SPILL_CLOSE_WAIT_MS, TimeUnit.MILLISECONDS)) {
+                logger.warn("DiskBuffer closed with {} packs waiting for spill", spillExecutor.getQueue().size());
+            }
+            replayThread.join(REPLAY_RETRY_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.get();
+    }
+
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return count of the torn or corrupted records skipped by the replay
+     */
+    public long getCorruptedCount() {
+        return log.getCorruptedCount();
+    }
+
+    /**
+     * @return bytes of the packs waiting for replay
+     */
+    public long getBacklogBytes() {
+        return log.getBacklogBytes();
+    }
+
+    /**
+     * @return time in milliseconds from the spilling of the pack being replayed to now, 0 if there is no backlog
+     */
+    public long getReplayLagMs() {
+        return replayLagMs;
+    }
+
+    private static boolean isSpillable(SendResult result) {
+        return result == SendResult.NO_CONNECTION || result == SendResult.ASYNC_CALLBACK_BUFFER_FULL
+                || result == SendResult.TIMEOUT || result == SendResult.CONNECTION_BREAK;
+    }
+
+    private boolean spill(Pack pack) {
+        try {
+            byte[] payload = pack.encode();
+            if (!log.append(payload)) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            spilledBytes.addAndGet(payload.length);
+            spilledCount.incrementAndGet();
+            if (listener != null) {
+                listener.onSpilled(pack.groupId, pack.streamId, pack.bodyList.size());
+            }
+        } catch (IOException e) {
+            logger.error("fail to spill pack of {} messages of groupId {} streamId {}",
+                    pack.bodyList.size(), pack.groupId, pack.streamId, e);
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        synchronized (appendSignal) {
+            appendSignal.notifyAll();
+        }
+        return true;
+    }
+
+    private void ack(SendMessageCallback callback) {
+        if (callback == null) {
+            return;
+        }
+        if (isFile && callback instanceof FileCallback) {
+            ((FileCallback) callback).onMessageAck(SendResult.OK.toString());
+        } else {
+            callback.onMessageAck(SendResult.OK);
+        }
+    }
+
+    private void runReplay() {
+        logger.info("DiskBuffer replay thread started, backlogBytes={}", log.getBacklogBytes());
+        long lastPrintTime = System.currentTimeMillis();
+        while (!bShutDown) {
+            try {
+                long writeOffset = log.getWriteOffset();
+                Pack pack = readPack();
+                if (pack == null) {
+                    replayLagMs = 0;
+                    synchronized (appendSignal) {
+                        if (log.getWriteOffset() == writeOffset) {
+                            appendSignal.wait(REPLAY_WAIT_MS);
+                        }
+                    }
+                } else {
+                    replayLagMs = System.currentTimeMillis() - pack.appendTime;
+                    replay(pack);
+                }
+                long now = System.currentTimeMillis();
+                if (now - lastPrintTime >= PRINT_INTERVAL_MS) {
+                    logger.info("DiskBuffer spilled {} packs of {} bytes, rejected {}, replayed {}, dropped {},"
+                            + " corrupted {}, backlogBytes={}, replayLagMs={}", getSpilledCount(), getSpilledBytes(),
+                            getRejectedCount(), getReplayedCount(), getDroppedCount(), getCorruptedCount(),
+                            getBacklogBytes(), getReplayLagMs());
+                    lastPrintTime = now;
+                }
+            } catch (InterruptedException e) {
+                if (!bShutDown) {
+                    logger.error("DiskBuffer replay thread interrupted", e);
+                }
+            } catch (Throwable e) {
+                logger.error("DiskBuffer replay thread exception", e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(REPLAY_RETRY_INTERVAL_MS);
+                } catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void replay(Pack pack) throws IOException, InterruptedException {
+        SendResult result = replayer.resend(pack.bodyList, pack.groupId, pack.streamId, pack.dt, pack.isProxySend);
+        if (result == SendResult.OK) {
+            log.commit(pack.nextOffset);
+            replayedCount.addAndGet(pack.records);
+            if (listener != null) {
+                listener.onReplayed(pack.groupId, pack.streamId, pack.bodyList.size());
+            }
+        } else if (isSpillable(result)) {
+            logger.warn("fail to replay {} packs from offset {}, result {}, retry later",
+                    pack.records, log.getReadOffset(), result);
+            TimeUnit.MILLISECONDS.sleep(REPLAY_RETRY_INTERVAL_MS);
+        } else {
+            // the proxies will never accept it
+            logger.error("drop {} packs of groupId {} streamId {} from offset {}, result {}",
+                    pack.records, pack.groupId, pack.streamId, log.getReadOffset(), result);
+            log.commit(pack.nextOffset);
+            droppedCount.addAndGet(pack.records);
+            if (listener != null) {
+                listener.onDropped(pack.groupId, pack.streamId, pack.bodyList.size(), result);
+            }
+        }
+    }
+
+    /**
+     * read the pack at the checkpoint and merge the adjacent packs of the same key into it
+     */
+    private Pack readPack() throws IOException {
+        SegmentLog.Entry entry = log.read(log.getReadOffset());
+        if (entry == null) {
+            return null;
+        }
+        Pack pack = Pack.decode(entry);
+        while (pack.bodyList.size() < maxPackCount && pack.bytes < maxPackBytes) {
+            SegmentLog.Entry next = log.read(pack.nextOffset);
+            if (next == null) {
+                break;
+            }
+            Pack nextPack = Pack.decode(next);
+            if (!pack.canMerge(nextPack)
+                    || pack.bodyList.size() + nextPack.bodyList.size() > maxPackCount
+                    || pack.bytes + nextPack.bytes > maxPackBytes) {
+                break;
+            }
+            pack.merge(nextPack);
+        }
+        return pack;
+    }
+
+    /**
+     * Sender of a pack to the proxies
+     */
+    public interface PackSender {
+
+        void send(SendMessageCallback callback) throws ProxysdkException;
+    }
+
+    /**
+     * Resender of a pack replayed from the log, it waits for the result
+     */
+    public interface Replayer {
+
+        SendResult resend(List<byte[]> bodyList, String groupId, String streamId, long dt, boolean isProxySend);
+    }
+
+    /**
+     * Listener of the packs in the buffer, it is called on the spill and replay threads of the buffer
+     */
+    public interface Listener {
+
+        /**
+         * the pack is spilled and acked with OK to the caller
+         */
+        void onSpilled(String groupId, String streamId, int messageCount);
+
+        /**
+         * the spilled pack is resent to the proxies
+         */
+        void onReplayed(String groupId, String streamId, int messageCount);
+
+        /**
+         * the spilled pack is dropped since the proxies will never accept it, it has been acked to the caller
+         */
+        void onDropped(String groupId, String streamId, int messageCount, SendResult result);
+    }
+
+    /**
+     * messages of a pack, and its position in the log if it is read from the log
+     */
+    private static class Pack {
+
+        private final String groupId;
+        private final String streamId;
+        private final long dt;
+        private final boolean isProxySend;
+        private final List<byte[]> bodyList;
+        private int bytes = 0;
+        private long appendTime;
+        private long nextOffset;
+        private int records = 1;
+
+        private Pack(String groupId, String streamId, long dt, boolean isProxySend, List<byte[]> bodyList) {
+            this.groupId = groupId;
+            this.streamId = streamId;
+            this.dt = dt;
+            this.isProxySend = isProxySend;
+            this.bodyList = bodyList;
+            for (byte[] body : bodyList) {
+                bytes += body.length;
+            }
+        }
+
+        private byte[] encode() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes + 64 + 4 * bodyList.size());
+            DataOutputStream output = new DataOutputStream(out);
+            output.writeUTF(groupId);
+            output.writeUTF(streamId);
+            output.writeLong(dt);
+            output.writeBoolean(isProxySend);
+            output.writeInt(bodyList.size());
+            for (byte[] body : bodyList) {
+                output.writeInt(body.length);
+                output.write(body);
+            }
+            output.flush();
+            return out.toByteArray();
+        }
+
+        private static Pack decode(SegmentLog.Entry entry) throws IOException {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry.getPayload()));
+            String groupId = input.readUTF();
+            String streamId = input.readUTF();
+            long dt = input.readLong();
+            boolean isProxySend = input.readBoolean();
+            int count = input.readInt();
+            List<byte[]> bodyList = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] body = new byte[input.readInt()];
+                input.readFully(body);
+                bodyList.add(body);
+            }
+            Pack pack = new Pack(groupId, streamId, dt, isProxySend, bodyList);
+            pack.appendTime = entry.getAppendTime();
+            pack.nextOffset = entry.getNextOffset();
+            return pack;
+        }
+
+        private boolean canMerge(Pack other) {
+            return groupId.equals(other.groupId) && streamId.equals(other.streamId)
+                    && isProxySend == other.isProxySend && dt / 1000 == other.dt / 1000;
+        }
+
+        private void merge(Pack other) {
+            bodyList.addAll(other.bodyList);
+            bytes += other.bytes;
+            nextOffset = other.nextOffset;
+            records += other.records;
+        }
+    }
+
+    /**
+     * callback of a pack sent by the sender, it spills the pack if the proxies fail to accept it,
+     * it is a FileCallback since the senders of file mode ack with strings
+     */
+    private class SpillCallback extends FileCallback {
+
+        private final SendMessageCallback callback;
+        private final Pack pack;
+
+        private SpillCallback(SendMessageCallback callback, Pack pack) {
+            this.callback = callback;
+            this.pack = pack;
+        }
+
+        @Override
+        public void onMessageAck(String result) {
+            if (isSpillable(SyncSendCallback.parseResult(result))) {
+                spillAsync(() -> {
+                    if (callback instanceof FileCallback) {
+                        ((FileCallback) callback).onMessageAck(result);
+                    }
+                });
+            } else if (callback instanceof FileCallback) {
+                ((FileCallback) callback).onMessageAck(result);
+            }
+        }
+
+        @Override
+        public void onMessageAck(SendResult result) {
+            if (isSpillable(result)) {
+                spillAsync(() -> {
+                    if (callback != null) {
+                        callback.onMessageAck(result);
+                    }
+                });
+            } else if (callback != null) {
+                callback.onMessageAck(result);
+            }
+        }
+
+        @Override
+        public void onMessageEncoded(int rawLength, int encodedLength) {
+            if (callback != null) {
+                callback.onMessageEncoded(rawLength, encodedLength);
+            }
+        }
+
+        @Override
+        public void onException(Throwable e) {
+            if (isSpillable(SyncSendCallback.toSendResult(e))) {
+                spillAsync(() -> {
+                    if (callback != null) {
+                        callback.onException(e);
+                    }
+                });
+            } else if (callback != null) {
+                callback.onException(e);
+            }
+        }
+
+        /**
+         * spill the pack by the spill thread, the failure is returned to the callback if it can not be spilled
+         *
+         * @param onFailure return the failure to the callback
+         */
+        private void spillAsync(Runnable onFailure) {
+            try {
+                spillExecutor.execute(() -> {
+                    if (spill(pack)) {
+                        ack(callback);
+                    } else {
+                        onFailure.run();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejectedCount.incrementAndGet();
+                onFailure.run();
+            }
+        }
+    }
+}
@@ -32,16 +32,23 @@ import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class NettyClient {
 
     private static final Logger logger = LoggerFactory.getLogger(NettyClient.class);
+    // weight of the latest ack latency in the moving average
+    private static final double LATENCY_EWMA_ALPHA = 0.2d;
 
-    private Channel channel = null;
+    private volatile Channel channel = null;
     private final ReentrantLock stateLock = new ReentrantLock();
 
-    private ConnState connState;
+    private volatile ConnState connState;
+    // in-flight messages and the moving average of their ack latency, used by the load balance
+    private final AtomicInteger inflightCount = new AtomicInteger(0);
+    private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToLongBits(0d));
     private ProxyClientConfig configure;
     private Bootstrap bootstrap;
     private String serverIP;
@@ -146,17 +153,58 @@ public class NettyClient {
         this.connect();
     }
 
+    /**
+     * check the state without locking, it is called for every message by the load balance
+     */
     public boolean isActive() {
-        stateLock.lock();
-        try {
-            return (connState == ConnState.READY && channel != null && channel.isOpen() && channel.isActive());
-        } catch (Exception e) {
-            logger.error("channel maybe null!{}", e.getMessage());
-            return false;
-        } finally {
-            stateLock.unlock();
+        Channel curChannel = channel;
+        return (connState == ConnState.READY && curChannel != null && curChannel.isOpen() && curChannel.isActive());
+    }
+
+    /**
+     * a message is written to the channel and waits for its ack
+     */
+    public void onSent() {
+        inflightCount.incrementAndGet();
+    }
+
+    /**
+     * a message is acked, timed out or dropped
+     *
+     * @param latencyMs time from sending to completion, or negative if the message is dropped without ack
+     */
+    public void onCompleted(long latencyMs) {
+        inflightCount.updateAndGet(count -> count > 0 ? count - 1 : 0);
+        if (latencyMs < 0) {
+            return;
         }
-        // channel.isOpen();
+        long prevBits;
+        long nextBits;
+        do {
+            prevBits = ewmaLatencyBits.get();
+            double ewma = Double.longBitsToDouble(prevBits);
+            double next = ewma == 0d ? latencyMs : ewma + LATENCY_EWMA_ALPHA * (latencyMs - ewma);
+            nextBits = Double.doubleToLongBits(next);
+        } while (!ewmaLatencyBits.compareAndSet(prevBits, nextBits));
+    }
+
+    public int getInflightCount() {
+        return inflightCount.get();
+    }
+
+    public double getEwmaLatencyMs() {
+        return Double.longBitsToDouble(ewmaLatencyBits.get());
+    }
+
+    /**
+     * the expected wait of a new message, the proxy with less in-flight messages and lower latency is preferred
+     */
+    public double getLoadScore() {
+        return (getInflightCount() + 1) * (getEwmaLatencyMs() + 1d);
+    }
+
+    public int getServerPort() {
+        return serverPort;
     }
 
     private void setState(ConnState newState) {
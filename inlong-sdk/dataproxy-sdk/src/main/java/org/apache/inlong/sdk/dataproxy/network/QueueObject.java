@@ -19,6 +19,8 @@ package org.apache.inlong.sdk.dataproxy.network;
 
 import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
 
+import io.netty.util.Timeout;
+
 import java.util.concurrent.TimeUnit;
 
 public class QueueObject {
@@ -27,6 +29,8 @@ public class QueueObject {
     private final SendMessageCallback callback;
     private final long timeoutInMillis;
     private final int size;
+    private final NettyClient client;
+    private volatile Timeout timeout;
 
     public QueueObject(long sendTimeInMillis,
             SendMessageCallback callback,
@@ -36,16 +40,26 @@ public class QueueObject {
         this.callback = callback;
         this.timeoutInMillis = TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
         this.size = 1;
+        this.client = null;
     }
 
     public QueueObject(long sendTimeInMillis,
             SendMessageCallback callback, int size,
             long timeout,
             TimeUnit timeUnit) {
+        this(sendTimeInMillis, callback, size, timeout, timeUnit, null);
+    }
+
+    public QueueObject(long sendTimeInMillis,
+            SendMessageCallback callback, int size,
+            long timeout,
+            TimeUnit timeUnit,
+            NettyClient client) {
         this.sendTimeInMillis = sendTimeInMillis;
         this.callback = callback;
         this.timeoutInMillis = TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
         this.size = size;
+        this.client = client;
     }
 
     public long getSendTimeInMillis() {
@@ -63,4 +77,29 @@ public class QueueObject {
     public int getSize() {
         return size;
     }
+
+    public void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * cancel the timeout on the timing wheel, such as after the message is acked
+     */
+    public void cancelTimeout() {
+        Timeout curTimeout = timeout;
+        if (curTimeout != null) {
+            curTimeout.cancel();
+        }
+    }
+
+    /**
+     * mark the message of the client completed, such as acked or timed out
+     *
+     * @param latencyMs time from sending to completion, or negative if the message is dropped
+     */
+    public void complete(long latencyMs) {
+        if (client != null) {
+            client.onCompleted(latencyMs);
+        }
+    }
 }
@@ -0,0 +1,353 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.network;
+
+import org.apache.inlong.sdk.dataproxy.FileCallback;
+import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
+import org.apache.inlong.sdk.dataproxy.SendResult;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accumulator of the async single messages, the messages of the same groupId, streamId, proxy send flag and
+ * data time in seconds are merged into one batch, and the batch is sent as one pack when its size reaches the
+ * max bytes or max count, or when it lingers for lingerMs. The callback of every message is completed by the
+ * result of its pack. The lingering messages hold the async buffer of the sender by the buffer limiter, as the
+ * messages sent one by one do.
+ */
+public class RecordAccumulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecordAccumulator.class);
+    private static final long PRINT_INTERVAL_MS = 60 * 1000L;
+
+    private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+    private final int lingerMs;
+    private final int maxBytes;
+    private final int maxCount;
+    private final PackSender packSender;
+    private final BufferLimiter bufferLimiter;
+    private final Thread lingerThread;
+    private volatile boolean bShutDown = false;
+    // metrics of the sent packs
+    private final AtomicLong packCount = new AtomicLong(0);
+    private final AtomicLong recordCount = new AtomicLong(0);
+    private final AtomicLong lingerMsSum = new AtomicLong(0);
+
+    public RecordAccumulator(int lingerMs, int maxBytes, int maxCount, PackSender packSender) {
+        this(lingerMs, maxBytes, maxCount, packSender, null);
+    }
+
+    /**
+     * @param bufferLimiter limiter of the lingering messages, null means unlimited
+     */
+    public RecordAccumulator(int lingerMs, int maxBytes, int maxCount, PackSender packSender,
+            BufferLimiter bufferLimiter) {
+        this.lingerMs = lingerMs;
+        this.maxBytes = maxBytes;
+        this.maxCount = maxCount;
+        this.packSender = packSender;
+        this.bufferLimiter = bufferLimiter;
+        this.lingerThread = new Thread(this::runLinger, "RecordAccumulatorLingerThread");
+        this.lingerThread.setDaemon(true);
+        this.lingerThread.start();
+    }
+
+    /**
+     * append a message to its batch, the batch is sent by the caller thread if it is full
+     *
+     * @param callback callback can be null
+     * @param body message data
+     * @param groupId groupId
+     * @param streamId streamId
+     * @param dt data report timestamp
+     * @param timeout timeout of the pack
+     * @param timeUnit time unit of the timeout
+     * @param isProxySend true: dataproxy doesn't return response message until data is sent to MQ
+     * @throws ProxysdkException if the accumulator is closed or the async buffer is full
+     */
+    public void append(SendMessageCallback callback, byte[] body, String groupId, String streamId, long dt,
+            long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException {
+        if (bShutDown) {
+            throw new ProxysdkException("RecordAccumulator is closed");
+        }
+        int reserved = bufferLimiter == null ? 0 : bufferLimiter.reserveBuffer(body);
+        String key = groupId + "|" + streamId + "|" + isProxySend + "|" + dt / 1000;
+        Batch fullBatch = null;
+        while (true) {
+            Batch batch = batches.computeIfAbsent(key,
+                    k -> new Batch(key, groupId, streamId, dt, timeout, timeUnit, isProxySend));
+            synchronized (batch) {
+                if (batch.closed) {
+                    // drained by another thread, retry with a new batch
+                    continue;
+                }
+                batch.add(body, callback, reserved);
+                if (batch.bodyList.size() >= maxCount || batch.bytes >= maxBytes) {
+                    batch.closed = true;
+                    batches.remove(key, batch);
+                    fullBatch = batch;
+                }
+                break;
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        if (bShutDown) {
+            // closed while appending, the batch is not left behind the final flush
+            flush();
+        }
+    }
+
+    /**
+     * send all the batches immediately
+     */
+    public void flush() {
+        drain(Long.MAX_VALUE);
+    }
+
+    /**
+     * stop the linger thread and send all the batches
+     */
+    public void close() {
+        logger.info("begin to close RecordAccumulator!");
+        bShutDown = true;
+        lingerThread.interrupt();
+        flush();
+    }
+
+    public int getLingerMs() {
+        return lingerMs;
+    }
+
+    public long getPackCount() {
+        return packCount.get();
+    }
+
+    public long getRecordCount() {
+        return recordCount.get();
+    }
+
+    /**
+     * @return average count of messages in one pack
+     */
+    public double getAvgBatchSize() {
+        long packs = packCount.get();
+        return packs == 0 ? 0d : (double) recordCount.get() / packs;
+    }
+
+    /**
+     * @return average time in milliseconds from the creation of a batch to its sending
+     */
+    public double getAvgLingerMs() {
+        long packs = packCount.get();
+        return packs == 0 ? 0d : (double) lingerMsSum.get() / packs;
+    }
+
+    private void runLinger() {
+        logger.info("RecordAccumulator linger thread started, lingerMs={}, maxBytes={}, maxCount={}",
+                lingerMs, maxBytes, maxCount);
+        long scanInterval = Math.max(1, lingerMs / 4);
+        long lastPrintTime = System.currentTimeMillis();
+        while (!bShutDown) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(scanInterval);
+                long now = System.currentTimeMillis();
+                drain(now - lingerMs);
+                if (now - lastPrintTime >= PRINT_INTERVAL_MS) {
+                    logger.info("RecordAccumulator sent {} packs of {} messages, avgBatchSize={}, avgLingerMs={}",
+                            getPackCount(), getRecordCount(), getAvgBatchSize(), getAvgLingerMs());
+                    lastPrintTime = now;
+                }
+            } catch (InterruptedException e) {
+                if (!bShutDown) {
+                    logger.error("RecordAccumulator linger thread interrupted", e);
+                }
+            } catch (Exception e) {
+                logger.error("RecordAccumulator linger thread exception", e);
+            }
+        }
+    }
+
+    /**
+     * send the batches created before the deadline
+     */
+    private void drain(long createDeadline) {
+        for (Batch batch : batches.values()) {
+            if (batch.createTime > createDeadline) {
+                continue;
+            }
+            synchronized (batch) {
+                if (batch.closed) {
+                    continue;
+                }
+                batch.closed = true;
+                batches.remove(batch.key, batch);
+            }
+            send(batch);
+        }
+    }
+
+    private void send(Batch batch) {
+        packCount.incrementAndGet();
+        recordCount.addAndGet(batch.bodyList.size());
+        lingerMsSum.addAndGet(System.currentTimeMillis() - batch.createTime);
+        if (bufferLimiter != null) {
+            // the pack holds the buffer of sender by itself once it is sent
+            bufferLimiter.releaseBuffer(batch.reserved);
+        }
+        BatchCallback batchCallback = new BatchCallback(batch.callbacks);
+        try {
+            packSender.send(batchCallback, batch.bodyList, batch.groupId, batch.streamId, batch.dt,
+                    batch.timeout, batch.timeUnit, batch.isProxySend);
+        } catch (Exception e) {
+            logger.warn("fail to send pack of {} messages of groupId {} streamId {}",
+                    batch.bodyList.size(), batch.groupId, batch.streamId, e);
+            batchCallback.onException(e);
+        }
+    }
+
+    /**
+     * Sender of the pack of a batch
+     */
+    public interface PackSender {
+
+        void send(SendMessageCallback callback, List<byte[]> bodyList, String groupId, String streamId, long dt,
+                long timeout, TimeUnit timeUnit, boolean isProxySend) throws ProxysdkException;
+    }
+
+    /**
+     * Limiter of the messages held by the accumulator, such as the async buffer of sender
+     */
+    public interface BufferLimiter {
+
+        /**
+         * reserve the buffer of a lingering message
+         *
+         * @param body message data
+         * @return the reserved size, which is released when the pack of message is sent
+         * @throws ProxysdkException if the buffer is full
+         */
+        int reserveBuffer(byte[] body) throws ProxysdkException;
+
+        /**
+         * release the reserved buffer
+         *
+         * @param size reserved size
+         */
+        void releaseBuffer(int size);
+    }
+
+    /**
+     * messages of the same key, guarded by its own lock
+     */
+    private static class Batch {
+
+        private final String key;
+        private final String groupId;
+        private final String streamId;
+        private final long dt;
+        private final long timeout;
+        private final TimeUnit timeUnit;
+        private final boolean isProxySend;
+        private final long createTime = System.currentTimeMillis();
+        private final List<byte[]> bodyList = new ArrayList<>();
+        private final List<SendMessageCallback> callbacks = new ArrayList<>();
+        private int bytes = 0;
+        private int reserved = 0;
+        private boolean closed = false;
+
+        private Batch(String key, String groupId, String streamId, long dt, long timeout, TimeUnit timeUnit,
+                boolean isProxySend) {
+            this.key = key;
+            this.groupId = groupId;
+            this.streamId = streamId;
+            this.dt = dt;
+            this.timeout = timeout;
+            this.timeUnit = timeUnit;
+            this.isProxySend = isProxySend;
+        }
+
+        private void add(byte[] body, SendMessageCallback callback, int reservedSize) {
+            bodyList.add(body);
+            bytes += body.length;
+            reserved += reservedSize;
+            if (callback != null) {
+                callbacks.add(callback);
+            }
+        }
+    }
+
+    /**
+     * callback of a pack, completes the callbacks of all its messages,
+     * it is a FileCallback since the senders of file mode ack with strings
+     */
+    private static class BatchCallback extends FileCallback {
+
+        private final List<SendMessageCallback> callbacks;
+
+        private BatchCallback(List<SendMessageCallback> callbacks) {
+            this.callbacks = callbacks;
+        }
+
+        @Override
+        public void onMessageAck(String result) {
+            for (SendMessageCallback callback : callbacks) {
+                try {
+                    if (callback instanceof FileCallback) {
+                        ((FileCallback) callback).onMessageAck(result);
+                    } else {
+                        callback.onMessageAck(SyncSendCallback.parseResult(result));
+                    }
+                } catch (Throwable e) {
+                    logger.error("message callback onMessageAck exception", e);
+                }
+            }
+        }
+
+        @Override
+        public void onMessageAck(SendResult result) {
+            for (SendMessageCallback callback : callbacks) {
+                try {
+                    callback.onMessageAck(result);
+                } catch (Throwable e) {
+                    logger.error("message callback onMessageAck exception", e);
+                }
+            }
+        }
+
+        @Override
+        public void onException(Throwable e) {
+            for (SendMessageCallback callback : callbacks) {
+                try {
+                    callback.onException(e);
+                } catch (Throwable t) {
+                    logger.error("message callback onException exception", t);
+                }
+            }
+        }
+    }
+}
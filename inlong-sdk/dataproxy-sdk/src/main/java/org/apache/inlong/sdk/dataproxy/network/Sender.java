@@ -46,7 +46,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
-public class Sender {
+public class Sender implements RecordAccumulator.BufferLimiter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Sender.class);
 
@@ -107,6 +107,24 @@ public class Sender {
         LOGGER.info("proxy sdk is starting!");
     }
 
+    /**
+     * reserve the async buffer for a message lingering in the accumulator, the size is counted as a sent message
+     */
+    @Override
+    public int reserveBuffer(byte[] body) throws ProxysdkException {
+        int size = isFile ? body.length : 1;
+        if (currentBufferSize.addAndGet(size) >= asyncCallbackMaxSize) {
+            currentBufferSize.addAndGet(-size);
+            throw new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL");
+        }
+        return size;
+    }
+
+    @Override
+    public void releaseBuffer(int size) {
+        currentBufferSize.addAndGet(-size);
+    }
+
     private void checkCallbackList() {
         // max wait for 1 min
         LOGGER.info("checking call back list before close, current size is {}",
@@ -167,6 +185,11 @@ public class Sender {
         if (callback == null) {
             return;
         }
+        callback.cancelTimeout();
+        callback.complete(System.currentTimeMillis() - callback.getSendTimeInMillis());
+        if (result == SendResult.OK && callback.getCallback() instanceof SyncSendCallback) {
+            scanThread.resetTimeoutChannel(channel);
+        }
         if (isFile) {
             String proxyip = channel.remoteAddress().toString();
             ((FileCallback) callback.getCallback()).onMessageAck(result.toString()
@@ -178,47 +201,12 @@ public class Sender {
         }
     }
 
-    private SendResult syncSendInternalMessage(NettyClient client, EncodeObject encodeObject, String msgUUID,
-            long timeout, TimeUnit timeUnit) throws ExecutionException, InterruptedException, TimeoutException {
-        if (client == null) {
-            return SendResult.NO_CONNECTION;
-        }
-        if (isNotValidateAttr(encodeObject.getCommonattr(), encodeObject.getAttributes())) {
-            LOGGER.error("error attr format {} {}", encodeObject.getCommonattr(),
-                    encodeObject.getAttributes());
-            return SendResult.INVALID_ATTRIBUTES;
-        }
-        if (encodeObject.getMsgtype() == 7) {
-            int groupIdnum = 0;
-            int streamIdnum = 0;
-            if (encodeObject.getGroupId().equals(clientMgr.getGroupId())) {
-                groupIdnum = clientMgr.getGroupIdNum();
-                streamIdnum = clientMgr.getStreamIdMap().get(encodeObject.getStreamId()) != null
-                        ? clientMgr.getStreamIdMap().get(encodeObject.getStreamId())
-                        : 0;
-            }
-            encodeObject.setGroupIdNum(groupIdnum);
-            encodeObject.setStreamIdNum(streamIdnum);
-            if (groupIdnum == 0 || streamIdnum == 0) {
-                encodeObject.setGroupIdTransfer(false);
-            }
-        }
-        if (this.configure.isNeedDataEncry()) {
-            encodeObject.setEncryptEntry(true, configure.getUserName(), clientMgr.getEncryptConfigEntry());
-        } else {
-            encodeObject.setEncryptEntry(false, null, null);
-        }
-        encodeObject.setMsgUUID(msgUUID);
-        SyncMessageCallable callable = new SyncMessageCallable(client, encodeObject, timeout, timeUnit);
-        syncCallables.put(encodeObject.getMessageId(), callable);
-
-        Future<SendResult> future = threadPool.submit(callable);
-        return future.get(timeout, timeUnit);
-    }
-
     /**
      * Following methods used by synchronously message sending.
-     * Meanwhile, update this send channel timeout info(including increase or reset), according to the sendResult
+     * The message is sent by the async pipeline and the caller waits on its future without a worker thread,
+     * meanwhile, reset this send channel timeout info on success, the timeout is counted by the timing wheel.
+     * The pending sync message is counted in the async callback buffer but never fails with ASYNC_CALLBACK_BUFFER_FULL,
+     * the sync messages are bounded by the caller threads
      *
      * @param encodeObject
      * @param msgUUID
@@ -227,54 +215,17 @@ public class Sender {
      * @return
      */
     public SendResult syncSendMessage(EncodeObject encodeObject, String msgUUID, long timeout, TimeUnit timeUnit) {
-        metricWorker.recordNumByKey(encodeObject.getMessageId(), encodeObject.getGroupId(), encodeObject.getStreamId(),
-                Utils.getLocalIp(), encodeObject.getDt(), encodeObject.getPackageTime(), encodeObject.getRealCnt());
-        NettyClient client = clientMgr.getClient(clientMgr.getLoadBalance(), encodeObject);
-        SendResult message = null;
+        SyncSendCallback callback = new SyncSendCallback();
         try {
-            message = syncSendInternalMessage(client, encodeObject, msgUUID, timeout, timeUnit);
-        } catch (InterruptedException e) {
-            // TODO Auto-generated catch block
-            LOGGER.error("send message error {} ", getExceptionStack(e));
-            syncCallables.remove(encodeObject.getMessageId());
-            return SendResult.THREAD_INTERRUPT;
-        } catch (ExecutionException e) {
-            // TODO Auto-generated catch block
-            LOGGER.error("ExecutionException {} ", getExceptionStack(e));
-            syncCallables.remove(encodeObject.getMessageId());
-            return SendResult.UNKOWN_ERROR;
-        } catch (TimeoutException e) {
-            // TODO Auto-generated catch block
-            LOGGER.error("TimeoutException {} ", getExceptionStack(e));
-            // e.printStackTrace();
-            SyncMessageCallable syncMessageCallable = syncCallables.remove(encodeObject.getMessageId());
-            if (syncMessageCallable != null) {
-                NettyClient tmpClient = syncMessageCallable.getClient();
-                if (tmpClient != null) {
-                    Channel curChannel = tmpClient.getChannel();
-                    if (curChannel != null) {
-                        LOGGER.error("channel maybe busy {}", curChannel);
-                        scanThread.addTimeoutChannel(curChannel);
-                    }
-                }
-            }
-            return SendResult.TIMEOUT;
+            asyncSendMessage(encodeObject, callback, msgUUID, timeout, timeUnit);
+        } catch (ProxysdkException e) {
+            LOGGER.error("syncSendMessage error {}", e.getMessage());
+            return SyncSendCallback.toSendResult(e);
         } catch (Throwable e) {
             LOGGER.error("syncSendMessage exception {} ", getExceptionStack(e));
-            syncCallables.remove(encodeObject.getMessageId());
-            return SendResult.UNKOWN_ERROR;
-        }
-        if (message == null) {
-            syncCallables.remove(encodeObject.getMessageId());
             return SendResult.UNKOWN_ERROR;
         }
-        if (client != null) {
-            scanThread.resetTimeoutChannel(client.getChannel());
-        }
-        if (message == SendResult.OK) {
-            metricWorker.recordSuccessByMessageId(encodeObject.getMessageId());
-        }
-        return message;
+        return callback.get(timeUnit.toMillis(timeout));
     }
 
     private SendResult syncSendMessageIndexInternal(NettyClient client, EncodeObject encodeObject, String msgUUID,
@@ -435,8 +386,15 @@ public class Sender {
         if (msgQueueMap == null) {
             msgQueueMap = tmpCallBackMap;
         }
-        msgQueueMap.put(encodeObject.getMessageId(), new QueueObject(System.currentTimeMillis(),
-                callback, size, timeout, timeUnit));
+        QueueObject newQueueObject = new QueueObject(System.currentTimeMillis(),
+                callback, size, timeout, timeUnit, client);
+        QueueObject queueObject = msgQueueMap.putIfAbsent(encodeObject.getMessageId(), newQueueObject);
+        if (queueObject != null) {
+            LOGGER.warn("message id {} has existed.", encodeObject.getMessageId());
+        } else {
+            client.onSent();
+            scanThread.addTimeoutCallback(client.getChannel(), encodeObject.getMessageId(), newQueueObject);
+        }
         if (encodeObject.getMsgtype() == 7) {
             int groupIdnum = 0;
             int streamIdnum = 0;
@@ -510,6 +468,7 @@ public class Sender {
      */
     public void asyncSendMessage(EncodeObject encodeObject, SendMessageCallback callback, String msgUUID,
             long timeout, TimeUnit timeUnit) throws ProxysdkException {
+        boolean checkBuffer = !(callback instanceof SyncSendCallback);
         metricWorker.recordNumByKey(encodeObject.getMessageId(), encodeObject.getGroupId(),
                 encodeObject.getStreamId(), Utils.getLocalIp(), encodeObject.getPackageTime(),
                 encodeObject.getDt(), encodeObject.getRealCnt());
@@ -520,7 +479,7 @@ public class Sender {
         if (client == null) {
             throw new ProxysdkException(SendResult.NO_CONNECTION.toString());
         }
-        if (currentBufferSize.get() >= asyncCallbackMaxSize) {
+        if (checkBuffer && currentBufferSize.get() >= asyncCallbackMaxSize) {
             throw new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL");
         }
         if (isNotValidateAttr(encodeObject.getCommonattr(), encodeObject.getAttributes())) {
@@ -537,23 +496,27 @@ public class Sender {
                     size = size + bytes.length;
                 }
             }
-            if (currentBufferSize.addAndGet(size) >= asyncCallbackMaxSize) {
+            if (currentBufferSize.addAndGet(size) >= asyncCallbackMaxSize && checkBuffer) {
                 currentBufferSize.addAndGet(-size);
                 throw new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL");
             }
 
         } else {
-            if (currentBufferSize.incrementAndGet() >= asyncCallbackMaxSize) {
+            if (currentBufferSize.incrementAndGet() >= asyncCallbackMaxSize && checkBuffer) {
                 currentBufferSize.decrementAndGet();
                 throw new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL");
             }
         }
         ConcurrentHashMap<String, QueueObject> msgQueueMap =
                 callbacks.computeIfAbsent(client.getChannel(), (k) -> new ConcurrentHashMap<>());
-        QueueObject queueObject = msgQueueMap.putIfAbsent(encodeObject.getMessageId(),
-                new QueueObject(System.currentTimeMillis(), callback, size, timeout, timeUnit));
+        QueueObject newQueueObject = new QueueObject(System.currentTimeMillis(), callback, size,
+                timeout, timeUnit, client);
+        QueueObject queueObject = msgQueueMap.putIfAbsent(encodeObject.getMessageId(), newQueueObject);
         if (queueObject != null) {
             LOGGER.warn("message id {} has existed.", encodeObject.getMessageId());
+        } else {
+            client.onSent();
+            scanThread.addTimeoutCallback(client.getChannel(), encodeObject.getMessageId(), newQueueObject);
         }
         if (encodeObject.getMsgtype() == 7) {
             int groupIdnum = 0;
@@ -575,6 +538,7 @@ public class Sender {
             encodeObject.setEncryptEntry(false, null, null);
         }
         encodeObject.setMsgUUID(msgUUID);
+        encodeObject.setCallback(callback);
         client.write(encodeObject);
     }
 
@@ -611,6 +575,8 @@ public class Sender {
                     if (queueObject == null) {
                         continue;
                     }
+                    queueObject.cancelTimeout();
+                    queueObject.complete(-1);
                     if (isFile) {
                         ((FileCallback) queueObject.getCallback())
                                 .onMessageAck(SendResult.CONNECTION_BREAK.toString());
@@ -56,14 +56,18 @@ public class SyncMessageCallable implements Callable<SendResult> {
 
     public SendResult call() throws Exception {
         // TODO Auto-generated method stub
+        long sendTime = System.currentTimeMillis();
+        client.onSent();
         try {
             ChannelFuture channelFuture = client.write(encodeObject);
             awaitLatch.await(timeout, timeUnit);
         } catch (Exception e) {
             logger.error("SendResult call", e);
             e.printStackTrace();
+            client.onCompleted(-1);
             return SendResult.UNKOWN_ERROR;
         }
+        client.onCompleted(System.currentTimeMillis() - sendTime);
         return message;
     }
 
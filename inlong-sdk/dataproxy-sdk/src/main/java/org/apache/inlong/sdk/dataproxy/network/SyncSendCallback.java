@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.network;
+
+import org.apache.inlong.sdk.dataproxy.FileCallback;
+import org.apache.inlong.sdk.dataproxy.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Callback of a synchronous send on the async pipeline, the caller waits on the future without a worker thread,
+ * so it can be a virtual thread. It extends FileCallback for the senders of file mode, which ack with strings.
+ */
+public class SyncSendCallback extends FileCallback {
+
+    // extra wait after the timeout, the timing wheel completes the callback with TIMEOUT before it
+    private static final long WAIT_GUARD_MS = 1000;
+
+    private final CompletableFuture<SendResult> future = new CompletableFuture<>();
+
+    @Override
+    public void onMessageAck(String result) {
+        future.complete(parseResult(result));
+    }
+
+    @Override
+    public void onMessageAck(SendResult result) {
+        future.complete(result);
+    }
+
+    @Override
+    public void onException(Throwable e) {
+        future.complete(toSendResult(e));
+    }
+
+    public CompletableFuture<SendResult> getFuture() {
+        return future;
+    }
+
+    /**
+     * wait for the result
+     *
+     * @param timeoutMs timeout of the message in milliseconds
+     * @return result of the message, TIMEOUT if it is not acked in time
+     */
+    public SendResult get(long timeoutMs) {
+        try {
+            return future.get(timeoutMs + WAIT_GUARD_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SendResult.THREAD_INTERRUPT;
+        } catch (TimeoutException e) {
+            return SendResult.TIMEOUT;
+        } catch (ExecutionException e) {
+            return SendResult.UNKOWN_ERROR;
+        }
+    }
+
+    /**
+     * convert the exception of sending, such as a ProxysdkException with the name of a SendResult
+     */
+    public static SendResult toSendResult(Throwable e) {
+        if (e instanceof ProxysdkException) {
+            return parseResult(e.getMessage());
+        }
+        return SendResult.UNKOWN_ERROR;
+    }
+
+    /**
+     * parse the result of file mode, such as "OK=127.0.0.1"
+     */
+    public static SendResult parseResult(String result) {
+        if (result == null) {
+            return SendResult.UNKOWN_ERROR;
+        }
+        int index = result.indexOf('=');
+        String name = index < 0 ? result : result.substring(0, index);
+        try {
+            return SendResult.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return SendResult.UNKOWN_ERROR;
+        }
+    }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.inlong.sdk.dataproxy.pb;
 
+import org.apache.inlong.sdk.dataproxy.pb.channel.BufferQueueChannel;
+import org.apache.inlong.sdk.dataproxy.pb.channel.ProfileTransaction;
+import org.apache.inlong.sdk.dataproxy.pb.context.CallbackProfile;
 import org.apache.inlong.sdk.dataproxy.pb.context.ProfileEvent;
 import org.apache.inlong.sdk.dataproxy.pb.context.SdkSinkContext;
 import org.apache.inlong.sdk.dataproxy.pb.dispatch.DispatchManager;
@@ -59,7 +62,9 @@ public class ProxySdkSink extends AbstractSink implements Configurable {
     private LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
     //
     protected Timer sinkTimer;
-    protected Timer processTimer;
+    // dispatch thread, woken up by the committed events or the overtime of the cached profiles
+    private Thread dispatchThread;
+    private volatile boolean isDispatching = false;
     private final ConcurrentHashMap<String, SdkProxyChannelManager> proxyManagers = new ConcurrentHashMap<>();
     private final List<SdkProxyChannelManager> deletingProxyManager = new ArrayList<>();
 
@@ -77,6 +82,10 @@ public class ProxySdkSink extends AbstractSink implements Configurable {
             this.dispatchManager = new DispatchManager(parentContext, dispatchQueue);
             this.reload();
             this.setReloadTimer();
+            this.isDispatching = true;
+            this.dispatchThread = new Thread(this::dispatch, getName() + "-dispatch");
+            this.dispatchThread.setDaemon(true);
+            this.dispatchThread.start();
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
         }
@@ -97,30 +106,28 @@ public class ProxySdkSink extends AbstractSink implements Configurable {
         };
         sinkTimer.schedule(reloadTask, new Date(System.currentTimeMillis() + this.context.getReloadInterval()),
                 this.context.getReloadInterval());
-        // output overtime data
-        TimerTask dispatchTimeoutTask = new TimerTask() {
-
-            public void run() {
-                dispatchManager.setNeedOutputOvertimeData();
-            }
-        };
-        sinkTimer.schedule(dispatchTimeoutTask,
-                new Date(System.currentTimeMillis() + this.dispatchManager.getDispatchTimeout()),
-                this.dispatchManager.getDispatchTimeout());
-        // output process data
-        processTimer = new Timer(true);
-        TimerTask processTask = new TimerTask() {
+    }
 
-            public void run() {
-                try {
-                    outputProxyQueue();
-                } catch (Exception e) {
-                    LOG.error(e.getMessage(), e);
+    /**
+     * dispatch, take the events as soon as they are committed, output the profiles as soon as they are full or
+     * overtime, and hand them over to the proxy managers at once
+     */
+    private void dispatch() {
+        LOG.info("start to dispatch thread:{}", Thread.currentThread().getName());
+        while (isDispatching) {
+            try {
+                long overtimeDelay = this.dispatchManager.getOvertimeDelay();
+                if (overtimeDelay <= 0) {
+                    this.dispatchManager.outputOvertimeData();
+                    overtimeDelay = this.dispatchManager.getOvertimeDelay();
                 }
+                this.process(Math.max(1, overtimeDelay));
+                this.outputProxyQueue();
+            } catch (Throwable t) {
+                LOG.error(t.getMessage(), t);
             }
-        };
-        processTimer.schedule(processTask, new Date(System.currentTimeMillis() + this.context.getProcessInterval()),
-                this.context.getProcessInterval());
+        }
+        LOG.info("end to dispatch thread:{}", Thread.currentThread().getName());
     }
 
     /**
@@ -166,6 +173,10 @@ public class ProxySdkSink extends AbstractSink implements Configurable {
     @Override
     public void stop() {
         try {
+            this.isDispatching = false;
+            if (this.dispatchThread != null) {
+                this.dispatchThread.interrupt();
+            }
             for (Entry<String, SdkProxyChannelManager> entry : this.proxyManagers.entrySet()) {
                 entry.getValue().close();
             }
@@ -196,22 +207,38 @@ public class ProxySdkSink extends AbstractSink implements Configurable {
      */
     @Override
     public Status process() throws EventDeliveryException {
+        return this.process(0);
+    }
+
+    /**
+     * process, wait for an event until the timeout if the channel supports it
+     * 
+     * @param  waitMs
+     * @return        Status
+     */
+    private Status process(long waitMs) {
         Channel channel = getChannel();
         Transaction tx = channel.getTransaction();
         tx.begin();
         try {
-            Event event = channel.take();
+            Event event = (waitMs > 0 && channel instanceof BufferQueueChannel)
+                    ? ((BufferQueueChannel) channel).take(waitMs)
+                    : channel.take();
             if (event == null) {
                 tx.commit();
                 return Status.BACKOFF;
             }
-            if (!(event instanceof ProfileEvent)) {
+            ProfileEvent profileEvent;
+            if (event instanceof ProfileEvent) {
+                profileEvent = (ProfileEvent) event;
+            } else if (event instanceof CallbackProfile && tx instanceof ProfileTransaction) {
+                profileEvent = new ProfileEvent((CallbackProfile) event, (ProfileTransaction) tx);
+            } else {
                 tx.commit();
                 this.context.addSendFailMetric();
                 return Status.READY;
             }
             //
-            ProfileEvent profileEvent = (ProfileEvent) event;
             this.dispatchManager.addEvent(profileEvent);
             tx.commit();
             return Status.READY;
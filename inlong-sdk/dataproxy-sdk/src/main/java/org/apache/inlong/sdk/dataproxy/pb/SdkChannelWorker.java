@@ -76,6 +76,10 @@ public class SdkChannelWorker extends Thread {
         while (status == LifecycleState.START) {
             try {
                 this.packAndSend();
+            } catch (InterruptedException e) {
+                if (status == LifecycleState.START) {
+                    LOG.error(e.getMessage(), e);
+                }
             } catch (Throwable t) {
                 LOG.error(t.getMessage(), t);
             }
@@ -83,10 +87,10 @@ public class SdkChannelWorker extends Thread {
     }
 
     private void packAndSend() throws InterruptedException {
+        // wait until a profile is dispatched
         DispatchProfile currentRecord = manager.takeDispatchQueue();
         try {
             if (currentRecord == null) {
-                Thread.sleep(manager.getContext().getProcessInterval());
                 return;
             }
 
@@ -116,15 +120,16 @@ public class SdkChannelWorker extends Thread {
 
             // send data
             context.addSendMetric(currentRecord, manager.getProxyClusterId());
-            TcpResult result = manager.getSender().send(totalBuffer);
+            // wait for an available channel at most processInterval in every try
+            long waitMs = manager.getContext().getProcessInterval();
+            TcpResult result = manager.getSender().send(totalBuffer, waitMs);
             // send fail
             if (!result.result) {
                 for (int i = 0; i < MAX_TRY_TIMES; i++) {
-                    result = manager.getSender().send(totalBuffer);
+                    result = manager.getSender().send(totalBuffer, waitMs);
                     if (result.result) {
                         break;
                     }
-                    Thread.sleep(manager.getContext().getProcessInterval());
                 }
             }
             // check result
@@ -141,11 +146,7 @@ public class SdkChannelWorker extends Thread {
             if (currentRecord != null) {
                 manager.offerDispatchQueue(currentRecord);
             }
-            try {
-                Thread.sleep(manager.getContext().getProcessInterval());
-            } catch (InterruptedException e1) {
-                LOG.error(e1.getMessage(), e1);
-            }
+            manager.getSender().awaitAvailable(manager.getContext().getProcessInterval());
         }
     }
 
@@ -163,11 +164,8 @@ public class SdkChannelWorker extends Thread {
         if (!result.result) {
             manager.removeWaitCompletedProfile(tProfile);
             manager.offerDispatchQueue(currentRecord);
-            try {
-                Thread.sleep(manager.getContext().getProcessInterval());
-            } catch (InterruptedException e1) {
-                LOG.error(e1.getMessage(), e1);
-            }
+            // back off until a channel is released, connected or writable
+            manager.getSender().awaitAvailable(manager.getContext().getProcessInterval());
             return false;
         }
         return true;
@@ -196,5 +194,6 @@ public class SdkChannelWorker extends Thread {
      */
     public void close() {
         this.status = LifecycleState.STOP;
+        this.interrupt();
     }
 }
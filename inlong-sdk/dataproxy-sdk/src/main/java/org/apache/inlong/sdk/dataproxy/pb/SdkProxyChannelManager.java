@@ -335,6 +335,16 @@ public class SdkProxyChannelManager {
         });
     }
 
+    /**
+     * onChannelAvailable, wake up the workers waiting a channel
+     */
+    public void onChannelAvailable() {
+        TcpChannelGroup currentSender = this.sender;
+        if (currentSender != null) {
+            currentSender.signalAvailable();
+        }
+    }
+
     /**
      * close
      */
@@ -57,6 +57,16 @@ public class SdkSenderClientHandler extends SimpleChannelHandler {
     @Override
     public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
         LOG.info("proxyClusterId:{},connect success:{}", manager.getProxyClusterId(), e);
+        manager.onChannelAvailable();
+    }
+
+    @Override
+    public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+        // the writability of the channel is changed
+        if (this.getChannel(ctx, e).isWritable()) {
+            manager.onChannelAvailable();
+        }
+        super.channelInterestChanged(ctx, e);
     }
 
     /**
@@ -18,6 +18,7 @@
 package org.apache.inlong.sdk.dataproxy.pb.channel;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -61,6 +62,15 @@ public class BufferQueue<A> {
         return record;
     }
 
+    /**
+     * pollRecord, wait for a record until the timeout
+     */
+    public A pollRecord(long timeout, TimeUnit unit) throws InterruptedException {
+        A record = queue.poll(timeout, unit);
+        this.pollCount.getAndIncrement();
+        return record;
+    }
+
     /**
      * offer
      */
@@ -34,6 +34,7 @@ import java.util.Date;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -110,6 +111,30 @@ public class BufferQueueChannel extends AbstractChannel {
         return event;
     }
 
+    /**
+     * take, wait for an event until the timeout, the waiting thread is woken up as soon as an event is committed
+     * 
+     * @param  waitMs
+     * @return                  Event
+     * @throws ChannelException
+     */
+    public Event take(long waitMs) throws ChannelException {
+        CallbackProfile event;
+        try {
+            event = this.bufferQueue.pollRecord(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (event != null) {
+            ProfileTransaction transaction = currentTransaction.get();
+            Preconditions.checkState(transaction != null, "No transaction exists for this thread");
+            transaction.doTake(event);
+            takeCounter.incrementAndGet();
+        }
+        return event;
+    }
+
     /**
      * getTransaction
      * 
@@ -52,6 +52,8 @@ public class DispatchManager {
     private ConcurrentHashMap<String, DispatchProfile> profileCache = new ConcurrentHashMap<>();
     // needOutputOvertimeData
     private AtomicBoolean needOutputOvertimeData = new AtomicBoolean(false);
+    // earliest createTime of the cached profiles, it may be earlier than the real one after a full profile is output
+    private long earliestCreateTime = Long.MAX_VALUE;
 
     /**
      * Constructor
@@ -87,6 +89,7 @@ public class DispatchManager {
             dispatchProfile = new DispatchProfile(eventUid, sdkEvent.getInlongGroupId(), sdkEvent.getInlongStreamId(),
                     dispatchTime);
             this.profileCache.put(dispatchKey, dispatchProfile);
+            this.earliestCreateTime = Math.min(earliestCreateTime, dispatchProfile.getCreateTime());
         }
         //
         boolean addResult = dispatchProfile.addEvent(event, maxPackCount, maxPackSize);
@@ -96,6 +99,7 @@ public class DispatchManager {
             DispatchProfile oldDispatchProfile = this.profileCache.put(dispatchKey, newDispatchProfile);
             this.dispatchQueue.offer(oldDispatchProfile);
             newDispatchProfile.addEvent(event, maxPackCount, maxPackSize);
+            this.earliestCreateTime = Math.min(earliestCreateTime, newDispatchProfile.getCreateTime());
         }
     }
 
@@ -111,10 +115,12 @@ public class DispatchManager {
         long createThreshold = currentTime - dispatchTimeout;
         List<String> removeKeys = new ArrayList<>();
         long eventCount = 0;
+        long earliestKeptTime = Long.MAX_VALUE;
         for (Entry<String, DispatchProfile> entry : this.profileCache.entrySet()) {
             DispatchProfile dispatchProfile = entry.getValue();
             eventCount += dispatchProfile.getCount();
             if (!dispatchProfile.isTimeout(createThreshold)) {
+                earliestKeptTime = Math.min(earliestKeptTime, dispatchProfile.getCreateTime());
                 continue;
             }
             removeKeys.add(entry.getKey());
@@ -123,10 +129,23 @@ public class DispatchManager {
         removeKeys.forEach((key) -> {
             dispatchQueue.offer(this.profileCache.remove(key));
         });
+        this.earliestCreateTime = earliestKeptTime;
         LOG.debug("end to outputOvertimeData profileCacheSize:{},dispatchQueueSize:{},eventCount:{}",
                 profileCache.size(), dispatchQueue.size(), eventCount);
     }
 
+    /**
+     * getOvertimeDelay, the time in milliseconds until the earliest cached profile is overtime
+     * 
+     * @return
+     */
+    public long getOvertimeDelay() {
+        if (earliestCreateTime == Long.MAX_VALUE) {
+            return dispatchTimeout;
+        }
+        return earliestCreateTime + dispatchTimeout - System.currentTimeMillis();
+    }
+
     /**
      * get dispatchTimeout
      * 
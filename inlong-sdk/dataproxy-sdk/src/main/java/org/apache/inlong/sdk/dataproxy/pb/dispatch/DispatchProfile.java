@@ -82,6 +82,15 @@ public class DispatchProfile {
         return createThreshold >= createTime;
     }
 
+    /**
+     * get createTime
+     * 
+     * @return the createTime
+     */
+    public long getCreateTime() {
+        return createTime;
+    }
+
     /**
      * get uid
      * 
@@ -37,7 +37,10 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 
@@ -59,6 +62,10 @@ public class TcpChannelGroup {
     // for callback
     private ConcurrentHashMap<Object, TcpChannel> channelMap = new ConcurrentHashMap<>();
     private AtomicLong channelId = new AtomicLong(0);
+    // for waiting an available channel, signaled by the response, connect and writability events
+    private final ReentrantLock availableLock = new ReentrantLock();
+    private final Condition channelAvailable = availableLock.newCondition();
+    private final AtomicLong availableVersion = new AtomicLong(0);
 
     /**
      * Constructor
@@ -162,23 +169,31 @@ public class TcpChannelGroup {
      * send
      * 
      * @param  dataBuf
+     * @param  waitMs  max time to wait for an available channel, 0 means no wait
      * @return
      */
-    public TcpResult send(ChannelBuffer dataBuf) {
+    public TcpResult send(ChannelBuffer dataBuf, long waitMs) {
         LinkedBlockingQueue<TcpChannel> channelQueue = this.channelQueues.get(mIndex);
+        long deadline = System.currentTimeMillis() + waitMs;
+        long version = availableVersion.get();
         TcpChannel tcpChannel = this.getTcpChannel(channelQueue);
-        try {
-            // can not get channel of connect success
-            if (tcpChannel == null) {
+        // wait until a channel is released, connected or writable
+        while (tcpChannel == null) {
+            long leftMs = deadline - System.currentTimeMillis();
+            if (leftMs <= 0 || !this.awaitAvailable(version, leftMs)) {
                 return new TcpResult("", 0, false, "can not acquire a channel");
             }
-            tcpChannel.acquireUninterruptibly();
+            version = availableVersion.get();
+            tcpChannel = this.getTcpChannel(channelQueue);
+        }
+        try {
             // write data
             ChannelFuture t = tcpChannel.getChannel().write(dataBuf).sync().await();
             // write success
             if (!t.isSuccess()) {
-                // write fail
+                // write fail, no response will release the pack token
                 tcpChannel.setHasException(true);
+                tcpChannel.release();
                 channelQueue.offer(tcpChannel);
                 // print error log
                 String errorMessage = (t.getCause() != null) ? t.getCause().getMessage() : "write fail";
@@ -191,9 +206,8 @@ public class TcpChannelGroup {
             return result;
         } catch (Throwable ex) {
             LOG.error(String.format("bid:%s,netty send failed:%s", bid, ex.getMessage()), ex);
-            if (tcpChannel != null) {
-                channelQueue.offer(tcpChannel);
-            }
+            tcpChannel.release();
+            channelQueue.offer(tcpChannel);
             return new TcpResult("", 0, false, ex.getMessage());
         }
     }
@@ -219,10 +233,15 @@ public class TcpChannelGroup {
                 if (!tcpChannel.getChannel().isConnected() || tcpChannel.isHasException()) {
                     this.reconnect(tcpChannel);
                 }
-                // return the channel of connect success
+                // return the channel of connect success, skip the channel that is busy or not writable
                 if (tcpChannel.getChannel().isConnected()) {
                     tcpChannel.setHasException(false);
-                    break;
+                    if (tcpChannel.getChannel().isWritable() && tcpChannel.tryAcquire()) {
+                        break;
+                    }
+                    channelQueue.offer(tcpChannel);
+                    tcpChannel = null;
+                    continue;
                 }
                 // reconnect fail
                 LOG.info("reconnect fail,channel:{}", tcpChannel);
@@ -266,6 +285,48 @@ public class TcpChannelGroup {
         }
     }
 
+    /**
+     * signal the senders waiting an available channel
+     */
+    public void signalAvailable() {
+        availableLock.lock();
+        try {
+            availableVersion.incrementAndGet();
+            channelAvailable.signalAll();
+        } finally {
+            availableLock.unlock();
+        }
+    }
+
+    /**
+     * wait until a channel is available after the version, or the timeout
+     */
+    public boolean awaitAvailable(long version, long waitMs) {
+        availableLock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(waitMs);
+            while (availableVersion.get() == version) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = channelAvailable.awaitNanos(nanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            availableLock.unlock();
+        }
+    }
+
+    /**
+     * wait until a channel is available, or the timeout
+     */
+    public boolean awaitAvailable(long waitMs) {
+        return this.awaitAvailable(availableVersion.get(), waitMs);
+    }
+
     /**
      * get bid
      * 
@@ -317,6 +378,7 @@ public class TcpChannelGroup {
         if (tcpChannel != null) {
             tcpChannel.release();
         }
+        this.signalAvailable();
     }
     // public static void main(String[] args) {
     // String[] data = new String[]{"10.56.81.205:46801",
@@ -25,6 +25,8 @@ import org.apache.inlong.sdk.dataproxy.network.QueueObject;
 import org.apache.inlong.sdk.dataproxy.network.TimeScanObject;
 
 import io.netty.channel.Channel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,16 +36,22 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Daemon threads to check timeout for asynchronous callback.
+ * The callback of every message is expired by the timing wheel, so the cost does not grow with the pending
+ * messages, and this thread checks the timeout count of the channels.
  */
 public class TimeoutScanThread extends Thread {
 
     private static final int MAX_CHANNEL_TIMEOUT = 5 * 60 * 1000;
+    // tick and size of the timing wheel of the callbacks
+    private static final long TIMEOUT_TICK_MS = 10;
+    private static final int TIMEOUT_WHEEL_SIZE = 512;
     private final Logger logger = LoggerFactory.getLogger(TimeoutScanThread.class);
     private final ConcurrentHashMap<Channel, ConcurrentHashMap<String, QueueObject>> callbacks;
     private final AtomicInteger currentBufferSize;
     private final ProxyClientConfig config;
     private final ClientMgr clientMgr;
     private final ConcurrentHashMap<Channel, TimeScanObject> timeoutChannelStat = new ConcurrentHashMap<>();
+    private final HashedWheelTimer timeoutWheel;
     private volatile boolean bShutDown = false;
     private long printCount = 0;
 
@@ -55,6 +63,8 @@ public class TimeoutScanThread extends Thread {
         this.currentBufferSize = currentBufferSize;
         this.config = config;
         this.clientMgr = clientMgr;
+        this.timeoutWheel = new HashedWheelTimer(new DefaultThreadFactory("callback-timeout-wheel", true),
+                TIMEOUT_TICK_MS, TimeUnit.MILLISECONDS, TIMEOUT_WHEEL_SIZE);
         this.setDaemon(true);
         this.setName("TimeoutScanThread");
     }
@@ -62,6 +72,7 @@ public class TimeoutScanThread extends Thread {
     public void shutDown() {
         logger.info("begin to shut down TimeoutScanThread!");
         bShutDown = true;
+        timeoutWheel.stop();
     }
 
     /**
@@ -126,34 +137,40 @@ public class TimeoutScanThread extends Thread {
     }
 
     /**
-     * check message id
+     * expire the callback of the message after its timeout on the timing wheel, unless it is acked before
      *
-     * @param channel
-     * @param messageIdCallbacks
+     * @param channel channel of the message
+     * @param messageId message id
+     * @param queueObject callback of the message
      */
-    private void checkMessageIdBasedCallbacks(Channel channel,
-            ConcurrentHashMap<String, QueueObject> messageIdCallbacks) {
-        for (String messageId : messageIdCallbacks.keySet()) {
-            QueueObject queueObject = messageId != null ? messageIdCallbacks.get(messageId) : null;
-            if (queueObject == null) {
-                continue;
-            }
-            // if queueObject timeout
-            if (System.currentTimeMillis() - queueObject.getSendTimeInMillis() >= queueObject.getTimeoutInMillis()) {
-                // remove it before callback
-                QueueObject queueObject1 = messageIdCallbacks.remove(messageId);
-                if (queueObject1 != null) {
-                    if (config.isFile()) {
-                        ((FileCallback) queueObject1.getCallback()).onMessageAck(SendResult.TIMEOUT.toString());
-                        currentBufferSize.addAndGet(-queueObject1.getSize());
-                    } else {
-                        queueObject1.getCallback().onMessageAck(SendResult.TIMEOUT);
-                        currentBufferSize.decrementAndGet();
-                    }
-                }
-                addTimeoutChannel(channel);
+    public void addTimeoutCallback(Channel channel, String messageId, QueueObject queueObject) {
+        if (bShutDown) {
+            return;
+        }
+        queueObject.setTimeout(timeoutWheel.newTimeout(timeout -> expireCallback(channel, messageId, queueObject),
+                queueObject.getTimeoutInMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    private void expireCallback(Channel channel, String messageId, QueueObject queueObject) {
+        ConcurrentHashMap<String, QueueObject> msgQueueMap = callbacks.get(channel);
+        // remove it before callback, it may be acked or the channel may be disconnected
+        if (msgQueueMap == null || !msgQueueMap.remove(messageId, queueObject)) {
+            return;
+        }
+        // the timeout is taken as the latency of the proxy
+        queueObject.complete(System.currentTimeMillis() - queueObject.getSendTimeInMillis());
+        try {
+            if (config.isFile()) {
+                currentBufferSize.addAndGet(-queueObject.getSize());
+                ((FileCallback) queueObject.getCallback()).onMessageAck(SendResult.TIMEOUT.toString());
+            } else {
+                currentBufferSize.decrementAndGet();
+                queueObject.getCallback().onMessageAck(SendResult.TIMEOUT);
             }
+        } catch (Throwable e) {
+            logger.error("timeout callback of message {} throw exception", messageId, e);
         }
+        addTimeoutChannel(channel);
     }
 
     @Override
@@ -161,14 +178,6 @@ public class TimeoutScanThread extends Thread {
         logger.info("TimeoutScanThread Thread=" + Thread.currentThread().getId() + " started !");
         while (!bShutDown) {
             try {
-                for (Channel channel : callbacks.keySet()) {
-                    ConcurrentHashMap<String, QueueObject> msgQueueMap =
-                            channel != null ? callbacks.get(channel) : null;
-                    if (msgQueueMap == null) {
-                        continue;
-                    }
-                    checkMessageIdBasedCallbacks(channel, msgQueueMap);
-                }
                 checkTimeoutChannel();
                 TimeUnit.SECONDS.sleep(1);
             } catch (Throwable e) {
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy;
+
+import org.apache.inlong.sdk.dataproxy.network.DiskBuffer;
+import org.apache.inlong.sdk.dataproxy.network.ProxysdkException;
+import org.apache.inlong.sdk.dataproxy.network.SyncSendCallback;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class DiskBufferTest {
+
+    private static final long DT = 1600000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSpillAndReplayInOrder() throws Exception {
+        String path = folder.newFolder().getAbsolutePath();
+        List<String> replayed = new CopyOnWriteArrayList<>();
+        List<Integer> packSizes = new CopyOnWriteArrayList<>();
+        // the proxies are unreachable in the first run
+        DiskBuffer buffer = new DiskBuffer(path, 1024 * 1024, 64, 100, 1024 * 1024, false,
+                (bodyList, groupId, streamId, dt, isProxySend) -> SendResult.NO_CONNECTION, null);
+        for (int i = 0; i < 10; i++) {
+            SyncSendCallback callback = new SyncSendCallback();
+            buffer.send(callback, Collections.singletonList(("body" + i).getBytes()), "group", "stream", DT, false,
+                    packCallback -> {
+                        throw new ProxysdkException(SendResult.NO_CONNECTION.toString());
+                    });
+            Assert.assertEquals(SendResult.OK, callback.get(100));
+        }
+        Assert.assertEquals(10, buffer.getSpilledCount());
+        Assert.assertTrue(buffer.getBacklogBytes() > 0);
+        buffer.close();
+
+        // the packs survive the restart and are replayed in order when the proxies recover
+        buffer = new DiskBuffer(path, 1024 * 1024, 64, 100, 1024 * 1024, false,
+                (bodyList, groupId, streamId, dt, isProxySend) -> {
+                    packSizes.add(bodyList.size());
+                    bodyList.forEach(body -> replayed.add(new String(body)));
+                    return SendResult.OK;
+                }, null);
+        for (int i = 0; i < 50 && buffer.getBacklogBytes() > 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        Assert.assertEquals(0, buffer.getBacklogBytes());
+        Assert.assertEquals(10, replayed.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("body" + i, replayed.get(i));
+        }
+        // the adjacent packs of the same key are merged
+        Assert.assertTrue(packSizes.size() < 10);
+        buffer.close();
+    }
+
+    @Test
+    public void testSpillFailedPackAndReject() throws Exception {
+        String path = folder.newFolder().getAbsolutePath();
+        DiskBuffer buffer = new DiskBuffer(path, 256, 1024, 100, 1024 * 1024, false,
+                (bodyList, groupId, streamId, dt, isProxySend) -> SendResult.TIMEOUT, null);
+        // the pack is accepted by the sender but times out
+        AtomicReference<String> ackThread = new AtomicReference<>();
+        SyncSendCallback callback = new SyncSendCallback() {
+
+            @Override
+            public void onMessageAck(SendResult result) {
+                ackThread.set(Thread.currentThread().getName());
+                super.onMessageAck(result);
+            }
+        };
+        buffer.send(callback, Collections.singletonList(new byte[100]), "group", "stream", DT, false,
+                packCallback -> packCallback.onMessageAck(SendResult.TIMEOUT));
+        Assert.assertEquals(SendResult.OK, callback.get(100));
+        Assert.assertEquals(1, buffer.getSpilledCount());
+        // the failed pack is spilled by the spill thread instead of the thread running the callback
+        Assert.assertEquals("DiskBufferSpillThread", ackThread.get());
+        // the log is full, the failure is returned to the caller
+        try {
+            buffer.send(null, Collections.singletonList(new byte[200]), "group", "stream", DT, false,
+                    packCallback -> {
+                        throw new ProxysdkException(SendResult.NO_CONNECTION.toString());
+                    });
+            Assert.fail("the full disk buffer should not accept the pack");
+        } catch (ProxysdkException e) {
+            Assert.assertEquals(SendResult.NO_CONNECTION.toString(), e.getMessage());
+        }
+        Assert.assertEquals(1, buffer.getRejectedCount());
+        buffer.close();
+    }
+
+    @Test
+    public void testReportDroppedPack() throws Exception {
+        String path = folder.newFolder().getAbsolutePath();
+        AtomicInteger spilled = new AtomicInteger(0);
+        AtomicInteger dropped = new AtomicInteger(0);
+        AtomicReference<SendResult> dropResult = new AtomicReference<>();
+        DiskBuffer.Listener listener = new DiskBuffer.Listener() {
+
+            @Override
+            public void onSpilled(String groupId, String streamId, int messageCount) {
+                spilled.addAndGet(messageCount);
+            }
+
+            @Override
+            public void onReplayed(String groupId, String streamId, int messageCount) {
+            }
+
+            @Override
+            public void onDropped(String groupId, String streamId, int messageCount, SendResult result) {
+                dropped.addAndGet(messageCount);
+                dropResult.set(result);
+            }
+        };
+        // the pack is acked with OK when it is spilled, and the proxies never accept it in the replay
+        DiskBuffer buffer = new DiskBuffer(path, 1024 * 1024, 1024, 100, 1024 * 1024, false,
+                (bodyList, groupId, streamId, dt, isProxySend) -> SendResult.INVALID_DATA, listener);
+        SyncSendCallback callback = new SyncSendCallback();
+        buffer.send(callback, Collections.singletonList(new byte[10]), "group", "stream", DT, false,
+                packCallback -> {
+                    throw new ProxysdkException(SendResult.NO_CONNECTION.toString());
+                });
+        Assert.assertEquals(SendResult.OK, callback.get(100));
+        Assert.assertEquals(1, spilled.get());
+        for (int i = 0; i < 50 && dropped.get() == 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        Assert.assertEquals(1, dropped.get());
+        Assert.assertEquals(SendResult.INVALID_DATA, dropResult.get());
+        Assert.assertEquals(1, buffer.getDroppedCount());
+        Assert.assertEquals(0, buffer.getBacklogBytes());
+        buffer.close();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy;
+
+import org.apache.inlong.sdk.dataproxy.config.HostInfo;
+import org.apache.inlong.sdk.dataproxy.http.Http2BatchSender;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
+import io.netty.util.CharsetUtil;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Http2BatchSenderTest {
+
+    private final AtomicInteger connectionCount = new AtomicInteger(0);
+    private final List<String> contentEncodings = new CopyOnWriteArrayList<>();
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+
+    @Before
+    public void setUp() throws Exception {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        connectionCount.incrementAndGet();
+                        ch.pipeline().addLast(Http2FrameCodecBuilder.forServer().build(),
+                                new Http2MultiplexHandler(new ChannelInitializer<Http2StreamChannel>() {
+
+                                    @Override
+                                    protected void initChannel(Http2StreamChannel streamChannel) {
+                                        streamChannel.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true),
+                                                new EncodingRecorder(), new HttpContentDecompressor(),
+                                                new HttpObjectAggregator(1024 * 1024),
+                                                new MessageHandler());
+                                    }
+                                }));
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        serverChannel.close().sync();
+        serverGroup.shutdownGracefully();
+    }
+
+    @Test
+    public void testMultiplexedBatches() throws Exception {
+        ProxyClientConfig config = new ProxyClientConfig("127.0.0.1", true, "127.0.0.1", 8099, "group", "test",
+                "secretId", "secretKey");
+        config.setHttpCompressThreshold(150);
+        config.setIoThreadNum(1);
+        Http2BatchSender sender = new Http2BatchSender(config);
+        int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+        List<HostInfo> hosts = Collections.singletonList(new HostInfo("127.0.0.1:" + port, "127.0.0.1", port));
+        List<CompletableFuture<SendResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            char[] padding = new char[i * 20];
+            Arrays.fill(padding, 'x');
+            futures.add(sender.send(hosts, Arrays.asList("a" + i, "b" + new String(padding)), "group", "stream",
+                    System.currentTimeMillis(), 3, TimeUnit.SECONDS));
+        }
+        for (CompletableFuture<SendResult> future : futures) {
+            Assert.assertEquals(SendResult.OK, future.get(5, TimeUnit.SECONDS));
+        }
+        // the batches share one connection, and the large bodies are compressed
+        Assert.assertEquals(1, connectionCount.get());
+        Assert.assertTrue(contentEncodings.contains("gzip"));
+        Assert.assertTrue(contentEncodings.contains(""));
+        Assert.assertEquals(10, receivedBodies.size());
+        Assert.assertTrue(receivedBodies.contains("a9\nb" + new String(new char[180]).replace('\0', 'x')));
+        sender.close();
+    }
+
+    private class EncodingRecorder extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpRequest) {
+                contentEncodings.add(((HttpRequest) msg).headers().get(HttpHeaderNames.CONTENT_ENCODING, ""));
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+
+    private class MessageHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest req) {
+            Map<String, List<String>> params =
+                    new QueryStringDecoder(req.content().toString(CharsetUtil.UTF_8), false).parameters();
+            receivedBodies.add(params.get("body").get(0));
+            DefaultFullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+                    HttpResponseStatus.OK, Unpooled.copiedBuffer("{\"code\":\"0\",\"msg\":\"Ok\"}", CharsetUtil.UTF_8));
+            ctx.writeAndFlush(response);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy;
+
+import org.apache.inlong.sdk.dataproxy.network.ProxysdkException;
+import org.apache.inlong.sdk.dataproxy.network.RecordAccumulator;
+import org.apache.inlong.sdk.dataproxy.network.SyncSendCallback;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RecordAccumulatorTest {
+
+    private static final long DT = 1600000000000L;
+
+    @Test
+    public void testBatchByCountAndLinger() throws Exception {
+        List<Integer> packSizes = new CopyOnWriteArrayList<>();
+        RecordAccumulator accumulator = new RecordAccumulator(50, 1024 * 1024, 3,
+                (callback, bodyList, groupId, streamId, dt, timeout, timeUnit, isProxySend) -> {
+                    packSizes.add(bodyList.size());
+                    callback.onMessageAck(SendResult.OK);
+                });
+        CountingCallback callback = new CountingCallback();
+        for (int i = 0; i < 4; i++) {
+            accumulator.append(callback, ("body" + i).getBytes(), "group", "stream", DT, 100,
+                    TimeUnit.MILLISECONDS, false);
+        }
+        // the full batch is sent at once, the last message waits for the linger time
+        Assert.assertEquals(1, packSizes.size());
+        Assert.assertEquals(3, callback.acks.get());
+        TimeUnit.MILLISECONDS.sleep(300);
+        Assert.assertEquals(2, packSizes.size());
+        Assert.assertEquals(1, (int) packSizes.get(1));
+        Assert.assertEquals(4, callback.acks.get());
+        Assert.assertEquals(2d, accumulator.getAvgBatchSize(), 0.001d);
+        accumulator.close();
+    }
+
+    @Test
+    public void testFlushAndException() throws Exception {
+        RecordAccumulator accumulator = new RecordAccumulator(60 * 1000, 1024 * 1024, 100,
+                (callback, bodyList, groupId, streamId, dt, timeout, timeUnit, isProxySend) -> {
+                    throw new ProxysdkException(SendResult.NO_CONNECTION.toString());
+                });
+        CountingCallback callback = new CountingCallback();
+        accumulator.append(callback, "body0".getBytes(), "group", "stream0", DT, 100, TimeUnit.MILLISECONDS, false);
+        accumulator.append(callback, "body1".getBytes(), "group", "stream1", DT, 100, TimeUnit.MILLISECONDS, false);
+        Assert.assertEquals(0, callback.exceptions.get());
+        accumulator.flush();
+        Assert.assertEquals(2, accumulator.getPackCount());
+        Assert.assertEquals(2, callback.exceptions.get());
+        accumulator.close();
+    }
+
+    @Test
+    public void testGroupCommitOfSyncCallbacks() throws Exception {
+        List<Integer> packSizes = new CopyOnWriteArrayList<>();
+        RecordAccumulator accumulator = new RecordAccumulator(60 * 1000, 1024 * 1024, 2,
+                (callback, bodyList, groupId, streamId, dt, timeout, timeUnit, isProxySend) -> {
+                    packSizes.add(bodyList.size());
+                    // the senders of file mode ack with strings
+                    ((FileCallback) callback).onMessageAck(SendResult.OK + "=127.0.0.1");
+                });
+        SyncSendCallback first = new SyncSendCallback();
+        SyncSendCallback second = new SyncSendCallback();
+        accumulator.append(first, "body0".getBytes(), "group", "stream", DT, 100, TimeUnit.MILLISECONDS, false);
+        Assert.assertFalse(first.getFuture().isDone());
+        accumulator.append(second, "body1".getBytes(), "group", "stream", DT, 100, TimeUnit.MILLISECONDS, false);
+        Assert.assertEquals(1, packSizes.size());
+        Assert.assertEquals(SendResult.OK, first.get(100));
+        Assert.assertEquals(SendResult.OK, second.get(100));
+        Assert.assertEquals(SendResult.ASYNC_CALLBACK_BUFFER_FULL,
+                SyncSendCallback.toSendResult(new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL")));
+        accumulator.close();
+    }
+
+    @Test
+    public void testRejectAfterClose() throws Exception {
+        List<Integer> packSizes = new CopyOnWriteArrayList<>();
+        RecordAccumulator accumulator = new RecordAccumulator(60 * 1000, 1024 * 1024, 100,
+                (callback, bodyList, groupId, streamId, dt, timeout, timeUnit, isProxySend) -> {
+                    packSizes.add(bodyList.size());
+                    callback.onMessageAck(SendResult.OK);
+                });
+        CountingCallback callback = new CountingCallback();
+        accumulator.append(callback, "body0".getBytes(), "group", "stream", DT, 100, TimeUnit.MILLISECONDS, false);
+        accumulator.close();
+        // the lingering message is flushed by close, the later one is rejected
+        Assert.assertEquals(1, packSizes.size());
+        Assert.assertEquals(1, callback.acks.get());
+        try {
+            accumulator.append(callback, "body1".getBytes(), "group", "stream", DT, 100,
+                    TimeUnit.MILLISECONDS, false);
+            Assert.fail("the closed accumulator should reject messages");
+        } catch (ProxysdkException e) {
+            // expected
+        }
+        Assert.assertEquals(1, packSizes.size());
+    }
+
+    @Test
+    public void testBufferLimiter() throws Exception {
+        AtomicInteger bufferSize = new AtomicInteger(0);
+        RecordAccumulator.BufferLimiter limiter = new RecordAccumulator.BufferLimiter() {
+
+            @Override
+            public int reserveBuffer(byte[] body) throws ProxysdkException {
+                if (bufferSize.addAndGet(body.length) >= 12) {
+                    bufferSize.addAndGet(-body.length);
+                    throw new ProxysdkException("ASYNC_CALLBACK_BUFFER_FULL");
+                }
+                return body.length;
+            }
+
+            @Override
+            public void releaseBuffer(int size) {
+                bufferSize.addAndGet(-size);
+            }
+        };
+        RecordAccumulator accumulator = new RecordAccumulator(60 * 1000, 1024 * 1024, 100,
+                (callback, bodyList, groupId, streamId, dt, timeout, timeUnit, isProxySend) -> callback
+                        .onMessageAck(SendResult.OK),
+                limiter);
+        CountingCallback callback = new CountingCallback();
+        accumulator.append(callback, "body0".getBytes(), "group", "stream", DT, 100, TimeUnit.MILLISECONDS, false);
+        accumulator.append(callback, "body1".getBytes(), "group", "stream", DT, 100, TimeUnit.MILLISECONDS, false);
+        Assert.assertEquals(10, bufferSize.get());
+        try {
+            accumulator.append(callback, "body2".getBytes(), "group", "stream", DT, 100,
+                    TimeUnit.MILLISECONDS, false);
+            Assert.fail("the lingering messages should hold the buffer");
+        } catch (ProxysdkException e) {
+            Assert.assertEquals(SendResult.ASYNC_CALLBACK_BUFFER_FULL, SyncSendCallback.toSendResult(e));
+        }
+        accumulator.flush();
+        Assert.assertEquals(0, bufferSize.get());
+        Assert.assertEquals(2, callback.acks.get());
+        accumulator.close();
+    }
+
+    private static class CountingCallback implements SendMessageCallback {
+
+        private final AtomicInteger acks = new AtomicInteger(0);
+        private final AtomicInteger exceptions = new AtomicInteger(0);
+
+        @Override
+        public void onMessageAck(SendResult result) {
+            acks.incrementAndGet();
+        }
+
+        @Override
+        public void onException(Throwable e) {
+            exceptions.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Micro benchmark of ProtocolEncoder, run it by the main method.
+ * It encodes the single messages and the lists of messages of type 3, 5 and 7, with and without compression,
+ * and reports the time and the heap bytes allocated by the encoding thread per message.
+ * Usage: ProtocolEncoderBenchmark [bodySize] [listSize] [iterations]
+ */
+public class ProtocolEncoderBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int bodySize = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int listSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 200000;
+        Random random = new Random(0);
+        List<byte[]> bodyList = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            bodyList.add(prepareBody(random, bodySize));
+        }
+        byte[] body = bodyList.get(0);
+
+        ProtocolEncoder encoder = new ProtocolEncoder();
+        ByteBufAllocator alloc = PooledByteBufAllocator.DEFAULT;
+        System.out.printf("bodySize:%d, listSize:%d, iterations:%d%n", bodySize, listSize, iterations);
+        for (int msgType : new int[]{3, 5, 7}) {
+            for (boolean isCompress : new boolean[]{false, true}) {
+                EncodeObject single = prepareObject(msgType, isCompress, body, null);
+                EncodeObject list = prepareObject(msgType, isCompress, null, bodyList);
+                run(encoder, alloc, "single", single, iterations);
+                run(encoder, alloc, "list", list, Math.max(1, iterations / listSize));
+            }
+        }
+    }
+
+    private static void run(ProtocolEncoder encoder, ByteBufAllocator alloc, String name, EncodeObject object,
+            int iterations) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encode(encoder, alloc, object, iterations);
+        }
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        long encodedBytes = encode(encoder, alloc, object, iterations);
+        long costNanos = System.nanoTime() - startNanos;
+        long allocatedBytes = getAllocatedBytes() - startBytes;
+        System.out.printf("type:%d, compress:%-5s, %-6s: %8.1f ns/op, %8.1f bytes/op allocated, %d bytes/op encoded%n",
+                object.getMsgtype(), object.isCompress(), name, (double) costNanos / iterations,
+                (double) allocatedBytes / iterations, encodedBytes / iterations);
+    }
+
+    private static long encode(ProtocolEncoder encoder, ByteBufAllocator alloc, EncodeObject object,
+            int iterations) throws Exception {
+        long encodedBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            ByteBuf buf = encoder.encode(alloc, object);
+            encodedBytes += buf.readableBytes();
+            buf.release();
+        }
+        return encodedBytes;
+    }
+
+    private static EncodeObject prepareObject(int msgType, boolean isCompress, byte[] body, List<byte[]> bodyList) {
+        EncodeObject object;
+        if (msgType == 7) {
+            object = body != null
+                    ? new EncodeObject(body, msgType, isCompress, false, false, 1600000000L, 1, "group", "stream", "")
+                    : new EncodeObject(bodyList, msgType, isCompress, false, false, 1600000000L, 1, "group", "stream",
+                            "");
+        } else {
+            String attrs = "groupId=group&streamId=stream&dt=1600000000000" + (isCompress ? "&cp=snappy" : "");
+            object = body != null
+                    ? new EncodeObject(body, attrs, "1", msgType, isCompress, "group")
+                    : new EncodeObject(bodyList, attrs + "&cnt=" + bodyList.size(), "1", msgType, isCompress, "group");
+        }
+        object.setMsgUUID("benchmark-uuid");
+        return object;
+    }
+
+    /**
+     * the body is a delimited row of words, so it is compressible like the real data
+     */
+    private static byte[] prepareBody(Random random, int bodySize) {
+        byte[] body = new byte[bodySize];
+        for (int i = 0; i < bodySize; i++) {
+            body[i] = (i % 8 == 7) ? (byte) '|' : (byte) ('a' + random.nextInt(8));
+        }
+        return body;
+    }
+
+    /**
+     * the heap bytes allocated by the current thread
+     */
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
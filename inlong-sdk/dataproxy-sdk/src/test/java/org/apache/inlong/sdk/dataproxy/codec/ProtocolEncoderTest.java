@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.codec;
+
+import org.apache.inlong.sdk.dataproxy.ConfigConstants;
+import org.apache.inlong.sdk.dataproxy.SendMessageCallback;
+import org.apache.inlong.sdk.dataproxy.SendResult;
+import org.apache.inlong.sdk.dataproxy.config.EncryptConfigEntry;
+import org.apache.inlong.sdk.dataproxy.config.EncryptInfo;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.xerial.snappy.Snappy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProtocolEncoderTest {
+
+    private final ProtocolEncoder encoder = new ProtocolEncoder();
+    private final LegacyProtocolEncoder legacyEncoder = new LegacyProtocolEncoder();
+    private final EncryptConfigEntry encryptEntry = new EncryptConfigEntry("user", "1", null) {
+
+        private final EncryptInfo encryptInfo = new EncryptInfo("1", "encryptedKey",
+                "0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+
+        @Override
+        public EncryptInfo getRsaEncryptInfo() {
+            return encryptInfo;
+        }
+    };
+
+    @Test
+    public void testFramesMatchLegacyEncoder() throws Exception {
+        Random random = new Random(0);
+        List<List<byte[]>> bodyLists = new ArrayList<>();
+        bodyLists.add(null);
+        bodyLists.add(Arrays.asList(prepareBody(random, 10), prepareBody(random, 1), prepareBody(random, 300)));
+        bodyLists.add(Arrays.asList(prepareBody(random, 40 * 1024), prepareBody(random, 80 * 1024)));
+        List<byte[]> bodies = Arrays.asList(null, prepareBody(random, 100), prepareBody(random, 100 * 1024));
+        int frames = 0;
+        for (List<byte[]> bodyList : bodyLists) {
+            for (byte[] body : bodies) {
+                if ((bodyList == null) == (body == null)) {
+                    continue;
+                }
+                for (int flags = 0; flags < 1 << 3; flags++) {
+                    boolean isCompress = (flags & 1) != 0;
+                    boolean isEncrypt = (flags & 2) != 0;
+                    String msgUUID = (flags & 4) != 0 ? "uuid-1" : null;
+                    for (int msgType : new int[]{3, 5}) {
+                        EncodeObject object = bodyList != null
+                                ? new EncodeObject(bodyList, "groupId=group&streamId=stream", "12", msgType,
+                                        isCompress, "group")
+                                : new EncodeObject(body, "groupId=group&streamId=stream", "12", msgType,
+                                        isCompress, "group");
+                        assertSameFrame(prepareObject(object, isEncrypt, msgUUID));
+                        frames++;
+                    }
+                    for (int options = 0; options < 1 << 3; options++) {
+                        boolean isGroupIdTransfer = (options & 1) != 0;
+                        boolean isReport = (options & 2) != 0;
+                        boolean isSupportLF = (options & 4) != 0;
+                        for (String messageKey : new String[]{"data", "minute", "file"}) {
+                            EncodeObject object = bodyList != null
+                                    ? new EncodeObject(bodyList, 7, isCompress, isReport, isGroupIdTransfer,
+                                            1600000000L, 12, "group", "stream", "k=v", messageKey, "127.0.0.1")
+                                    : new EncodeObject(body, 7, isCompress, isReport, isGroupIdTransfer,
+                                            1600000000L, 12, "group", "stream", "k=v", messageKey, "127.0.0.1");
+                            object.setSupportLF(isSupportLF);
+                            object.setGroupIdNum(3);
+                            object.setStreamIdNum(4);
+                            assertSameFrame(prepareObject(object, isEncrypt, msgUUID));
+                            frames++;
+                        }
+                    }
+                }
+            }
+        }
+        for (String commonAttr : new String[]{"", "k=v"}) {
+            for (String msgUUID : new String[]{null, "uuid-1"}) {
+                EncodeObject object = new EncodeObject(new byte[0], 8, false, false, false,
+                        1600000000L, 12, "group", "stream", commonAttr);
+                object.setMsgUUID(msgUUID);
+                assertSameFrame(object);
+                frames++;
+            }
+        }
+        Assert.assertEquals(4 * 8 * (2 + 8 * 3) + 4, frames);
+    }
+
+    @Test
+    public void testCompressedBodyList() throws Exception {
+        List<byte[]> bodyList = Arrays.asList("a|b".getBytes(), "c|d|e".getBytes());
+        EncodeObject object = new EncodeObject(bodyList, 7, true, false, false, 1600000000L, 12, "group",
+                "stream", "");
+        ByteBuf buf = encoder.encode(PooledByteBufAllocator.DEFAULT, object);
+        Assert.assertEquals(buf.readableBytes() - 4, buf.readInt());
+        Assert.assertEquals(7 | ConfigConstants.FLAG_ALLOW_COMPRESS, buf.readByte());
+        buf.skipBytes(2 + 2 + 2 + 4);
+        Assert.assertEquals(2, buf.readShort());
+        Assert.assertEquals(12, buf.readInt());
+        byte[] body = Snappy.uncompress(ByteBufUtil.getBytes(buf, buf.readerIndex() + 4, buf.readInt()));
+        Assert.assertEquals(4 + 3 + 4 + 5, body.length);
+        Assert.assertEquals("c|d|e", new String(body, 4 + 3 + 4, 5, StandardCharsets.UTF_8));
+        buf.skipBytes(buf.getInt(buf.readerIndex() - 4));
+        int attrLength = buf.readShort();
+        Assert.assertTrue(buf.readCharSequence(attrLength, StandardCharsets.UTF_8).toString()
+                .endsWith("groupId=group&streamId=stream"));
+        Assert.assertEquals(0xee01, buf.readUnsignedShort());
+        buf.release();
+    }
+
+    @Test
+    public void testLargeBodyComposed() throws Exception {
+        byte[] body = new byte[100 * 1024];
+        Arrays.fill(body, (byte) 'x');
+        EncodeObject object = new EncodeObject(body, "groupId=group&streamId=stream", "id", 5, false, "group");
+        ByteBuf buf = encoder.encode(PooledByteBufAllocator.DEFAULT, object);
+        Assert.assertTrue(buf instanceof CompositeByteBuf);
+        Assert.assertEquals(buf.readableBytes() - 4, buf.readInt());
+        Assert.assertEquals(5, buf.readByte());
+        Assert.assertEquals(4 + body.length, buf.readInt());
+        Assert.assertEquals(body.length, buf.readInt());
+        buf.skipBytes(body.length);
+        int attrLength = buf.readInt();
+        Assert.assertEquals(attrLength, buf.readableBytes());
+        buf.release();
+    }
+
+    @Test
+    public void testEncodedLengthNotified() throws Exception {
+        byte[] line = new byte[1000];
+        Arrays.fill(line, (byte) 'x');
+        EncodeObject object = new EncodeObject(Arrays.asList(line, line), 7, true, false, false, 1600000000L, 12,
+                "group", "stream", "");
+        AtomicInteger rawLength = new AtomicInteger(-1);
+        AtomicInteger encodedLength = new AtomicInteger(-1);
+        object.setCallback(new SendMessageCallback() {
+
+            @Override
+            public void onMessageAck(SendResult result) {
+            }
+
+            @Override
+            public void onException(Throwable e) {
+            }
+
+            @Override
+            public void onMessageEncoded(int raw, int encoded) {
+                rawLength.set(raw);
+                encodedLength.set(encoded);
+            }
+        });
+        ByteBuf buf = encoder.encode(PooledByteBufAllocator.DEFAULT, object);
+        Assert.assertEquals(2 * (4 + 1000), rawLength.get());
+        Assert.assertTrue(encodedLength.get() > 0 && encodedLength.get() < rawLength.get());
+        buf.skipBytes(4 + 1 + 2 + 2 + 2 + 4 + 2 + 4);
+        Assert.assertEquals(encodedLength.get(), buf.readInt());
+        buf.release();
+    }
+
+    private EncodeObject prepareObject(EncodeObject object, boolean isEncrypt, String msgUUID) {
+        if (isEncrypt) {
+            object.setEncryptEntry(true, "user", encryptEntry);
+        }
+        object.setMsgUUID(msgUUID);
+        return object;
+    }
+
+    private void assertSameFrame(EncodeObject object) throws Exception {
+        List<Object> out = new ArrayList<>();
+        legacyEncoder.encode(null, object, out);
+        ByteBuf expected = (ByteBuf) out.get(0);
+        ByteBuf actual = encoder.encode(PooledByteBufAllocator.DEFAULT, object);
+        try {
+            Assert.assertArrayEquals("msgType " + object.getMsgtype() + ", compress " + object.isCompress()
+                    + ", encrypt " + object.isEncrypt() + ", msgUUID " + object.getMsgUUID(),
+                    ByteBufUtil.getBytes(expected), ByteBufUtil.getBytes(actual));
+        } finally {
+            expected.release();
+            actual.release();
+        }
+    }
+
+    private static byte[] prepareBody(Random random, int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) ('a' + random.nextInt(4));
+        }
+        return body;
+    }
+}
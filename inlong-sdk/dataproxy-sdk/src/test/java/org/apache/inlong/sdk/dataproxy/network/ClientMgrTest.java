@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.network;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClientMgrTest {
+
+    private static final int MAX_RETRY = 3;
+
+    @Test
+    public void testPreferLowerInflightCount() {
+        TestNettyClient busy = new TestNettyClient("127.0.0.1", true);
+        TestNettyClient idle = new TestNettyClient("127.0.0.2", true);
+        busy.onSent();
+        busy.onSent();
+        NettyClient[] clients = new NettyClient[]{busy, idle};
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(idle, ClientMgr.chooseByPowerOfTwoChoices(clients, MAX_RETRY));
+        }
+    }
+
+    @Test
+    public void testPreferLowerEwmaLatency() {
+        TestNettyClient slow = new TestNettyClient("127.0.0.1", true);
+        TestNettyClient fast = new TestNettyClient("127.0.0.2", true);
+        slow.onSent();
+        slow.onCompleted(100);
+        fast.onSent();
+        fast.onCompleted(10);
+        // the moving average moves toward the latest latency by its weight
+        slow.onSent();
+        slow.onCompleted(50);
+        Assert.assertEquals(90d, slow.getEwmaLatencyMs(), 0.001d);
+        Assert.assertEquals(0, slow.getInflightCount());
+        NettyClient[] clients = new NettyClient[]{fast, slow};
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(fast, ClientMgr.chooseByPowerOfTwoChoices(clients, MAX_RETRY));
+        }
+    }
+
+    @Test
+    public void testSkipInactiveClient() {
+        TestNettyClient busy = new TestNettyClient("127.0.0.1", true);
+        TestNettyClient inactive = new TestNettyClient("127.0.0.2", false);
+        busy.onSent();
+        NettyClient[] clients = new NettyClient[]{busy, inactive};
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(busy, ClientMgr.chooseByPowerOfTwoChoices(clients, MAX_RETRY));
+        }
+        clients = new NettyClient[]{new TestNettyClient("127.0.0.3", false), inactive};
+        Assert.assertNull(ClientMgr.chooseByPowerOfTwoChoices(clients, MAX_RETRY));
+    }
+
+    private static class TestNettyClient extends NettyClient {
+
+        private final boolean active;
+
+        private TestNettyClient(String serverIP, boolean active) {
+            super(null, serverIP, 46801, null);
+            this.active = active;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.network;
+
+import org.apache.inlong.sdk.dataproxy.SendResult;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class SyncSendCallbackTest {
+
+    @Test
+    public void testComplete() {
+        SyncSendCallback callback = new SyncSendCallback();
+        callback.onMessageAck(SendResult.OK);
+        Assert.assertEquals(SendResult.OK, callback.get(0));
+        // the first result wins
+        callback.onMessageAck(SendResult.CONNECTION_BREAK);
+        Assert.assertEquals(SendResult.OK, callback.get(0));
+
+        // file mode acks with the result and the proxy ip
+        callback = new SyncSendCallback();
+        callback.onMessageAck("TIMEOUT=127.0.0.1");
+        Assert.assertEquals(SendResult.TIMEOUT, callback.get(0));
+
+        callback = new SyncSendCallback();
+        callback.onException(new ProxysdkException(SendResult.NO_CONNECTION.toString()));
+        Assert.assertEquals(SendResult.NO_CONNECTION, callback.get(0));
+
+        callback = new SyncSendCallback();
+        callback.onException(new IllegalStateException("unknown"));
+        Assert.assertEquals(SendResult.UNKOWN_ERROR, callback.get(0));
+        Assert.assertEquals(SendResult.UNKOWN_ERROR, SyncSendCallback.parseResult("UNKNOWN_RESULT"));
+        Assert.assertEquals(SendResult.UNKOWN_ERROR, SyncSendCallback.parseResult(null));
+    }
+
+    @Test
+    public void testTimeout() {
+        SyncSendCallback callback = new SyncSendCallback();
+        long startTime = System.currentTimeMillis();
+        Assert.assertEquals(SendResult.TIMEOUT, callback.get(100));
+        // waits for the timeout and the guard
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 100 + 1000);
+
+        Thread.currentThread().interrupt();
+        Assert.assertEquals(SendResult.THREAD_INTERRUPT, callback.get(100));
+        Assert.assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    public void testCompletedWithinGuard() {
+        // the timing wheel completes the callback a little after the timeout of the message
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        try {
+            SyncSendCallback callback = new SyncSendCallback();
+            executor.schedule(() -> callback.onMessageAck(SendResult.TIMEOUT), 300, TimeUnit.MILLISECONDS);
+            long startTime = System.currentTimeMillis();
+            Assert.assertEquals(SendResult.TIMEOUT, callback.get(100));
+            Assert.assertTrue(System.currentTimeMillis() - startTime < 100 + 1000);
+
+            SyncSendCallback acked = new SyncSendCallback();
+            executor.schedule(() -> acked.onMessageAck(SendResult.OK), 300, TimeUnit.MILLISECONDS);
+            Assert.assertEquals(SendResult.OK, acked.get(100));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.pb;
+
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.INLONG_COMPRESSED_TYPE;
+import org.apache.inlong.sdk.dataproxy.pb.context.SdkProfile;
+import org.apache.inlong.sdk.dataproxy.pb.context.SdkSinkContext;
+import org.apache.inlong.sdk.dataproxy.pb.dispatch.DispatchProfile;
+import org.apache.inlong.sdk.dataproxy.pb.network.IpPort;
+import org.apache.inlong.sdk.dataproxy.pb.network.TcpChannelGroup;
+import org.apache.inlong.sdk.dataproxy.pb.network.TcpResult;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SdkChannelWorkerTest {
+
+    private static final long PROCESS_INTERVAL = 100L;
+
+    private final LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+    private SdkProxyChannelManager manager;
+    private TcpChannelGroup sender;
+    private SdkChannelWorker worker;
+
+    @Before
+    public void setUp() throws Exception {
+        SdkSinkContext context = Mockito.mock(SdkSinkContext.class);
+        Mockito.when(context.getCompressedType()).thenReturn(INLONG_COMPRESSED_TYPE.INLONG_NO_COMPRESS);
+        Mockito.when(context.getProcessInterval()).thenReturn(PROCESS_INTERVAL);
+        sender = Mockito.mock(TcpChannelGroup.class);
+        manager = Mockito.mock(SdkProxyChannelManager.class);
+        Mockito.when(manager.getContext()).thenReturn(context);
+        Mockito.when(manager.getProxyClusterId()).thenReturn("proxy");
+        Mockito.when(manager.getSender()).thenReturn(sender);
+        Mockito.when(manager.takeDispatchQueue()).thenAnswer(invocation -> dispatchQueue.take());
+        worker = new SdkChannelWorker(manager, 0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        worker.close();
+        worker.join(1000);
+    }
+
+    private static DispatchProfile createProfile() {
+        return new DispatchProfile("uid", "group", "stream", System.currentTimeMillis());
+    }
+
+    @Test
+    public void testWokenByDispatchAndClose() throws Exception {
+        Mockito.when(sender.send(Mockito.any(ChannelBuffer.class), Mockito.anyLong()))
+                .thenReturn(new TcpResult(new IpPort("127.0.0.1", 46801), true, ""));
+        worker.start();
+        TimeUnit.MILLISECONDS.sleep(100);
+        Mockito.verify(sender, Mockito.never()).send(Mockito.any(ChannelBuffer.class), Mockito.anyLong());
+        // the blocked worker sends the profile as soon as it is dispatched
+        dispatchQueue.offer(createProfile());
+        Mockito.verify(sender, Mockito.timeout(1000).times(1)).send(Mockito.any(ChannelBuffer.class),
+                Mockito.eq(PROCESS_INTERVAL));
+        Mockito.verify(manager).putWaitCompletedProfile(Mockito.any(SdkProfile.class));
+        // the worker waiting for the next profile is interrupted by close
+        worker.close();
+        worker.join(1000);
+        Assert.assertFalse(worker.isAlive());
+    }
+
+    @Test
+    public void testBackOffWhenSendFails() throws Exception {
+        Mockito.when(sender.send(Mockito.any(ChannelBuffer.class), Mockito.anyLong()))
+                .thenReturn(new TcpResult("", 0, false, "can not acquire a channel"));
+        DispatchProfile profile = createProfile();
+        dispatchQueue.offer(profile);
+        worker.start();
+        // the profile is returned to the dispatch queue, and the worker waits for an available channel
+        Mockito.verify(manager, Mockito.timeout(1000)).offerDispatchQueue(profile);
+        Mockito.verify(sender, Mockito.timeout(1000)).awaitAvailable(PROCESS_INTERVAL);
+        Mockito.verify(sender, Mockito.times(1 + SdkChannelWorker.MAX_TRY_TIMES))
+                .send(Mockito.any(ChannelBuffer.class), Mockito.eq(PROCESS_INTERVAL));
+        Mockito.verify(manager).removeWaitCompletedProfile(Mockito.any(SdkProfile.class));
+    }
+}
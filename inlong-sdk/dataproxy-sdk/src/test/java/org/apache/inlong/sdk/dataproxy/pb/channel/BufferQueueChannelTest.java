@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.pb.channel;
+
+import org.apache.inlong.sdk.commons.protocol.SdkEvent;
+import org.apache.inlong.sdk.dataproxy.pb.context.CallbackProfile;
+
+import org.apache.flume.Context;
+import org.apache.flume.Event;
+import org.apache.flume.Transaction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class BufferQueueChannelTest {
+
+    private static Event takeInTransaction(BufferQueueChannel channel, long waitMs) {
+        Transaction tx = channel.getTransaction();
+        tx.begin();
+        try {
+            Event event = channel.take(waitMs);
+            tx.commit();
+            return event;
+        } finally {
+            tx.close();
+        }
+    }
+
+    @Test
+    public void testTakeWokenByCommittedEvent() throws Exception {
+        BufferQueueChannel channel = new BufferQueueChannel();
+        channel.configure(new Context());
+        CompletableFuture<Event> taker = CompletableFuture.supplyAsync(() -> takeInTransaction(channel, 10000));
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assert.assertFalse(taker.isDone());
+
+        // the dispatch thread waiting on the channel is woken up as soon as the event is committed
+        SdkEvent sdkEvent = new SdkEvent();
+        sdkEvent.setInlongGroupId("group");
+        sdkEvent.setInlongStreamId("stream");
+        sdkEvent.setBody(new byte[]{1, 2, 3});
+        Transaction tx = channel.getTransaction();
+        tx.begin();
+        channel.put(new CallbackProfile(sdkEvent, null));
+        long commitTime = System.currentTimeMillis();
+        tx.commit();
+        tx.close();
+        Event event = taker.get(1, TimeUnit.SECONDS);
+        Assert.assertNotNull(event);
+        Assert.assertTrue(System.currentTimeMillis() - commitTime < 1000);
+
+        // it returns null at the timeout if there is no event
+        long startTime = System.currentTimeMillis();
+        Assert.assertNull(takeInTransaction(channel, 100));
+        Assert.assertTrue(System.currentTimeMillis() - startTime >= 90);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.dataproxy.pb.network;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TcpChannelGroupTest {
+
+    private static final long CHANNEL_ID = 0L;
+
+    private TcpChannelGroup group;
+    private Channel channel;
+    private ChannelFuture writeFuture;
+    private TcpChannel tcpChannel;
+
+    @Before
+    public void setUp() throws Exception {
+        group = new TcpChannelGroup("bid", 1, null, null);
+        channel = Mockito.mock(Channel.class);
+        writeFuture = Mockito.mock(ChannelFuture.class);
+        Mockito.when(channel.getAttachment()).thenReturn(CHANNEL_ID);
+        Mockito.when(channel.isConnected()).thenReturn(true);
+        Mockito.when(channel.isWritable()).thenReturn(true);
+        Mockito.when(channel.write(Mockito.any())).thenReturn(writeFuture);
+        Mockito.when(writeFuture.sync()).thenReturn(writeFuture);
+        Mockito.when(writeFuture.await()).thenReturn(writeFuture);
+        Mockito.when(writeFuture.isSuccess()).thenReturn(true);
+        tcpChannel = new TcpChannel(channel, new IpPort("127.0.0.1", 46801));
+        addChannel(tcpChannel);
+    }
+
+    @After
+    public void tearDown() {
+        group.close();
+    }
+
+    /**
+     * put the channel into the current channel queue, as a connected channel of updateConfig
+     */
+    @SuppressWarnings("unchecked")
+    private void addChannel(TcpChannel tcpChannel) throws Exception {
+        Field queuesField = TcpChannelGroup.class.getDeclaredField("channelQueues");
+        queuesField.setAccessible(true);
+        ((List<LinkedBlockingQueue<TcpChannel>>) queuesField.get(group)).get(0).offer(tcpChannel);
+        Field mapField = TcpChannelGroup.class.getDeclaredField("channelMap");
+        mapField.setAccessible(true);
+        ((Map<Object, TcpChannel>) mapField.get(group)).put(CHANNEL_ID, tcpChannel);
+    }
+
+    private static ChannelBuffer pack() {
+        return ChannelBuffers.wrappedBuffer(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testAwaitAvailableWokenBySignal() throws Exception {
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> group.awaitAvailable(10000));
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assert.assertFalse(waiter.isDone());
+        long signalTime = System.currentTimeMillis();
+        group.signalAvailable();
+        Assert.assertTrue(waiter.get(1, TimeUnit.SECONDS));
+        Assert.assertTrue(System.currentTimeMillis() - signalTime < 1000);
+        // no signal, it returns false at the timeout
+        Assert.assertFalse(group.awaitAvailable(50));
+    }
+
+    @Test
+    public void testSendWokenByReleasedChannel() throws Exception {
+        // the only channel is busy with a pack waiting for the response
+        Assert.assertTrue(tcpChannel.tryAcquire());
+        CompletableFuture<TcpResult> sender = CompletableFuture.supplyAsync(() -> group.send(pack(), 10000));
+        TimeUnit.MILLISECONDS.sleep(100);
+        Assert.assertFalse(sender.isDone());
+        // the response releases the channel and wakes up the sender at once
+        long releaseTime = System.currentTimeMillis();
+        group.releaseChannel(channel);
+        TcpResult result = sender.get(1, TimeUnit.SECONDS);
+        Assert.assertTrue(result.result);
+        Assert.assertEquals(Long.valueOf(CHANNEL_ID), result.channelId);
+        Assert.assertTrue(System.currentTimeMillis() - releaseTime < 1000);
+        // the token is held by the new pack until its response
+        Assert.assertEquals(0, tcpChannel.getPackToken().availablePermits());
+    }
+
+    @Test
+    public void testReleaseTokenWhenWriteFails() {
+        Mockito.when(writeFuture.isSuccess()).thenReturn(false);
+        TcpResult result = group.send(pack(), 0);
+        Assert.assertFalse(result.result);
+        // no response will come for the failed write, so the token is released by the sender
+        Assert.assertEquals(1, tcpChannel.getPackToken().availablePermits());
+        Assert.assertTrue(tcpChannel.isHasException());
+
+        // the channel is usable for the next pack
+        Mockito.when(writeFuture.isSuccess()).thenReturn(true);
+        Assert.assertTrue(group.send(pack(), 0).result);
+    }
+
+    @Test
+    public void testReleaseTokenWhenWriteThrows() {
+        Mockito.when(channel.write(Mockito.any())).thenThrow(new IllegalStateException("closed"));
+        Assert.assertFalse(group.send(pack(), 0).result);
+        Assert.assertEquals(1, tcpChannel.getPackToken().availablePermits());
+    }
+
+    @Test
+    public void testNoBusySpinWhenNotWritable() {
+        Mockito.when(channel.isWritable()).thenReturn(false);
+        long startTime = System.currentTimeMillis();
+        TcpResult result = group.send(pack(), 300);
+        long costTime = System.currentTimeMillis() - startTime;
+        Assert.assertFalse(result.result);
+        Assert.assertTrue(costTime >= 250);
+        // the sender waits for a signal instead of polling the channel in a loop
+        Mockito.verify(channel, Mockito.atMost(2)).isWritable();
+        Mockito.verify(channel, Mockito.never()).write(Mockito.any());
+        Assert.assertEquals(1, tcpChannel.getPackToken().availablePermits());
+    }
+}
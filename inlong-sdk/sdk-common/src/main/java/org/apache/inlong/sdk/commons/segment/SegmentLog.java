@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.commons.segment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Bounded log of records in segment files, shared by the disk buffers of the SDKs and the sort standalone.
+ * The records are appended to the last segment and read in order from the checkpoint, the offset of a record is
+ * its byte position in the whole log, and a segment file is named by the offset of its first record.
+ * Durability: an append returns after its records are forced to disk, a failed append is truncated so that the
+ * next records are not written behind a torn one. The checkpoint is forced before it replaces the old one, so the
+ * uncommitted records are read again after a crash of the host, and a segment is deleted when all its records are
+ * committed. Every record starts with a magic number, the reader counts and skips a torn or corrupted record by
+ * searching the next valid one, so the records behind it in the segment are kept.
+ */
+public class SegmentLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentLog.class);
+    public static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int RECORD_MAGIC = 0x494C5347;
+    // magic, length, crc and append time of a record
+    public static final int RECORD_HEADER_LENGTH = 4 + 4 + 4 + 8;
+
+    private final File dir;
+    private final long maxBytes;
+    private final long segmentBytes;
+    // segment files by their base offsets
+    private final TreeMap<Long, File> segments = new TreeMap<>();
+    // the write segment is opened by the first append after a restart or a full commit
+    private FileChannel writeChannel;
+    private long writeBase;
+    private long writeOffset;
+    private FileChannel readChannel;
+    private long readBase = -1;
+    private long readOffset;
+    private long totalBytes = 0;
+    private long corruptedCount = 0;
+    private boolean closed = false;
+
+    public SegmentLog(File dir, long maxBytes, long segmentBytes) throws IOException {
+        this.dir = dir;
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("fail to create directory " + dir.getAbsolutePath());
+        }
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        load();
+    }
+
+    /**
+     * load the segments and the checkpoint, the new records are always appended to a new segment,
+     * so a torn record at the tail of the last run is skipped by the reader
+     */
+    private void load() throws IOException {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                try {
+                    long base = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    segments.put(base, file);
+                    totalBytes += file.length();
+                } catch (NumberFormatException e) {
+                    LOG.warn("skip the unknown file {} in {}", name, dir);
+                }
+            }
+        }
+        long endOffset = 0;
+        if (!segments.isEmpty()) {
+            Map.Entry<Long, File> last = segments.lastEntry();
+            endOffset = last.getKey() + last.getValue().length();
+        }
+        readOffset = readCheckpoint();
+        if (!segments.isEmpty()) {
+            readOffset = Math.max(readOffset, segments.firstKey());
+        }
+        writeOffset = Math.max(endOffset, readOffset);
+        writeBase = writeOffset;
+        deleteCommittedSegments();
+        LOG.info("SegmentLog loaded from {}, segments={}, readOffset={}, writeOffset={}, totalBytes={}",
+                dir, segments.size(), readOffset, writeOffset, totalBytes);
+    }
+
+    /**
+     * whether the records of the size can be appended in the disk budget
+     *
+     * @param payloadBytes bytes of the record payloads
+     * @param records count of the records
+     */
+    public synchronized boolean hasCapacity(long payloadBytes, int records) {
+        return totalBytes + payloadBytes + (long) RECORD_HEADER_LENGTH * records <= maxBytes;
+    }
+
+    /**
+     * append a record and force it to disk
+     *
+     * @param payload record data
+     * @return false if the log is full
+     */
+    public boolean append(byte[] payload) throws IOException {
+        return append(Collections.singletonList(payload));
+    }
+
+    /**
+     * append the records and force them to disk together, nothing is appended if it fails
+     *
+     * @param payloads data of records
+     * @return false if the log is full
+     */
+    public synchronized boolean append(List<byte[]> payloads) throws IOException {
+        checkOpen();
+        long length = 0;
+        for (byte[] payload : payloads) {
+            length += RECORD_HEADER_LENGTH + payload.length;
+        }
+        if (totalBytes + length > maxBytes) {
+            return false;
+        }
+        if (writeChannel != null && writeOffset > writeBase && writeOffset - writeBase + length > segmentBytes) {
+            writeChannel.close();
+            writeChannel = null;
+        }
+        if (writeChannel == null) {
+            openSegment(writeOffset);
+        }
+        long appendTime = System.currentTimeMillis();
+        long position = writeOffset - writeBase;
+        try {
+            for (byte[] payload : payloads) {
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_LENGTH + payload.length);
+                buffer.putInt(RECORD_MAGIC).putInt(payload.length).putInt((int) crc.getValue())
+                        .putLong(appendTime).put(payload);
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    position += writeChannel.write(buffer, position);
+                }
+            }
+            writeChannel.force(false);
+        } catch (IOException e) {
+            discardUndurableTail();
+            throw e;
+        }
+        writeOffset += length;
+        totalBytes += length;
+        return true;
+    }
+
+    /**
+     * truncate the write segment to its durable length after a failed append, the segment is sealed behind the
+     * bytes of the failed append if it can not be truncated, and the next append rolls to a new segment
+     */
+    private void discardUndurableTail() {
+        try {
+            writeChannel.truncate(writeOffset - writeBase);
+        } catch (IOException e) {
+            LOG.error("fail to truncate segment {} of {}, roll to a new segment", writeBase, dir, e);
+            long segmentLength = segments.get(writeBase).length();
+            totalBytes += segmentLength - (writeOffset - writeBase);
+            writeOffset = writeBase + segmentLength;
+            closeQuietly(writeChannel);
+            writeChannel = null;
+        }
+    }
+
+    /**
+     * read the record at the offset, a torn or corrupted record is skipped with the following bytes until the
+     * next valid record
+     *
+     * @param offset offset of the record
+     * @return the record, whose offset is behind the requested one if the records there are skipped,
+     *         or null if there is no record at the offset
+     */
+    public synchronized Entry read(long offset) throws IOException {
+        checkOpen();
+        while (offset < writeOffset) {
+            Map.Entry<Long, File> segment = segments.floorEntry(offset);
+            if (segment == null) {
+                offset = segments.firstKey();
+                continue;
+            }
+            long base = segment.getKey();
+            FileChannel channel = getReadChannel(base, segment.getValue());
+            // the bytes behind the write offset of the write segment may be left by a failed append
+            long limit = base == writeBase ? writeOffset - base : channel.size();
+            long position = offset - base;
+            if (position + RECORD_HEADER_LENGTH > limit) {
+                Long nextBase = segments.higherKey(base);
+                if (nextBase == null) {
+                    return null;
+                }
+                if (position < limit) {
+                    corruptedCount++;
+                    LOG.warn("skip the torn tail from {} of segment {}, corruptedCount={}",
+                            position, segment.getValue(), corruptedCount);
+                }
+                offset = nextBase;
+                continue;
+            }
+            Entry entry = readRecord(channel, offset, position, limit);
+            if (entry != null) {
+                return entry;
+            }
+            long next = findNextRecord(channel, position + 1, limit);
+            corruptedCount++;
+            LOG.warn("skip the torn or corrupted bytes [{}, {}) of segment {}, corruptedCount={}",
+                    position, next, segment.getValue(), corruptedCount);
+            offset = base + next;
+        }
+        return null;
+    }
+
+    /**
+     * commit the records before the offset, and delete the segments whose records are all committed
+     *
+     * @param offset offset of the next record to read
+     */
+    public synchronized void commit(long offset) throws IOException {
+        checkOpen();
+        readOffset = offset;
+        writeCheckpoint(offset);
+        deleteCommittedSegments();
+    }
+
+    public synchronized long getReadOffset() {
+        return readOffset;
+    }
+
+    public synchronized long getWriteOffset() {
+        return writeOffset;
+    }
+
+    /**
+     * @return bytes of all the segment files
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * @return bytes of the uncommitted records
+     */
+    public synchronized long getBacklogBytes() {
+        return writeOffset - readOffset;
+    }
+
+    /**
+     * @return count of the torn or corrupted records which are skipped
+     */
+    public synchronized long getCorruptedCount() {
+        return corruptedCount;
+    }
+
+    public synchronized boolean isEmpty() {
+        return writeOffset == readOffset;
+    }
+
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        closeQuietly(readChannel);
+        closeQuietly(writeChannel);
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("SegmentLog of " + dir + " is closed");
+        }
+    }
+
+    private void openSegment(long base) throws IOException {
+        File file = new File(dir, String.format("%020d%s", base, SEGMENT_SUFFIX));
+        writeChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeBase = base;
+        segments.put(base, file);
+    }
+
+    /**
+     * delete the segments before the checkpoint, the write segment is deleted too if all its records are committed
+     */
+    private void deleteCommittedSegments() {
+        while (!segments.isEmpty()) {
+            Map.Entry<Long, File> first = segments.firstEntry();
+            Long nextBase = segments.higherKey(first.getKey());
+            if (nextBase == null) {
+                if (readOffset < writeOffset || first.getKey() == writeOffset) {
+                    break;
+                }
+                closeQuietly(writeChannel);
+                writeChannel = null;
+                writeBase = writeOffset;
+            } else if (nextBase > readOffset) {
+                break;
+            }
+            if (readBase == first.getKey()) {
+                closeQuietly(readChannel);
+                readChannel = null;
+                readBase = -1;
+            }
+            segments.remove(first.getKey());
+            totalBytes -= first.getValue().length();
+            if (!first.getValue().delete()) {
+                LOG.warn("fail to delete the committed segment {}", first.getValue());
+            }
+        }
+    }
+
+    private FileChannel getReadChannel(long base, File file) throws IOException {
+        if (readChannel == null || readBase != base) {
+            closeQuietly(readChannel);
+            readChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            readBase = base;
+        }
+        return readChannel;
+    }
+
+    private long readCheckpoint() throws IOException {
+        File checkpoint = new File(dir, CHECKPOINT_FILE);
+        if (checkpoint.length() < Long.BYTES) {
+            return 0;
+        }
+        return ByteBuffer.wrap(Files.readAllBytes(checkpoint.toPath())).getLong();
+    }
+
+    /**
+     * write the checkpoint to a temporary file and force it before the rename,
+     * so the checkpoint is never empty or torn after a crash
+     */
+    private void writeCheckpoint(long offset) throws IOException {
+        File tmp = new File(dir, CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(offset);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp.toPath(), new File(dir, CHECKPOINT_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the record, or null if it is torn or corrupted
+     */
+    private Entry readRecord(FileChannel channel, long offset, long position, long limit) throws IOException {
+        if (position + RECORD_HEADER_LENGTH > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_LENGTH);
+        readFully(channel, header, position);
+        header.flip();
+        int magic = header.getInt();
+        int length = header.getInt();
+        int crc = header.getInt();
+        long appendTime = header.getLong();
+        if (magic != RECORD_MAGIC || length < 0 || position + RECORD_HEADER_LENGTH + length > limit) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, position + RECORD_HEADER_LENGTH);
+        CRC32 check = new CRC32();
+        check.update(payload.array());
+        if ((int) check.getValue() != crc) {
+            return null;
+        }
+        return new Entry(offset, offset + RECORD_HEADER_LENGTH + length, appendTime, payload.array());
+    }
+
+    /**
+     * search the next valid record of the segment from the position
+     *
+     * @return position of the next valid record, or the limit if there is none
+     */
+    private long findNextRecord(FileChannel channel, long from, long limit) throws IOException {
+        if (from + RECORD_HEADER_LENGTH > limit) {
+            return limit;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, limit - from);
+        for (int i = 0; i + RECORD_HEADER_LENGTH <= buffer.limit(); i++) {
+            if (buffer.getInt(i) == RECORD_MAGIC && readRecord(channel, 0, from + i, limit) != null) {
+                return from + i;
+            }
+        }
+        return limit;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("unexpected end of file at " + position);
+            }
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOG.warn("fail to close file channel", e);
+        }
+    }
+
+    /**
+     * a record read from the log
+     */
+    public static class Entry {
+
+        private final long offset;
+        private final long nextOffset;
+        private final long appendTime;
+        private final byte[] payload;
+
+        private Entry(long offset, long nextOffset, long appendTime, byte[] payload) {
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+            this.appendTime = appendTime;
+            this.payload = payload;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getNextOffset() {
+            return nextOffset;
+        }
+
+        public long getAppendTime() {
+            return appendTime;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+    }
+}
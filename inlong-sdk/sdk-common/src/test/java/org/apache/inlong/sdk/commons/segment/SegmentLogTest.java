@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.commons.segment;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class SegmentLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] record(int index) {
+        return ("record" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readNext(SegmentLog log) throws Exception {
+        SegmentLog.Entry entry = log.read(log.getReadOffset());
+        if (entry == null) {
+            return null;
+        }
+        log.commit(entry.getNextOffset());
+        return new String(entry.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private static File[] segmentFiles(File dir) {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(SegmentLog.SEGMENT_SUFFIX));
+        Arrays.sort(files);
+        return files;
+    }
+
+    @Test
+    public void testReadInOrderAndResume() throws Exception {
+        File dir = folder.newFolder();
+        // every segment holds about two records
+        SegmentLog log = new SegmentLog(dir, 1024 * 1024, 64);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(log.append(record(i)));
+        }
+        Assert.assertTrue(segmentFiles(dir).length > 1);
+        Assert.assertEquals("record0", readNext(log));
+        // the second record is read but not committed before restart
+        Assert.assertNotNull(log.read(log.getReadOffset()));
+        log.close();
+
+        log = new SegmentLog(dir, 1024 * 1024, 64);
+        for (int i = 1; i < 5; i++) {
+            Assert.assertEquals("record" + i, readNext(log));
+        }
+        Assert.assertNull(readNext(log));
+        Assert.assertTrue(log.isEmpty());
+        // the segments are deleted after all the records are committed
+        Assert.assertEquals(0, segmentFiles(dir).length);
+        Assert.assertEquals(0, log.getTotalBytes());
+        Assert.assertTrue(log.append(record(5)));
+        Assert.assertEquals("record5", readNext(log));
+        log.close();
+    }
+
+    @Test
+    public void testSkipCorruptedRecord() throws Exception {
+        File dir = folder.newFolder();
+        SegmentLog log = new SegmentLog(dir, 1024 * 1024, 1024 * 1024);
+        Assert.assertTrue(log.append(Arrays.asList(record(0), record(1), record(2))));
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles(dir)[0], "rw")) {
+            // overwrite the payload of the second record, so the crc mismatches
+            file.seek(file.length() / 3 + SegmentLog.RECORD_HEADER_LENGTH);
+            file.writeInt(0x7f7f7f7f);
+        }
+
+        log = new SegmentLog(dir, 1024 * 1024, 1024 * 1024);
+        Assert.assertEquals("record0", readNext(log));
+        // the records behind the corrupted one in the segment are kept
+        Assert.assertEquals("record2", readNext(log));
+        Assert.assertNull(readNext(log));
+        Assert.assertEquals(1, log.getCorruptedCount());
+        log.close();
+    }
+
+    @Test
+    public void testSkipTornRecord() throws Exception {
+        File dir = folder.newFolder();
+        SegmentLog log = new SegmentLog(dir, 1024 * 1024, 1024 * 1024);
+        Assert.assertTrue(log.append(Arrays.asList(record(0), record(1), record(2))));
+        log.close();
+        try (RandomAccessFile file = new RandomAccessFile(segmentFiles(dir)[0], "rw")) {
+            // overwrite the length of the second record, so it seems to exceed the segment
+            file.seek(file.length() / 3 + 4);
+            file.writeInt(Integer.MAX_VALUE);
+            // a torn record is left at the tail by a crash
+            file.seek(file.length());
+            file.write(new byte[]{0x49, 0x4C, 0x53});
+        }
+
+        log = new SegmentLog(dir, 1024 * 1024, 1024 * 1024);
+        Assert.assertTrue(log.append(record(3)));
+        Assert.assertEquals("record0", readNext(log));
+        Assert.assertEquals("record2", readNext(log));
+        // the records appended after restart are not lost behind the torn tail
+        Assert.assertEquals("record3", readNext(log));
+        Assert.assertNull(readNext(log));
+        Assert.assertEquals(2, log.getCorruptedCount());
+        log.close();
+    }
+
+    @Test
+    public void testDiskBudget() throws Exception {
+        File dir = folder.newFolder();
+        SegmentLog log = new SegmentLog(dir, 60, 1024);
+        Assert.assertTrue(log.hasCapacity(record(0).length, 1));
+        Assert.assertTrue(log.append(record(0)));
+        Assert.assertTrue(log.append(record(1)));
+        Assert.assertFalse(log.hasCapacity(record(2).length, 1));
+        Assert.assertFalse(log.append(record(2)));
+        Assert.assertTrue(log.getTotalBytes() <= 60);
+        log.close();
+    }
+}
@@ -34,9 +34,14 @@ public abstract class ClientContext implements Cleanable {
 
     protected final SortSdkMetricItemSet metricItemSet;
 
+    protected final FetchMemoryBudget fetchMemoryBudget;
+
+    private volatile FetchScheduler fetchScheduler;
+
     public ClientContext(SortClientConfig config) {
         this.config = config;
         this.sortTaskId = config.getSortTaskId();
+        this.fetchMemoryBudget = new FetchMemoryBudget(config.getMaxFetchMemoryBytes());
         this.metricItemSet = new SortSdkMetricItemSet(config.getSortTaskId() + new SecureRandom().nextInt());
         MetricRegister.register(this.metricItemSet);
     }
@@ -47,9 +52,28 @@ public abstract class ClientContext implements Cleanable {
 
     @Override
     public boolean clean() {
+        if (fetchScheduler != null) {
+            fetchScheduler.clean();
+        }
         return true;
     }
 
+    /**
+     * get the fetch scheduler shared by the single topic fetchers
+     *
+     * @return null if fetchSchedulerThreads is not positive, then every fetcher runs in a dedicated thread
+     */
+    public FetchScheduler getFetchScheduler() {
+        if (fetchScheduler == null && config.getFetchSchedulerThreads() > 0) {
+            synchronized (this) {
+                if (fetchScheduler == null) {
+                    fetchScheduler = new FetchScheduler(sortTaskId, config.getFetchSchedulerThreads());
+                }
+            }
+        }
+        return fetchScheduler;
+    }
+
     public void addConsumeTime(InLongTopic topic, int partitionId) {
         SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
         metricItem.consumeTimes.incrementAndGet();
@@ -62,6 +86,12 @@ public abstract class ClientContext implements Cleanable {
         metricItem.consumeTimeCost.addAndGet(time);
     }
 
+    public void addFetchLatency(InLongTopic topic, int partitionId, long time) {
+        SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
+        metricItem.fetchLatency.addAndGet(time);
+        metricItem.fetchCount.incrementAndGet();
+    }
+
     public void addConsumeFilter(InLongTopic topic, int partitionId, int count) {
         SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
         metricItem.filterCount.addAndGet(count);
@@ -106,6 +136,66 @@ public abstract class ClientContext implements Cleanable {
         metricItem.ackFailCount.incrementAndGet();
     }
 
+    public void addAckReset(InLongTopic topic, int partitionId, int count) {
+        SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
+        metricItem.ackResetCount.addAndGet(count);
+    }
+
+    public void setAckGauge(InLongTopic topic, int partitionId, long ackLag, long pendingAckCount) {
+        SortSdkMetricItem metricItem = this.getMetricItem(topic, partitionId);
+        metricItem.ackLag.set(ackLag);
+        metricItem.pendingAckCount.set(pendingAckCount);
+    }
+
+    /**
+     * acquire the fetch memory of a message before it is handed to the callback
+     *
+     * @param topic  topic
+     * @param offset offset to ack
+     * @param bytes  bytes of the message
+     */
+    public void acquireFetchMemory(InLongTopic topic, String offset, long bytes) {
+        if (fetchMemoryBudget.isEnabled()) {
+            long inflightBytes = fetchMemoryBudget.acquire(topic.getTopicKey(), offset, bytes);
+            this.getMetricItem(topic, -1).inflightBytes.set(inflightBytes);
+        }
+    }
+
+    /**
+     * release the fetch memory of a message after it is acked
+     *
+     * @param topic  topic
+     * @param offset acked offset
+     */
+    public void releaseFetchMemory(InLongTopic topic, String offset) {
+        if (fetchMemoryBudget.isEnabled() && topic != null) {
+            long inflightBytes = fetchMemoryBudget.release(topic.getTopicKey(), offset);
+            this.getMetricItem(topic, -1).inflightBytes.set(inflightBytes);
+        }
+    }
+
+    /**
+     * release all the fetch memory of a topic after the fetcher is closed
+     *
+     * @param topic topic
+     */
+    public void releaseAllFetchMemory(InLongTopic topic) {
+        if (fetchMemoryBudget.isEnabled() && topic != null) {
+            fetchMemoryBudget.releaseAll(topic.getTopicKey());
+            this.getMetricItem(topic, -1).inflightBytes.set(fetchMemoryBudget.getTopicBytes(topic.getTopicKey()));
+        }
+    }
+
+    /**
+     * whether the fetcher should stop fetching because of the fetch memory budget
+     *
+     * @param  topic topic of the single topic fetcher, null for the multi topics fetcher
+     * @return       true if the topic uses more than its fair share of an exhausted budget
+     */
+    public boolean isFetchMemoryExhausted(InLongTopic topic) {
+        return fetchMemoryBudget.isExhausted(topic == null ? null : topic.getTopicKey());
+    }
+
     public void addTopicOnlineCount(int count) {
         SortSdkMetricItem metricItem = this.getMetricItem(null, -1);
         metricItem.topicOnlineCount.addAndGet(count);
@@ -159,6 +249,15 @@ public abstract class ClientContext implements Cleanable {
         config.getGlobalInProgressRequest().acquireUninterruptibly();
     }
 
+    /**
+     * try to acquire a request permit without waiting, used by the fetches in the shared fetch scheduler
+     *
+     * @return true if a permit is acquired
+     */
+    public boolean tryAcquireRequestPermit() {
+        return config.getGlobalInProgressRequest().tryAcquire();
+    }
+
     public void releaseRequestPermit() {
         config.getGlobalInProgressRequest().release();
     }
@@ -41,6 +41,10 @@ public class ConfigConstants {
     public static final String REPORT_STATISTIC_INTERVAL_SEC = "reportStatisticIntervalSec";
     public static final String UPDATE_META_DATA_INTERVAL_SEC = "updateMetaDataIntervalSec";
     public static final String ACK_TIMEOUT_SEC = "ackTimeoutSec";
+    public static final String ACK_BATCH_SIZE = "ackBatchSize";
+    public static final String ACK_BATCH_INTERVAL_MS = "ackBatchIntervalMs";
+    public static final String FETCH_SCHEDULER_THREADS = "fetchSchedulerThreads";
+    public static final String MAX_FETCH_MEMORY_BYTES = "maxFetchMemoryBytes";
     public static final String CLEAN_OLD_CONSUMER_INTERVAL_SEC = "cleanOldConsumerIntervalSec";
     public static final String IS_PROMETHEUS_ENABLED = "isPrometheusEnabled";
     public static final String EMPTY_POLL_SLEEP_STEP_MS = "emptyPollSleepStepMs";
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.api;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory budget of the fetched but un-acked bytes, shared by all the fetchers of a sort client.
+ * The bytes of a message are acquired when it is handed to the callback and released when it is acked.
+ * When the total bytes exceed the budget, the topics above their fair share, which is the budget divided by
+ * the count of the topics holding bytes, stop fetching until the bytes are released.
+ */
+public class FetchMemoryBudget {
+
+    private final long maxBytes;
+    private final AtomicLong totalBytes = new AtomicLong(0);
+    private final AtomicInteger activeTopics = new AtomicInteger(0);
+    private final ConcurrentHashMap<String, TopicBytes> topicBytesMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxBytes max un-acked bytes, the budget is unlimited if it is not positive
+     */
+    public FetchMemoryBudget(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * acquire the bytes of an offset, the bytes acquired before by the same offset are replaced,
+     * such as the redelivered message
+     *
+     * @param  topicKey topic key
+     * @param  offset   offset to ack
+     * @param  bytes    bytes of the offset
+     * @return          the in-flight bytes of the topic
+     */
+    public long acquire(String topicKey, String offset, long bytes) {
+        TopicBytes topicBytes = topicBytesMap.computeIfAbsent(topicKey, k -> new TopicBytes());
+        Long oldBytes = topicBytes.offsetBytes.put(offset, bytes);
+        return this.add(topicBytes, oldBytes == null ? bytes : bytes - oldBytes);
+    }
+
+    /**
+     * release the bytes of an offset
+     *
+     * @param  topicKey topic key
+     * @param  offset   acked offset
+     * @return          the in-flight bytes of the topic
+     */
+    public long release(String topicKey, String offset) {
+        TopicBytes topicBytes = topicBytesMap.get(topicKey);
+        if (topicBytes == null) {
+            return 0L;
+        }
+        Long oldBytes = topicBytes.offsetBytes.remove(offset);
+        if (oldBytes == null) {
+            return topicBytes.bytes.get();
+        }
+        return this.add(topicBytes, -oldBytes);
+    }
+
+    /**
+     * release all the bytes of a topic, such as after the fetcher is closed
+     *
+     * @param topicKey topic key
+     */
+    public void releaseAll(String topicKey) {
+        TopicBytes topicBytes = topicBytesMap.get(topicKey);
+        if (topicBytes == null) {
+            return;
+        }
+        for (Map.Entry<String, Long> entry : topicBytes.offsetBytes.entrySet()) {
+            if (topicBytes.offsetBytes.remove(entry.getKey(), entry.getValue())) {
+                this.add(topicBytes, -entry.getValue());
+            }
+        }
+    }
+
+    private long add(TopicBytes topicBytes, long delta) {
+        if (delta == 0) {
+            return topicBytes.bytes.get();
+        }
+        long after = topicBytes.bytes.addAndGet(delta);
+        long before = after - delta;
+        if (before <= 0 && after > 0) {
+            activeTopics.incrementAndGet();
+        } else if (before > 0 && after <= 0) {
+            activeTopics.decrementAndGet();
+        }
+        totalBytes.addAndGet(delta);
+        return after;
+    }
+
+    /**
+     * whether the topic should stop fetching
+     *
+     * @param  topicKey topic key, null means the fetcher of many topics which stops when the whole budget is used
+     * @return          true if the budget is exhausted and the topic holds more than its fair share
+     */
+    public boolean isExhausted(String topicKey) {
+        if (maxBytes <= 0 || totalBytes.get() < maxBytes) {
+            return false;
+        }
+        if (topicKey == null) {
+            return true;
+        }
+        TopicBytes topicBytes = topicBytesMap.get(topicKey);
+        if (topicBytes == null) {
+            return false;
+        }
+        return topicBytes.bytes.get() >= maxBytes / Math.max(1, activeTopics.get());
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getTopicBytes(String topicKey) {
+        TopicBytes topicBytes = topicBytesMap.get(topicKey);
+        return topicBytes == null ? 0L : topicBytes.bytes.get();
+    }
+
+    private static class TopicBytes {
+
+        private final AtomicLong bytes = new AtomicLong(0);
+        private final ConcurrentHashMap<String, Long> offsetBytes = new ConcurrentHashMap<>();
+    }
+}
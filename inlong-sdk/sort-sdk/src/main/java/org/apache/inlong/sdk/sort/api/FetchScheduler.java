@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetch scheduler which multiplexes the fetch tasks of many single topic fetchers over a small thread pool.
+ * A fetcher runs one fetch at a time, and schedules the next fetch when data arrives or after the empty sleep time,
+ * instead of occupying a dedicated thread.<br>
+ * The timer thread only hands the due tasks to the worker pool, the fetch and the user callback run in the worker
+ * pool. The worker pool has threadNum threads and a bounded queue of pending tasks, a blocking callback holds one
+ * of the threads, so threadNum should cover the callbacks which may block at the same time. When the queue is full,
+ * the task runs in the thread which submits it, which slows down the scheduling until the workers catch up.
+ */
+public class FetchScheduler implements Cleanable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FetchScheduler.class);
+    private static final int MAX_PENDING_TASKS = 10000;
+
+    private final ScheduledExecutorService timer;
+    private final ExecutorService worker;
+
+    public FetchScheduler(String name, int threadNum) {
+        this.timer = new ScheduledThreadPoolExecutor(1, newThreadFactory("sort_sdk_fetch_timer_" + name + "_"));
+        this.worker = new ThreadPoolExecutor(threadNum, threadNum, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING_TASKS),
+                newThreadFactory("sort_sdk_fetch_scheduler_" + name + "_"));
+    }
+
+    private static ThreadFactory newThreadFactory(String prefix) {
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        return r -> {
+            Thread thread = new Thread(r, prefix + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * run the fetch task now, in the caller thread if there are too many pending tasks
+     *
+     * @param task fetch task
+     */
+    public void execute(Runnable task) {
+        try {
+            worker.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (worker.isShutdown()) {
+                LOGGER.warn("fetch scheduler is closed, the fetch task is discarded");
+                return;
+            }
+            task.run();
+        }
+    }
+
+    /**
+     * run the fetch task after the delay
+     *
+     * @param task    fetch task
+     * @param delayMs delay in milliseconds
+     */
+    public void schedule(Runnable task, long delayMs) {
+        if (delayMs <= 0) {
+            this.execute(task);
+            return;
+        }
+        try {
+            timer.schedule(() -> this.execute(task), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("fetch scheduler is closed, the fetch task is discarded");
+        }
+    }
+
+    @Override
+    public boolean clean() {
+        timer.shutdownNow();
+        worker.shutdownNow();
+        return true;
+    }
+}
@@ -21,6 +21,9 @@ import org.apache.inlong.sdk.sort.entity.InLongTopic;
 import org.apache.inlong.sdk.sort.impl.decode.MessageDeserializer;
 import org.apache.inlong.sdk.sort.interceptor.MsgTimeInterceptor;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -32,10 +35,14 @@ import java.util.Optional;
  */
 public abstract class SingleTopicFetcher implements TopicFetcher {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SingleTopicFetcher.class);
+    protected static final long STOP_CONSUME_SLEEP_MS = 50L;
+
     protected InLongTopic topic;
     protected ClientContext context;
     protected Deserializer deserializer;
     protected volatile Thread fetchThread;
+    protected FetchScheduler fetchScheduler;
     protected volatile boolean closed = false;
     protected volatile boolean stopConsume = false;
     // use for empty topic to sleep
@@ -56,6 +63,95 @@ public abstract class SingleTopicFetcher implements TopicFetcher {
         this.interceptor = Optional.ofNullable(interceptor).orElse(new MsgTimeInterceptor());
     }
 
+    /**
+     * start to fetch in the shared fetch scheduler of context
+     *
+     * @return false if the fetch scheduler is not enabled, then the fetcher should start a dedicated thread
+     */
+    protected boolean startScheduledFetch() {
+        this.fetchScheduler = context.getFetchScheduler();
+        if (fetchScheduler == null) {
+            return false;
+        }
+        this.scheduleNextFetch(0L);
+        return true;
+    }
+
+    /**
+     * schedule the next fetch in the fetch scheduler
+     *
+     * @param delayMs delay in milliseconds
+     */
+    protected void scheduleNextFetch(long delayMs) {
+        if (closed) {
+            return;
+        }
+        long dueTime = System.currentTimeMillis() + delayMs;
+        fetchScheduler.schedule(() -> this.scheduledFetch(dueTime), delayMs);
+    }
+
+    private void scheduledFetch(long dueTime) {
+        if (closed) {
+            return;
+        }
+        long delayMs;
+        try {
+            if (this.isFetchPaused()) {
+                delayMs = STOP_CONSUME_SLEEP_MS;
+            } else {
+                context.addFetchLatency(topic, -1, System.currentTimeMillis() - dueTime);
+                delayMs = this.fetchOnce();
+            }
+        } catch (Throwable t) {
+            LOGGER.error("got exception while process fetching {}", topic, t);
+            this.onFetchError();
+            delayMs = sleepTime;
+        }
+        // negative means the fetcher schedules the next fetch itself, such as after an async receive
+        if (delayMs >= 0) {
+            this.scheduleNextFetch(delayMs);
+        }
+    }
+
+    /**
+     * fetch once in the fetch scheduler, it should not block for long,
+     * so it takes the request permit by {@link ClientContext#tryAcquireRequestPermit()} instead of waiting for it
+     *
+     * @return the delay of next fetch in milliseconds,
+     *         or a negative value if the next fetch is scheduled by {@link #scheduleNextFetch(long)} later
+     */
+    protected abstract long fetchOnce() throws Exception;
+
+    /**
+     * whether to stop fetching, because consuming is stopped or the topic has used up its share of fetch memory
+     *
+     * @return true if the fetcher should sleep instead of fetching
+     */
+    protected boolean isFetchPaused() {
+        return context.getConfig().isStopConsume() || stopConsume || context.isFetchMemoryExhausted(topic);
+    }
+
+    /**
+     * update the empty sleep time after an empty fetch
+     */
+    protected void onEmptyFetch() {
+        emptyFetchTimes++;
+        if (emptyFetchTimes >= context.getConfig().getEmptyPollTimes()) {
+            sleepTime = Math.min(sleepTime + context.getConfig().getEmptyPollSleepStepMs(),
+                    context.getConfig().getMaxEmptyPollSleepMs());
+            emptyFetchTimes = 0;
+        }
+    }
+
+    /**
+     * back off after a failed fetch, the sleep time is doubled up to the max empty sleep time,
+     * so a persistent error does not make the fetcher spin
+     */
+    protected void onFetchError() {
+        sleepTime = Math.min(Math.max(sleepTime * 2, context.getConfig().getEmptyPollSleepStepMs()),
+                context.getConfig().getMaxEmptyPollSleepMs());
+    }
+
     @Override
     public String getFetchKey() {
         return topic.getTopicKey();
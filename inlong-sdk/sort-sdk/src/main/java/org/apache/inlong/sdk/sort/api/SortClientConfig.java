@@ -58,6 +58,12 @@ public class SortClientConfig implements Serializable {
     private int reportStatisticIntervalSec = 60;
     private int updateMetaDataIntervalSec = 10;
     private int ackTimeoutSec = 0;
+    private int ackBatchSize = 100;
+    private int ackBatchIntervalMs = 100;
+    // 0 means every single topic fetcher runs in a dedicated thread
+    private int fetchSchedulerThreads = 0;
+    // max un-acked bytes of all the fetchers, 0 means unlimited
+    private long maxFetchMemoryBytes = 0L;
     private volatile boolean stopConsume = false;
     private boolean isPrometheusEnabled = true;
     private int emptyPollSleepStepMs = 10;
@@ -185,6 +191,38 @@ public class SortClientConfig implements Serializable {
         this.ackTimeoutSec = ackTimeoutSec;
     }
 
+    public int getAckBatchSize() {
+        return ackBatchSize;
+    }
+
+    public void setAckBatchSize(int ackBatchSize) {
+        this.ackBatchSize = ackBatchSize;
+    }
+
+    public int getAckBatchIntervalMs() {
+        return ackBatchIntervalMs;
+    }
+
+    public void setAckBatchIntervalMs(int ackBatchIntervalMs) {
+        this.ackBatchIntervalMs = ackBatchIntervalMs;
+    }
+
+    public int getFetchSchedulerThreads() {
+        return fetchSchedulerThreads;
+    }
+
+    public void setFetchSchedulerThreads(int fetchSchedulerThreads) {
+        this.fetchSchedulerThreads = fetchSchedulerThreads;
+    }
+
+    public long getMaxFetchMemoryBytes() {
+        return maxFetchMemoryBytes;
+    }
+
+    public void setMaxFetchMemoryBytes(long maxFetchMemoryBytes) {
+        this.maxFetchMemoryBytes = maxFetchMemoryBytes;
+    }
+
     public int getPulsarReceiveQueueSize() {
         return pulsarReceiveQueueSize;
     }
@@ -441,6 +479,13 @@ public class SortClientConfig implements Serializable {
                 sortSdkParams.get(ConfigConstants.UPDATE_META_DATA_INTERVAL_SEC),
                 updateMetaDataIntervalSec);
         this.ackTimeoutSec = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.ACK_TIMEOUT_SEC), ackTimeoutSec);
+        this.ackBatchSize = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.ACK_BATCH_SIZE), ackBatchSize);
+        this.ackBatchIntervalMs = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.ACK_BATCH_INTERVAL_MS),
+                ackBatchIntervalMs);
+        this.fetchSchedulerThreads = NumberUtils.toInt(sortSdkParams.get(ConfigConstants.FETCH_SCHEDULER_THREADS),
+                fetchSchedulerThreads);
+        this.maxFetchMemoryBytes = NumberUtils.toLong(sortSdkParams.get(ConfigConstants.MAX_FETCH_MEMORY_BYTES),
+                maxFetchMemoryBytes);
         this.cleanOldConsumerIntervalSec = NumberUtils.toInt(
                 sortSdkParams.get(ConfigConstants.CLEAN_OLD_CONSUMER_INTERVAL_SEC),
                 cleanOldConsumerIntervalSec);
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sdk.sort.entity;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class InLongMessage {
@@ -55,10 +56,25 @@ public class InLongMessage {
         return body;
     }
 
+    /**
+     * get the body as a read-only buffer, the body is not copied
+     *
+     * @return body buffer
+     */
+    public ByteBuffer getBodyBuffer() {
+        byte[] body = this.getBody();
+        return body == null ? null : ByteBuffer.wrap(body).asReadOnlyBuffer();
+    }
+
     public Map<String, String> getParams() {
         return params;
     }
 
+    public String getParam(String key) {
+        Map<String, String> params = this.getParams();
+        return params == null ? null : params.get(key);
+    }
+
     public String getInlongGroupId() {
         return inlongGroupId;
     }
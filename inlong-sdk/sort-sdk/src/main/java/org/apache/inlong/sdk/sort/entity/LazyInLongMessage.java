@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.entity;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * InLongMessage which wraps a slice of the decompressed pack.
+ * The body is copied only when {@link #getBody()} is called,
+ * and the params are parsed on first access and shared by the messages with identical params in the same pack,
+ * so they are read-only, a caller which changes them must copy them first.
+ */
+public class LazyInLongMessage extends InLongMessage {
+
+    private final ByteBuffer bodyBuffer;
+    private final LazyParams params;
+    private volatile byte[] body;
+
+    public LazyInLongMessage(String inlongGroupId, String inlongStreamId, long msgTime, String sourceIp,
+            ByteBuffer bodyBuffer, LazyParams params) {
+        super(inlongGroupId, inlongStreamId, msgTime, sourceIp, null, null);
+        this.bodyBuffer = bodyBuffer.asReadOnlyBuffer();
+        this.params = params;
+    }
+
+    @Override
+    public byte[] getBody() {
+        byte[] result = this.body;
+        if (result == null) {
+            result = new byte[bodyBuffer.remaining()];
+            bodyBuffer.duplicate().get(result);
+            this.body = result;
+        }
+        return result;
+    }
+
+    @Override
+    public ByteBuffer getBodyBuffer() {
+        return bodyBuffer.duplicate();
+    }
+
+    public int getBodyLength() {
+        return bodyBuffer.remaining();
+    }
+
+    @Override
+    public Map<String, String> getParams() {
+        return params.get();
+    }
+
+    /**
+     * Read-only params which are parsed on first access.
+     */
+    public static class LazyParams {
+
+        private final Supplier<Map<String, String>> parser;
+        private volatile Map<String, String> params;
+
+        public LazyParams(Supplier<Map<String, String>> parser) {
+            this.parser = parser;
+        }
+
+        public LazyParams(Map<String, String> params) {
+            this.parser = null;
+            this.params = Collections.unmodifiableMap(params);
+        }
+
+        public Map<String, String> get() {
+            Map<String, String> result = this.params;
+            if (result == null) {
+                synchronized (this) {
+                    result = this.params;
+                    if (result == null) {
+                        result = Collections.unmodifiableMap(parser.get());
+                        this.params = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        public boolean isParsed() {
+            return params != null;
+        }
+    }
+}
@@ -19,7 +19,6 @@ package org.apache.inlong.sdk.sort.fetcher.kafka;
 
 import org.apache.inlong.sdk.sort.api.Seeker;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
@@ -27,14 +26,10 @@ import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -46,7 +41,7 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
     private final String clusterId;
     private final Seeker seeker;
     private final ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap;
-    private final ConcurrentHashMap<TopicPartition, ConcurrentSkipListMap<Long, Boolean>> ackOffsetMap;
+    private final ConcurrentHashMap<TopicPartition, AckOffsetTracker> ackOffsetMap;
     private final KafkaConsumer<byte[], byte[]> consumer;
     private final AtomicLong revokedNum = new AtomicLong(0);
     private final AtomicLong assignedNum = new AtomicLong(0);
@@ -63,7 +58,7 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
             String clusterId,
             Seeker seeker,
             ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap,
-            ConcurrentHashMap<TopicPartition, ConcurrentSkipListMap<Long, Boolean>> ackOffsetMap,
+            ConcurrentHashMap<TopicPartition, AckOffsetTracker> ackOffsetMap,
             KafkaConsumer<byte[], byte[]> consumer) {
         this(clusterId, seeker, commitOffsetMap, ackOffsetMap, consumer, DEFAULT_MAX_WAIT_FOR_ACK_TIME);
     }
@@ -72,7 +67,7 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
             String clusterId,
             Seeker seeker,
             ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap,
-            ConcurrentHashMap<TopicPartition, ConcurrentSkipListMap<Long, Boolean>> ackOffsetMap,
+            ConcurrentHashMap<TopicPartition, AckOffsetTracker> ackOffsetMap,
             KafkaConsumer<byte[], byte[]> consumer,
             long maxWaitForAckTime) {
         this.clusterId = clusterId;
@@ -107,15 +102,14 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
 
     private boolean ackReady(Collection<TopicPartition> revoked) {
         for (TopicPartition tp : revoked) {
-            ConcurrentSkipListMap<Long, Boolean> tpMap = ackOffsetMap.get(tp);
-            if (Objects.isNull(tpMap)) {
+            AckOffsetTracker tracker = ackOffsetMap.get(tp);
+            if (Objects.isNull(tracker)) {
                 continue;
             }
-            for (Map.Entry<Long, Boolean> entry : tpMap.entrySet()) {
-                if (!entry.getValue()) {
-                    LOGGER.info("tp {}, offset {} has not been ack, wait", tp, entry.getKey());
-                    return false;
-                }
+            int pendingCount = tracker.getPendingCount();
+            if (pendingCount > 0) {
+                LOGGER.info("tp {}, {} offsets have not been ack, wait", tp, pendingCount);
+                return false;
             }
         }
         LOGGER.info("all revoked tp have been ack, re-balance right now.");
@@ -124,7 +118,7 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
 
     private void ackRemovedTopicPartitions(Collection<TopicPartition> revoked) {
         LOGGER.info("ack revoked topic partitions");
-        prepareCommit();
+        AckOffsetTracker.prepareCommit(ackOffsetMap, commitOffsetMap);
         consumer.commitSync(commitOffsetMap);
         // remove revoked topic partitions
         Set<TopicPartition> keySet = ackOffsetMap.keySet();
@@ -133,30 +127,6 @@ public class AckOffsetOnRebalance implements ConsumerRebalanceListener {
                 .forEach(ackOffsetMap::remove);
     }
 
-    private void prepareCommit() {
-        List<Long> removeOffsets = new ArrayList<>();
-        ackOffsetMap.forEach((topicPartition, tpOffsetMap) -> {
-            // get the remove list
-            long commitOffset = -1;
-            for (Long ackOffset : tpOffsetMap.keySet()) {
-                if (!tpOffsetMap.get(ackOffset)) {
-                    break;
-                }
-                removeOffsets.add(ackOffset);
-                commitOffset = ackOffset;
-            }
-            // the first haven't ack, do nothing
-            if (CollectionUtils.isEmpty(removeOffsets)) {
-                return;
-            }
-
-            // remove offset and commit offset
-            removeOffsets.forEach(tpOffsetMap::remove);
-            removeOffsets.clear();
-            commitOffsetMap.put(topicPartition, new OffsetAndMetadata(commitOffset));
-        });
-    }
-
     @Override
     public void onPartitionsAssigned(Collection<TopicPartition> collection) {
         LOGGER.info("*- in re-balance:onPartitionsAssigned, it is the {} time", assignedNum.incrementAndGet());
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.fetcher.kafka;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Ack tracker of one topic partition.
+ * The fetched but un-acked offsets are recorded in a bitset starting from the base offset,
+ * and the contiguous acked prefix is committed in batches instead of one by one.
+ * The offsets which are never fetched, such as the compacted ones, do not block the commit.
+ */
+public class AckOffsetTracker {
+
+    private BitSet pendingBits = new BitSet();
+    // offset of the first bit, all the offsets before it have been acked
+    private long baseOffset = -1L;
+    private long maxOffset = -1L;
+    private long commitOffset = -1L;
+    private int pendingCount = 0;
+
+    /**
+     * Record a fetched offset, the tracker is reset if the offset is before the base offset after a seek.
+     * The acks of the offsets pending at reset are ignored, those offsets are fetched again after the seek.
+     *
+     * @param  offset fetched offset
+     * @return        the count of pending offsets dropped by reset
+     */
+    public synchronized int fetch(long offset) {
+        int droppedCount = 0;
+        if (baseOffset < 0 || offset < baseOffset || offset - baseOffset > Integer.MAX_VALUE - 1) {
+            droppedCount = pendingCount;
+            this.pendingBits = new BitSet();
+            this.baseOffset = offset;
+            this.maxOffset = offset - 1;
+            this.commitOffset = offset - 1;
+            this.pendingCount = 0;
+        }
+        int index = (int) (offset - baseOffset);
+        if (!pendingBits.get(index)) {
+            pendingBits.set(index);
+            pendingCount++;
+        }
+        maxOffset = Math.max(maxOffset, offset);
+        return droppedCount;
+    }
+
+    /**
+     * Mark an offset as acked.
+     *
+     * @param  offset acked offset
+     * @return        false if the offset is not fetched or has been acked
+     */
+    public synchronized boolean ack(long offset) {
+        if (baseOffset < 0 || offset < baseOffset || offset > maxOffset) {
+            return false;
+        }
+        int index = (int) (offset - baseOffset);
+        if (!pendingBits.get(index)) {
+            return false;
+        }
+        pendingBits.clear(index);
+        pendingCount--;
+        return true;
+    }
+
+    /**
+     * Poll the last offset of the contiguous acked prefix, and drop the prefix from the bitset.
+     *
+     * @return the offset to commit, -1 if the prefix does not advance since last poll
+     */
+    public synchronized long pollCommitOffset() {
+        if (baseOffset < 0) {
+            return -1L;
+        }
+        int firstPending = pendingBits.nextSetBit(0);
+        long newCommitOffset = firstPending < 0 ? maxOffset : baseOffset + firstPending - 1;
+        if (newCommitOffset <= commitOffset) {
+            return -1L;
+        }
+        int shift = (int) (newCommitOffset + 1 - baseOffset);
+        this.pendingBits = pendingBits.get(shift, Math.max(shift, pendingBits.length()));
+        this.baseOffset += shift;
+        this.commitOffset = newCommitOffset;
+        return newCommitOffset;
+    }
+
+    /**
+     * get the count of the fetched but un-acked offsets
+     *
+     * @return pending count
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * get the distance between the max fetched offset and the committed offset
+     *
+     * @return ack lag
+     */
+    public synchronized long getAckLag() {
+        return baseOffset < 0 ? 0L : maxOffset - commitOffset;
+    }
+
+    /**
+     * Poll the commit offsets of all the trackers into the commit offset map.
+     *
+     * @param ackOffsetMap    trackers of topic partitions
+     * @param commitOffsetMap offsets to commit
+     */
+    public static void prepareCommit(Map<TopicPartition, AckOffsetTracker> ackOffsetMap,
+            Map<TopicPartition, OffsetAndMetadata> commitOffsetMap) {
+        ackOffsetMap.forEach((topicPartition, tracker) -> {
+            long commitOffset = tracker.pollCommitOffset();
+            if (commitOffset >= 0) {
+                commitOffsetMap.put(topicPartition, new OffsetAndMetadata(commitOffset));
+            }
+        });
+    }
+}
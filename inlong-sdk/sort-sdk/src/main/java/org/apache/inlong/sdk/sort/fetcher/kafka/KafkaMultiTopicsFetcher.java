@@ -52,7 +52,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -63,10 +62,13 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PulsarMultiTopicsFetcher.class);
     private final ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap;
-    private final ConcurrentHashMap<TopicPartition, ConcurrentSkipListMap<Long, Boolean>> ackOffsetMap;
+    private final ConcurrentHashMap<TopicPartition, AckOffsetTracker> ackOffsetMap;
     private final String bootstrapServers;
     private ConsumerRebalanceListener listener;
     private KafkaConsumer<byte[], byte[]> consumer;
+    private long lastCommitTime = 0L;
+    // whether the partitions are paused because the fetch memory budget is exhausted
+    private boolean memoryPaused = false;
 
     public KafkaMultiTopicsFetcher(
             List<InLongTopic> topics,
@@ -137,30 +139,27 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
 
     @Override
     public void ack(String msgOffset) throws Exception {
-        LOGGER.info("ack {}", msgOffset);
+        LOGGER.debug("ack {}", msgOffset);
         // the format of multi topic kafka fetcher msg offset is topic:partitionId:offset, such as topic1:20:1746839
-        String[] offset = msgOffset.split(":");
-        if (offset.length != 3) {
+        int offsetIndex = msgOffset.lastIndexOf(':');
+        int partitionIndex = offsetIndex > 0 ? msgOffset.lastIndexOf(':', offsetIndex - 1) : -1;
+        if (partitionIndex <= 0) {
             throw new Exception("offset is illegal, the correct format is topic:partitionId:offset, "
                     + "the error offset is:" + msgOffset);
         }
 
         // parse topic partition offset
-        TopicPartition topicPartition = new TopicPartition(offset[0], Integer.parseInt(offset[1]));
-        long ackOffset = Long.parseLong(offset[2]);
+        TopicPartition topicPartition = new TopicPartition(msgOffset.substring(0, partitionIndex),
+                Integer.parseInt(msgOffset.substring(partitionIndex + 1, offsetIndex)));
+        long ackOffset = Long.parseLong(msgOffset.substring(offsetIndex + 1));
+        context.releaseFetchMemory(onlineTopics.get(topicPartition.topic()), msgOffset);
 
-        // ack
-        if (!ackOffsetMap.containsKey(topicPartition) || !ackOffsetMap.get(topicPartition).containsKey(ackOffset)) {
+        // mark this offset has been ack, the contiguous acked offsets are committed by the fetch thread in batch
+        AckOffsetTracker tracker = ackOffsetMap.get(topicPartition);
+        // to prevent race condition in AckOffsetOnRebalance::onPartitionsRevoked
+        if (Objects.isNull(tracker) || !tracker.ack(ackOffset)) {
             LOGGER.warn("did not find offsetMap to ack offset of {}, offset {}, just ignore it",
                     topicPartition, ackOffset);
-            return;
-        }
-
-        // mark this offset has been ack.
-        ConcurrentSkipListMap<Long, Boolean> tpOffsetMap = ackOffsetMap.get(topicPartition);
-        // to prevent race condition in AckOffsetOnRebalance::onPartitionsRevoked
-        if (Objects.nonNull(tpOffsetMap)) {
-            tpOffsetMap.put(ackOffset, true);
         }
     }
 
@@ -182,12 +181,13 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                 fetchThread.interrupt();
             }
             if (consumer != null) {
-                prepareCommit();
+                AckOffsetTracker.prepareCommit(ackOffsetMap, commitOffsetMap);
                 consumer.commitSync(commitOffsetMap);
                 consumer.close();
             }
             ackOffsetMap.clear();
             commitOffsetMap.clear();
+            onlineTopics.values().forEach(context::releaseAllFetchMemory);
         } catch (Throwable t) {
             LOGGER.warn("got exception in multi topic fetcher close: ", t);
         }
@@ -226,30 +226,6 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
         return false;
     }
 
-    private void prepareCommit() {
-        List<Long> removeOffsets = new ArrayList<>();
-        ackOffsetMap.forEach((topicPartition, tpOffsetMap) -> {
-            // get the remove list
-            long commitOffset = -1;
-            for (Long ackOffset : tpOffsetMap.keySet()) {
-                if (!tpOffsetMap.get(ackOffset)) {
-                    break;
-                }
-                removeOffsets.add(ackOffset);
-                commitOffset = ackOffset;
-            }
-            // the first haven't ack, do nothing
-            if (CollectionUtils.isEmpty(removeOffsets)) {
-                return;
-            }
-
-            // remove offset and commit offset
-            removeOffsets.forEach(tpOffsetMap::remove);
-            removeOffsets.clear();
-            commitOffsetMap.put(topicPartition, new OffsetAndMetadata(commitOffset));
-        });
-    }
-
     public class Fetcher implements Runnable {
 
         private boolean subscribeNew() {
@@ -272,11 +248,22 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
             }
         }
 
+        /**
+         * commit the contiguous acked offsets of all partitions at the interval of ackBatchIntervalMs
+         */
         private void commitKafkaOffset() {
-            prepareCommit();
-            if (consumer != null) {
+            long current = System.currentTimeMillis();
+            if (current - lastCommitTime < context.getConfig().getAckBatchIntervalMs()) {
+                return;
+            }
+            lastCommitTime = current;
+            AckOffsetTracker.prepareCommit(ackOffsetMap, commitOffsetMap);
+            ackOffsetMap.forEach((topicPartition, tracker) -> context.setAckGauge(
+                    onlineTopics.get(topicPartition.topic()), topicPartition.partition(),
+                    tracker.getAckLag(), tracker.getPendingCount()));
+            if (consumer != null && !commitOffsetMap.isEmpty()) {
                 try {
-                    LOGGER.info("commit {}", commitOffsetMap);
+                    LOGGER.debug("commit {}", commitOffsetMap);
                     consumer.commitSync(commitOffsetMap);
                     commitOffsetMap.clear();
                 } catch (Exception e) {
@@ -304,9 +291,13 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
             }
         }
 
-        private String getOffset(String topic, int partitionId, long offset) {
-            TopicPartition topicPartition = new TopicPartition(topic, partitionId);
-            ackOffsetMap.computeIfAbsent(topicPartition, k -> new ConcurrentSkipListMap<>()).put(offset, false);
+        private String getOffset(AckOffsetTracker tracker, String topic, int partitionId, long offset) {
+            int droppedCount = tracker.fetch(offset);
+            if (droppedCount > 0) {
+                LOGGER.warn("ack tracker of {}:{} is reset at offset {}, drop {} pending acks",
+                        topic, partitionId, offset, droppedCount);
+                context.addAckReset(onlineTopics.get(topic), partitionId, droppedCount);
+            }
             return topic + ":" + partitionId + ":" + offset;
         }
 
@@ -339,6 +330,8 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                     subscribeNew();
                     // commit
                     commitKafkaOffset();
+                    // pause the partitions instead of skipping the poll, so that the consumer stays in the group
+                    pauseByFetchMemory();
                     // fetch from kafka
                     fetchFromKafka();
                 } catch (Exception e) {
@@ -352,6 +345,16 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
             }
         }
 
+        private void pauseByFetchMemory() {
+            if (context.isFetchMemoryExhausted(null)) {
+                consumer.pause(consumer.assignment());
+                memoryPaused = true;
+            } else if (memoryPaused) {
+                consumer.resume(consumer.assignment());
+                memoryPaused = false;
+            }
+        }
+
         private void fetchFromKafka() throws Exception {
             context.addConsumeTime(null, -1);
 
@@ -365,7 +368,9 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                     List<MessageRecord> msgs = new ArrayList<>();
                     String topicName = msg.topic();
                     InLongTopic topic = onlineTopics.get(topicName);
-                    String offsetKey = getOffset(topicName, msg.partition(), msg.offset());
+                    AckOffsetTracker tracker = ackOffsetMap.computeIfAbsent(
+                            new TopicPartition(topicName, msg.partition()), k -> new AckOffsetTracker());
+                    String offsetKey = getOffset(tracker, topicName, msg.partition(), msg.offset());
                     List<InLongMessage> inLongMessages = deserializer
                             .deserialize(context, topic, getMsgHeaders(msg.headers()), msg.value());
                     context.addConsumeSuccess(topic, msg.partition(), inLongMessages.size(), msg.value().length,
@@ -381,6 +386,7 @@ public class KafkaMultiTopicsFetcher extends MultiTopicsFetcher {
                     msgs.add(new MessageRecord(fetchKey,
                             inLongMessages,
                             offsetKey, System.currentTimeMillis()));
+                    context.acquireFetchMemory(topic, offsetKey, msg.value().length);
                     handleAndCallbackMsg(msgs, topic, msg.partition());
                 }
                 sleepTime = 0L;
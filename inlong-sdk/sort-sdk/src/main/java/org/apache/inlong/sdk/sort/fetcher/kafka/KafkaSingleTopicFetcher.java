@@ -60,6 +60,7 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
     private final ConcurrentHashMap<TopicPartition, OffsetAndMetadata> commitOffsetMap = new ConcurrentHashMap<>();
     private String bootstrapServers;
     private KafkaConsumer<byte[], byte[]> consumer;
+    private final Fetcher fetcher = new Fetcher();
 
     public KafkaSingleTopicFetcher(
             InLongTopic inLongTopic,
@@ -85,9 +86,13 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
                 LOGGER.info("consumer is null");
                 return false;
             }
+            if (this.startScheduledFetch()) {
+                LOGGER.info("start to fetch {} in fetch scheduler", topic.getTopic());
+                return true;
+            }
             String threadName = String.format("sort_sdk_kafka_single_topic_fetch_thread_%s_%s_%d",
                     this.topic.getInLongCluster().getClusterId(), topic.getTopic(), this.hashCode());
-            this.fetchThread = new Thread(new KafkaSingleTopicFetcher.Fetcher(), threadName);
+            this.fetchThread = new Thread(fetcher, threadName);
             fetchThread.start();
             LOGGER.info("start to start thread:{}", threadName);
         } catch (Exception e) {
@@ -101,6 +106,7 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
     public void ack(String msgOffset) throws Exception {
         // the format of kafka msg offset is partitionId:offset, such as 20:1746839
         String[] offset = msgOffset.split(":");
+        context.releaseFetchMemory(topic, msgOffset);
         if (offset.length == 2) {
             TopicPartition topicPartition = new TopicPartition(topic.getTopic(), Integer.parseInt(offset[0]));
             OffsetAndMetadata offsetAndMetadata = new OffsetAndMetadata(Long.parseLong(offset[1]));
@@ -110,6 +116,29 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
         }
     }
 
+    /**
+     * fetch once in the fetch scheduler, the poll does not wait for the data
+     *
+     * @return the delay of next fetch
+     */
+    @Override
+    protected long fetchOnce() {
+        if (!context.tryAcquireRequestPermit()) {
+            return STOP_CONSUME_SLEEP_MS;
+        }
+        try {
+            fetcher.fetchFromKafka(Duration.ZERO);
+            fetcher.commitKafkaOffset();
+        } catch (Exception e) {
+            context.addConsumeError(topic, -1, -1);
+            LOGGER.error(e.getMessage(), e);
+            this.onFetchError();
+        } finally {
+            context.releaseRequestPermit();
+        }
+        return sleepTime;
+    }
+
     @Override
     public void pause() {
         this.stopConsume = true;
@@ -133,6 +162,7 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
         } catch (Throwable t) {
             LOGGER.warn(t.getMessage(), t);
         }
+        context.releaseAllFetchMemory(topic);
         LOGGER.info("closed {}", topic);
         return true;
     }
@@ -242,7 +272,7 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
             while (true) {
                 hasPermit = false;
                 try {
-                    if (context.getConfig().isStopConsume() || stopConsume) {
+                    if (isFetchPaused()) {
                         TimeUnit.MILLISECONDS.sleep(50);
                         continue;
                     }
@@ -254,12 +284,13 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
                     context.acquireRequestPermit();
                     hasPermit = true;
                     // fetch from kafka
-                    fetchFromKafka();
+                    fetchFromKafka(Duration.ofMillis(context.getConfig().getKafkaFetchWaitMs()));
                     // commit
                     commitKafkaOffset();
                 } catch (Exception e) {
                     context.addConsumeError(topic, -1, -1);
                     LOGGER.error(e.getMessage(), e);
+                    onFetchError();
                 } finally {
                     if (hasPermit) {
                         context.releaseRequestPermit();
@@ -268,12 +299,11 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
             }
         }
 
-        private void fetchFromKafka() throws Exception {
+        private void fetchFromKafka(Duration pollTimeout) throws Exception {
             context.addConsumeTime(topic, -1);
 
             long startFetchTime = System.currentTimeMillis();
-            ConsumerRecords<byte[], byte[]> records = consumer
-                    .poll(Duration.ofMillis(context.getConfig().getKafkaFetchWaitMs()));
+            ConsumerRecords<byte[], byte[]> records = consumer.poll(pollTimeout);
             long fetchTimeCost = System.currentTimeMillis() - startFetchTime;
             if (null != records && !records.isEmpty()) {
 
@@ -296,17 +326,13 @@ public class KafkaSingleTopicFetcher extends SingleTopicFetcher {
                     msgs.add(new MessageRecord(topic.getTopicKey(),
                             inLongMessages,
                             offsetKey, System.currentTimeMillis()));
+                    context.acquireFetchMemory(topic, offsetKey, msg.value().length);
                     handleAndCallbackMsg(msgs, msg.partition());
                 }
                 sleepTime = 0L;
             } else {
                 context.addConsumeEmpty(topic, -1, fetchTimeCost);
-                emptyFetchTimes++;
-                if (emptyFetchTimes >= context.getConfig().getEmptyPollTimes()) {
-                    sleepTime = Math.min((sleepTime += context.getConfig().getEmptyPollSleepStepMs()),
-                            context.getConfig().getMaxEmptyPollSleepMs());
-                    emptyFetchTimes = 0;
-                }
+                onEmptyFetch();
             }
         }
     }
@@ -25,8 +25,13 @@ import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Messages;
 import org.apache.pulsar.client.api.PulsarClientException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Wrapper of pulsar consumer.
@@ -34,6 +39,8 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PulsarConsumer {
 
     private final ConcurrentHashMap<String, Tuple2<InLongTopic, MessageId>> offsetCache = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> pendingAcks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingAckCount = new AtomicInteger(0);
     private final Consumer<byte[]> consumer;
     private long stopTime = -1;
 
@@ -62,6 +69,56 @@ public class PulsarConsumer {
         return this.consumer.acknowledgeAsync(messageId);
     }
 
+    public CompletableFuture<Void> acknowledgeAsync(List<MessageId> messageIds) {
+        return this.consumer.acknowledgeAsync(messageIds);
+    }
+
+    /**
+     * add an offset to the pending ack queue, which will be acked in batch
+     *
+     * @param  offsetKey offset of message
+     * @return           the count of pending acks
+     */
+    public int addPendingAck(String offsetKey) {
+        pendingAcks.offer(offsetKey);
+        return pendingAckCount.incrementAndGet();
+    }
+
+    /**
+     * poll pending acks
+     *
+     * @param  maxCount max count of acks to poll
+     * @return          offsets to ack
+     */
+    public List<String> pollPendingAcks(int maxCount) {
+        List<String> offsetKeys = new ArrayList<>(Math.min(maxCount, pendingAckCount.get()));
+        String offsetKey;
+        while (offsetKeys.size() < maxCount && (offsetKey = pendingAcks.poll()) != null) {
+            pendingAckCount.decrementAndGet();
+            offsetKeys.add(offsetKey);
+        }
+        return offsetKeys;
+    }
+
+    public int getPendingAckCount() {
+        return pendingAckCount.get();
+    }
+
+    /**
+     * count the un-acked messages and the pending acks of every topic
+     *
+     * @param ackCounts the first count is un-acked messages, the second one is pending acks
+     */
+    public void countAcks(Map<InLongTopic, long[]> ackCounts) {
+        offsetCache.values().forEach(tuple -> ackCounts.computeIfAbsent(tuple.getF0(), k -> new long[2])[0]++);
+        pendingAcks.forEach(offsetKey -> {
+            InLongTopic topic = this.getTopic(offsetKey);
+            if (topic != null) {
+                ackCounts.computeIfAbsent(topic, k -> new long[2])[1]++;
+            }
+        });
+    }
+
     public long getStopTime() {
         return stopTime;
     }
@@ -46,9 +46,12 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -58,6 +61,8 @@ import java.util.stream.Collectors;
 public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PulsarMultiTopicsFetcher.class);
+    // max time to wait for the pending acks when the fetcher is closed
+    private static final long CLOSE_ACK_TIMEOUT_MS = 3000L;
     private PulsarConsumer currentConsumer;
     private List<PulsarConsumer> toBeRemovedConsumers = new LinkedList<>();
     private PulsarClient pulsarClient;
@@ -91,6 +96,11 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
                 context.getConfig().getCleanOldConsumerIntervalSec(),
                 context.getConfig().getCleanOldConsumerIntervalSec(),
                 TimeUnit.SECONDS);
+        this.executor.scheduleWithFixedDelay(this::flushAllAcks,
+                context.getConfig().getAckBatchIntervalMs(),
+                context.getConfig().getAckBatchIntervalMs(),
+                TimeUnit.MILLISECONDS);
+        this.executor.scheduleWithFixedDelay(this::reportAckGauge, 1, 1, TimeUnit.SECONDS);
         return true;
     }
 
@@ -191,9 +201,10 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
             return;
         }
         // if this ack belongs to current consumer
-        MessageId messageId = currentConsumer.getMessageId(msgOffset);
+        PulsarConsumer consumer = this.currentConsumer;
+        MessageId messageId = consumer.getMessageId(msgOffset);
         if (!Objects.isNull(messageId)) {
-            doAck(msgOffset, this.currentConsumer, messageId);
+            addPendingAck(msgOffset, consumer);
             return;
         }
 
@@ -203,33 +214,99 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
             if (Objects.isNull(id)) {
                 continue;
             }
-            doAck(msgOffset, oldConsumer, id);
-            LOGGER.info("ack an old consumer message");
+            addPendingAck(msgOffset, oldConsumer);
+            LOGGER.debug("ack an old consumer message");
             return;
         }
         context.addAckFail(null, -1);
         LOGGER.error("in pulsar multi topic fetcher, messageId == null");
     }
 
-    private void doAck(String msgOffset, PulsarConsumer consumer, MessageId messageId) {
-        if (!consumer.isConnected()) {
-            return;
+    /**
+     * Shared subscription does not support cumulative ack,
+     * so the acks are queued and sent in batch when the batch is full or at the interval of ackBatchIntervalMs.
+     */
+    private void addPendingAck(String msgOffset, PulsarConsumer consumer) {
+        context.releaseFetchMemory(consumer.getTopic(msgOffset), msgOffset);
+        if (consumer.addPendingAck(msgOffset) >= context.getConfig().getAckBatchSize()) {
+            flushAcks(consumer);
+        }
+    }
+
+    private void flushAllAcks() {
+        try {
+            if (Objects.nonNull(currentConsumer)) {
+                flushAcks(currentConsumer);
+            }
+            toBeRemovedConsumers.forEach(this::flushAcks);
+        } catch (Throwable t) {
+            LOGGER.warn("got exception in flush acks: ", t);
+        }
+    }
+
+    /**
+     * Send the pending acks in batches, the acks are kept in the queue while the consumer is disconnected,
+     * and the failed acks are put back to be sent by the next flush.
+     *
+     * @return the future completed when all the batches are done
+     */
+    private CompletableFuture<Void> flushAcks(PulsarConsumer consumer) {
+        int batchSize = Math.max(1, context.getConfig().getAckBatchSize());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        while (consumer.getPendingAckCount() > 0 && consumer.isConnected()) {
+            List<String> offsetKeys = consumer.pollPendingAcks(batchSize);
+            if (offsetKeys.isEmpty()) {
+                break;
+            }
+            List<String> ackKeys = new ArrayList<>(offsetKeys.size());
+            List<MessageId> messageIds = new ArrayList<>(offsetKeys.size());
+            for (String offsetKey : offsetKeys) {
+                MessageId messageId = consumer.getMessageId(offsetKey);
+                if (messageId == null) {
+                    // the offset has been acked, or the consumer is closed and the message will be redelivered
+                    LOGGER.warn("ack failed, messageId of offset {} is not found", offsetKey);
+                    context.addAckFail(null, -1);
+                    continue;
+                }
+                ackKeys.add(offsetKey);
+                messageIds.add(messageId);
+            }
+            if (messageIds.isEmpty()) {
+                continue;
+            }
+            futures.add(consumer.acknowledgeAsync(messageIds)
+                    .thenAccept(ctx -> ackKeys.forEach(offsetKey -> ackSucc(offsetKey, consumer)))
+                    .exceptionally(exception -> {
+                        LOGGER.error("ack failed for " + ackKeys.size() + " offsets, error: ", exception);
+                        ackKeys.forEach(offsetKey -> {
+                            context.addAckFail(consumer.getTopic(offsetKey), -1);
+                            consumer.addPendingAck(offsetKey);
+                        });
+                        return null;
+                    }));
         }
-        InLongTopic topic = consumer.getTopic(msgOffset);
-        consumer.acknowledgeAsync(messageId)
-                .thenAccept(ctx -> ackSucc(msgOffset, topic, this.currentConsumer))
-                .exceptionally(exception -> {
-                    LOGGER.error("topic " + topic + " ack failed for offset " + msgOffset + ", error: ", exception);
-                    context.addAckFail(topic, -1);
-                    return null;
-                });
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
-    private void ackSucc(String offset, InLongTopic topic, PulsarConsumer consumer) {
+    private void ackSucc(String offset, PulsarConsumer consumer) {
+        InLongTopic topic = consumer.getTopic(offset);
         consumer.remove(offset);
         context.addAckSuccess(topic, -1);
     }
 
+    private void reportAckGauge() {
+        try {
+            Map<InLongTopic, long[]> ackCounts = new HashMap<>();
+            if (Objects.nonNull(currentConsumer)) {
+                currentConsumer.countAcks(ackCounts);
+            }
+            toBeRemovedConsumers.forEach(consumer -> consumer.countAcks(ackCounts));
+            ackCounts.forEach((topic, counts) -> context.setAckGauge(topic, -1, counts[0], counts[1]));
+        } catch (Throwable t) {
+            LOGGER.warn("got exception in report ack gauge: ", t);
+        }
+    }
+
     @Override
     public void pause() {
         if (Objects.nonNull(currentConsumer)) {
@@ -251,6 +328,7 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
             this.setStopConsume(true);
             toBeRemovedConsumers.add(currentConsumer);
             LOGGER.info("closed online topics {}", onlineTopics);
+            onlineTopics.values().forEach(context::releaseAllFetchMemory);
             try {
                 if (fetchThread != null) {
                     fetchThread.interrupt();
@@ -261,6 +339,11 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
             toBeRemovedConsumers.stream()
                     .filter(Objects::nonNull)
                     .forEach(c -> {
+                        try {
+                            flushAcks(c).get(CLOSE_ACK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                        } catch (Throwable t) {
+                            LOGGER.warn("got exception in flush acks before close pulsar consumer: ", t);
+                        }
                         try {
                             c.close();
                         } catch (PulsarClientException e) {
@@ -369,6 +452,7 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
                 msgs.add(new MessageRecord(fetchKey,
                         inLongMessages,
                         offsetKey, System.currentTimeMillis()));
+                context.acquireFetchMemory(topic, offsetKey, msg.getData().length);
                 handleAndCallbackMsg(msgs, topic);
             }
         }
@@ -380,7 +464,8 @@ public class PulsarMultiTopicsFetcher extends MultiTopicsFetcher {
                 hasPermit = false;
                 long fetchTimeCost = -1;
                 try {
-                    if (context.getConfig().isStopConsume() || stopConsume) {
+                    if (context.getConfig().isStopConsume() || stopConsume
+                            || context.isFetchMemoryExhausted(null)) {
                         TimeUnit.MILLISECONDS.sleep(50);
                         continue;
                     }
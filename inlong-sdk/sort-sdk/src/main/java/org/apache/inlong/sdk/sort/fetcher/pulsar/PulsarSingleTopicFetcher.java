@@ -58,6 +58,7 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
     private final ConcurrentHashMap<String, MessageId> offsetCache = new ConcurrentHashMap<>();
     private Consumer<byte[]> consumer;
     private PulsarClient pulsarClient;
+    private final Fetcher fetcher = new Fetcher();
 
     public PulsarSingleTopicFetcher(
             InLongTopic inLongTopic,
@@ -97,6 +98,7 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
     @Override
     public void ack(String msgOffset) throws Exception {
         if (!StringUtils.isEmpty(msgOffset)) {
+            context.releaseFetchMemory(topic, msgOffset);
             try {
                 if (consumer == null) {
                     context.addAckFail(topic, -1);
@@ -160,9 +162,12 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                     .subscribe();
 
             this.seeker = SeekerFactory.createPulsarSeeker(consumer, topic);
+            if (this.startScheduledFetch()) {
+                return true;
+            }
             String threadName = String.format("sort_sdk_pulsar_single_topic_fetch_thread_%s_%s_%d",
                     this.topic.getInLongCluster().getClusterId(), topic.getTopic(), this.hashCode());
-            this.fetchThread = new Thread(new PulsarSingleTopicFetcher.Fetcher(), threadName);
+            this.fetchThread = new Thread(fetcher, threadName);
             this.fetchThread.setDaemon(true);
             this.fetchThread.start();
         } catch (Exception e) {
@@ -212,6 +217,7 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
             return true;
         } finally {
             this.closed = true;
+            context.releaseAllFetchMemory(topic);
             mainLock.writeLock().unlock();
         }
     }
@@ -221,6 +227,48 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
         return closed;
     }
 
+    /**
+     * receive a batch asynchronously, the received batch is processed in the fetch scheduler
+     * and then the next fetch is scheduled, so no thread is blocked while waiting for data.
+     *
+     * @return -1, the next fetch is scheduled after the batch is processed
+     */
+    @Override
+    protected long fetchOnce() {
+        long startFetchTime = System.currentTimeMillis();
+        consumer.batchReceiveAsync().whenComplete((messages, exception) -> {
+            long arrivalTime = System.currentTimeMillis();
+            fetchScheduler.execute(
+                    () -> this.processReceived(messages, exception, arrivalTime - startFetchTime, arrivalTime));
+        });
+        return -1L;
+    }
+
+    /**
+     * process the received batch in the fetch scheduler, the batch waits in the scheduler
+     * instead of blocking the scheduler thread if there is no request permit
+     *
+     * @param messages      received messages
+     * @param exception     exception of receiving
+     * @param fetchTimeCost time cost of receiving
+     * @param dueTime       the time when the batch is ready to process
+     */
+    private void processReceived(Messages<byte[]> messages, Throwable exception, long fetchTimeCost, long dueTime) {
+        if (!context.tryAcquireRequestPermit()) {
+            long retryTime = System.currentTimeMillis() + STOP_CONSUME_SLEEP_MS;
+            fetchScheduler.schedule(() -> this.processReceived(messages, exception, fetchTimeCost, retryTime),
+                    STOP_CONSUME_SLEEP_MS);
+            return;
+        }
+        try {
+            context.addFetchLatency(topic, -1, System.currentTimeMillis() - dueTime);
+            fetcher.process(messages, exception, fetchTimeCost);
+        } finally {
+            context.releaseRequestPermit();
+        }
+        this.scheduleNextFetch(sleepTime);
+    }
+
     public class Fetcher implements Runnable {
 
         /**
@@ -248,77 +296,30 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
 
         @Override
         public void run() {
-            boolean hasPermit;
             while (true) {
                 try {
-                    hasPermit = false;
-                    long fetchTimeCost = -1;
-                    try {
-                        if (context.getConfig().isStopConsume() || stopConsume) {
-                            TimeUnit.MILLISECONDS.sleep(50);
-                            continue;
-                        }
-
-                        if (sleepTime > 0) {
-                            TimeUnit.MILLISECONDS.sleep(sleepTime);
-                        }
+                    if (isFetchPaused()) {
+                        TimeUnit.MILLISECONDS.sleep(STOP_CONSUME_SLEEP_MS);
+                        continue;
+                    }
 
-                        context.acquireRequestPermit();
-                        hasPermit = true;
-                        context.addConsumeTime(topic, -1);
+                    if (sleepTime > 0) {
+                        TimeUnit.MILLISECONDS.sleep(sleepTime);
+                    }
 
+                    context.acquireRequestPermit();
+                    try {
                         long startFetchTime = System.currentTimeMillis();
-                        Messages<byte[]> messages = consumer.batchReceive();
-                        fetchTimeCost = System.currentTimeMillis() - startFetchTime;
-                        if (null != messages && messages.size() != 0) {
-                            for (Message<byte[]> msg : messages) {
-                                // if need seek
-                                if (msg.getPublishTime() < seeker.getSeekTime()) {
-                                    seeker.seek();
-                                    break;
-                                }
-
-                                String offsetKey = getOffset(msg.getMessageId());
-                                offsetCache.put(offsetKey, msg.getMessageId());
-
-                                // deserialize
-                                List<InLongMessage> inLongMessages = deserializer
-                                        .deserialize(context, topic, msg.getProperties(), msg.getData());
-                                context.addConsumeSuccess(topic, -1, inLongMessages.size(), msg.getData().length,
-                                        fetchTimeCost);
-                                int originSize = inLongMessages.size();
-                                // intercept
-                                inLongMessages = interceptor.intercept(inLongMessages);
-                                if (inLongMessages.isEmpty()) {
-                                    ack(offsetKey);
-                                    continue;
-                                }
-                                int filterSize = originSize - inLongMessages.size();
-                                context.addConsumeFilter(topic, -1, filterSize);
-
-                                List<MessageRecord> msgs = new ArrayList<>();
-                                msgs.add(new MessageRecord(topic.getTopicKey(),
-                                        inLongMessages,
-                                        offsetKey, System.currentTimeMillis()));
-                                handleAndCallbackMsg(msgs);
-                            }
-                            sleepTime = 0L;
-                        } else {
-                            context.addConsumeEmpty(topic, -1, fetchTimeCost);
-                            emptyFetchTimes++;
-                            if (emptyFetchTimes >= context.getConfig().getEmptyPollTimes()) {
-                                sleepTime = Math.min((sleepTime += context.getConfig().getEmptyPollSleepStepMs()),
-                                        context.getConfig().getMaxEmptyPollSleepMs());
-                                emptyFetchTimes = 0;
-                            }
+                        Messages<byte[]> messages = null;
+                        Throwable exception = null;
+                        try {
+                            messages = consumer.batchReceive();
+                        } catch (Exception e) {
+                            exception = e;
                         }
-                    } catch (Exception e) {
-                        context.addConsumeError(topic, -1, fetchTimeCost);
-                        LOGGER.error("failed to fetch msg", e);
+                        this.process(messages, exception, System.currentTimeMillis() - startFetchTime);
                     } finally {
-                        if (hasPermit) {
-                            context.releaseRequestPermit();
-                        }
+                        context.releaseRequestPermit();
                     }
 
                     if (closed) {
@@ -329,5 +330,64 @@ public class PulsarSingleTopicFetcher extends SingleTopicFetcher {
                 }
             }
         }
+
+        /**
+         * process the received batch, the caller holds the request permit
+         *
+         * @param messages      received messages
+         * @param exception     exception of receiving
+         * @param fetchTimeCost time cost of receiving
+         */
+        private void process(Messages<byte[]> messages, Throwable exception, long fetchTimeCost) {
+            try {
+                if (exception != null) {
+                    throw exception;
+                }
+                context.addConsumeTime(topic, -1);
+
+                if (null != messages && messages.size() != 0) {
+                    for (Message<byte[]> msg : messages) {
+                        // if need seek
+                        if (msg.getPublishTime() < seeker.getSeekTime()) {
+                            seeker.seek();
+                            break;
+                        }
+
+                        String offsetKey = getOffset(msg.getMessageId());
+                        offsetCache.put(offsetKey, msg.getMessageId());
+
+                        // deserialize
+                        List<InLongMessage> inLongMessages = deserializer
+                                .deserialize(context, topic, msg.getProperties(), msg.getData());
+                        context.addConsumeSuccess(topic, -1, inLongMessages.size(), msg.getData().length,
+                                fetchTimeCost);
+                        int originSize = inLongMessages.size();
+                        // intercept
+                        inLongMessages = interceptor.intercept(inLongMessages);
+                        if (inLongMessages.isEmpty()) {
+                            ack(offsetKey);
+                            continue;
+                        }
+                        int filterSize = originSize - inLongMessages.size();
+                        context.addConsumeFilter(topic, -1, filterSize);
+
+                        List<MessageRecord> msgs = new ArrayList<>();
+                        msgs.add(new MessageRecord(topic.getTopicKey(),
+                                inLongMessages,
+                                offsetKey, System.currentTimeMillis()));
+                        context.acquireFetchMemory(topic, offsetKey, msg.getData().length);
+                        handleAndCallbackMsg(msgs);
+                    }
+                    sleepTime = 0L;
+                } else {
+                    context.addConsumeEmpty(topic, -1, fetchTimeCost);
+                    onEmptyFetch();
+                }
+            } catch (Throwable e) {
+                context.addConsumeError(topic, -1, fetchTimeCost);
+                LOGGER.error("failed to fetch msg", e);
+                onFetchError();
+            }
+        }
     }
 }
@@ -55,6 +55,7 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
     private PullMessageConsumer messageConsumer;
     private volatile Thread fetchThread;
     private TubeConsumerCreator tubeConsumerCreator;
+    private final Fetcher fetcher = new Fetcher();
 
     public TubeSingleTopicFetcher(
             InLongTopic inLongTopic,
@@ -85,9 +86,12 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                 messageConsumer.subscribe(topic.getTopic(), filters);
                 messageConsumer.completeSubscribe();
 
+                if (this.startScheduledFetch()) {
+                    return true;
+                }
                 String threadName = String.format("sort_sdk_tube_single_topic_fetch_thread_%s_%s_%d",
                         this.topic.getInLongCluster().getClusterId(), topic.getTopic(), this.hashCode());
-                this.fetchThread = new Thread(new TubeSingleTopicFetcher.Fetcher(), threadName);
+                this.fetchThread = new Thread(fetcher, threadName);
                 this.fetchThread.start();
             } else {
                 return false;
@@ -108,6 +112,7 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                 return;
             }
 
+            context.releaseFetchMemory(topic, msgOffset);
             try {
                 ConsumerResult consumerResult = messageConsumer.confirmConsume(msgOffset, true);
                 int errCode = consumerResult.getErrCode();
@@ -124,6 +129,24 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
         }
     }
 
+    /**
+     * fetch once in the fetch scheduler, getMessage of pull consumer returns at once if there is no data
+     *
+     * @return the delay of next fetch
+     */
+    @Override
+    protected long fetchOnce() {
+        if (!context.tryAcquireRequestPermit()) {
+            return STOP_CONSUME_SLEEP_MS;
+        }
+        try {
+            fetcher.fetch();
+        } finally {
+            context.releaseRequestPermit();
+        }
+        return sleepTime;
+    }
+
     @Override
     public void pause() {
         this.closed = true;
@@ -148,6 +171,7 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
         } finally {
             this.closed = true;
         }
+        context.releaseAllFetchMemory(topic);
         LOG.info("closed {}", topic);
         return true;
     }
@@ -223,13 +247,10 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
 
         @Override
         public void run() {
-            boolean hasPermit;
             while (true) {
-                hasPermit = false;
-                long fetchTimeCost = -1;
                 try {
-                    if (context.getConfig().isStopConsume() || stopConsume) {
-                        TimeUnit.MILLISECONDS.sleep(50L);
+                    if (isFetchPaused()) {
+                        TimeUnit.MILLISECONDS.sleep(STOP_CONSUME_SLEEP_MS);
                         continue;
                     }
 
@@ -238,49 +259,13 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                     }
 
                     context.acquireRequestPermit();
-                    hasPermit = true;
-                    context.addConsumeTime(topic, -1);
-
-                    long startFetchTime = System.currentTimeMillis();
-                    ConsumerResult message = messageConsumer.getMessage();
-                    fetchTimeCost = System.currentTimeMillis() - startFetchTime;
-                    if (null != message && TErrCodeConstants.SUCCESS == message.getErrCode()) {
-                        for (Message msg : message.getMessageList()) {
-                            List<InLongMessage> msgs = new ArrayList<>();
-                            List<InLongMessage> deserialize = deserializer
-                                    .deserialize(context, topic, getAttributeMap(msg.getAttribute()),
-                                            msg.getData());
-                            context.addConsumeSuccess(topic, -1, deserialize.size(), msg.getData().length,
-                                    fetchTimeCost);
-                            int originSize = deserialize.size();
-                            deserialize = interceptor.intercept(deserialize);
-                            if (deserialize.isEmpty()) {
-                                continue;
-                            }
-                            int filterSize = originSize - deserialize.size();
-                            context.addConsumeFilter(topic, -1, filterSize);
-
-                            msgs.addAll(deserialize);
-                            handleAndCallbackMsg(new MessageRecord(topic.getTopicKey(), msgs,
-                                    message.getConfirmContext(), System.currentTimeMillis()));
-                        }
-                        sleepTime = 0L;
-                    } else {
-                        context.addConsumeEmpty(topic, -1, fetchTimeCost);
-                        emptyFetchTimes++;
-                        if (emptyFetchTimes >= context.getConfig().getEmptyPollTimes()) {
-                            sleepTime = Math.min((sleepTime += context.getConfig().getEmptyPollSleepStepMs()),
-                                    context.getConfig().getMaxEmptyPollSleepMs());
-                            emptyFetchTimes = 0;
-                        }
-                    }
-                } catch (Exception e) {
-                    context.addConsumeError(topic, -1, fetchTimeCost);
-                    LOG.error(e.getMessage(), e);
-                } finally {
-                    if (hasPermit) {
+                    try {
+                        this.fetch();
+                    } finally {
                         context.releaseRequestPermit();
                     }
+                } catch (InterruptedException e) {
+                    LOG.error(e.getMessage(), e);
                 }
 
                 if (closed) {
@@ -288,5 +273,54 @@ public class TubeSingleTopicFetcher extends SingleTopicFetcher {
                 }
             }
         }
+
+        /**
+         * fetch once, the caller holds the request permit
+         */
+        private void fetch() {
+            long fetchTimeCost = -1;
+            try {
+                context.addConsumeTime(topic, -1);
+
+                long startFetchTime = System.currentTimeMillis();
+                ConsumerResult message = messageConsumer.getMessage();
+                fetchTimeCost = System.currentTimeMillis() - startFetchTime;
+                if (null != message && TErrCodeConstants.SUCCESS == message.getErrCode()) {
+                    // the messages of a batch are confirmed together by the confirm context
+                    long batchBytes = 0L;
+                    for (Message msg : message.getMessageList()) {
+                        batchBytes += msg.getData().length;
+                    }
+                    context.acquireFetchMemory(topic, message.getConfirmContext(), batchBytes);
+                    for (Message msg : message.getMessageList()) {
+                        List<InLongMessage> msgs = new ArrayList<>();
+                        List<InLongMessage> deserialize = deserializer
+                                .deserialize(context, topic, getAttributeMap(msg.getAttribute()),
+                                        msg.getData());
+                        context.addConsumeSuccess(topic, -1, deserialize.size(), msg.getData().length,
+                                fetchTimeCost);
+                        int originSize = deserialize.size();
+                        deserialize = interceptor.intercept(deserialize);
+                        if (deserialize.isEmpty()) {
+                            continue;
+                        }
+                        int filterSize = originSize - deserialize.size();
+                        context.addConsumeFilter(topic, -1, filterSize);
+
+                        msgs.addAll(deserialize);
+                        handleAndCallbackMsg(new MessageRecord(topic.getTopicKey(), msgs,
+                                message.getConfirmContext(), System.currentTimeMillis()));
+                    }
+                    sleepTime = 0L;
+                } else {
+                    context.addConsumeEmpty(topic, -1, fetchTimeCost);
+                    onEmptyFetch();
+                }
+            } catch (Exception e) {
+                context.addConsumeError(topic, -1, fetchTimeCost);
+                LOG.error(e.getMessage(), e);
+                onFetchError();
+            }
+        }
     }
 }
@@ -25,10 +25,15 @@ import org.apache.inlong.sdk.sort.api.ClientContext;
 import org.apache.inlong.sdk.sort.api.Deserializer;
 import org.apache.inlong.sdk.sort.entity.InLongMessage;
 import org.apache.inlong.sdk.sort.entity.InLongTopic;
+import org.apache.inlong.sdk.sort.entity.LazyInLongMessage;
+import org.apache.inlong.sdk.sort.entity.LazyInLongMessage.LazyParams;
 import org.apache.inlong.sdk.sort.util.StringUtil;
 import org.apache.inlong.sdk.sort.util.Utils;
 
+import com.google.protobuf.CodedInputStream;
+
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -120,17 +125,17 @@ public class MessageDeserializer implements Deserializer {
         String inlongStreamId = headers.getOrDefault(INLONG_STREAMID_KEY, "");
         switch (compressType) {
             case COMPRESS_TYPE_NONE: {
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(msgBytes), inlongGroupId,
+                return transformMessageObjs(context, inLongTopic, parseMessageObjs(msgBytes), inlongGroupId,
                         inlongStreamId);
             }
             case COMPRESS_TYPE_SNAPPY: {
                 byte[] values = Utils.snappyDecompress(msgBytes, 0, msgBytes.length);
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(values), inlongGroupId,
+                return transformMessageObjs(context, inLongTopic, parseMessageObjs(values), inlongGroupId,
                         inlongStreamId);
             }
             case COMPRESS_TYPE_GZIP: {
                 byte[] values = Utils.gzipDecompress(msgBytes, 0, msgBytes.length);
-                return transformMessageObjs(context, inLongTopic, MessageObjs.parseFrom(values), inlongGroupId,
+                return transformMessageObjs(context, inLongTopic, parseMessageObjs(values), inlongGroupId,
                         inlongStreamId);
             }
             default:
@@ -138,6 +143,18 @@ public class MessageDeserializer implements Deserializer {
         }
     }
 
+    /**
+     * parse MessageObjs, the bodies are slices of the buffer instead of copies
+     *
+     * @param values decompressed buffer
+     * @return {@link MessageObjs}
+     */
+    private MessageObjs parseMessageObjs(byte[] values) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(values);
+        input.enableAliasing(true);
+        return MessageObjs.parseFrom(input);
+    }
+
     /**
      * transform MessageObjs to SortSdkMessage
      *
@@ -151,21 +168,47 @@ public class MessageDeserializer implements Deserializer {
         if (null == messageObjs) {
             return null;
         }
-        List<InLongMessage> inLongMessages = new ArrayList<>();
+        List<InLongMessage> inLongMessages = new ArrayList<>(messageObjs.getMsgsCount());
+        List<MapFieldEntry> lastEntries = null;
+        LazyParams lastParams = null;
         for (MessageObj messageObj : messageObjs.getMsgsList()) {
             List<MapFieldEntry> mapFieldEntries = messageObj.getParamsList();
-            Map<String, String> headers = new HashMap<>();
-            for (MapFieldEntry mapFieldEntry : mapFieldEntries) {
-                headers.put(mapFieldEntry.getKey(), mapFieldEntry.getValue());
+            // the messages with identical params share the same lazy params
+            if (!isSameParams(mapFieldEntries, lastEntries)) {
+                lastEntries = mapFieldEntries;
+                lastParams = new LazyParams(() -> toParams(mapFieldEntries));
             }
-            InLongMessage inLongMessage = new InLongMessage(inlongGroupId, inlongStreamId, messageObj.getMsgTime(),
-                    messageObj.getSourceIp(),
-                    messageObj.getBody().toByteArray(), headers);
+            InLongMessage inLongMessage = new LazyInLongMessage(inlongGroupId, inlongStreamId,
+                    messageObj.getMsgTime(), messageObj.getSourceIp(),
+                    messageObj.getBody().asReadOnlyByteBuffer(), lastParams);
             inLongMessages.add(inLongMessage);
         }
         return inLongMessages;
     }
 
+    private static boolean isSameParams(List<MapFieldEntry> entries, List<MapFieldEntry> lastEntries) {
+        if (lastEntries == null || entries.size() != lastEntries.size()) {
+            return false;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            MapFieldEntry entry = entries.get(i);
+            MapFieldEntry lastEntry = lastEntries.get(i);
+            if (!entry.getKeyBytes().equals(lastEntry.getKeyBytes())
+                    || !entry.getValueBytes().equals(lastEntry.getValueBytes())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, String> toParams(List<MapFieldEntry> entries) {
+        Map<String, String> headers = new HashMap<>();
+        for (MapFieldEntry mapFieldEntry : entries) {
+            headers.put(mapFieldEntry.getKey(), mapFieldEntry.getValue());
+        }
+        return headers;
+    }
+
     private List<InLongMessage> decodeInlongMsg(
             ClientContext context,
             InLongTopic inLongTopic,
@@ -202,14 +245,16 @@ public class MessageDeserializer implements Deserializer {
             String srcIp = Optional.ofNullable(attributes.get(INLONGMSG_ATTR_NODE_IP))
                     .orElse(DEFAULT_IP);
 
-            Iterator<byte[]> iterator = inLongMsg.getIterator(attr);
+            // the bodies are slices of the decompressed buffer, and all the messages share the attributes
+            LazyParams params = new LazyParams(attributes);
+            Iterator<ByteBuffer> iterator = inLongMsg.getIteratorBuffer(attr);
             while (iterator.hasNext()) {
-                byte[] bodyBytes = iterator.next();
-                if (Objects.isNull(bodyBytes)) {
+                ByteBuffer bodyBuffer = iterator.next();
+                if (Objects.isNull(bodyBuffer)) {
                     continue;
                 }
-                InLongMessage inLongMessage = new InLongMessage(groupId, streamId, msgTime,
-                        srcIp, bodyBytes, attributes);
+                InLongMessage inLongMessage = new LazyInLongMessage(groupId, streamId, msgTime,
+                        srcIp, bodyBuffer.slice(), params);
                 messageList.add(inLongMessage);
             }
         }
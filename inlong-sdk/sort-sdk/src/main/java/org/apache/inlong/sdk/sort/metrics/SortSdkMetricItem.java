@@ -19,6 +19,7 @@ package org.apache.inlong.sdk.sort.metrics;
 
 import org.apache.inlong.common.metric.CountMetric;
 import org.apache.inlong.common.metric.Dimension;
+import org.apache.inlong.common.metric.GaugeMetric;
 import org.apache.inlong.common.metric.MetricDomain;
 import org.apache.inlong.common.metric.MetricItem;
 
@@ -41,6 +42,8 @@ public class SortSdkMetricItem extends MetricItem {
     public static final String M_CONSUME_EMPTY_COUNT = "consumeEmptyCount";
     public static final String M_CONSUME_ERROR_COUNT = "consumeErrorCount";
     public static final String M_CONSUME_TIME_COST = "consumeTimeCost";
+    public static final String M_FETCH_LATENCY = "fetchLatency";
+    public static final String M_FETCH_COUNT = "fetchCount";
     // filter
     public static final String M_FILTER_COUNT = "filterCount";
     // callback
@@ -54,6 +57,11 @@ public class SortSdkMetricItem extends MetricItem {
     // ack
     public static final String M_ACK_FAIL_COUNT = "ackFailCount";
     public static final String M_ACK_SUCC_COUNT = "ackSUCCCount";
+    public static final String M_ACK_RESET_COUNT = "ackResetCount";
+    // GaugeMetric
+    public static final String M_ACK_LAG = "ackLag";
+    public static final String M_PENDING_ACK_COUNT = "pendingAckCount";
+    public static final String M_INFLIGHT_BYTES = "inflightBytes";
     // request manager
     public static final String M_REQUEST_MANAGER_COUNT = "requestManagerCount";
     public static final String M_REQUEST_MANAGER_TIME_COST = "requestManagerTimeCost";
@@ -84,6 +92,10 @@ public class SortSdkMetricItem extends MetricItem {
     @CountMetric
     public AtomicLong consumeTimeCost = new AtomicLong(0);
     @CountMetric
+    public AtomicLong fetchLatency = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong fetchCount = new AtomicLong(0);
+    @CountMetric
     public AtomicLong filterCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong callbackCount = new AtomicLong(0);
@@ -102,6 +114,14 @@ public class SortSdkMetricItem extends MetricItem {
     @CountMetric
     public AtomicLong ackSuccCount = new AtomicLong(0);
     @CountMetric
+    public AtomicLong ackResetCount = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong ackLag = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong pendingAckCount = new AtomicLong(0);
+    @GaugeMetric
+    public AtomicLong inflightBytes = new AtomicLong(0);
+    @CountMetric
     public AtomicLong requestManagerCount = new AtomicLong(0);
     @CountMetric
     public AtomicLong requestManagerTimeCost = new AtomicLong(0);
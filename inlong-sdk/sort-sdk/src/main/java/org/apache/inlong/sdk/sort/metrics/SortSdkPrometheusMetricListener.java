@@ -33,8 +33,10 @@ import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -45,6 +47,8 @@ import static org.apache.inlong.sdk.sort.metrics.SortSdkMetricItem.*;
 public class SortSdkPrometheusMetricListener extends Collector implements MetricListener {
 
     public static final String DEFAULT_DIMENSION_LABEL = "dimension";
+    public static final Set<String> GAUGE_METRICS = new HashSet<>(Arrays.asList(M_ACK_LAG, M_PENDING_ACK_COUNT,
+            M_INFLIGHT_BYTES));
 
     private static final Logger LOG = LoggerFactory.getLogger(SortSdkPrometheusMetricListener.class);
 
@@ -70,6 +74,8 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
         metricValueMap.put(SortSdkMetricItem.M_CONSUME_EMPTY_COUNT, metricItem.consumeEmptyCount);
         metricValueMap.put(SortSdkMetricItem.M_CONSUME_ERROR_COUNT, metricItem.consumeErrorCount);
         metricValueMap.put(SortSdkMetricItem.M_CONSUME_TIME_COST, metricItem.consumeTimeCost);
+        metricValueMap.put(SortSdkMetricItem.M_FETCH_LATENCY, metricItem.fetchLatency);
+        metricValueMap.put(SortSdkMetricItem.M_FETCH_COUNT, metricItem.fetchCount);
         // filter
         metricValueMap.put(SortSdkMetricItem.M_FILTER_COUNT, metricItem.filterCount);
         // callback
@@ -83,6 +89,10 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
         // ack
         metricValueMap.put(SortSdkMetricItem.M_ACK_FAIL_COUNT, metricItem.ackFailCount);
         metricValueMap.put(SortSdkMetricItem.M_ACK_SUCC_COUNT, metricItem.ackSuccCount);
+        metricValueMap.put(SortSdkMetricItem.M_ACK_RESET_COUNT, metricItem.ackResetCount);
+        metricValueMap.put(SortSdkMetricItem.M_ACK_LAG, metricItem.ackLag);
+        metricValueMap.put(SortSdkMetricItem.M_PENDING_ACK_COUNT, metricItem.pendingAckCount);
+        metricValueMap.put(SortSdkMetricItem.M_INFLIGHT_BYTES, metricItem.inflightBytes);
         // request manager
         metricValueMap.put(SortSdkMetricItem.M_REQUEST_MANAGER_COUNT, metricItem.requestManagerCount);
         metricValueMap.put(SortSdkMetricItem.M_REQUEST_MANAGER_TIME_COST, metricItem.requestManagerTimeCost);
@@ -108,6 +118,8 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
         totalCounter.addMetric(Collections.singletonList(M_CONSUME_EMPTY_COUNT), metricItem.consumeEmptyCount.get());
         totalCounter.addMetric(Collections.singletonList(M_CONSUME_ERROR_COUNT), metricItem.consumeErrorCount.get());
         totalCounter.addMetric(Collections.singletonList(M_CONSUME_TIME_COST), metricItem.consumeTimeCost.get());
+        totalCounter.addMetric(Collections.singletonList(M_FETCH_LATENCY), metricItem.fetchLatency.get());
+        totalCounter.addMetric(Collections.singletonList(M_FETCH_COUNT), metricItem.fetchCount.get());
         totalCounter.addMetric(Collections.singletonList(M_FILTER_COUNT), metricItem.filterCount.get());
         totalCounter.addMetric(Collections.singletonList(M_CALL_BACK_COUNT), metricItem.callbackCount.get());
         totalCounter.addMetric(Collections.singletonList(M_CALL_BACK_DONE_COUNT), metricItem.callbackDoneCount.get());
@@ -117,6 +129,10 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
         totalCounter.addMetric(Collections.singletonList(M_TOPIC_OFFLINE_COUNT), metricItem.topicOfflineCount.get());
         totalCounter.addMetric(Collections.singletonList(M_ACK_FAIL_COUNT), metricItem.ackFailCount.get());
         totalCounter.addMetric(Collections.singletonList(M_ACK_SUCC_COUNT), metricItem.ackSuccCount.get());
+        totalCounter.addMetric(Collections.singletonList(M_ACK_RESET_COUNT), metricItem.ackResetCount.get());
+        totalCounter.addMetric(Collections.singletonList(M_ACK_LAG), metricItem.ackLag.get());
+        totalCounter.addMetric(Collections.singletonList(M_PENDING_ACK_COUNT), metricItem.pendingAckCount.get());
+        totalCounter.addMetric(Collections.singletonList(M_INFLIGHT_BYTES), metricItem.inflightBytes.get());
         totalCounter.addMetric(Collections.singletonList(M_REQUEST_MANAGER_COUNT),
                 metricItem.requestManagerCount.get());
         totalCounter.addMetric(Collections.singletonList(M_REQUEST_MANAGER_TIME_COST),
@@ -153,6 +169,8 @@ public class SortSdkPrometheusMetricListener extends Collector implements Metric
 
     @Override
     public void snapshot(String domain, List<MetricItemValue> itemValues) {
+        // the gauge is the sum of the latest values of all items
+        GAUGE_METRICS.forEach(fieldName -> this.metricValueMap.get(fieldName).set(0));
         itemValues.forEach(itemValue -> this.snapshot(domain, itemValue.getMetrics()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FetchMemoryBudgetTest {
+
+    @Test
+    public void testFairShare() {
+        FetchMemoryBudget budget = new FetchMemoryBudget(1000L);
+        Assert.assertTrue(budget.isEnabled());
+
+        // a large topic can use the whole budget if no other topic holds bytes
+        Assert.assertEquals(600L, budget.acquire("large", "0", 600L));
+        Assert.assertFalse(budget.isExhausted("large"));
+        budget.acquire("large", "1", 300L);
+        budget.acquire("small", "0", 100L);
+        Assert.assertEquals(1000L, budget.getTotalBytes());
+
+        // only the topic above its fair share of 500 bytes is paused
+        Assert.assertTrue(budget.isExhausted("large"));
+        Assert.assertFalse(budget.isExhausted("small"));
+        Assert.assertFalse(budget.isExhausted("idle"));
+        Assert.assertTrue(budget.isExhausted(null));
+
+        // the redelivered offset replaces the bytes
+        Assert.assertEquals(100L, budget.acquire("small", "0", 100L));
+        Assert.assertEquals(1000L, budget.getTotalBytes());
+
+        Assert.assertEquals(300L, budget.release("large", "0"));
+        Assert.assertEquals(300L, budget.release("large", "0"));
+        Assert.assertFalse(budget.isExhausted("large"));
+        Assert.assertFalse(budget.isExhausted(null));
+
+        budget.releaseAll("large");
+        budget.releaseAll("small");
+        Assert.assertEquals(0L, budget.getTotalBytes());
+        Assert.assertEquals(0L, budget.getTopicBytes("large"));
+    }
+
+    @Test
+    public void testUnlimited() {
+        FetchMemoryBudget budget = new FetchMemoryBudget(0L);
+        Assert.assertFalse(budget.isEnabled());
+        budget.acquire("topic", "0", Integer.MAX_VALUE);
+        Assert.assertFalse(budget.isExhausted("topic"));
+        Assert.assertFalse(budget.isExhausted(null));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class FetchSchedulerTest {
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        FetchScheduler scheduler = new FetchScheduler("test", 2);
+        // many fetch loops share the two threads
+        int fetcherNum = 20;
+        int fetchTimes = 5;
+        CountDownLatch latch = new CountDownLatch(fetcherNum);
+        AtomicInteger fetchCount = new AtomicInteger(0);
+        for (int i = 0; i < fetcherNum; i++) {
+            scheduler.execute(new Runnable() {
+
+                private int times = 0;
+
+                @Override
+                public void run() {
+                    fetchCount.incrementAndGet();
+                    if (++times < fetchTimes) {
+                        scheduler.schedule(this, times % 2);
+                    } else {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(fetcherNum * fetchTimes, fetchCount.get());
+
+        // the task is discarded after clean
+        Assert.assertTrue(scheduler.clean());
+        scheduler.execute(fetchCount::incrementAndGet);
+        Assert.assertEquals(fetcherNum * fetchTimes, fetchCount.get());
+    }
+
+    @Test
+    public void testBlockingTask() throws InterruptedException {
+        FetchScheduler scheduler = new FetchScheduler("test", 2);
+        // a blocking callback holds one thread, the fetches of others run in the other thread
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        scheduler.execute(() -> {
+            try {
+                blocked.await();
+                released.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        scheduler.schedule(blocked::countDown, 1L);
+        Assert.assertTrue(released.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(scheduler.clean());
+    }
+}
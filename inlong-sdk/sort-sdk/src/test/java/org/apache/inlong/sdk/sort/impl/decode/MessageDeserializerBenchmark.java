@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.impl.decode;
+
+import org.apache.inlong.common.msg.InLongMsg;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MapFieldEntry;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObj;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObjs;
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sdk.sort.util.Utils;
+
+import com.google.protobuf.ByteString;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Decoding benchmark of MessageDeserializer, run it by the main method.
+ * The packs are 500 messages with 200~1000 bytes bodies, the params or attributes are identical in one pack.
+ * Usage: MessageDeserializerBenchmark [rounds] [consumeRatio]
+ * consumeRatio is the ratio of messages whose body and params are accessed after decoding.
+ */
+public class MessageDeserializerBenchmark {
+
+    private static final int PACK_SIZE = 500;
+    private static final int MIN_BODY_SIZE = 200;
+    private static final int MAX_BODY_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        double consumeRatio = args.length > 1 ? Double.parseDouble(args[1]) : 1.0d;
+        MessageDeserializer deserializer = new MessageDeserializer();
+        Random random = new Random(0);
+
+        Map<String, String> pbHeaders = new HashMap<>();
+        pbHeaders.put("version", "1");
+        pbHeaders.put("compressType", "2");
+        byte[] pbPack = Utils.snappyCompress(preparePbPack(random).toByteArray());
+
+        Map<String, String> inlongMsgHeaders = new HashMap<>();
+        inlongMsgHeaders.put("version", "2");
+        byte[] inlongMsgPack = prepareInlongMsgPack(random);
+
+        // warm up
+        run(deserializer, pbHeaders, pbPack, rounds / 10, consumeRatio);
+        run(deserializer, inlongMsgHeaders, inlongMsgPack, rounds / 10, consumeRatio);
+
+        report("pb+snappy", run(deserializer, pbHeaders, pbPack, rounds, consumeRatio), rounds);
+        report("inlongmsg", run(deserializer, inlongMsgHeaders, inlongMsgPack, rounds, consumeRatio), rounds);
+    }
+
+    private static long run(MessageDeserializer deserializer, Map<String, String> headers, byte[] pack,
+            int rounds, double consumeRatio) throws Exception {
+        long checksum = 0;
+        int consumeCount = (int) (PACK_SIZE * consumeRatio);
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            List<InLongMessage> messages = deserializer.deserialize(null, null, headers, pack);
+            for (int j = 0; j < consumeCount && j < messages.size(); j++) {
+                InLongMessage message = messages.get(j);
+                checksum += message.getBody().length + message.getParams().size();
+            }
+        }
+        long cost = System.nanoTime() - start;
+        if (checksum == 0) {
+            System.out.println("empty checksum");
+        }
+        return cost;
+    }
+
+    private static void report(String name, long costNanos, int rounds) {
+        double packsPerSecond = rounds * 1e9d / costNanos;
+        System.out.printf("%s: %.1f packs/s, %.1f messages/s%n", name, packsPerSecond, packsPerSecond * PACK_SIZE);
+    }
+
+    private static MessageObjs preparePbPack(Random random) {
+        MessageObjs.Builder builder = MessageObjs.newBuilder();
+        long msgTime = System.currentTimeMillis();
+        for (int i = 0; i < PACK_SIZE; i++) {
+            builder.addMsgs(MessageObj.newBuilder()
+                    .setBody(ByteString.copyFrom(prepareBody(random)))
+                    .setMsgTime(msgTime)
+                    .setSourceIp("127.0.0.1")
+                    .addParams(MapFieldEntry.newBuilder().setKey("dataproxyIp").setValue("127.0.0.2"))
+                    .addParams(MapFieldEntry.newBuilder().setKey("dt").setValue(String.valueOf(msgTime))));
+        }
+        return builder.build();
+    }
+
+    private static byte[] prepareInlongMsgPack(Random random) {
+        InLongMsg inLongMsg = InLongMsg.newInLongMsg(true);
+        String attr = "m=0&groupId=benchmark_group&streamId=benchmark_stream&dt=" + System.currentTimeMillis()
+                + "&NodeIP=127.0.0.1";
+        for (int i = 0; i < PACK_SIZE; i++) {
+            inLongMsg.addMsg(attr, prepareBody(random));
+        }
+        return inLongMsg.buildArray();
+    }
+
+    private static byte[] prepareBody(Random random) {
+        byte[] body = new byte[MIN_BODY_SIZE + random.nextInt(MAX_BODY_SIZE - MIN_BODY_SIZE)];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) ('a' + random.nextInt(16));
+        }
+        return body;
+    }
+}
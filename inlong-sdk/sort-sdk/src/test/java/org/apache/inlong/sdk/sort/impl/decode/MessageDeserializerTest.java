@@ -181,6 +181,42 @@ public class MessageDeserializerTest {
         }
     }
 
+    @Test
+    public void testLazyMessage() throws Exception {
+        setUp();
+        prepareTestMessageObjs();
+        headers.put("compressType", "0");
+        List<InLongMessage> deserialize = messageDeserializer
+                .deserialize(context, inLongTopic, headers, messageObjs.toByteArray());
+        Assert.assertEquals(2, deserialize.size());
+        // identical params are shared
+        Assert.assertEquals("val", deserialize.get(0).getParam("key"));
+        Assert.assertSame(deserialize.get(0).getParams(), deserialize.get(1).getParams());
+        Assert.assertEquals(testData.length(), deserialize.get(0).getBodyBuffer().remaining());
+        Assert.assertEquals(testData, new String(deserialize.get(1).getBody()));
+        Assert.assertSame(deserialize.get(1).getBody(), deserialize.get(1).getBody());
+        // the shared params are read-only
+        try {
+            deserialize.get(0).getParams().put("key", "other");
+            Assert.fail("the shared params are changed");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals("val", deserialize.get(1).getParam("key"));
+        }
+
+        InLongMsg inlongMsg = InLongMsg.newInLongMsg(true);
+        String attr = "groupId=group&streamId=stream&dt=1600000000000";
+        inlongMsg.addMsg(attr, "body1".getBytes());
+        inlongMsg.addMsg(attr, "body22".getBytes());
+        Map<String, String> header = new HashMap<>();
+        header.put("version", "2");
+        deserialize = messageDeserializer.deserialize(context, inLongTopic, header, inlongMsg.buildArray());
+        Assert.assertEquals(2, deserialize.size());
+        Assert.assertEquals("body1", new String(deserialize.get(0).getBody()));
+        Assert.assertEquals("body22", new String(deserialize.get(1).getBody()));
+        Assert.assertEquals(1600000000000L, deserialize.get(1).getMsgTime());
+        Assert.assertSame(deserialize.get(0).getParams(), deserialize.get(1).getParams());
+    }
+
     private void prepareTestMessageObjs() {
         headers.put("version", "1");
         testData = "test data";
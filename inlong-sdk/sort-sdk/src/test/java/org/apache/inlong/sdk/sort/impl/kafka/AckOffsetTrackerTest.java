@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sdk.sort.impl.kafka;
+
+import org.apache.inlong.sdk.sort.fetcher.kafka.AckOffsetTracker;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class AckOffsetTrackerTest {
+
+    @Test
+    public void testContiguousPrefix() {
+        AckOffsetTracker tracker = new AckOffsetTracker();
+        Assert.assertEquals(-1L, tracker.pollCommitOffset());
+        for (long offset = 100; offset < 110; offset++) {
+            tracker.fetch(offset);
+        }
+        Assert.assertEquals(10, tracker.getPendingCount());
+        Assert.assertEquals(10L, tracker.getAckLag());
+
+        // out of order ack does not advance the commit offset
+        Assert.assertTrue(tracker.ack(101));
+        Assert.assertTrue(tracker.ack(102));
+        Assert.assertFalse(tracker.ack(102));
+        Assert.assertFalse(tracker.ack(110));
+        Assert.assertEquals(-1L, tracker.pollCommitOffset());
+
+        Assert.assertTrue(tracker.ack(100));
+        Assert.assertEquals(102L, tracker.pollCommitOffset());
+        Assert.assertEquals(-1L, tracker.pollCommitOffset());
+        Assert.assertEquals(7, tracker.getPendingCount());
+        Assert.assertEquals(7L, tracker.getAckLag());
+        Assert.assertFalse(tracker.ack(101));
+
+        for (long offset = 103; offset < 110; offset++) {
+            tracker.ack(offset);
+        }
+        Assert.assertEquals(109L, tracker.pollCommitOffset());
+        Assert.assertEquals(0, tracker.getPendingCount());
+        Assert.assertEquals(0L, tracker.getAckLag());
+    }
+
+    @Test
+    public void testGapAndSeek() {
+        AckOffsetTracker tracker = new AckOffsetTracker();
+        // the compacted offsets are never fetched
+        tracker.fetch(10);
+        tracker.fetch(15);
+        tracker.fetch(20);
+        tracker.ack(10);
+        tracker.ack(15);
+        Assert.assertEquals(19L, tracker.pollCommitOffset());
+        tracker.ack(20);
+        Assert.assertEquals(20L, tracker.pollCommitOffset());
+
+        // seek to an earlier offset
+        tracker.fetch(5);
+        Assert.assertEquals(1, tracker.getPendingCount());
+        tracker.ack(5);
+        Assert.assertEquals(5L, tracker.pollCommitOffset());
+
+        Map<TopicPartition, AckOffsetTracker> ackOffsetMap = new HashMap<>();
+        Map<TopicPartition, OffsetAndMetadata> commitOffsetMap = new HashMap<>();
+        TopicPartition topicPartition = new TopicPartition("topic", 0);
+        ackOffsetMap.put(topicPartition, tracker);
+        tracker.fetch(6);
+        AckOffsetTracker.prepareCommit(ackOffsetMap, commitOffsetMap);
+        Assert.assertTrue(commitOffsetMap.isEmpty());
+        tracker.ack(6);
+        AckOffsetTracker.prepareCommit(ackOffsetMap, commitOffsetMap);
+        Assert.assertEquals(6L, commitOffsetMap.get(topicPartition).offset());
+    }
+
+    @Test
+    public void testSeekBackDropsPending() {
+        AckOffsetTracker tracker = new AckOffsetTracker();
+        Assert.assertEquals(0, tracker.fetch(10));
+        Assert.assertEquals(0, tracker.fetch(11));
+        Assert.assertEquals(0, tracker.fetch(12));
+        tracker.ack(10);
+        // the pending offsets 11 and 12 are dropped by the seek back
+        Assert.assertEquals(2, tracker.fetch(3));
+        Assert.assertEquals(1, tracker.getPendingCount());
+        Assert.assertFalse(tracker.ack(11));
+    }
+}
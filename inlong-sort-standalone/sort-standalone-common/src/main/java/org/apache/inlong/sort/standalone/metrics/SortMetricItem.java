@@ -19,6 +19,7 @@ package org.apache.inlong.sort.standalone.metrics;
 
 import org.apache.inlong.common.metric.CountMetric;
 import org.apache.inlong.common.metric.Dimension;
+import org.apache.inlong.common.metric.GaugeMetric;
 import org.apache.inlong.common.metric.MetricDomain;
 import org.apache.inlong.common.metric.MetricItem;
 import org.apache.inlong.common.msg.AttributeConstants;
@@ -47,6 +48,7 @@ public class SortMetricItem extends MetricItem {
     public static final String KEY_SINK_ID = "sinkId";// sortDestinationId
     public static final String KEY_SINK_DATA_ID = "sinkDataId";// topic or dest ip
     public static final String KEY_MESSAGE_TIME = "msgTime";
+    public static final String KEY_PARTITION = "partition";// dispatch partition
     //
     public static final String M_READ_SUCCESS_COUNT = "readSuccessCount";
     public static final String M_READ_SUCCESS_SIZE = "readSuccessSize";
@@ -62,6 +64,15 @@ public class SortMetricItem extends MetricItem {
     public static final String M_SINK_DURATION = "sinkDuration";
     public static final String M_NODE_DURATION = "nodeDuration";
     public static final String M_WHOLE_DURATION = "wholeDuration";
+    //
+    public static final String M_BULK_COUNT = "bulkCount";
+    public static final String M_BULK_LATENCY = "bulkLatency";
+    public static final String M_BULK_REJECT_COUNT = "bulkRejectCount";
+    public static final String M_INFLIGHT_BYTES = "inflightBytes";
+    public static final String M_DISPATCH_QUEUE_SIZE = "dispatchQueueSize";
+    public static final String M_REPLAY_LAG_COUNT = "replayLagCount";
+    public static final String M_REPLAY_LAG_SIZE = "replayLagSize";
+    public static final String M_REPLAY_DISK_SIZE = "replayDiskSize";
 
     @Dimension
     public String clusterId;
@@ -81,6 +92,8 @@ public class SortMetricItem extends MetricItem {
     public String sinkDataId;
     @Dimension
     public String msgTime = String.valueOf(0);
+    @Dimension
+    public String partition;
     @CountMetric
     public AtomicLong readSuccessCount = new AtomicLong(0);
     @CountMetric
@@ -110,6 +123,29 @@ public class SortMetricItem extends MetricItem {
     @CountMetric
     // sinkCallbackTime - eventCreateTime(milliseconds)
     public AtomicLong wholeDuration = new AtomicLong(0);
+    @CountMetric
+    public AtomicLong bulkCount = new AtomicLong(0);
+    @CountMetric
+    // bulkResponseTime - bulkBeginTime(milliseconds)
+    public AtomicLong bulkLatency = new AtomicLong(0);
+    @CountMetric
+    // item count of bulk rejected by sink server
+    public AtomicLong bulkRejectCount = new AtomicLong(0);
+    @GaugeMetric
+    // byte size of bulks which are sent but not responded
+    public AtomicLong inflightBytes = new AtomicLong(0);
+    @GaugeMetric
+    // profile count of dispatch partition queue
+    public AtomicLong dispatchQueueSize = new AtomicLong(0);
+    @GaugeMetric
+    // event count which is spilled to the replay buffer but not replayed
+    public AtomicLong replayLagCount = new AtomicLong(0);
+    @GaugeMetric
+    // byte size which is spilled to the replay buffer but not replayed
+    public AtomicLong replayLagSize = new AtomicLong(0);
+    @GaugeMetric
+    // byte size of the replay buffer segment files on disk
+    public AtomicLong replayDiskSize = new AtomicLong(0);
 
     /**
      * fillInlongId
@@ -19,6 +19,7 @@ package org.apache.inlong.sort.standalone.channel;
 
 import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.utils.BufferQueue;
+import org.apache.inlong.sort.standalone.utils.FlumeConfigGenerator;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 import org.apache.inlong.sort.standalone.utils.SizeSemaphore;
 
@@ -50,6 +51,7 @@ public class BufferQueueChannel extends AbstractChannel {
     // global buffer size
     private static SizeSemaphore globalBufferQueueSizeKb;
     private BufferQueue<ProfileEvent> bufferQueue;
+    private ReplayBuffer replayBuffer;
     private ThreadLocal<ProfileTransaction> currentTransaction = new ThreadLocal<ProfileTransaction>();
     protected Timer channelTimer;
     private AtomicLong takeCounter = new AtomicLong(0);
@@ -73,17 +75,30 @@ public class BufferQueueChannel extends AbstractChannel {
     @Override
     public void put(Event event) throws ChannelException {
         putCounter.incrementAndGet();
-        int eventSize = event.getBody().length;
-        this.bufferQueue.acquire(eventSize);
         ProfileTransaction transaction = currentTransaction.get();
         Preconditions.checkState(transaction != null, "No transaction exists for this thread");
+        ProfileEvent profile;
         if (event instanceof ProfileEvent) {
-            ProfileEvent profile = (ProfileEvent) event;
-            transaction.doPut(profile);
+            profile = (ProfileEvent) event;
         } else {
-            ProfileEvent profile = new ProfileEvent(event.getHeaders(), event.getBody());
-            transaction.doPut(profile);
+            profile = new ProfileEvent(event.getHeaders(), event.getBody());
         }
+        int eventSize = profile.getBodyLength();
+        boolean acquired = false;
+        if (replayBuffer != null) {
+            // the new events are spilled behind the events which are not replayed to keep the order
+            if (!replayBuffer.hasBacklog()) {
+                acquired = this.bufferQueue.tryAcquire(eventSize);
+            }
+            if (!acquired && replayBuffer.hasCapacity(eventSize)) {
+                transaction.doSpill(profile);
+                return;
+            }
+        }
+        if (!acquired) {
+            this.bufferQueue.acquire(eventSize);
+        }
+        transaction.doPut(profile);
     }
 
     /**
@@ -111,7 +126,7 @@ public class BufferQueueChannel extends AbstractChannel {
      */
     @Override
     public Transaction getTransaction() {
-        ProfileTransaction newTransaction = new ProfileTransaction(this.bufferQueue);
+        ProfileTransaction newTransaction = new ProfileTransaction(this.bufferQueue, this.replayBuffer);
         this.currentTransaction.set(newTransaction);
         return newTransaction;
     }
@@ -124,11 +139,32 @@ public class BufferQueueChannel extends AbstractChannel {
         super.start();
         try {
             this.setReloadTimer();
+            if (replayBuffer != null) {
+                replayBuffer.start();
+            }
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
         }
     }
 
+    /**
+     * stop
+     */
+    @Override
+    public void stop() {
+        try {
+            if (channelTimer != null) {
+                channelTimer.cancel();
+            }
+            if (replayBuffer != null) {
+                replayBuffer.close();
+            }
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+        super.stop();
+    }
+
     /**
      * setReloadTimer
      */
@@ -157,6 +193,12 @@ public class BufferQueueChannel extends AbstractChannel {
      */
     @Override
     public void configure(Context context) {
+        String taskName = context.getString(FlumeConfigGenerator.KEY_TASK_NAME, getName());
+        if (replayBuffer != null) {
+            // release the spill dir and metric set of the last configuration
+            replayBuffer.close();
+        }
+        this.replayBuffer = ReplayBuffer.create(taskName, context, bufferQueue);
     }
 
     /**
@@ -24,6 +24,8 @@ import org.apache.inlong.sort.standalone.utils.Constants;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.flume.event.SimpleEvent;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -41,6 +43,10 @@ public class ProfileEvent extends SimpleEvent {
     private final long fetchTime;
     private CacheMessageRecord cacheRecord;
     private final int ackToken;
+    private Runnable ackCallback;
+    // the headers and body of a fetched message are copied on first access
+    private InLongMessage lazyHeaders;
+    private ByteBuffer lazyBody;
 
     /**
      * Constructor
@@ -66,8 +72,8 @@ public class ProfileEvent extends SimpleEvent {
      * @param cacheRecord
      */
     public ProfileEvent(InLongMessage sdkMessage, CacheMessageRecord cacheRecord) {
-        super.setHeaders(sdkMessage.getParams());
-        super.setBody(sdkMessage.getBody());
+        this.lazyHeaders = sdkMessage;
+        this.lazyBody = sdkMessage.getBodyBuffer();
         this.inlongGroupId = sdkMessage.getInlongGroupId();
         this.inlongStreamId = sdkMessage.getInlongStreamId();
         this.uid = InlongId.generateUid(inlongGroupId, inlongStreamId);
@@ -78,6 +84,90 @@ public class ProfileEvent extends SimpleEvent {
         this.ackToken = cacheRecord.getToken();
     }
 
+    /**
+     * Constructor of the event replayed from the spill log
+     *
+     * @param record
+     * @param ackCallback
+     */
+    public ProfileEvent(SpillLog.SpilledRecord record, Runnable ackCallback) {
+        super.setHeaders(record.getHeaders());
+        super.setBody(record.getBody());
+        this.inlongGroupId = record.getInlongGroupId();
+        this.inlongStreamId = record.getInlongStreamId();
+        this.uid = InlongId.generateUid(inlongGroupId, inlongStreamId);
+        this.rawLogTime = record.getRawLogTime();
+        this.sourceIp = record.getSourceIp();
+        this.fetchTime = System.currentTimeMillis();
+        this.ackToken = 0;
+        this.ackCallback = ackCallback;
+    }
+
+    /**
+     * get headers, the params of a fetched message are shared by messages, so they are copied on first access
+     * 
+     * @return the headers
+     */
+    @Override
+    public Map<String, String> getHeaders() {
+        if (lazyHeaders != null) {
+            Map<String, String> params = lazyHeaders.getParams();
+            super.setHeaders(params == null ? new HashMap<>() : new HashMap<>(params));
+            this.lazyHeaders = null;
+        }
+        return super.getHeaders();
+    }
+
+    /**
+     * set headers
+     * 
+     * @param headers
+     */
+    @Override
+    public void setHeaders(Map<String, String> headers) {
+        this.lazyHeaders = null;
+        super.setHeaders(headers);
+    }
+
+    /**
+     * get body, the body of a fetched message is copied from the decompressed pack on first access
+     * 
+     * @return the body
+     */
+    @Override
+    public byte[] getBody() {
+        if (lazyBody != null) {
+            byte[] body = new byte[lazyBody.remaining()];
+            lazyBody.duplicate().get(body);
+            super.setBody(body);
+            this.lazyBody = null;
+        }
+        return super.getBody();
+    }
+
+    /**
+     * set body
+     * 
+     * @param body
+     */
+    @Override
+    public void setBody(byte[] body) {
+        this.lazyBody = null;
+        super.setBody(body);
+    }
+
+    /**
+     * get the body length without copying the body
+     * 
+     * @return the body length
+     */
+    public int getBodyLength() {
+        if (lazyBody != null) {
+            return lazyBody.remaining();
+        }
+        return this.getBody().length;
+    }
+
     /**
      * get inlongGroupId
      * 
@@ -146,6 +236,8 @@ public class ProfileEvent extends SimpleEvent {
     public void ack() {
         if (cacheRecord != null) {
             cacheRecord.ackMessage(ackToken);
+        } else if (ackCallback != null) {
+            ackCallback.run();
         }
     }
 }
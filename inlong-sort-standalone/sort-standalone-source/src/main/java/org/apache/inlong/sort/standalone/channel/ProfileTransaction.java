@@ -35,8 +35,10 @@ public class ProfileTransaction implements Transaction {
     public static final Logger LOG = InlongLoggerFactory.getLogger(ProfileTransaction.class);
 
     private BufferQueue<ProfileEvent> bufferQueue;
+    private ReplayBuffer replayBuffer;
     private List<ProfileEvent> takeList = new ArrayList<>();
     private List<ProfileEvent> putList = new ArrayList<>();
+    private List<ProfileEvent> spillList = new ArrayList<>();
 
     /**
      * Constructor
@@ -47,6 +49,17 @@ public class ProfileTransaction implements Transaction {
         this.bufferQueue = bufferQueue;
     }
 
+    /**
+     * Constructor
+     * 
+     * @param bufferQueue
+     * @param replayBuffer
+     */
+    public ProfileTransaction(BufferQueue<ProfileEvent> bufferQueue, ReplayBuffer replayBuffer) {
+        this.bufferQueue = bufferQueue;
+        this.replayBuffer = replayBuffer;
+    }
+
     /**
      * begin
      */
@@ -60,13 +73,23 @@ public class ProfileTransaction implements Transaction {
     @Override
     public void commit() {
         for (ProfileEvent event : takeList) {
-            bufferQueue.release(event.getBody().length);
+            bufferQueue.release(event.getBodyLength());
         }
         this.takeList.clear();
         for (ProfileEvent event : putList) {
             this.bufferQueue.offer(event);
         }
         this.putList.clear();
+        if (!spillList.isEmpty()) {
+            if (!replayBuffer.spill(spillList)) {
+                // the disk budget is exceeded or the disk fails, wait for the memory buffer
+                for (ProfileEvent event : spillList) {
+                    this.bufferQueue.acquire(event.getBodyLength());
+                    this.bufferQueue.offer(event);
+                }
+            }
+            this.spillList.clear();
+        }
     }
 
     /**
@@ -79,9 +102,10 @@ public class ProfileTransaction implements Transaction {
         }
         this.takeList.clear();
         for (ProfileEvent event : putList) {
-            bufferQueue.release(event.getBody().length);
+            bufferQueue.release(event.getBodyLength());
         }
         this.putList.clear();
+        this.spillList.clear();
     }
 
     /**
@@ -108,4 +132,13 @@ public class ProfileTransaction implements Transaction {
     public void doPut(ProfileEvent event) {
         this.putList.add(event);
     }
+
+    /**
+     * doSpill
+     * 
+     * @param event
+     */
+    public void doSpill(ProfileEvent event) {
+        this.spillList.add(event);
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.channel;
+
+import org.apache.inlong.common.metric.MetricRegister;
+import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
+import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
+import org.apache.inlong.sort.standalone.metrics.SortMetricItemSet;
+import org.apache.inlong.sort.standalone.utils.BufferQueue;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.apache.flume.Context;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * ReplayBuffer, the optional local spill log between the channel and the sink workers.<br>
+ * When the memory buffer of channel is full because the sink is slow or unavailable, the events are spilled to the
+ * local log and acked to the source once they are durable. The replay thread feeds the spilled events back to the
+ * memory buffer in order when it has room, and the segments are deleted after the replayed events are acked by sink.
+ */
+public class ReplayBuffer {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(ReplayBuffer.class);
+
+    public static final String KEY_REPLAY_ENABLE = "replayBuffer.enable";
+    public static final String KEY_REPLAY_DIR = "replayBuffer.dir";
+    public static final String KEY_SEGMENT_SIZE_MB = "replayBuffer.segmentSizeMb";
+    public static final String KEY_MAX_DISK_SIZE_MB = "replayBuffer.maxDiskSizeMb";
+    public static final String KEY_REPLAY_INTERVAL = "replayBuffer.replayInterval";
+    public static final String DEFAULT_REPLAY_DIR = "replay";
+    public static final long DEFAULT_SEGMENT_SIZE_MB = 64L;
+    public static final long DEFAULT_MAX_DISK_SIZE_MB = 10 * 1024L;
+    public static final long DEFAULT_REPLAY_INTERVAL = 100L;
+    public static final long METRIC_INTERVAL = 1000L;
+    public static final long ONE_MB = 1024L * 1024L;
+
+    private final String taskName;
+    private final SpillLog spillLog;
+    private final BufferQueue<ProfileEvent> bufferQueue;
+    private final long replayInterval;
+    private final SortMetricItemSet metricItemSet;
+    private Thread replayThread;
+    private volatile boolean running = false;
+    private boolean closed = false;
+
+    /**
+     * Constructor
+     *
+     * @param  taskName
+     * @param  context
+     * @param  bufferQueue
+     * @throws IOException
+     */
+    public ReplayBuffer(String taskName, Context context, BufferQueue<ProfileEvent> bufferQueue) throws IOException {
+        this.taskName = taskName;
+        this.bufferQueue = bufferQueue;
+        File dir = new File(context.getString(KEY_REPLAY_DIR, DEFAULT_REPLAY_DIR), taskName);
+        long segmentSize = context.getLong(KEY_SEGMENT_SIZE_MB, DEFAULT_SEGMENT_SIZE_MB) * ONE_MB;
+        long maxDiskSize = context.getLong(KEY_MAX_DISK_SIZE_MB, DEFAULT_MAX_DISK_SIZE_MB) * ONE_MB;
+        this.spillLog = new SpillLog(dir, segmentSize, maxDiskSize);
+        this.replayInterval = context.getLong(KEY_REPLAY_INTERVAL, DEFAULT_REPLAY_INTERVAL);
+        this.metricItemSet = new SortMetricItemSet(taskName + "ReplayBuffer");
+        MetricRegister.register(this.metricItemSet);
+    }
+
+    /**
+     * create the replay buffer if it is enabled
+     *
+     * @param  taskName
+     * @param  context
+     * @param  bufferQueue
+     * @return             null if it is disabled or fails to open the spill log
+     */
+    public static ReplayBuffer create(String taskName, Context context, BufferQueue<ProfileEvent> bufferQueue) {
+        if (!context.getBoolean(KEY_REPLAY_ENABLE, false)) {
+            return null;
+        }
+        try {
+            return new ReplayBuffer(taskName, context, bufferQueue);
+        } catch (Throwable t) {
+            LOG.error("fail to create replay buffer of task:{}, error:{}", taskName, t.getMessage(), t);
+            return null;
+        }
+    }
+
+    /**
+     * whether the new events should be spilled behind the events which are not replayed
+     *
+     * @return
+     */
+    public boolean hasBacklog() {
+        return spillLog.hasBacklog();
+    }
+
+    /**
+     * whether the event can be spilled in the disk budget
+     *
+     * @param  size
+     * @return
+     */
+    public boolean hasCapacity(long size) {
+        return spillLog.hasCapacity(size);
+    }
+
+    /**
+     * spill the events and ack them to the source after they are durable
+     *
+     * @param  events
+     * @return        false if the events are not spilled, they should be put to the memory buffer
+     */
+    public boolean spill(List<ProfileEvent> events) {
+        try {
+            if (!spillLog.append(events)) {
+                return false;
+            }
+        } catch (Throwable t) {
+            LOG.error("fail to spill events of task:{}, error:{}", taskName, t.getMessage(), t);
+            return false;
+        }
+        events.forEach(ProfileEvent::ack);
+        return true;
+    }
+
+    /**
+     * start the replay thread
+     */
+    public void start() {
+        this.running = true;
+        this.replayThread = new Thread(this::replay, "replay-buffer-" + taskName);
+        this.replayThread.setDaemon(true);
+        this.replayThread.start();
+    }
+
+    /**
+     * replay the spilled events in order when the memory buffer has room
+     */
+    private void replay() {
+        SpillLog.SpilledRecord pending = null;
+        long lastMetricTime = 0;
+        while (running) {
+            try {
+                long currentTime = System.currentTimeMillis();
+                if (currentTime - lastMetricTime >= METRIC_INTERVAL) {
+                    this.setMetric();
+                    lastMetricTime = currentTime;
+                }
+                if (pending == null) {
+                    pending = spillLog.read();
+                }
+                if (pending == null) {
+                    TimeUnit.MILLISECONDS.sleep(replayInterval);
+                    continue;
+                }
+                if (!bufferQueue.tryAcquire(pending.getBody().length)) {
+                    TimeUnit.MILLISECONDS.sleep(replayInterval);
+                    continue;
+                }
+                final SpillLog.SpilledRecord record = pending;
+                pending = null;
+                bufferQueue.offer(new ProfileEvent(record, () -> spillLog.ack(record)));
+            } catch (InterruptedException e) {
+                LOG.info("replay thread of task:{} is interrupted", taskName);
+                break;
+            } catch (Throwable t) {
+                LOG.error("fail to replay events of task:{}, error:{}", taskName, t.getMessage(), t);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(replayInterval);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * setMetric
+     */
+    private void setMetric() {
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(SortMetricItem.KEY_CLUSTER_ID, CommonPropertiesHolder.getClusterId());
+        dimensions.put(SortMetricItem.KEY_TASK_NAME, taskName);
+        SortMetricItem metricItem = this.metricItemSet.findMetricItem(dimensions);
+        metricItem.replayLagCount.set(spillLog.getLagCount());
+        metricItem.replayLagSize.set(spillLog.getLagSize());
+        metricItem.replayDiskSize.set(spillLog.getDiskSize());
+    }
+
+    /**
+     * close the replay thread, spill log and metric set, the events not acked are replayed after restart
+     */
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        this.running = false;
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+        spillLog.close();
+        MetricRegister.unregister(this.metricItemSet);
+    }
+
+    /**
+     * get spillLog
+     *
+     * @return the spillLog
+     */
+    public SpillLog getSpillLog() {
+        return spillLog;
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.channel;
+
+import org.apache.inlong.sdk.commons.segment.SegmentLog;
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.slf4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * SpillLog, a local log which keeps the spilled events in order.<br>
+ * The events are kept in the SegmentLog of sdk commons, the payload of a record contains the ids, times, headers
+ * and body of event. The replayed events may be acked out of order, the log is committed to the first event which
+ * is not acked, at most once in a commit interval, so the segments are deleted after their events are acked, and
+ * the events not acked are replayed again after restart.
+ */
+public class SpillLog {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(SpillLog.class);
+
+    public static final long COMMIT_INTERVAL = 1000L;
+
+    private final SegmentLog log;
+    // offsets of the records which are read but not acked
+    private final TreeSet<Long> unackedOffsets = new TreeSet<>();
+    private final AtomicLong lagCount = new AtomicLong(0);
+    // offset of the next record to read, it is written by the replay thread only
+    private volatile long readOffset;
+    private long lastCommitTime = 0;
+
+    /**
+     * Constructor
+     *
+     * @param  dir
+     * @param  segmentSize
+     * @param  maxDiskSize
+     * @throws IOException
+     */
+    public SpillLog(File dir, long segmentSize, long maxDiskSize) throws IOException {
+        this.log = new SegmentLog(dir, maxDiskSize, segmentSize);
+        this.readOffset = log.getReadOffset();
+    }
+
+    /**
+     * whether the event can be appended in the disk budget
+     *
+     * @param  size
+     * @return
+     */
+    public boolean hasCapacity(long size) {
+        return log.hasCapacity(size, 1);
+    }
+
+    /**
+     * whether there are events which are not replayed
+     *
+     * @return
+     */
+    public boolean hasBacklog() {
+        return this.getLagSize() > 0;
+    }
+
+    /**
+     * append events and force them to disk
+     *
+     * @param  events
+     * @return             false if the disk budget is exceeded, nothing is appended
+     * @throws IOException
+     */
+    public boolean append(List<ProfileEvent> events) throws IOException {
+        List<byte[]> payloads = new ArrayList<>(events.size());
+        for (ProfileEvent event : events) {
+            payloads.add(encode(event));
+        }
+        if (!log.append(payloads)) {
+            return false;
+        }
+        lagCount.addAndGet(events.size());
+        return true;
+    }
+
+    /**
+     * read the next spilled record, it is called by the replay thread only
+     *
+     * @return             null if there is no durable record to read
+     * @throws IOException
+     */
+    public SpilledRecord read() throws IOException {
+        SegmentLog.Entry entry = log.read(readOffset);
+        if (entry == null) {
+            return null;
+        }
+        synchronized (this) {
+            unackedOffsets.add(entry.getOffset());
+            this.readOffset = entry.getNextOffset();
+        }
+        if (lagCount.get() > 0) {
+            lagCount.decrementAndGet();
+        }
+        return decode(entry.getPayload(), entry.getOffset());
+    }
+
+    /**
+     * ack a replayed record, and commit the log if all the read records are acked or the commit interval passes
+     *
+     * @param record
+     */
+    public synchronized void ack(SpilledRecord record) {
+        unackedOffsets.remove(record.getOffset());
+        long currentTime = System.currentTimeMillis();
+        if (unackedOffsets.isEmpty() || currentTime - lastCommitTime >= COMMIT_INTERVAL) {
+            this.commit();
+            this.lastCommitTime = currentTime;
+        }
+    }
+
+    /**
+     * commit the log to the first record which is not acked
+     */
+    private void commit() {
+        long offset = unackedOffsets.isEmpty() ? readOffset : unackedOffsets.first();
+        if (offset <= log.getReadOffset()) {
+            return;
+        }
+        try {
+            log.commit(offset);
+        } catch (IOException e) {
+            LOG.error("fail to commit spill log to offset:{}, error:{}", offset, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * commit the acked records and close the log, the segments are kept for the replay after restart
+     */
+    public synchronized void close() {
+        this.commit();
+        log.close();
+    }
+
+    /**
+     * get disk size of segment files
+     *
+     * @return
+     */
+    public long getDiskSize() {
+        return log.getTotalBytes();
+    }
+
+    /**
+     * get byte size which is not replayed
+     *
+     * @return
+     */
+    public long getLagSize() {
+        return log.getWriteOffset() - readOffset;
+    }
+
+    /**
+     * get event count which is not replayed, the events of recovered segments are not counted
+     *
+     * @return
+     */
+    public long getLagCount() {
+        return lagCount.get();
+    }
+
+    /**
+     * get count of the torn or corrupted records which are skipped
+     *
+     * @return
+     */
+    public long getCorruptedCount() {
+        return log.getCorruptedCount();
+    }
+
+    /**
+     * encode
+     *
+     * @param  event
+     * @return
+     * @throws IOException
+     */
+    public static byte[] encode(ProfileEvent event) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream(event.getBody().length + 256);
+        DataOutputStream out = new DataOutputStream(bout);
+        writeString(out, event.getInlongGroupId());
+        writeString(out, event.getInlongStreamId());
+        out.writeLong(event.getRawLogTime());
+        writeString(out, event.getSourceIp());
+        Map<String, String> headers = event.getHeaders();
+        out.writeInt(headers.size());
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+        out.writeInt(event.getBody().length);
+        out.write(event.getBody());
+        out.flush();
+        return bout.toByteArray();
+    }
+
+    private static SpilledRecord decode(byte[] payload, long offset) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        String inlongGroupId = readString(in);
+        String inlongStreamId = readString(in);
+        long rawLogTime = in.readLong();
+        String sourceIp = readString(in);
+        int headerSize = in.readInt();
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 0; i < headerSize; i++) {
+            String key = readString(in);
+            headers.put(key, readString(in));
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new SpilledRecord(inlongGroupId, inlongStreamId, rawLogTime, sourceIp, headers, body, offset);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     *
+     * SpilledRecord
+     */
+    public static class SpilledRecord {
+
+        private final String inlongGroupId;
+        private final String inlongStreamId;
+        private final long rawLogTime;
+        private final String sourceIp;
+        private final Map<String, String> headers;
+        private final byte[] body;
+        private final long offset;
+
+        public SpilledRecord(String inlongGroupId, String inlongStreamId, long rawLogTime, String sourceIp,
+                Map<String, String> headers, byte[] body, long offset) {
+            this.inlongGroupId = inlongGroupId;
+            this.inlongStreamId = inlongStreamId;
+            this.rawLogTime = rawLogTime;
+            this.sourceIp = sourceIp;
+            this.headers = headers;
+            this.body = body;
+            this.offset = offset;
+        }
+
+        public String getInlongGroupId() {
+            return inlongGroupId;
+        }
+
+        public String getInlongStreamId() {
+            return inlongStreamId;
+        }
+
+        public long getRawLogTime() {
+            return rawLogTime;
+        }
+
+        public String getSourceIp() {
+            return sourceIp;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+    }
+}
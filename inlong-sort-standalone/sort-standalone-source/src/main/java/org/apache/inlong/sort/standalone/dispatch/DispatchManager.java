@@ -24,6 +24,7 @@ import org.apache.flume.Context;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,18 +43,22 @@ public class DispatchManager {
     public static final String KEY_DISPATCH_MAX_PACKSIZE = "dispatchMaxPackSize";
     public static final String KEY_DISPATCH_AHEAD_TIME = "dispatchAheadTime";
     public static final String KEY_DISPATCH_DELAY_TIME = "dispatchDelayTime";
+    // partition queues are polled by the workers of ClickHouse sink only, other sinks use one dispatch queue
+    public static final String KEY_DISPATCH_PARTITIONS = "dispatchPartitions";
     public static final long DEFAULT_DISPATCH_TIMEOUT = 2000;
     public static final long DEFAULT_DISPATCH_MAX_PACKCOUNT = 256;
     public static final long DEFAULT_DISPATCH_MAX_PACKSIZE = 327680;
     public static final long MINUTE_MS = 60L * 1000;
     public static final long DEFAULT_DISPATCH_AHEAD_TIME = 60 * 60 * 1000L;
     public static final long DEFAULT_DISPATCH_DELAY_TIME = 60 * 60 * 1000 * 16L;
+    public static final int DEFAULT_DISPATCH_PARTITIONS = 1;
     private final long dispatchTimeout;
     private final long maxPackCount;
     private final long maxPackSize;
     private final long dispatchAheadTime;
     private final long dispatchDelayTime;
-    private LinkedBlockingQueue<DispatchProfile> dispatchQueue;
+    private List<LinkedBlockingQueue<DispatchProfile>> dispatchQueues;
+    // packing is done by the sink runner thread for all partitions, only the output queues are partitioned
     private ConcurrentHashMap<String, DispatchProfile> profileCache = new ConcurrentHashMap<>();
     // flag that manager need to output overtime data.
     private AtomicBoolean needOutputOvertimeData = new AtomicBoolean(false);
@@ -67,7 +72,17 @@ public class DispatchManager {
      * @param dispatchQueue
      */
     public DispatchManager(Context context, LinkedBlockingQueue<DispatchProfile> dispatchQueue) {
-        this.dispatchQueue = dispatchQueue;
+        this(context, Collections.singletonList(dispatchQueue));
+    }
+
+    /**
+     * Constructor, the profiles of one uid are always offered to the same partition queue
+     * 
+     * @param context
+     * @param dispatchQueues
+     */
+    public DispatchManager(Context context, List<LinkedBlockingQueue<DispatchProfile>> dispatchQueues) {
+        this.dispatchQueues = dispatchQueues;
         this.dispatchTimeout = context.getLong(KEY_DISPATCH_TIMEOUT, DEFAULT_DISPATCH_TIMEOUT);
         this.maxPackCount = context.getLong(KEY_DISPATCH_MAX_PACKCOUNT, DEFAULT_DISPATCH_MAX_PACKCOUNT);
         this.maxPackSize = context.getLong(KEY_DISPATCH_MAX_PACKSIZE, DEFAULT_DISPATCH_MAX_PACKSIZE);
@@ -100,7 +115,7 @@ public class DispatchManager {
             DispatchProfile oldDispatchProfile = this.profileCache.put(dispatchKey, newDispatchProfile);
             long curTime = System.currentTimeMillis();
             this.checkAndResetDispatchTime(dispatchProfile, curTime);
-            this.dispatchQueue.offer(oldDispatchProfile);
+            this.offerDispatchQueue(oldDispatchProfile);
             outCounter.addAndGet(dispatchProfile.getCount());
             newDispatchProfile.addEvent(event, maxPackCount, maxPackSize);
         }
@@ -117,7 +132,7 @@ public class DispatchManager {
             return;
         }
         LOG.debug("start to outputOvertimeData profileCacheSize:{},dispatchQueueSize:{}",
-                profileCache.size(), dispatchQueue.size());
+                profileCache.size(), getDispatchQueueSize());
         long currentTime = System.currentTimeMillis();
         long createThreshold = currentTime - dispatchTimeout;
         List<String> removeKeys = new ArrayList<>();
@@ -136,16 +151,68 @@ public class DispatchManager {
             DispatchProfile dispatchProfile = this.profileCache.remove(key);
             if (dispatchProfile != null) {
                 this.checkAndResetDispatchTime(dispatchProfile, curTime);
-                dispatchQueue.offer(dispatchProfile);
+                this.offerDispatchQueue(dispatchProfile);
                 outCounter.addAndGet(dispatchProfile.getCount());
             }
         });
         LOG.debug("end to outputOvertimeData profileCacheSize:{},dispatchQueueSize:{},eventCount:{},"
                 + "inCounter:{},outCounter:{}",
-                profileCache.size(), dispatchQueue.size(), eventCount,
+                profileCache.size(), getDispatchQueueSize(), eventCount,
                 inCounter.getAndSet(0), outCounter.getAndSet(0));
     }
 
+    /**
+     * offerDispatchQueue
+     * 
+     * @param dispatchProfile
+     */
+    private void offerDispatchQueue(DispatchProfile dispatchProfile) {
+        int partition = getPartition(dispatchProfile.getUid(), dispatchQueues.size());
+        this.dispatchQueues.get(partition).offer(dispatchProfile);
+    }
+
+    /**
+     * getDispatchQueueSize
+     * 
+     * @return the total size of partition queues
+     */
+    private int getDispatchQueueSize() {
+        int size = 0;
+        for (LinkedBlockingQueue<DispatchProfile> dispatchQueue : dispatchQueues) {
+            size += dispatchQueue.size();
+        }
+        return size;
+    }
+
+    /**
+     * getPartition
+     * 
+     * @param  uid
+     * @param  partitions
+     * @return
+     */
+    public static int getPartition(String uid, int partitions) {
+        return Math.floorMod(uid.hashCode(), partitions);
+    }
+
+    /**
+     * createDispatchQueues
+     * 
+     * @param  context
+     * @param  maxPartitions the count of consumer, the partition count is not over it
+     * @return
+     */
+    public static List<LinkedBlockingQueue<DispatchProfile>> createDispatchQueues(Context context,
+            int maxPartitions) {
+        int partitions = context.getInteger(KEY_DISPATCH_PARTITIONS, DEFAULT_DISPATCH_PARTITIONS);
+        partitions = Math.max(1, Math.min(partitions, maxPartitions));
+        List<LinkedBlockingQueue<DispatchProfile>> dispatchQueues = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            dispatchQueues.add(new LinkedBlockingQueue<>());
+        }
+        return dispatchQueues;
+    }
+
     /**
      * reset dispatch time if the dispatch time is invalid.
      * The default ahead time is 1 hour, and default delay time is 16 hours.
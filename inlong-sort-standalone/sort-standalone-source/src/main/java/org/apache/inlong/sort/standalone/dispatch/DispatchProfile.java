@@ -36,6 +36,7 @@ public class DispatchProfile {
     private long count = 0;
     private long size = 0;
     private long dispatchTime;
+    private int retryTimes = 0;
 
     /**
      * Constructor
@@ -178,6 +179,15 @@ public class DispatchProfile {
         this.dispatchTime = dispatchTime;
     }
 
+    /**
+     * increase retryTimes
+     * 
+     * @return the retry times after increasing
+     */
+    public int increaseRetryTimes() {
+        return ++retryTimes;
+    }
+
     /**
      * ack
      */
@@ -36,20 +36,30 @@ import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.inlong.common.metric.MetricItemMBean.DOMAIN_SEPARATOR;
 import static org.apache.inlong.common.metric.MetricRegister.JMX_DOMAIN;
 import static org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder.KEY_CLUSTER_ID;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_COUNT;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_LATENCY;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_BULK_REJECT_COUNT;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_DISPATCH_QUEUE_SIZE;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_INFLIGHT_BYTES;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_NODE_DURATION;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_FAIL_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_FAIL_SIZE;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_SUCCESS_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_READ_SUCCESS_SIZE;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_REPLAY_DISK_SIZE;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_REPLAY_LAG_COUNT;
+import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_REPLAY_LAG_SIZE;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_FAIL_COUNT;
 import static org.apache.inlong.sort.standalone.metrics.SortMetricItem.M_SEND_FAIL_SIZE;
@@ -69,6 +79,10 @@ public class PrometheusMetricListener extends Collector implements MetricListene
     public static final String KEY_PROMETHEUS_HTTP_PORT = "prometheusHttpPort";
     public static final int DEFAULT_PROMETHEUS_HTTP_PORT = 8080;
     public static final String DEFAULT_DIMENSION_LABEL = "dimension";
+    // gauge is the sum of current values, not accumulated between snapshots
+    public static final Set<String> GAUGE_METRICS = new HashSet<>(
+            Arrays.asList(M_INFLIGHT_BYTES, M_DISPATCH_QUEUE_SIZE, M_REPLAY_LAG_COUNT, M_REPLAY_LAG_SIZE,
+                    M_REPLAY_DISK_SIZE));
 
     private String metricName;
     private SortMetricItem metricItem;
@@ -111,6 +125,16 @@ public class PrometheusMetricListener extends Collector implements MetricListene
         metricValueMap.put(M_SINK_DURATION, metricItem.sinkDuration);
         metricValueMap.put(M_NODE_DURATION, metricItem.nodeDuration);
         metricValueMap.put(M_WHOLE_DURATION, metricItem.wholeDuration);
+        //
+        metricValueMap.put(M_BULK_COUNT, metricItem.bulkCount);
+        metricValueMap.put(M_BULK_LATENCY, metricItem.bulkLatency);
+        metricValueMap.put(M_BULK_REJECT_COUNT, metricItem.bulkRejectCount);
+        metricValueMap.put(M_INFLIGHT_BYTES, metricItem.inflightBytes);
+        metricValueMap.put(M_DISPATCH_QUEUE_SIZE, metricItem.dispatchQueueSize);
+        //
+        metricValueMap.put(M_REPLAY_LAG_COUNT, metricItem.replayLagCount);
+        metricValueMap.put(M_REPLAY_LAG_SIZE, metricItem.replayLagSize);
+        metricValueMap.put(M_REPLAY_DISK_SIZE, metricItem.replayDiskSize);
 
         int httpPort = CommonPropertiesHolder.getInteger(KEY_PROMETHEUS_HTTP_PORT, DEFAULT_PROMETHEUS_HTTP_PORT);
         try {
@@ -130,6 +154,7 @@ public class PrometheusMetricListener extends Collector implements MetricListene
      */
     @Override
     public void snapshot(String domain, List<MetricItemValue> itemValues) {
+        GAUGE_METRICS.forEach((fieldName) -> this.metricValueMap.get(fieldName).set(0));
         for (MetricItemValue itemValue : itemValues) {
             // total
             for (Entry<String, MetricValue> entry : itemValue.getMetrics().entrySet()) {
@@ -165,6 +190,10 @@ public class PrometheusMetricListener extends Collector implements MetricListene
                     dimensionMetricValue.getMetrics().put(metricValue.name, metricValue);
                     continue;
                 }
+                if (GAUGE_METRICS.contains(fieldName)) {
+                    metricValue.value = entry.getValue().value;
+                    continue;
+                }
                 metricValue.value += entry.getValue().value;
             }
         }
@@ -197,6 +226,16 @@ public class PrometheusMetricListener extends Collector implements MetricListene
         totalCounter.addMetric(Arrays.asList(M_SINK_DURATION), metricItem.sinkDuration.get());
         totalCounter.addMetric(Arrays.asList(M_NODE_DURATION), metricItem.nodeDuration.get());
         totalCounter.addMetric(Arrays.asList(M_WHOLE_DURATION), metricItem.wholeDuration.get());
+        //
+        totalCounter.addMetric(Arrays.asList(M_BULK_COUNT), metricItem.bulkCount.get());
+        totalCounter.addMetric(Arrays.asList(M_BULK_LATENCY), metricItem.bulkLatency.get());
+        totalCounter.addMetric(Arrays.asList(M_BULK_REJECT_COUNT), metricItem.bulkRejectCount.get());
+        totalCounter.addMetric(Arrays.asList(M_INFLIGHT_BYTES), metricItem.inflightBytes.get());
+        totalCounter.addMetric(Arrays.asList(M_DISPATCH_QUEUE_SIZE), metricItem.dispatchQueueSize.get());
+        //
+        totalCounter.addMetric(Arrays.asList(M_REPLAY_LAG_COUNT), metricItem.replayLagCount.get());
+        totalCounter.addMetric(Arrays.asList(M_REPLAY_LAG_SIZE), metricItem.replayLagSize.get());
+        totalCounter.addMetric(Arrays.asList(M_REPLAY_DISK_SIZE), metricItem.replayDiskSize.get());
         List<MetricFamilySamples> mfs = new ArrayList<>();
         mfs.add(totalCounter);
 
@@ -222,6 +261,17 @@ public class PrometheusMetricListener extends Collector implements MetricListene
             addCounterMetricFamily(M_SINK_DURATION, itemValue, idCounter);
             addCounterMetricFamily(M_NODE_DURATION, itemValue, idCounter);
             addCounterMetricFamily(M_WHOLE_DURATION, itemValue, idCounter);
+            // bulk
+            addCounterMetricFamily(M_BULK_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_BULK_LATENCY, itemValue, idCounter);
+            addCounterMetricFamily(M_BULK_REJECT_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_INFLIGHT_BYTES, itemValue, idCounter);
+            // dispatch
+            addCounterMetricFamily(M_DISPATCH_QUEUE_SIZE, itemValue, idCounter);
+            // replay
+            addCounterMetricFamily(M_REPLAY_LAG_COUNT, itemValue, idCounter);
+            addCounterMetricFamily(M_REPLAY_LAG_SIZE, itemValue, idCounter);
+            addCounterMetricFamily(M_REPLAY_DISK_SIZE, itemValue, idCounter);
         }
         mfs.add(idCounter);
         return mfs;
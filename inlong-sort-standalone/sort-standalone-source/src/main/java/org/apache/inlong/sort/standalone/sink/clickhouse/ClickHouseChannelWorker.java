@@ -23,12 +23,20 @@ import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 import org.apache.flume.lifecycle.LifecycleState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import ru.yandex.clickhouse.ClickHouseConnection;
+import ru.yandex.clickhouse.ClickHouseStatement;
+import ru.yandex.clickhouse.domain.ClickHouseFormat;
+import ru.yandex.clickhouse.except.ClickHouseErrorCode;
+import ru.yandex.clickhouse.except.ClickHouseException;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * ClickHouseChannelWorker
@@ -36,12 +44,34 @@ import java.util.Map;
 public class ClickHouseChannelWorker extends Thread {
 
     public static final Logger LOG = LoggerFactory.getLogger(ClickHouseChannelWorker.class);
+    // the server errors caused by the values of a record, retrying them never succeeds
+    private static final Set<ClickHouseErrorCode> BAD_DATA_ERROR_CODES = EnumSet.of(
+            ClickHouseErrorCode.CANNOT_PARSE_TEXT,
+            ClickHouseErrorCode.CANNOT_PARSE_ESCAPE_SEQUENCE,
+            ClickHouseErrorCode.CANNOT_PARSE_QUOTED_STRING,
+            ClickHouseErrorCode.CANNOT_PARSE_INPUT_ASSERTION_FAILED,
+            ClickHouseErrorCode.CANNOT_PARSE_DATE,
+            ClickHouseErrorCode.CANNOT_PARSE_DATETIME,
+            ClickHouseErrorCode.CANNOT_PARSE_NUMBER,
+            ClickHouseErrorCode.CANNOT_PARSE_UUID,
+            ClickHouseErrorCode.CANNOT_PARSE_DOMAIN_VALUE_FROM_STRING,
+            ClickHouseErrorCode.CANNOT_CONVERT_TYPE,
+            ClickHouseErrorCode.TYPE_MISMATCH,
+            ClickHouseErrorCode.INCORRECT_DATA,
+            ClickHouseErrorCode.VALUE_IS_OUT_OF_RANGE_OF_DATA_TYPE,
+            ClickHouseErrorCode.DECIMAL_OVERFLOW,
+            ClickHouseErrorCode.TOO_LARGE_STRING_SIZE,
+            ClickHouseErrorCode.SIZE_OF_FIXED_STRING_DOESNT_MATCH);
 
     private final ClickHouseSinkContext context;
     private final int workerIndex;
     private LifecycleState status;
     private IEventHandler handler;
+    // RowBinary encoder converts values as DefaultEventHandler, so it is disabled for other handlers
+    private final boolean rowBinaryInsert;
     private Connection conn;
+    private final ClickHouseFieldParser fieldParser = new ClickHouseFieldParser();
+    private final LinkedBlockingQueue<DispatchProfile> dispatchQueue;
 
     /**
      * Constructor
@@ -52,8 +82,15 @@ public class ClickHouseChannelWorker extends Thread {
     public ClickHouseChannelWorker(ClickHouseSinkContext context, int workerIndex) {
         this.context = context;
         this.workerIndex = workerIndex;
+        this.dispatchQueue = context.getDispatchQueue(workerIndex);
         this.status = LifecycleState.IDLE;
         this.handler = this.context.createEventHandler();
+        this.rowBinaryInsert = context.isRowBinaryInsert() && handler != null
+                && handler.getClass() == DefaultEventHandler.class;
+        if (context.isRowBinaryInsert() && !rowBinaryInsert) {
+            LOG.warn("RowBinary insert is disabled for event handler:{},task:{}",
+                    handler == null ? null : handler.getClass().getName(), context.getTaskName());
+        }
     }
 
     /**
@@ -76,7 +113,7 @@ public class ClickHouseChannelWorker extends Thread {
      * doRun
      */
     public void doRun() {
-        DispatchProfile currentRecord = context.getDispatchQueue().poll();
+        DispatchProfile currentRecord = dispatchQueue.poll();
         try {
             // prepare
             if (currentRecord == null) {
@@ -101,6 +138,13 @@ public class ClickHouseChannelWorker extends Thread {
             if (this.conn == null) {
                 this.reconnect();
             }
+            // stream typed rows by RowBinary, or fallback to jdbc batch
+            ClickHouseRowBinaryEncoder encoder = idConfig.getRowBinaryEncoder();
+            if (rowBinaryInsert && encoder != null) {
+                this.sendRowBinary(currentRecord, encoder);
+                return;
+            }
+            long sendTime = System.currentTimeMillis();
             try (PreparedStatement pstat = this.conn.prepareStatement(insertSql)) {
                 for (ProfileEvent event : currentRecord.getEvents()) {
                     Map<String, String> columnValueMap = this.handler.parse(idConfig, event);
@@ -110,17 +154,85 @@ public class ClickHouseChannelWorker extends Thread {
                 pstat.executeBatch();
                 this.conn.commit();
             } catch (Exception e) {
+                // the record is put back to dispatch queue
                 this.reconnect();
+                throw e;
             }
+            context.addSendSuccessMetric(currentRecord, sendTime);
+            currentRecord.ack();
         } catch (Throwable e) {
             LOG.error(e.getMessage(), e);
             if (currentRecord != null) {
-                context.getDispatchQueue().add(currentRecord);
+                this.retryOrDrop(currentRecord, e);
             }
             this.sleepOneInterval();
         }
     }
 
+    /**
+     * put the failed record back to dispatch queue, a record which the server rejects because of its values
+     * is dropped after maxRetryTimes, so that a poison record is not retried forever
+     * 
+     * @param currentRecord
+     * @param e
+     */
+    private void retryOrDrop(DispatchProfile currentRecord, Throwable e) {
+        if (isBadData(e) && currentRecord.increaseRetryTimes() > context.getMaxRetryTimes()) {
+            LOG.error("drop record after {} retries,uid:{},count:{},error:{}", context.getMaxRetryTimes(),
+                    currentRecord.getUid(), currentRecord.getCount(), e.getMessage());
+            context.addSendFailMetric("retry limit exceeded", currentRecord);
+            currentRecord.ack();
+            return;
+        }
+        dispatchQueue.add(currentRecord);
+    }
+
+    /**
+     * isBadData, whether the server rejects the record because of its values, judged by the ClickHouse error code
+     * in the cause chain, all the other errors are retried without limit
+     * 
+     * @param  e
+     * @return
+     */
+    static boolean isBadData(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ClickHouseException) {
+                ClickHouseErrorCode errorCode =
+                        ClickHouseErrorCode.fromCode(((ClickHouseException) cause).getErrorCode());
+                return errorCode != null && BAD_DATA_ERROR_CODES.contains(errorCode);
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * sendRowBinary
+     * 
+     * @param  currentRecord
+     * @param  encoder
+     * @throws SQLException
+     */
+    private void sendRowBinary(DispatchProfile currentRecord, ClickHouseRowBinaryEncoder encoder)
+            throws SQLException {
+        long sendTime = System.currentTimeMillis();
+        try (ClickHouseStatement stat = this.conn.unwrap(ClickHouseConnection.class).createStatement()) {
+            stat.write().send(encoder.getInsertSql(), stream -> {
+                for (ProfileEvent event : currentRecord.getEvents()) {
+                    encoder.writeRow(event, fieldParser, stream);
+                }
+            }, ClickHouseFormat.RowBinary);
+        } catch (SQLException e) {
+            // the record is put back to dispatch queue by caller
+            this.reconnect();
+            throw e;
+        }
+        context.addSendSuccessMetric(currentRecord, sendTime);
+        currentRecord.ack();
+    }
+
     /**
      * close
      */
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import java.util.Arrays;
+
+/**
+ *
+ * ClickHouseFieldParser, split the event body into fields on bytes, with the same escape rules of
+ * UnescapeHelper.toFiledList. Only the boundaries of fields are recorded, the escaped fields are unescaped
+ * into a buffer reused by the following events, so it must be owned by one worker.
+ */
+public class ClickHouseFieldParser {
+
+    private static final byte ESCAPE = '\\';
+    private static final int INIT_FIELD_COUNT = 64;
+    private static final int INIT_BUFFER_SIZE = 4096;
+
+    private byte[] body;
+    private int[] starts = new int[INIT_FIELD_COUNT];
+    private int[] ends = new int[INIT_FIELD_COUNT];
+    private boolean[] escaped = new boolean[INIT_FIELD_COUNT];
+    private int fieldCount;
+    // unescaped content of escaped fields
+    private byte[] buffer = new byte[INIT_BUFFER_SIZE];
+    private int bufferLength;
+    private int[] bufferStarts = new int[INIT_FIELD_COUNT];
+
+    /**
+     * parse
+     *
+     * @param body
+     * @param offset start of content in body
+     * @param separator
+     */
+    public void parse(byte[] body, int offset, byte separator) {
+        this.body = body;
+        this.fieldCount = 0;
+        this.bufferLength = 0;
+        int length = body.length;
+        if (offset >= length) {
+            return;
+        }
+        int fieldStart = offset;
+        boolean fieldEscaped = false;
+        for (int i = offset; i < length; i++) {
+            byte value = body[i];
+            if (value == ESCAPE && i + 1 < length) {
+                byte next = body[i + 1];
+                if (next == '0' || next == 'n' || next == 'r' || next == ESCAPE || next == separator) {
+                    fieldEscaped = true;
+                    i++;
+                }
+            } else if (value == separator) {
+                addField(fieldStart, i, fieldEscaped, separator);
+                fieldStart = i + 1;
+                fieldEscaped = false;
+            }
+        }
+        // the content after the last separator is a field, even if it is empty
+        addField(fieldStart, length, fieldEscaped, separator);
+    }
+
+    /**
+     * getFieldCount
+     *
+     * @return
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * get data array of field, it is the body for unescaped fields, or the inner buffer for escaped fields
+     *
+     * @param  index
+     * @return
+     */
+    public byte[] getData(int index) {
+        return escaped[index] ? buffer : body;
+    }
+
+    /**
+     * getStart
+     *
+     * @param  index
+     * @return
+     */
+    public int getStart(int index) {
+        return escaped[index] ? bufferStarts[index] : starts[index];
+    }
+
+    /**
+     * getLength
+     *
+     * @param  index
+     * @return
+     */
+    public int getLength(int index) {
+        return ends[index] - getStart(index);
+    }
+
+    private void addField(int start, int end, boolean fieldEscaped, byte separator) {
+        if (fieldCount == starts.length) {
+            int newLength = starts.length * 2;
+            starts = Arrays.copyOf(starts, newLength);
+            ends = Arrays.copyOf(ends, newLength);
+            escaped = Arrays.copyOf(escaped, newLength);
+            bufferStarts = Arrays.copyOf(bufferStarts, newLength);
+        }
+        starts[fieldCount] = start;
+        escaped[fieldCount] = fieldEscaped;
+        if (fieldEscaped) {
+            bufferStarts[fieldCount] = bufferLength;
+            ends[fieldCount] = unescape(start, end, separator);
+        } else {
+            ends[fieldCount] = end;
+        }
+        fieldCount++;
+    }
+
+    /**
+     * unescape the field into buffer
+     *
+     * @return end of the field in buffer
+     */
+    private int unescape(int start, int end, byte separator) {
+        if (buffer.length - bufferLength < end - start) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + end - start));
+        }
+        for (int i = start; i < end; i++) {
+            byte value = body[i];
+            if (value == ESCAPE && i + 1 < end) {
+                byte next = body[i + 1];
+                if (next == '0') {
+                    // UnescapeHelper appends the int 0x00, which is the text "0"
+                    value = '0';
+                    i++;
+                } else if (next == 'n') {
+                    value = '\n';
+                    i++;
+                } else if (next == 'r') {
+                    value = '\r';
+                    i++;
+                } else if (next == ESCAPE || next == separator) {
+                    value = next;
+                    i++;
+                }
+            }
+            buffer[bufferLength++] = value;
+        }
+        return bufferLength;
+    }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.inlong.sort.standalone.sink.clickhouse;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.ArrayList;
@@ -42,6 +43,7 @@ public class ClickHouseIdConfig {
     private List<String> contentFieldList;
     private List<Pair<String, Integer>> dbFieldList;
     private String insertSql;
+    private ClickHouseRowBinaryEncoder rowBinaryEncoder;
 
     /**
      * parseFieldList
@@ -215,4 +217,22 @@ public class ClickHouseIdConfig {
         this.insertSql = insertSql;
     }
 
+    /**
+     * get rowBinaryEncoder
+     * @return the rowBinaryEncoder, null if some db field type is not supported by RowBinary
+     */
+    @JsonIgnore
+    public ClickHouseRowBinaryEncoder getRowBinaryEncoder() {
+        return rowBinaryEncoder;
+    }
+
+    /**
+     * set rowBinaryEncoder
+     * @param rowBinaryEncoder the rowBinaryEncoder to set
+     */
+    @JsonIgnore
+    public void setRowBinaryEncoder(ClickHouseRowBinaryEncoder rowBinaryEncoder) {
+        this.rowBinaryEncoder = rowBinaryEncoder;
+    }
+
 }
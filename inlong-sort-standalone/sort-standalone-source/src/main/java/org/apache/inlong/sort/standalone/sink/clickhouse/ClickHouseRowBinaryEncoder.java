@@ -0,0 +1,473 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.yandex.clickhouse.util.ClickHouseRowBinaryStream;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ *
+ * ClickHouseRowBinaryEncoder, write the fields of event body into RowBinary format, with typed column encoders
+ * derived from the db field types of ClickHouseIdConfig.
+ * <p/>
+ * The values are converted in the same way of DefaultEventHandler, missing field is an empty string, illegal number
+ * is 0 and illegal time is 0, so it must not be used with any other IEventHandler.
+ */
+public class ClickHouseRowBinaryEncoder {
+
+    public static final Logger LOG = LoggerFactory.getLogger(ClickHouseRowBinaryEncoder.class);
+
+    public static final String FIELD_FTIME = "ftime";
+    public static final String FIELD_EXTINFO = DefaultEventHandler.KEY_EXTINFO;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final Pattern NULLABLE = Pattern.compile("^Nullable\\((.+)\\)$");
+    private static final Pattern LOW_CARDINALITY = Pattern.compile("^LowCardinality\\((.+)\\)$");
+    private static final Pattern FIXED_STRING = Pattern.compile("^FixedString\\((\\d+)\\)$");
+    private static final Pattern DECIMAL = Pattern.compile("^Decimal\\((\\d+),\\s*(\\d+)\\)$");
+    private static final Pattern DECIMAL_BITS = Pattern.compile("^Decimal(32|64|128|256)\\((\\d+)\\)$");
+    private static final int MAX_FAST_PARSE_DIGITS = 18;
+    // scale of NumberUtils.toScaledBigDecimal used by DefaultEventHandler
+    private static final int DEFAULT_DECIMAL_SCALE = 2;
+    private static final byte[] EMPTY = new byte[0];
+
+    // index of content field for each column, or one of the special sources below
+    private static final int SOURCE_FTIME = -1;
+    private static final int SOURCE_EXTINFO = -2;
+    private static final int SOURCE_NONE = -3;
+
+    private final String insertSql;
+    private final int[] columnSources;
+    private final ColumnEncoder[] columnEncoders;
+    private final int contentOffset;
+    private final byte separator;
+
+    private ClickHouseRowBinaryEncoder(String insertSql, int[] columnSources, ColumnEncoder[] columnEncoders,
+            int contentOffset, byte separator) {
+        this.insertSql = insertSql;
+        this.columnSources = columnSources;
+        this.columnEncoders = columnEncoders;
+        this.contentOffset = contentOffset;
+        this.separator = separator;
+    }
+
+    /**
+     * create encoder
+     *
+     * @param  idConfig
+     * @param  dbFieldTypeNames ClickHouse type names of db fields
+     * @return null if any type is not supported, the id should be written by jdbc
+     */
+    public static ClickHouseRowBinaryEncoder create(ClickHouseIdConfig idConfig, List<String> dbFieldTypeNames) {
+        List<String> dbFieldNames = new ArrayList<>();
+        idConfig.getDbFieldList().forEach(field -> dbFieldNames.add(field.getKey()));
+        String separator = idConfig.getSeparator();
+        if (dbFieldTypeNames.size() != dbFieldNames.size() || separator.length() != 1 || separator.charAt(0) > 0x7f) {
+            return null;
+        }
+        int[] columnSources = new int[dbFieldNames.size()];
+        ColumnEncoder[] columnEncoders = new ColumnEncoder[dbFieldNames.size()];
+        List<String> contentFieldList = idConfig.getContentFieldList();
+        for (int i = 0; i < dbFieldNames.size(); i++) {
+            String fieldName = dbFieldNames.get(i);
+            String typeName = dbFieldTypeNames.get(i);
+            ColumnEncoder encoder = typeName == null ? null : createColumnEncoder(typeName);
+            if (encoder == null) {
+                LOG.info("Unsupported RowBinary type:{} of field:{},group:{},stream:{}", typeName,
+                        fieldName, idConfig.getInlongGroupId(), idConfig.getInlongStreamId());
+                return null;
+            }
+            columnEncoders[i] = encoder;
+            if (FIELD_FTIME.equals(fieldName)) {
+                columnSources[i] = SOURCE_FTIME;
+            } else if (FIELD_EXTINFO.equals(fieldName)) {
+                columnSources[i] = SOURCE_EXTINFO;
+            } else {
+                int index = contentFieldList.indexOf(fieldName);
+                columnSources[i] = index >= 0 ? index : SOURCE_NONE;
+            }
+        }
+        String insertSql = "insert into " + idConfig.getTableName() + " (" + String.join(",", dbFieldNames) + ")";
+        return new ClickHouseRowBinaryEncoder(insertSql, columnSources, columnEncoders, idConfig.getContentOffset(),
+                (byte) separator.charAt(0));
+    }
+
+    /**
+     * get insertSql, without values and format
+     * @return the insertSql
+     */
+    public String getInsertSql() {
+        return insertSql;
+    }
+
+    /**
+     * write one event as a row
+     *
+     * @param  event
+     * @param  parser field parser owned by the current worker
+     * @param  out
+     * @throws IOException
+     */
+    public void writeRow(ProfileEvent event, ClickHouseFieldParser parser, ClickHouseRowBinaryStream out)
+            throws IOException {
+        parser.parse(event.getBody(), Math.max(contentOffset, 0), separator);
+        int fieldCount = parser.getFieldCount();
+        for (int i = 0; i < columnSources.length; i++) {
+            int source = columnSources[i];
+            ColumnEncoder encoder = columnEncoders[i];
+            if (source == SOURCE_FTIME) {
+                encoder.writeTime(out, event.getRawLogTime());
+            } else if (source == SOURCE_EXTINFO) {
+                byte[] extinfo = DefaultEventHandler.getExtInfo(event).getBytes(Charset.defaultCharset());
+                encoder.write(out, extinfo, 0, extinfo.length);
+            } else if (source >= 0 && source < fieldCount) {
+                encoder.write(out, parser.getData(source), parser.getStart(source), parser.getLength(source));
+            } else {
+                encoder.write(out, EMPTY, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * createColumnEncoder
+     *
+     * @param  typeName
+     * @return null if the type is not supported
+     */
+    static ColumnEncoder createColumnEncoder(String typeName) {
+        String type = typeName.trim();
+        Matcher matcher = LOW_CARDINALITY.matcher(type);
+        if (matcher.matches()) {
+            // LowCardinality is transparent in RowBinary
+            type = matcher.group(1);
+        }
+        matcher = NULLABLE.matcher(type);
+        if (matcher.matches()) {
+            ColumnEncoder inner = createColumnEncoder(matcher.group(1));
+            return inner == null ? null : new NullableEncoder(inner);
+        }
+        switch (type) {
+            case "Int8":
+                return new IntEncoder(1, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case "Int16":
+                return new IntEncoder(2, Short.MIN_VALUE, Short.MAX_VALUE);
+            case "Int32":
+                return new IntEncoder(4, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case "Int64":
+                return new IntEncoder(8, Long.MIN_VALUE, Long.MAX_VALUE);
+            case "UInt8":
+                return new IntEncoder(1, 0, 0xFFL);
+            case "UInt16":
+                return new IntEncoder(2, 0, 0xFFFFL);
+            case "UInt32":
+                return new IntEncoder(4, 0, 0xFFFFFFFFL);
+            case "UInt64":
+                return new UInt64Encoder();
+            case "Float32":
+                return new Float32Encoder();
+            case "Float64":
+                return new Float64Encoder();
+            case "String":
+                return new StringEncoder();
+            case "Date":
+                return new DateEncoder(false);
+            case "DateTime":
+                return new DateEncoder(true);
+            default:
+                break;
+        }
+        matcher = FIXED_STRING.matcher(type);
+        if (matcher.matches()) {
+            return new FixedStringEncoder(Integer.parseInt(matcher.group(1)));
+        }
+        matcher = DECIMAL.matcher(type);
+        if (matcher.matches()) {
+            return DecimalEncoder.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        }
+        matcher = DECIMAL_BITS.matcher(type);
+        if (matcher.matches()) {
+            int bits = Integer.parseInt(matcher.group(1));
+            int precision = bits == 32 ? 9 : bits == 64 ? 18 : bits == 128 ? 38 : 76;
+            return DecimalEncoder.of(precision, Integer.parseInt(matcher.group(2)));
+        }
+        return null;
+    }
+
+    /**
+     * parse long from bytes without creating String
+     *
+     * @return defaultValue if the bytes is not a legal long
+     */
+    static long parseLong(byte[] data, int start, int length, long defaultValue) {
+        if (data == null || length <= 0) {
+            return defaultValue;
+        }
+        int i = start;
+        int end = start + length;
+        boolean negative = false;
+        if (data[i] == '-' || data[i] == '+') {
+            negative = data[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            return defaultValue;
+        }
+        if (end - i > MAX_FAST_PARSE_DIGITS) {
+            return NumberUtils.toLong(toText(data, start, length), defaultValue);
+        }
+        long result = 0;
+        for (; i < end; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return defaultValue;
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
+    }
+
+    private static String toText(byte[] data, int start, int length) {
+        return data == null ? "" : new String(data, start, length, Charset.defaultCharset());
+    }
+
+    private static Date parseTime(byte[] data, int start, int length) {
+        try {
+            LocalDateTime time = LocalDateTime.parse(toText(data, start, length), TIME_FORMATTER);
+            return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+        } catch (Exception e) {
+            return new Date(0);
+        }
+    }
+
+    /**
+     *
+     * ColumnEncoder
+     */
+    abstract static class ColumnEncoder {
+
+        /**
+         * write the field value, the field is empty if it is missing
+         */
+        abstract void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException;
+
+        /**
+         * write time value, formatted as string by default
+         */
+        void writeTime(ClickHouseRowBinaryStream out, long time) throws IOException {
+            byte[] value = TIME_FORMATTER.format(Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()))
+                    .getBytes(Charset.defaultCharset());
+            write(out, value, 0, value.length);
+        }
+    }
+
+    private static class NullableEncoder extends ColumnEncoder {
+
+        private final ColumnEncoder inner;
+
+        NullableEncoder(ColumnEncoder inner) {
+            this.inner = inner;
+        }
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            out.markNextNullable(false);
+            inner.write(out, data, start, length);
+        }
+
+        @Override
+        void writeTime(ClickHouseRowBinaryStream out, long time) throws IOException {
+            out.markNextNullable(false);
+            inner.writeTime(out, time);
+        }
+    }
+
+    private static class IntEncoder extends ColumnEncoder {
+
+        private final int size;
+        private final long min;
+        private final long max;
+
+        IntEncoder(int size, long min, long max) {
+            this.size = size;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            long value = parseLong(data, start, length, 0);
+            if (value < min || value > max) {
+                value = 0;
+            }
+            switch (size) {
+                case 1:
+                    out.writeByte((byte) value);
+                    break;
+                case 2:
+                    out.writeInt16((short) value);
+                    break;
+                case 4:
+                    out.writeInt32((int) value);
+                    break;
+                default:
+                    out.writeInt64(value);
+                    break;
+            }
+        }
+    }
+
+    private static class UInt64Encoder extends ColumnEncoder {
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            long value = parseLong(data, start, length, -1);
+            if (value >= 0) {
+                out.writeUInt64(value);
+                return;
+            }
+            try {
+                out.writeUInt64(new BigInteger(toText(data, start, length)));
+            } catch (Exception e) {
+                out.writeUInt64(0);
+            }
+        }
+    }
+
+    private static class Float32Encoder extends ColumnEncoder {
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            out.writeFloat32(NumberUtils.toFloat(toText(data, start, length), 0));
+        }
+    }
+
+    private static class Float64Encoder extends ColumnEncoder {
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            out.writeFloat64(NumberUtils.toDouble(toText(data, start, length), 0));
+        }
+    }
+
+    private static class StringEncoder extends ColumnEncoder {
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            out.writeUnsignedLeb128(length);
+            out.writeBytes(data, start, length);
+        }
+    }
+
+    private static class FixedStringEncoder extends ColumnEncoder {
+
+        private final int size;
+
+        FixedStringEncoder(int size) {
+            this.size = size;
+        }
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            int writeLength = Math.min(length, size);
+            if (writeLength > 0) {
+                out.writeBytes(data, start, writeLength);
+            }
+            for (int i = writeLength; i < size; i++) {
+                out.writeByte((byte) 0);
+            }
+        }
+    }
+
+    private static class DateEncoder extends ColumnEncoder {
+
+        private final boolean withTime;
+
+        DateEncoder(boolean withTime) {
+            this.withTime = withTime;
+        }
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            writeDate(out, parseTime(data, start, length));
+        }
+
+        @Override
+        void writeTime(ClickHouseRowBinaryStream out, long time) throws IOException {
+            // no need to format and parse the time again
+            writeDate(out, new Date(time));
+        }
+
+        private void writeDate(ClickHouseRowBinaryStream out, Date date) throws IOException {
+            if (withTime) {
+                out.writeDateTime(date);
+            } else {
+                out.writeDate(date);
+            }
+        }
+    }
+
+    private static class DecimalEncoder extends ColumnEncoder {
+
+        private final int precision;
+        private final int scale;
+
+        private DecimalEncoder(int precision, int scale) {
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        static DecimalEncoder of(int precision, int scale) {
+            return precision > 76 || scale > precision ? null : new DecimalEncoder(precision, scale);
+        }
+
+        @Override
+        void write(ClickHouseRowBinaryStream out, byte[] data, int start, int length) throws IOException {
+            // rounded as DefaultEventHandler does before it is scaled to the column
+            BigDecimal value = NumberUtils.toScaledBigDecimal(toText(data, start, length), DEFAULT_DECIMAL_SCALE,
+                    RoundingMode.HALF_EVEN).setScale(scale, RoundingMode.DOWN);
+            if (precision <= 9) {
+                out.writeDecimal32(value, scale);
+            } else if (precision <= 18) {
+                out.writeDecimal64(value, scale);
+            } else if (precision <= 38) {
+                out.writeDecimal128(value, scale);
+            } else {
+                out.writeDecimal256(value, scale);
+            }
+        }
+    }
+}
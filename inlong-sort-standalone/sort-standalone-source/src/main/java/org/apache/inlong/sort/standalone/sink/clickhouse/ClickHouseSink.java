@@ -19,7 +19,6 @@ package org.apache.inlong.sort.standalone.sink.clickhouse;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.dispatch.DispatchManager;
-import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 
 import org.apache.flume.Channel;
 import org.apache.flume.Context;
@@ -34,7 +33,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -48,7 +46,6 @@ public class ClickHouseSink extends AbstractSink implements Configurable {
     private Context parentContext;
     private ClickHouseSinkContext context;
     private DispatchManager dispatchManager;
-    private LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
     // workers
     private List<ClickHouseChannelWorker> workers = new ArrayList<>();
     // schedule
@@ -61,20 +58,21 @@ public class ClickHouseSink extends AbstractSink implements Configurable {
     public void start() {
         super.start();
         try {
-            this.context = new ClickHouseSinkContext(getName(), parentContext, getChannel(), dispatchQueue);
+            this.context = new ClickHouseSinkContext(getName(), parentContext, getChannel());
             this.context.start();
             for (int i = 0; i < context.getMaxThreads(); i++) {
                 ClickHouseChannelWorker worker = new ClickHouseChannelWorker(context, i);
                 this.workers.add(worker);
                 worker.start();
             }
-            this.dispatchManager = new DispatchManager(parentContext, dispatchQueue);
+            this.dispatchManager = new DispatchManager(parentContext, context.getDispatchQueues());
             this.scheduledPool = Executors.newScheduledThreadPool(1);
             // dispatch
             this.scheduledPool.scheduleWithFixedDelay(new Runnable() {
 
                 public void run() {
                     dispatchManager.setNeedOutputOvertimeData();
+                    context.addDispatchQueueMetric();
                 }
             }, this.dispatchManager.getDispatchTimeout(), this.dispatchManager.getDispatchTimeout(),
                     TimeUnit.MILLISECONDS);
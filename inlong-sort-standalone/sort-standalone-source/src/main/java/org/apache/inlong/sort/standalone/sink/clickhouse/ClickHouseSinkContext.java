@@ -23,6 +23,7 @@ import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
 import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigHolder;
 import org.apache.inlong.sort.standalone.config.pojo.InlongId;
+import org.apache.inlong.sort.standalone.dispatch.DispatchManager;
 import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 import org.apache.inlong.sort.standalone.metrics.SortMetricItem;
 import org.apache.inlong.sort.standalone.metrics.audit.AuditUtils;
@@ -66,16 +67,23 @@ public class ClickHouseSinkContext extends SinkContext {
     public static final String KEY_JDBC_USERNAME = "jdbcUsername";
     public static final String KEY_JDBC_PASSWORD = "jdbcPassword";
     public static final String KEY_EVENT_HANDLER = "clickHouseEventHandler";
+    public static final String KEY_INSERT_MODE = "insertMode";
+    public static final String INSERT_MODE_JDBC = "jdbc";
+    public static final String INSERT_MODE_ROW_BINARY = "rowBinary";
+    public static final String KEY_MAX_RETRY_TIMES = "maxRetryTimes";
+    public static final int DEFAULT_MAX_RETRY_TIMES = 3;
 
     private Context parentContext;
     private String nodeId;
     private Map<String, ClickHouseIdConfig> idConfigMap = new ConcurrentHashMap<>();
-    private final LinkedBlockingQueue<DispatchProfile> dispatchQueue;
+    private final List<LinkedBlockingQueue<DispatchProfile>> dispatchQueues;
     // jdbc config
     private String jdbcDriver;
     private String jdbcUrl;
     private String jdbcUsername;
     private String jdbcPassword;
+    private String insertMode = INSERT_MODE_JDBC;
+    private int maxRetryTimes = DEFAULT_MAX_RETRY_TIMES;
 
     /**
      * Constructor
@@ -84,11 +92,11 @@ public class ClickHouseSinkContext extends SinkContext {
      * @param context
      * @param channel
      */
-    public ClickHouseSinkContext(String sinkName, Context context, Channel channel,
-            LinkedBlockingQueue<DispatchProfile> dispatchQueue) {
+    public ClickHouseSinkContext(String sinkName, Context context, Channel channel) {
         super(sinkName, context, channel);
         this.parentContext = context;
-        this.dispatchQueue = dispatchQueue;
+        // every worker polls its own partition queue when dispatchPartitions equals maxThreads
+        this.dispatchQueues = DispatchManager.createDispatchQueues(context, getMaxThreads());
         this.nodeId = CommonPropertiesHolder.getString(KEY_NODE_ID, NetworkUtils.getLocalIp());
     }
 
@@ -122,6 +130,8 @@ public class ClickHouseSinkContext extends SinkContext {
             this.jdbcUrl = currentContext.getString(KEY_JDBC_URL);
             this.jdbcUsername = currentContext.getString(KEY_JDBC_USERNAME);
             this.jdbcPassword = currentContext.getString(KEY_JDBC_PASSWORD);
+            this.insertMode = currentContext.getString(KEY_INSERT_MODE, INSERT_MODE_JDBC);
+            this.maxRetryTimes = currentContext.getInteger(KEY_MAX_RETRY_TIMES, DEFAULT_MAX_RETRY_TIMES);
             Class.forName(this.jdbcDriver);
             // load DB field
             this.initIdConfig(newIdConfigMap);
@@ -149,11 +159,13 @@ public class ClickHouseSinkContext extends SinkContext {
                 idConfig.setContentFieldList(ClickHouseIdConfig.parseFieldNames(idConfig.getContentFieldNames()));
                 // load db field type
                 Map<String, Integer> fullTypeMap = new HashMap<>();
+                Map<String, String> fullTypeNameMap = new HashMap<>();
                 try (ResultSet rs = stat.executeQuery("select * from " + idConfig.getTableName())) {
                     ResultSetMetaData meta = rs.getMetaData();
                     int columnCount = meta.getColumnCount();
                     for (int i = 1; i <= columnCount; i++) {
                         fullTypeMap.put(meta.getColumnName(i), meta.getColumnType(i));
+                        fullTypeNameMap.put(meta.getColumnName(i), meta.getColumnTypeName(i));
                     }
                 } catch (Exception e) {
                     LOG.error("Can not get metadata,group:{},stream:{},error:{}", idConfig.getInlongGroupId(),
@@ -166,6 +178,10 @@ public class ClickHouseSinkContext extends SinkContext {
                     dbFieldList.add(new Pair<>(fieldName, fullTypeMap.getOrDefault(fieldName, Types.VARCHAR)));
                 });
                 idConfig.setDbFieldList(dbFieldList);
+                // typed encoder of RowBinary
+                List<String> dbFieldTypeNameList = new ArrayList<>(dbFieldNameList.size());
+                dbFieldNameList.forEach((fieldName) -> dbFieldTypeNameList.add(fullTypeNameMap.get(fieldName)));
+                idConfig.setRowBinaryEncoder(ClickHouseRowBinaryEncoder.create(idConfig, dbFieldTypeNameList));
                 // load db sql
                 StringBuilder insertSql = new StringBuilder();
                 insertSql.append("insert into ").append(idConfig.getTableName()).append(" (");
@@ -209,6 +225,21 @@ public class ClickHouseSinkContext extends SinkContext {
         metricItem.sendSize.addAndGet(currentRecord.getSize());
     }
 
+    /**
+     * addDispatchQueueMetric
+     */
+    public void addDispatchQueueMetric() {
+        for (int i = 0; i < dispatchQueues.size(); i++) {
+            Map<String, String> dimensions = new HashMap<>();
+            dimensions.put(SortMetricItem.KEY_CLUSTER_ID, this.getClusterId());
+            dimensions.put(SortMetricItem.KEY_TASK_NAME, this.getTaskName());
+            dimensions.put(SortMetricItem.KEY_SINK_ID, this.getSinkName());
+            dimensions.put(SortMetricItem.KEY_PARTITION, String.valueOf(i));
+            SortMetricItem metricItem = this.getMetricItemSet().findMetricItem(dimensions);
+            metricItem.dispatchQueueSize.set(dispatchQueues.get(i).size());
+        }
+    }
+
     /**
      * addReadFailMetric
      * @param errorMsg
@@ -396,11 +427,44 @@ public class ClickHouseSinkContext extends SinkContext {
     }
 
     /**
-     * get dispatchQueue
+     * get insertMode
+     * @return the insertMode
+     */
+    public String getInsertMode() {
+        return insertMode;
+    }
+
+    /**
+     * get maxRetryTimes
+     * @return the retry times of a record which the server rejects because of its values
+     */
+    public int getMaxRetryTimes() {
+        return maxRetryTimes;
+    }
+
+    /**
+     * isRowBinaryInsert
+     * @return true if events are written by RowBinary stream
+     */
+    public boolean isRowBinaryInsert() {
+        return INSERT_MODE_ROW_BINARY.equalsIgnoreCase(insertMode);
+    }
+
+    /**
+     * get dispatchQueue of worker, the workers share the partition queue if partitions are less than workers
+     * @param  workerIndex
      * @return the dispatchQueue
      */
-    public LinkedBlockingQueue<DispatchProfile> getDispatchQueue() {
-        return dispatchQueue;
+    public LinkedBlockingQueue<DispatchProfile> getDispatchQueue(int workerIndex) {
+        return dispatchQueues.get(workerIndex % dispatchQueues.size());
+    }
+
+    /**
+     * get dispatchQueues
+     * @return the partition queues
+     */
+    public List<LinkedBlockingQueue<DispatchProfile>> getDispatchQueues() {
+        return dispatchQueues;
     }
 
     /**
@@ -36,9 +36,11 @@ import java.util.concurrent.atomic.AtomicLong;
 public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHandler {
 
     public static final String KEY_EXTINFO = "extinfo";
+    public static final String KEY_FTIME = "ftime";
 
     private SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     private AtomicLong esIndexIndex = new AtomicLong(System.currentTimeMillis());
+    private EsJsonSourceWriter sourceWriter;
 
     /**
      * parse
@@ -75,25 +77,9 @@ public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHand
         int columnLength = fieldList.size();
         // field offset
         int fieldOffset = idConfig.getFieldOffset();
-        // get field value
-        Map<String, String> fieldMap = new HashMap<>();
-        for (int i = fieldOffset; i < columnLength; ++i) {
-            String fieldName = fieldList.get(i);
-            int columnIndex = i - fieldOffset;
-            String fieldValue = columnIndex < valueLength ? columnVlues.get(columnIndex) : "";
-            byte[] fieldBytes = fieldValue.getBytes(Charset.defaultCharset());
-            if (fieldBytes.length > context.getKeywordMaxLength()) {
-                fieldValue = new String(fieldBytes, 0, context.getKeywordMaxLength());
-            }
-            fieldMap.put(fieldName, fieldValue);
-        }
-
-        // ftime
+        // ftime and extinfo
         String ftime = dateFormat.format(new Date(event.getRawLogTime()));
-        fieldMap.put("ftime", ftime);
-        // extinfo
         String extinfo = getExtInfo(event);
-        fieldMap.put("extinfo", extinfo);
         String indexName = idConfig.parseIndexName(event.getRawLogTime());
         // build
         EsIndexRequest indexRequest = new EsIndexRequest(indexName, event);
@@ -101,10 +87,54 @@ public class DefaultEvent2IndexRequestHandler implements IEvent2IndexRequestHand
             String esIndexId = uid + delimeter + event.getRawLogTime() + delimeter + esIndexIndex.incrementAndGet();
             indexRequest.id(esIndexId);
         }
-        indexRequest.source(fieldMap);
+        EsJsonSourceWriter writer = this.getSourceWriter(context);
+        if (writer == null) {
+            Map<String, String> fieldMap = new HashMap<>();
+            for (int i = fieldOffset; i < columnLength; ++i) {
+                String fieldName = fieldList.get(i);
+                int columnIndex = i - fieldOffset;
+                String fieldValue = columnIndex < valueLength ? columnVlues.get(columnIndex) : "";
+                byte[] fieldBytes = fieldValue.getBytes(Charset.defaultCharset());
+                if (fieldBytes.length > context.getKeywordMaxLength()) {
+                    fieldValue = new String(fieldBytes, 0, context.getKeywordMaxLength());
+                }
+                fieldMap.put(fieldName, fieldValue);
+            }
+            fieldMap.put(KEY_FTIME, ftime);
+            fieldMap.put(KEY_EXTINFO, extinfo);
+            indexRequest.source(fieldMap);
+            return indexRequest;
+        }
+        // serialize fields into pooled buffer, ftime and extinfo override the same name fields
+        writer.begin();
+        for (int i = fieldOffset; i < columnLength; ++i) {
+            String fieldName = fieldList.get(i);
+            if (KEY_FTIME.equals(fieldName) || KEY_EXTINFO.equals(fieldName)) {
+                continue;
+            }
+            int columnIndex = i - fieldOffset;
+            String fieldValue = columnIndex < valueLength ? columnVlues.get(columnIndex) : "";
+            writer.writeField(fieldName, fieldValue, context.getKeywordMaxLength());
+        }
+        writer.writeField(KEY_FTIME, ftime, Integer.MAX_VALUE);
+        writer.writeField(KEY_EXTINFO, extinfo, Integer.MAX_VALUE);
+        writer.end(indexRequest);
         return indexRequest;
     }
 
+    /**
+     * getSourceWriter
+     * 
+     * @param  context
+     * @return         null if the source buffer pool is not ready
+     */
+    private EsJsonSourceWriter getSourceWriter(EsSinkContext context) {
+        if (sourceWriter == null && context.getSourceBufferPool() != null) {
+            sourceWriter = new EsJsonSourceWriter(context.getSourceBufferPool());
+        }
+        return sourceWriter;
+    }
+
     /**
      * getExtInfo
      * 
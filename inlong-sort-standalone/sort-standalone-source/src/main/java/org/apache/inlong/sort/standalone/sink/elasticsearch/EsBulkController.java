@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * EsBulkController, tune the bulk action and the concurrent bulks by the response of elasticsearch.<br>
+ * The limits are decreased by half when a bulk is rejected or its latency is over the target,
+ * and are increased step by step when a full bulk is responded quickly.
+ */
+public class EsBulkController {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(EsBulkController.class);
+    public static final int INCREASE_STEP_RATIO = 10;
+
+    private final EsSinkContext context;
+    private final Map<Long, long[]> inflightMap = new ConcurrentHashMap<>();
+    private final AtomicInteger inflightBulks = new AtomicInteger(0);
+    private final AtomicLong inflightBytes = new AtomicLong(0);
+    private final Object capacityLock = new Object();
+    private volatile int bulkAction = Integer.MAX_VALUE;
+    private volatile int concurrentRequests = Integer.MAX_VALUE;
+
+    /**
+     * Constructor
+     *
+     * @param context
+     */
+    public EsBulkController(EsSinkContext context) {
+        this.context = context;
+    }
+
+    /**
+     * get current bulkAction, between minBulkAction and bulkAction of sink context
+     *
+     * @return
+     */
+    public int getBulkAction() {
+        int maxBulkAction = Math.max(1, context.getBulkAction());
+        int minBulkAction = Math.min(maxBulkAction, Math.max(1, context.getMinBulkAction()));
+        return Math.max(minBulkAction, Math.min(maxBulkAction, bulkAction));
+    }
+
+    /**
+     * get current concurrentRequests, between 1 and concurrentRequests of sink context
+     *
+     * @return
+     */
+    public int getConcurrentRequests() {
+        return Math.max(1, Math.min(context.getConcurrentRequests(), concurrentRequests));
+    }
+
+    /**
+     * get inflightBulks
+     *
+     * @return
+     */
+    public int getInflightBulks() {
+        return inflightBulks.get();
+    }
+
+    /**
+     * get inflightBytes
+     *
+     * @return
+     */
+    public long getInflightBytes() {
+        return inflightBytes.get();
+    }
+
+    /**
+     * isSaturated
+     *
+     * @return true if the count of inflight bulks reaches the current concurrentRequests
+     */
+    public boolean isSaturated() {
+        return inflightBulks.get() >= getConcurrentRequests();
+    }
+
+    /**
+     * wait until a new bulk can be sent
+     *
+     * @param  timeoutMs
+     * @return           true if a new bulk can be sent
+     * @throws InterruptedException
+     */
+    public boolean awaitCapacity(long timeoutMs) throws InterruptedException {
+        synchronized (capacityLock) {
+            if (isSaturated()) {
+                capacityLock.wait(timeoutMs);
+            }
+            return !isSaturated();
+        }
+    }
+
+    /**
+     * onBulkStart
+     *
+     * @param executionId
+     * @param request
+     */
+    public void onBulkStart(long executionId, BulkRequest request) {
+        long bytes = request.estimatedSizeInBytes();
+        inflightMap.put(executionId, new long[]{System.currentTimeMillis(), bytes});
+        inflightBulks.incrementAndGet();
+        inflightBytes.addAndGet(bytes);
+    }
+
+    /**
+     * onBulkEnd
+     *
+     * @param  executionId
+     * @param  request
+     * @param  rejectCount item count rejected by elasticsearch
+     * @param  isFailed    true if the whole bulk is failed
+     * @return             latency of bulk(milliseconds), 0 if the bulk is not started by onBulkStart
+     */
+    public long onBulkEnd(long executionId, BulkRequest request, int rejectCount, boolean isFailed) {
+        long[] inflight = inflightMap.remove(executionId);
+        if (inflight == null) {
+            return 0;
+        }
+        long latency = System.currentTimeMillis() - inflight[0];
+        inflightBytes.addAndGet(-inflight[1]);
+        this.adjust(latency, request.numberOfActions(), rejectCount > 0 || isFailed);
+        inflightBulks.decrementAndGet();
+        synchronized (capacityLock) {
+            capacityLock.notifyAll();
+        }
+        return latency;
+    }
+
+    /**
+     * adjust
+     *
+     * @param latency
+     * @param actionCount
+     * @param isRejected
+     */
+    private synchronized void adjust(long latency, int actionCount, boolean isRejected) {
+        int currentBulkAction = this.getBulkAction();
+        int currentConcurrentRequests = this.getConcurrentRequests();
+        long targetLatency = context.getTargetBulkLatencyMs();
+        if (isRejected) {
+            this.bulkAction = currentBulkAction / 2;
+            this.concurrentRequests = currentConcurrentRequests / 2;
+        } else if (latency > targetLatency) {
+            this.bulkAction = currentBulkAction / 2;
+            this.concurrentRequests = currentConcurrentRequests - 1;
+        } else if (latency < targetLatency / 2 && actionCount >= currentBulkAction) {
+            int step = Math.max(1, context.getBulkAction() / INCREASE_STEP_RATIO);
+            this.bulkAction = currentBulkAction + step;
+            this.concurrentRequests = currentConcurrentRequests + 1;
+        } else {
+            return;
+        }
+        if (currentBulkAction != getBulkAction() || currentConcurrentRequests != getConcurrentRequests()) {
+            LOG.info("adjust bulk,taskName:{},latency:{},rejected:{},bulkAction:{},concurrentRequests:{}",
+                    context.getTaskName(), latency, isRejected, getBulkAction(), getConcurrentRequests());
+        }
+    }
+}
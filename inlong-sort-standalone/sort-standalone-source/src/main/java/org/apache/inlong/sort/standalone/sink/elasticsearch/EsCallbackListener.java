@@ -20,11 +20,13 @@ package org.apache.inlong.sort.standalone.sink.elasticsearch;
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.action.DocWriteRequest;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.rest.RestStatus;
 import org.slf4j.Logger;
 
 import java.util.List;
@@ -57,6 +59,7 @@ public class EsCallbackListener implements BulkProcessor.Listener {
     @Override
     public void beforeBulk(long executionId, BulkRequest request) {
         LOG.debug("beforeBulk,executionId:{},request:{}", executionId, request);
+        context.getBulkController().onBulkStart(executionId, request);
     }
 
     /**
@@ -71,6 +74,14 @@ public class EsCallbackListener implements BulkProcessor.Listener {
         LOG.debug("afterBulk,executionId,executionId:{},request:{},response:{}", executionId, request, response);
         BulkItemResponse[] itemResponses = response.getItems();
         List<DocWriteRequest<?>> requests = request.requests();
+        int rejectCount = 0;
+        for (BulkItemResponse responseItem : itemResponses) {
+            if (responseItem.isFailed() && responseItem.getFailure().getStatus() == RestStatus.TOO_MANY_REQUESTS) {
+                rejectCount++;
+            }
+        }
+        long latency = context.getBulkController().onBulkEnd(executionId, request, rejectCount, false);
+        context.addBulkMetric(latency, rejectCount);
         if (itemResponses.length != requests.size()) {
             LOG.error("BulkItemResponse size is not equal to IndexRequest size:requestSize:{},responseSize:{}",
                     requests.size(), itemResponses.length);
@@ -92,6 +103,13 @@ public class EsCallbackListener implements BulkProcessor.Listener {
                 event.ack();
             }
         }
+        // the requests without response are retried
+        for (int i = itemResponses.length; i < requests.size(); i++) {
+            EsIndexRequest requestItem = (EsIndexRequest) requests.get(i);
+            context.addSendResultMetric(requestItem.getEvent(), context.getTaskName(), false,
+                    requestItem.getSendTime());
+            context.backDispatchQueue(requestItem);
+        }
     }
 
     /**
@@ -107,6 +125,11 @@ public class EsCallbackListener implements BulkProcessor.Listener {
         String errorMsg = String.format("EsSenderError,whole bulk,errorMsg:%s,count:%d", failure.getMessage(),
                 request.numberOfActions());
         LOG.error(errorMsg, failure);
+        int rejectCount = ExceptionsHelper.status(failure) == RestStatus.TOO_MANY_REQUESTS
+                ? request.numberOfActions()
+                : 0;
+        long latency = context.getBulkController().onBulkEnd(executionId, request, rejectCount, true);
+        context.addBulkMetric(latency, rejectCount);
 
         // monitor
         List<DocWriteRequest<?>> requests = request.requests();
@@ -72,9 +72,19 @@ public class EsChannelWorker extends Thread {
      * doRun
      */
     public void doRun() {
+        // pause when elasticsearch is saturated, the events are kept in channel
+        if (context.isDispatchPaused()) {
+            try {
+                Thread.sleep(context.getProcessInterval());
+            } catch (InterruptedException e) {
+                LOG.error(e.getMessage(), e);
+            }
+            return;
+        }
         Channel channel = context.getChannel();
         Transaction tx = channel.getTransaction();
         tx.begin();
+        EsIndexRequest indexRequest = null;
         try {
             Event event = channel.take();
             if (event == null) {
@@ -90,10 +100,11 @@ public class EsChannelWorker extends Thread {
             }
             // to profileEvent
             ProfileEvent profileEvent = (ProfileEvent) event;
-            EsIndexRequest indexRequest = handler.parse(context, profileEvent);
+            indexRequest = handler.parse(context, profileEvent);
             // offer queue
             if (indexRequest != null) {
                 context.offerDispatchQueue(indexRequest);
+                indexRequest = null;
             } else {
                 context.addSendFailMetric();
                 profileEvent.ack();
@@ -102,6 +113,10 @@ public class EsChannelWorker extends Thread {
             return;
         } catch (Throwable t) {
             LOG.error("Process event failed!" + this.getName(), t);
+            // the event is taken again after rollback, so the source buffer of parsed request is returned
+            if (indexRequest != null && context.getSourceBufferPool() != null) {
+                context.getSourceBufferPool().release(indexRequest.getSourceBuffer());
+            }
             try {
                 tx.rollback();
             } catch (Throwable e) {
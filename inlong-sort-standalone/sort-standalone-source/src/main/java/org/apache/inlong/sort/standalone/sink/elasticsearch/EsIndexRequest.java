@@ -29,6 +29,7 @@ public class EsIndexRequest extends IndexRequest {
     public static final String OP_TYPE = "log";
     private final ProfileEvent event;
     private final long sendTime;
+    private byte[] sourceBuffer;
 
     /**
      * Constructor
@@ -60,4 +61,22 @@ public class EsIndexRequest extends IndexRequest {
         return sendTime;
     }
 
+    /**
+     * get sourceBuffer
+     * 
+     * @return the pooled buffer of source, null if the source is not in pooled buffer
+     */
+    public byte[] getSourceBuffer() {
+        return sourceBuffer;
+    }
+
+    /**
+     * set sourceBuffer
+     * 
+     * @param sourceBuffer the sourceBuffer to set
+     */
+    public void setSourceBuffer(byte[] sourceBuffer) {
+        this.sourceBuffer = sourceBuffer;
+    }
+
 }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import org.elasticsearch.common.xcontent.XContentType;
+
+import java.util.Arrays;
+
+/**
+ *
+ * EsJsonSourceWriter, serialize the string fields of an index request into a pooled buffer as UTF-8 json.<br>
+ * It is not thread safe, every handler owns one writer.
+ */
+public class EsJsonSourceWriter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final EsSourceBufferPool pool;
+    private byte[] buffer;
+    private int position;
+    private int fieldCount;
+
+    /**
+     * Constructor
+     *
+     * @param pool
+     */
+    public EsJsonSourceWriter(EsSourceBufferPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * begin a new source
+     */
+    public void begin() {
+        // the buffer of a source which failed before end is reused
+        if (buffer == null) {
+            this.buffer = pool.borrow();
+        }
+        this.position = 0;
+        this.fieldCount = 0;
+        this.writeByte('{');
+    }
+
+    /**
+     * writeField
+     *
+     * @param fieldName
+     * @param fieldValue
+     * @param maxValueBytes the value is truncated if its UTF-8 length is over this length
+     */
+    public void writeField(String fieldName, String fieldValue, int maxValueBytes) {
+        if (fieldCount++ > 0) {
+            this.writeByte(',');
+        }
+        this.writeString(fieldName, Integer.MAX_VALUE);
+        this.writeByte(':');
+        this.writeString(fieldValue, maxValueBytes);
+    }
+
+    /**
+     * end the source and set it to index request
+     *
+     * @param indexRequest
+     */
+    public void end(EsIndexRequest indexRequest) {
+        this.writeByte('}');
+        indexRequest.source(buffer, 0, position, XContentType.JSON);
+        indexRequest.setSourceBuffer(buffer);
+        this.buffer = null;
+    }
+
+    /**
+     * writeString
+     *
+     * @param value
+     * @param maxBytes
+     */
+    private void writeString(String value, int maxBytes) {
+        this.writeByte('"');
+        int valueBytes = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            int charBytes;
+            int codePoint = c;
+            if (c < 0x80) {
+                charBytes = 1;
+            } else if (c < 0x800) {
+                charBytes = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                charBytes = 4;
+                codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+            } else if (Character.isSurrogate(c)) {
+                charBytes = 1;
+                codePoint = '?';
+            } else {
+                charBytes = 3;
+            }
+            valueBytes += charBytes;
+            if (valueBytes > maxBytes) {
+                break;
+            }
+            if (charBytes == 4) {
+                i++;
+            }
+            this.writeCodePoint(codePoint);
+        }
+        this.writeByte('"');
+    }
+
+    /**
+     * writeCodePoint
+     *
+     * @param codePoint
+     */
+    private void writeCodePoint(int codePoint) {
+        this.ensureCapacity(6);
+        byte[] bytes = this.buffer;
+        if (codePoint < 0x80) {
+            switch (codePoint) {
+                case '"':
+                case '\\':
+                    bytes[position++] = '\\';
+                    bytes[position++] = (byte) codePoint;
+                    return;
+                case '\n':
+                    bytes[position++] = '\\';
+                    bytes[position++] = 'n';
+                    return;
+                case '\r':
+                    bytes[position++] = '\\';
+                    bytes[position++] = 'r';
+                    return;
+                case '\t':
+                    bytes[position++] = '\\';
+                    bytes[position++] = 't';
+                    return;
+                default:
+                    break;
+            }
+            if (codePoint < 0x20) {
+                bytes[position++] = '\\';
+                bytes[position++] = 'u';
+                bytes[position++] = '0';
+                bytes[position++] = '0';
+                bytes[position++] = HEX[codePoint >> 4];
+                bytes[position++] = HEX[codePoint & 0xF];
+            } else {
+                bytes[position++] = (byte) codePoint;
+            }
+        } else if (codePoint < 0x800) {
+            bytes[position++] = (byte) (0xC0 | (codePoint >> 6));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            bytes[position++] = (byte) (0xE0 | (codePoint >> 12));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+    }
+
+    /**
+     * writeByte
+     *
+     * @param value
+     */
+    private void writeByte(char value) {
+        this.ensureCapacity(1);
+        this.buffer[position++] = (byte) value;
+    }
+
+    /**
+     * ensureCapacity, a grown buffer is not pooled, the pooled one is released at once
+     *
+     * @param size
+     */
+    private void ensureCapacity(int size) {
+        if (position + size <= buffer.length) {
+            return;
+        }
+        byte[] oldBuffer = this.buffer;
+        this.buffer = Arrays.copyOf(oldBuffer, Math.max(position + size, oldBuffer.length * 2));
+        pool.release(oldBuffer);
+    }
+}
@@ -41,6 +41,7 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 
 /**
@@ -49,11 +50,14 @@ import java.util.function.BiConsumer;
 public class EsOutputChannel extends Thread {
 
     public static final Logger LOG = InlongLoggerFactory.getLogger(EsOutputChannel.class);
+    public static final long MB_BYTES = 1024L * 1024L;
 
     private LifecycleState status;
     private EsSinkContext context;
     private RestHighLevelClient esClient;
     private BulkProcessor bulkProcessor;
+    private EsCallbackListener bulkListener;
+    private AtomicLong executionIdGenerator = new AtomicLong(0);
 
     /**
      * Constructor
@@ -70,7 +74,7 @@ public class EsOutputChannel extends Thread {
      * init
      */
     public void init() {
-        if (initEsclient()) {
+        if (initEsclient() && !context.isAdaptiveBulk()) {
             initBulkprocessIfNeed();
         }
     }
@@ -164,7 +168,9 @@ public class EsOutputChannel extends Thread {
     public void close() {
         status = LifecycleState.STOP;
         try {
-            this.bulkProcessor.close();
+            if (this.bulkProcessor != null) {
+                this.bulkProcessor.close();
+            }
         } catch (Exception e) {
             LOG.error(String.format("close bulkProcessor:%s", e.getMessage()), e);
         }
@@ -184,7 +190,11 @@ public class EsOutputChannel extends Thread {
         LOG.info("start to EsOutputChannel:{},status:{}", context.getTaskName(), status);
         while (status == LifecycleState.START) {
             try {
-                this.send();
+                if (context.isAdaptiveBulk()) {
+                    this.sendBulk();
+                } else {
+                    this.send();
+                }
             } catch (Throwable t) {
                 LOG.error(t.getMessage(), t);
             }
@@ -214,8 +224,7 @@ public class EsOutputChannel extends Thread {
             // get id config
             String uid = indexRequest.getEvent().getUid();
             if (context.getIdConfig(uid) == null) {
-                context.addSendResultMetric(indexRequest.getEvent(), context.getTaskName(), false,
-                        indexRequest.getSendTime());
+                this.dropRequest(indexRequest);
                 return;
             }
             // send
@@ -235,4 +244,74 @@ public class EsOutputChannel extends Thread {
             }
         }
     }
+
+    /**
+     * sendBulk, the bulk is built by the bulk controller and sent when the dispatch queue is drained,
+     * so the bulk is small when the traffic is low and grows up when the bulks are inflight.
+     *
+     * @throws InterruptedException
+     */
+    public void sendBulk() throws InterruptedException {
+        // check esClient
+        if (esClient == null && !initEsclient()) {
+            Thread.sleep(context.getProcessInterval());
+            return;
+        }
+        // wait inflight bulk
+        EsBulkController controller = context.getBulkController();
+        if (!controller.awaitCapacity(context.getProcessInterval())) {
+            return;
+        }
+        // build bulk
+        BulkRequest bulkRequest = new BulkRequest();
+        int bulkAction = controller.getBulkAction();
+        long bulkSize = context.getBulkSizeMb() * MB_BYTES;
+        while (bulkRequest.numberOfActions() < bulkAction && bulkRequest.estimatedSizeInBytes() < bulkSize) {
+            EsIndexRequest indexRequest = context.takeDispatchQueue();
+            if (indexRequest == null) {
+                break;
+            }
+            String uid = indexRequest.getEvent().getUid();
+            if (context.getIdConfig(uid) == null) {
+                this.dropRequest(indexRequest);
+                continue;
+            }
+            bulkRequest.add(indexRequest);
+            context.addSendMetric(indexRequest.getEvent(), context.getTaskName());
+        }
+        if (bulkRequest.numberOfActions() == 0) {
+            Thread.sleep(context.getProcessInterval());
+            return;
+        }
+        // send
+        if (bulkListener == null) {
+            bulkListener = new EsCallbackListener(context);
+        }
+        final EsCallbackListener listener = bulkListener;
+        final long executionId = executionIdGenerator.incrementAndGet();
+        listener.beforeBulk(executionId, bulkRequest);
+        try {
+            esClient.bulkAsync(bulkRequest, RequestOptions.DEFAULT, ActionListener.wrap(
+                    (response) -> listener.afterBulk(executionId, bulkRequest, response),
+                    (e) -> listener.afterBulk(executionId, bulkRequest, e)));
+        } catch (Throwable e) {
+            LOG.error(e.getMessage(), e);
+            listener.afterBulk(executionId, bulkRequest, e);
+            esClient = null;
+            Thread.sleep(context.getProcessInterval());
+        }
+    }
+
+    /**
+     * dropRequest, the id config has been removed, so the request is acked as other sinks do,
+     * and its pooled source buffer is returned.
+     *
+     * @param indexRequest
+     */
+    private void dropRequest(EsIndexRequest indexRequest) {
+        context.addSendResultMetric(indexRequest.getEvent(), context.getTaskName(), false,
+                indexRequest.getSendTime());
+        context.releaseDispatchQueue(indexRequest);
+        indexRequest.getEvent().ack();
+    }
 }
@@ -69,6 +69,11 @@ public class EsSinkContext extends SinkContext {
     public static final String KEY_HTTP_HOSTS = "httpHosts";
     public static final String KEY_EVENT_INDEXREQUEST_HANDLER = "indexRequestHandler";
     public static final String KEY_IS_USE_INDEX_ID = "isUseIndexId";
+    public static final String KEY_ADAPTIVE_BULK = "adaptiveBulk";
+    public static final String KEY_MIN_BULK_ACTION = "minBulkAction";
+    public static final String KEY_TARGET_BULK_LATENCY_MS = "targetBulkLatencyMs";
+    public static final String KEY_SOURCE_BUFFER_SIZE = "sourceBufferSize";
+    public static final String KEY_SOURCE_BUFFER_POOL_SIZE = "sourceBufferPoolSize";
 
     public static final int DEFAULT_BULK_ACTION = 10000;
     public static final int DEFAULT_BULK_SIZE_MB = 20;
@@ -82,6 +87,11 @@ public class EsSinkContext extends SinkContext {
     public static final int DEFAULT_LOG_MAX_LENGTH = 32 * 1024;
     public static final int DEFAULT_KEYWORD_MAX_LENGTH = 8 * 1024;
     public static final boolean DEFAULT_IS_USE_INDEX_ID = false;
+    public static final boolean DEFAULT_ADAPTIVE_BULK = false;
+    public static final int DEFAULT_MIN_BULK_ACTION = 100;
+    public static final long DEFAULT_TARGET_BULK_LATENCY_MS = 1000L;
+    public static final int DEFAULT_SOURCE_BUFFER_SIZE = 4 * 1024;
+    public static final int DEFAULT_SOURCE_BUFFER_POOL_SIZE = 4096;
 
     private Context sinkContext;
     private String nodeId;
@@ -105,6 +115,12 @@ public class EsSinkContext extends SinkContext {
     private int logMaxLength = DEFAULT_LOG_MAX_LENGTH;
     private int keywordMaxLength = DEFAULT_KEYWORD_MAX_LENGTH;
     private boolean isUseIndexId = DEFAULT_IS_USE_INDEX_ID;
+    // adaptive bulk
+    private boolean isAdaptiveBulk = DEFAULT_ADAPTIVE_BULK;
+    private int minBulkAction = DEFAULT_MIN_BULK_ACTION;
+    private long targetBulkLatencyMs = DEFAULT_TARGET_BULK_LATENCY_MS;
+    private final EsBulkController bulkController;
+    private EsSourceBufferPool sourceBufferPool;
     // http host
     private String strHttpHosts;
     private HttpHost[] httpHosts;
@@ -123,6 +139,7 @@ public class EsSinkContext extends SinkContext {
         this.sinkContext = context;
         this.dispatchQueue = dispatchQueue;
         this.nodeId = CommonPropertiesHolder.getString(KEY_NODE_ID);
+        this.bulkController = new EsBulkController(this);
     }
 
     /**
@@ -172,6 +189,15 @@ public class EsSinkContext extends SinkContext {
             this.logMaxLength = sinkContext.getInteger(KEY_LOG_MAX_LENGTH, DEFAULT_LOG_MAX_LENGTH);
             this.keywordMaxLength = sinkContext.getInteger(KEY_KEYWORD_MAX_LENGTH, DEFAULT_KEYWORD_MAX_LENGTH);
             this.isUseIndexId = sinkContext.getBoolean(KEY_IS_USE_INDEX_ID, DEFAULT_IS_USE_INDEX_ID);
+            // adaptive bulk
+            this.isAdaptiveBulk = sinkContext.getBoolean(KEY_ADAPTIVE_BULK, DEFAULT_ADAPTIVE_BULK);
+            this.minBulkAction = sinkContext.getInteger(KEY_MIN_BULK_ACTION, DEFAULT_MIN_BULK_ACTION);
+            this.targetBulkLatencyMs = sinkContext.getLong(KEY_TARGET_BULK_LATENCY_MS, DEFAULT_TARGET_BULK_LATENCY_MS);
+            if (this.sourceBufferPool == null) {
+                this.sourceBufferPool = new EsSourceBufferPool(
+                        sinkContext.getInteger(KEY_SOURCE_BUFFER_SIZE, DEFAULT_SOURCE_BUFFER_SIZE),
+                        sinkContext.getInteger(KEY_SOURCE_BUFFER_POOL_SIZE, DEFAULT_SOURCE_BUFFER_POOL_SIZE));
+            }
             // http host
             this.strHttpHosts = sinkContext.getString(KEY_HTTP_HOSTS);
             if (!StringUtils.isBlank(strHttpHosts)) {
@@ -273,6 +299,24 @@ public class EsSinkContext extends SinkContext {
         }
     }
 
+    /**
+     * addBulkMetric
+     * 
+     * @param latency
+     * @param rejectCount
+     */
+    public void addBulkMetric(long latency, int rejectCount) {
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(SortMetricItem.KEY_CLUSTER_ID, this.getClusterId());
+        dimensions.put(SortMetricItem.KEY_TASK_NAME, this.getTaskName());
+        dimensions.put(SortMetricItem.KEY_SINK_ID, this.getSinkName());
+        SortMetricItem metricItem = this.getMetricItemSet().findMetricItem(dimensions);
+        metricItem.bulkCount.incrementAndGet();
+        metricItem.bulkLatency.addAndGet(latency);
+        metricItem.bulkRejectCount.addAndGet(rejectCount);
+        metricItem.inflightBytes.set(bulkController.getInflightBytes());
+    }
+
     /**
      * getIdConfig
      * 
@@ -363,6 +407,20 @@ public class EsSinkContext extends SinkContext {
      */
     public void releaseDispatchQueue(EsIndexRequest indexRequest) {
         dispatchQueue.release(indexRequest.getEvent().getBody().length);
+        if (sourceBufferPool != null) {
+            sourceBufferPool.release(indexRequest.getSourceBuffer());
+        }
+        indexRequest.setSourceBuffer(null);
+    }
+
+    /**
+     * isDispatchPaused
+     * 
+     * @return true if all bulks are inflight and the dispatch queue has enough requests for the next bulk
+     */
+    public boolean isDispatchPaused() {
+        return isAdaptiveBulk && bulkController.isSaturated()
+                && dispatchQueue.size() >= bulkController.getBulkAction();
     }
 
     /**
@@ -616,6 +674,78 @@ public class EsSinkContext extends SinkContext {
         this.isUseIndexId = isUseIndexId;
     }
 
+    /**
+     * get isAdaptiveBulk
+     * 
+     * @return the isAdaptiveBulk
+     */
+    public boolean isAdaptiveBulk() {
+        return isAdaptiveBulk;
+    }
+
+    /**
+     * set isAdaptiveBulk
+     * 
+     * @param isAdaptiveBulk the isAdaptiveBulk to set
+     */
+    public void setAdaptiveBulk(boolean isAdaptiveBulk) {
+        this.isAdaptiveBulk = isAdaptiveBulk;
+    }
+
+    /**
+     * get minBulkAction
+     * 
+     * @return the minBulkAction
+     */
+    public int getMinBulkAction() {
+        return minBulkAction;
+    }
+
+    /**
+     * set minBulkAction
+     * 
+     * @param minBulkAction the minBulkAction to set
+     */
+    public void setMinBulkAction(int minBulkAction) {
+        this.minBulkAction = minBulkAction;
+    }
+
+    /**
+     * get targetBulkLatencyMs
+     * 
+     * @return the targetBulkLatencyMs
+     */
+    public long getTargetBulkLatencyMs() {
+        return targetBulkLatencyMs;
+    }
+
+    /**
+     * set targetBulkLatencyMs
+     * 
+     * @param targetBulkLatencyMs the targetBulkLatencyMs to set
+     */
+    public void setTargetBulkLatencyMs(long targetBulkLatencyMs) {
+        this.targetBulkLatencyMs = targetBulkLatencyMs;
+    }
+
+    /**
+     * get bulkController
+     * 
+     * @return the bulkController
+     */
+    public EsBulkController getBulkController() {
+        return bulkController;
+    }
+
+    /**
+     * get sourceBufferPool
+     * 
+     * @return the sourceBufferPool
+     */
+    public EsSourceBufferPool getSourceBufferPool() {
+        return sourceBufferPool;
+    }
+
     /**
      * create indexRequestHandler
      * 
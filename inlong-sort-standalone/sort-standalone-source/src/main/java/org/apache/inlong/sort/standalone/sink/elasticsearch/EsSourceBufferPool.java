@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * EsSourceBufferPool, the pool of byte buffers which hold the json source of index requests.<br>
+ * A buffer is borrowed when the source is serialized, and is released after the index request is acked,
+ * the buffer grown for a large source is not pooled.
+ */
+public class EsSourceBufferPool {
+
+    private final int bufferSize;
+    private final int maxPooledCount;
+    private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledCount = new AtomicInteger(0);
+
+    /**
+     * Constructor
+     *
+     * @param bufferSize
+     * @param maxPooledCount
+     */
+    public EsSourceBufferPool(int bufferSize, int maxPooledCount) {
+        this.bufferSize = bufferSize;
+        this.maxPooledCount = maxPooledCount;
+    }
+
+    /**
+     * borrow
+     *
+     * @return
+     */
+    public byte[] borrow() {
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            return new byte[bufferSize];
+        }
+        pooledCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * release
+     *
+     * @param buffer
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        if (pooledCount.incrementAndGet() > maxPooledCount) {
+            pooledCount.decrementAndGet();
+            return;
+        }
+        buffers.offer(buffer);
+    }
+
+    /**
+     * get bufferSize
+     *
+     * @return the bufferSize
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * get pooledCount
+     *
+     * @return the pooledCount
+     */
+    public int getPooledCount() {
+        return pooledCount.get();
+    }
+}
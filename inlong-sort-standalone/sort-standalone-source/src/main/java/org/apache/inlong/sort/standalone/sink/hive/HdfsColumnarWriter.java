@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ *
+ * HdfsColumnarWriter, write the columns of events into orc or parquet file.<br>
+ * All columns are string, the rows are buffered into row groups by the writer, so the file can be read only after
+ * it is closed.
+ */
+public abstract class HdfsColumnarWriter {
+
+    /**
+     * create writer by the file format of idConfig
+     *
+     * @param  idConfig
+     * @param  compression codec name, the default codec of format is used if it is blank
+     * @param  blockSize   size of orc stripe or parquet row group
+     * @param  fs
+     * @param  path
+     * @return
+     * @throws IOException
+     */
+    public static HdfsColumnarWriter create(HdfsIdConfig idConfig, String compression, long blockSize,
+            FileSystem fs, Path path) throws IOException {
+        List<String> columnNames = idConfig.parseColumnNames();
+        if (HdfsIdConfig.FILE_FORMAT_ORC.equalsIgnoreCase(idConfig.getFileFormat())) {
+            return new OrcColumnarWriter(columnNames, compression, blockSize, fs, path);
+        }
+        if (HdfsIdConfig.FILE_FORMAT_PARQUET.equalsIgnoreCase(idConfig.getFileFormat())) {
+            return new ParquetColumnarWriter(columnNames, compression, blockSize, fs, path);
+        }
+        throw new IOException("Unsupported columnar file format:" + idConfig.getFileFormat());
+    }
+
+    /**
+     * getFileExtension
+     *
+     * @param  idConfig
+     * @return
+     */
+    public static String getFileExtension(HdfsIdConfig idConfig) {
+        return "." + idConfig.getFileFormat().toLowerCase();
+    }
+
+    /**
+     * write one row, the missing columns are null
+     *
+     * @param  columnValues
+     * @throws IOException
+     */
+    public abstract void write(List<String> columnValues) throws IOException;
+
+    /**
+     * flush the buffered rows and write the footer of file
+     *
+     * @throws IOException
+     */
+    public abstract void close() throws IOException;
+}
@@ -17,8 +17,13 @@
 
 package org.apache.inlong.sort.standalone.sink.hive;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.commons.lang3.StringUtils;
+
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +41,11 @@ public class HdfsIdConfig {
     public static final String REGEX_MINUTE = "\\{yyyyMMddHHmm\\}";
     public static final long HOUR_MS = 60L * 60 * 1000;
     public static final int SEPARATOR_LENGTH = 1;
+    public static final String FILE_FORMAT_TEXT = "text";
+    public static final String FILE_FORMAT_ORC = "orc";
+    public static final String FILE_FORMAT_PARQUET = "parquet";
+    public static final String FIELD_NAME_SEPARATOR = ",";
+    public static final String DEFAULT_CONTENT_FIELD_NAME = "content";
     private static ThreadLocal<SimpleDateFormat> FORMAT_DAY = new ThreadLocal<SimpleDateFormat>() {
 
         protected SimpleDateFormat initialValue() {
@@ -80,6 +90,11 @@ public class HdfsIdConfig {
     private String msgTimeFieldPattern;
     // close partition
     private long maxPartitionOpenDelayHour = 8;
+    // file format, text, orc or parquet
+    private String fileFormat = FILE_FORMAT_TEXT;
+    private String msgTimeFieldName = "msgtime";
+    // field names of body in columnar file, the whole body is one field if it is empty
+    private String fieldNames;
 
     /**
      * get inlongGroupId
@@ -281,6 +296,89 @@ public class HdfsIdConfig {
         this.hiveTableName = hiveTableName;
     }
 
+    /**
+     * get fileFormat
+     * 
+     * @return the fileFormat
+     */
+    public String getFileFormat() {
+        return fileFormat;
+    }
+
+    /**
+     * set fileFormat
+     * 
+     * @param fileFormat the fileFormat to set
+     */
+    public void setFileFormat(String fileFormat) {
+        this.fileFormat = fileFormat;
+    }
+
+    /**
+     * get msgTimeFieldName
+     * 
+     * @return the msgTimeFieldName
+     */
+    public String getMsgTimeFieldName() {
+        return msgTimeFieldName;
+    }
+
+    /**
+     * set msgTimeFieldName
+     * 
+     * @param msgTimeFieldName the msgTimeFieldName to set
+     */
+    public void setMsgTimeFieldName(String msgTimeFieldName) {
+        this.msgTimeFieldName = msgTimeFieldName;
+    }
+
+    /**
+     * get fieldNames
+     * 
+     * @return the fieldNames
+     */
+    public String getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * set fieldNames
+     * 
+     * @param fieldNames the fieldNames to set
+     */
+    public void setFieldNames(String fieldNames) {
+        this.fieldNames = fieldNames;
+    }
+
+    /**
+     * isColumnar
+     * 
+     * @return true if the file is written as orc or parquet
+     */
+    @JsonIgnore
+    public boolean isColumnar() {
+        return FILE_FORMAT_ORC.equalsIgnoreCase(fileFormat) || FILE_FORMAT_PARQUET.equalsIgnoreCase(fileFormat);
+    }
+
+    /**
+     * parseColumnNames, the columns of columnar file are partition field, msgTime field and the fields of body
+     * 
+     * @return
+     */
+    public List<String> parseColumnNames() {
+        List<String> columnNames = new ArrayList<>();
+        columnNames.add(partitionFieldName);
+        columnNames.add(msgTimeFieldName);
+        if (StringUtils.isBlank(fieldNames)) {
+            columnNames.add(DEFAULT_CONTENT_FIELD_NAME);
+            return columnNames;
+        }
+        for (String fieldName : fieldNames.split(FIELD_NAME_SEPARATOR)) {
+            columnNames.add(fieldName.trim());
+        }
+        return columnNames;
+    }
+
     /**
      * parsePartitionPath
      * 
@@ -17,17 +17,23 @@
 
 package org.apache.inlong.sort.standalone.sink.hive;
 
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
 import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
 
+import org.apache.commons.math3.util.Pair;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hdfs.DistributedFileSystem;
 import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 
@@ -42,21 +48,30 @@ public class HdfsIdFile {
     public static final String SUBPATH_OUT = "/out/";
     public static final byte SEPARATOR_MESSAGE = '\n';
     public static final String OUTTMP_FILE_POSTFIX = ".outtmp";
+    // rolled columnar files may be created in the same second
+    private static final AtomicLong COLUMNAR_FILE_INDEX = new AtomicLong(0);
 
     private final HiveSinkContext context;
     private final HdfsIdConfig idConfig;
     private final String strIdRootPath;
 
-    private final DistributedFileSystem fs;
+    private final FileSystem fs;
     private final Path intmpPath;
     private final Path inPath;
     private final Path outPath;
     private final Path intmpFilePath;
     private final String strIntmpFile;
     private final FSDataOutputStream intmpOutput;
+    private final HdfsColumnarWriter columnarWriter;
+    // profiles written into columnar file, they are acked after the file is closed
+    private final List<Pair<DispatchProfile, Long>> columnarProfiles = new ArrayList<>();
+    // written under the lock of the file, read by needRoll without it
+    private volatile long columnarSize;
+    private volatile long columnarEvents;
     private final long createTime;
     private long modifiedTime;
     private boolean isOpen = true;
+    private boolean isClosed = false;
 
     /**
      * Constructor
@@ -75,22 +90,34 @@ public class HdfsIdFile {
 
         String hdfsPath = context.getHdfsPath();
         this.intmpPath = new Path(hdfsPath + strIdRootPath + SUBPATH_INTMP);
-        this.fs = new DistributedFileSystem();
-        fs.initialize(new Path(hdfsPath).toUri(), new Configuration());
+        // not the cached instance because it is closed with the file, the scheme decides the implementation
+        this.fs = FileSystem.newInstance(new Path(hdfsPath).toUri(), new Configuration());
         fs.mkdirs(intmpPath);
         this.inPath = new Path(hdfsPath + strIdRootPath + SUBPATH_IN);
         fs.mkdirs(inPath);
         this.outPath = new Path(hdfsPath + strIdRootPath + SUBPATH_OUT);
         fs.mkdirs(outPath);
 
-        this.strIntmpFile = getFileName(context, createTime);
+        if (idConfig.isColumnar()) {
+            this.strIntmpFile = getFileName(context, createTime) + "." + COLUMNAR_FILE_INDEX.incrementAndGet()
+                    + HdfsColumnarWriter.getFileExtension(idConfig);
+        } else {
+            this.strIntmpFile = getFileName(context, createTime);
+        }
         this.intmpFilePath = new Path(intmpPath, strIntmpFile);
         // check if file exists
         if (fs.exists(intmpFilePath)) {
             // remove file
             fs.delete(intmpFilePath, true);
         }
-        this.intmpOutput = fs.create(intmpFilePath, true);
+        if (idConfig.isColumnar()) {
+            this.intmpOutput = null;
+            this.columnarWriter = HdfsColumnarWriter.create(idConfig, context.getColumnarCompression(),
+                    context.getColumnarBlockSizeMb() * HiveSinkContext.MB_BYTES, fs, intmpFilePath);
+        } else {
+            this.intmpOutput = fs.create(intmpFilePath, true);
+            this.columnarWriter = null;
+        }
     }
 
     /**
@@ -112,6 +139,10 @@ public class HdfsIdFile {
      */
     public void close() {
         this.isOpen = false;
+        if (columnarWriter != null) {
+            this.closeColumnarWriter();
+            return;
+        }
         if (intmpOutput != null) {
             try {
                 intmpOutput.flush();
@@ -129,6 +160,111 @@ public class HdfsIdFile {
         }
     }
 
+    /**
+     * writeColumnar, the profile is acked after the file is closed, so the unacked events are bounded by the roll
+     * conditions of file size, event count and open time.
+     * <p/>
+     * The rows of a profile can not be removed from the columnar file, if any row fails, the whole file is discarded
+     * and the profiles written before are put back to dispatch queue, the failed profile is put back by caller.
+     * 
+     * @param  profile
+     * @param  handler
+     * @param  sendTime
+     * @throws IOException
+     */
+    public void writeColumnar(DispatchProfile profile, IEventFormatHandler handler, long sendTime)
+            throws IOException {
+        try {
+            for (ProfileEvent event : profile.getEvents()) {
+                columnarWriter.write(handler.formatColumns(event, idConfig));
+                columnarSize += event.getBody().length;
+            }
+        } catch (IOException | RuntimeException e) {
+            this.discardColumnarWriter();
+            throw e;
+        }
+        columnarEvents += profile.getEvents().size();
+        columnarProfiles.add(new Pair<>(profile, sendTime));
+    }
+
+    /**
+     * needRoll, only columnar file is rolled, text file is merged when the partition is created
+     * 
+     * @param  maxFileSize
+     * @param  maxFileEvents
+     * @param  maxOpenTime
+     * @param  currentTime
+     * @return
+     */
+    public boolean needRoll(long maxFileSize, long maxFileEvents, long maxOpenTime, long currentTime) {
+        if (columnarWriter == null) {
+            return false;
+        }
+        return columnarSize >= maxFileSize || columnarEvents >= maxFileEvents
+                || currentTime - createTime >= maxOpenTime;
+    }
+
+    /**
+     * discardColumnarWriter, delete the file with partly written profile, and retry the profiles written before
+     */
+    private void discardColumnarWriter() {
+        this.isOpen = false;
+        this.isClosed = true;
+        LOG.error("discard columnar file:{} with {} profiles", intmpFilePath, columnarProfiles.size());
+        try {
+            columnarWriter.close();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+        try {
+            fs.delete(intmpFilePath, true);
+            this.fs.close();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+        for (Pair<DispatchProfile, Long> pair : columnarProfiles) {
+            DispatchProfile profile = pair.getKey();
+            context.addSendResultMetric(profile, context.getTaskName(), false, pair.getValue());
+            context.getDispatchQueue().offer(profile);
+        }
+        columnarProfiles.clear();
+    }
+
+    /**
+     * closeColumnarWriter
+     */
+    private void closeColumnarWriter() {
+        if (isClosed) {
+            return;
+        }
+        this.isClosed = true;
+        boolean result = false;
+        try {
+            columnarWriter.close();
+            result = true;
+            if (columnarProfiles.size() > 0) {
+                Path inFilePath = new Path(this.inPath, strIntmpFile);
+                fs.rename(intmpFilePath, inFilePath);
+            } else {
+                fs.delete(intmpFilePath, true);
+            }
+            this.fs.close();
+        } catch (Exception e) {
+            LOG.error(e.getMessage(), e);
+        }
+        // the data is readable only after the footer is written
+        for (Pair<DispatchProfile, Long> pair : columnarProfiles) {
+            DispatchProfile profile = pair.getKey();
+            context.addSendResultMetric(profile, context.getTaskName(), result, pair.getValue());
+            if (result) {
+                profile.ack();
+            } else {
+                context.getDispatchQueue().offer(profile);
+            }
+        }
+        columnarProfiles.clear();
+    }
+
     /**
      * get modifiedTime
      * 
@@ -219,6 +355,15 @@ public class HdfsIdFile {
         return intmpOutput;
     }
 
+    /**
+     * get columnarWriter
+     * 
+     * @return the columnarWriter, null if the file is text
+     */
+    public HdfsColumnarWriter getColumnarWriter() {
+        return columnarWriter;
+    }
+
     /**
      * get createTime
      * 
@@ -233,7 +378,7 @@ public class HdfsIdFile {
      * 
      * @return the fs
      */
-    public DistributedFileSystem getFs() {
+    public FileSystem getFs() {
         return fs;
     }
 
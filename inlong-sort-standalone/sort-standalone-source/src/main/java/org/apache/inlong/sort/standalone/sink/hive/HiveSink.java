@@ -204,6 +204,16 @@ public class HiveSink extends AbstractSink implements Configurable {
                 this.hdfsIdFileMap.remove(strIdRootPath);
                 idFile = null;
             }
+            // roll columnar file by size and time
+            if (idFile != null && idFile.needRoll(context.getMaxColumnarFileSizeMb() * HiveSinkContext.MB_BYTES,
+                    context.getMaxColumnarFileEvents(), context.getMaxFileOpenDelayMinute() * HiveSinkContext.MINUTE_MS,
+                    System.currentTimeMillis())) {
+                this.hdfsIdFileMap.remove(strIdRootPath);
+                synchronized (idFile) {
+                    idFile.close();
+                }
+                idFile = null;
+            }
             if (idFile == null) {
                 try {
                     idFile = new HdfsIdFile(context, idConfig, strIdRootPath);
@@ -66,8 +66,18 @@ public class HiveSinkContext extends SinkContext {
     public static final long DEFAULT_TOKEN_OVERTIME = 60L;
     public static final String KEY_MAX_OUTPUT_FILE_SIZE = "maxOutputFileSizeGb";
     public static final long DEFAULT_MAX_OUTPUT_FILE_SIZE = 2L;
+    // columnar file config
+    public static final String KEY_MAX_COLUMNAR_FILE_SIZE = "maxColumnarFileSizeMb";
+    public static final long DEFAULT_MAX_COLUMNAR_FILE_SIZE = 256L;
+    // events of columnar file are acked after the file is closed, keep it below the unacked limit of source
+    public static final String KEY_MAX_COLUMNAR_FILE_EVENTS = "maxColumnarFileEvents";
+    public static final long DEFAULT_MAX_COLUMNAR_FILE_EVENTS = 100000L;
+    public static final String KEY_COLUMNAR_BLOCK_SIZE = "columnarBlockSizeMb";
+    public static final long DEFAULT_COLUMNAR_BLOCK_SIZE = 64L;
+    public static final String KEY_COLUMNAR_COMPRESSION = "columnarCompression";
     public static final long MINUTE_MS = 60L * 1000;
     public static final long GB_BYTES = 1024L * 1024 * 1024;
+    public static final long MB_BYTES = 1024L * 1024;
     public static final long KB_BYTES = 1024L;
 
     // hive config
@@ -86,6 +96,10 @@ public class HiveSinkContext extends SinkContext {
     private long fileArchiveDelayMinute = 2 * maxFileOpenDelayMinute;
     private long tokenOvertimeMinute = DEFAULT_TOKEN_OVERTIME;
     private long maxOutputFileSizeGb = DEFAULT_MAX_OUTPUT_FILE_SIZE;
+    private long maxColumnarFileSizeMb = DEFAULT_MAX_COLUMNAR_FILE_SIZE;
+    private long maxColumnarFileEvents = DEFAULT_MAX_COLUMNAR_FILE_EVENTS;
+    private long columnarBlockSizeMb = DEFAULT_COLUMNAR_BLOCK_SIZE;
+    private String columnarCompression;
     // hive config
     private String hiveJdbcUrl;
     private String hiveDatabase;
@@ -160,6 +174,12 @@ public class HiveSinkContext extends SinkContext {
             this.fileArchiveDelayMinute = maxFileOpenDelayMinute + 1;
             this.tokenOvertimeMinute = parentContext.getLong(KEY_TOKEN_OVERTIME, DEFAULT_TOKEN_OVERTIME);
             this.maxOutputFileSizeGb = parentContext.getLong(KEY_MAX_OUTPUT_FILE_SIZE, DEFAULT_MAX_OUTPUT_FILE_SIZE);
+            this.maxColumnarFileSizeMb = parentContext.getLong(KEY_MAX_COLUMNAR_FILE_SIZE,
+                    DEFAULT_MAX_COLUMNAR_FILE_SIZE);
+            this.maxColumnarFileEvents = parentContext.getLong(KEY_MAX_COLUMNAR_FILE_EVENTS,
+                    DEFAULT_MAX_COLUMNAR_FILE_EVENTS);
+            this.columnarBlockSizeMb = parentContext.getLong(KEY_COLUMNAR_BLOCK_SIZE, DEFAULT_COLUMNAR_BLOCK_SIZE);
+            this.columnarCompression = parentContext.getString(KEY_COLUMNAR_COMPRESSION);
             // hive config
             this.hiveJdbcUrl = parentContext.getString(KEY_HIVE_JDBC_URL);
             this.hiveDatabase = parentContext.getString(KEY_HIVE_DATABASE);
@@ -383,6 +403,42 @@ public class HiveSinkContext extends SinkContext {
         return maxOutputFileSizeGb;
     }
 
+    /**
+     * get maxColumnarFileSizeMb
+     * 
+     * @return the maxColumnarFileSizeMb
+     */
+    public long getMaxColumnarFileSizeMb() {
+        return maxColumnarFileSizeMb;
+    }
+
+    /**
+     * get maxColumnarFileEvents
+     * 
+     * @return the max count of unacked events in one columnar file
+     */
+    public long getMaxColumnarFileEvents() {
+        return maxColumnarFileEvents;
+    }
+
+    /**
+     * get columnarBlockSizeMb
+     * 
+     * @return the columnarBlockSizeMb
+     */
+    public long getColumnarBlockSizeMb() {
+        return columnarBlockSizeMb;
+    }
+
+    /**
+     * get columnarCompression
+     * 
+     * @return the columnarCompression, the default codec of file format is used if it is blank
+     */
+    public String getColumnarCompression() {
+        return columnarCompression;
+    }
+
     /**
      * get idConfigMap
      * 
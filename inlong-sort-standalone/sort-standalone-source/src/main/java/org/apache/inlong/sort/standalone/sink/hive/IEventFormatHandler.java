@@ -18,6 +18,13 @@
 package org.apache.inlong.sort.standalone.sink.hive;
 
 import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.UnescapeHelper;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 
@@ -33,4 +40,25 @@ public interface IEventFormatHandler {
      * @return
      */
     byte[] format(ProfileEvent event, HdfsIdConfig idConfig);
+
+    /**
+     * formatColumns, the values of columns in orc or parquet file, in the order of HdfsIdConfig.parseColumnNames
+     * 
+     * @param  event
+     * @param  idConfig
+     * @return
+     */
+    default List<String> formatColumns(ProfileEvent event, HdfsIdConfig idConfig) {
+        long msgTime = event.getRawLogTime();
+        String body = new String(event.getBody(), Charset.defaultCharset());
+        List<String> columnValues = new ArrayList<>();
+        columnValues.add(idConfig.parsePartitionField(msgTime));
+        columnValues.add(idConfig.parseMsgTimeField(msgTime));
+        if (StringUtils.isBlank(idConfig.getFieldNames())) {
+            columnValues.add(body);
+        } else {
+            columnValues.addAll(UnescapeHelper.toFiledList(body, idConfig.getSeparator().charAt(0)));
+        }
+        return columnValues;
+    }
 }
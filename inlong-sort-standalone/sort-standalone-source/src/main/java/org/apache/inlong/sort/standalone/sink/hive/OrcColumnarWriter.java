@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.CompressionKind;
+import org.apache.orc.OrcFile;
+import org.apache.orc.TypeDescription;
+import org.apache.orc.Writer;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ *
+ * OrcColumnarWriter, string columns are dictionary encoded by orc writer when the distinct ratio is low.
+ */
+public class OrcColumnarWriter extends HdfsColumnarWriter {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(OrcColumnarWriter.class);
+    public static final CompressionKind DEFAULT_COMPRESSION = CompressionKind.ZLIB;
+
+    private final Writer writer;
+    private final VectorizedRowBatch batch;
+
+    /**
+     * Constructor
+     *
+     * @param  columnNames
+     * @param  compression
+     * @param  blockSize
+     * @param  fs
+     * @param  path
+     * @throws IOException
+     */
+    public OrcColumnarWriter(List<String> columnNames, String compression, long blockSize, FileSystem fs,
+            Path path) throws IOException {
+        TypeDescription schema = TypeDescription.createStruct();
+        columnNames.forEach((columnName) -> schema.addField(columnName, TypeDescription.createString()));
+        OrcFile.WriterOptions options = OrcFile.writerOptions(fs.getConf())
+                .fileSystem(fs)
+                .setSchema(schema)
+                .compress(parseCompression(compression))
+                .stripeSize(blockSize)
+                .overwrite(true);
+        this.writer = OrcFile.createWriter(path, options);
+        this.batch = schema.createRowBatch();
+    }
+
+    /**
+     * parseCompression
+     *
+     * @param  compression
+     * @return
+     */
+    public static CompressionKind parseCompression(String compression) {
+        if (StringUtils.isBlank(compression)) {
+            return DEFAULT_COMPRESSION;
+        }
+        try {
+            return CompressionKind.valueOf(compression.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Unsupported orc compression:{},use default:{}", compression, DEFAULT_COMPRESSION);
+            return DEFAULT_COMPRESSION;
+        }
+    }
+
+    /**
+     * write
+     *
+     * @param  columnValues
+     * @throws IOException
+     */
+    @Override
+    public void write(List<String> columnValues) throws IOException {
+        int row = batch.size++;
+        for (int i = 0; i < batch.cols.length; i++) {
+            BytesColumnVector vector = (BytesColumnVector) batch.cols[i];
+            String value = i < columnValues.size() ? columnValues.get(i) : null;
+            if (value == null) {
+                vector.noNulls = false;
+                vector.isNull[row] = true;
+            } else {
+                vector.setVal(row, value.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (batch.size == batch.getMaxSize()) {
+            writer.addRowBatch(batch);
+            batch.reset();
+        }
+    }
+
+    /**
+     * close
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        if (batch.size > 0) {
+            writer.addRowBatch(batch);
+            batch.reset();
+        }
+        writer.close();
+    }
+}
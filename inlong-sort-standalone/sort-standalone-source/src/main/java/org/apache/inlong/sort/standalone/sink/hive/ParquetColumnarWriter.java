@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.inlong.sort.standalone.utils.InlongLoggerFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Types;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ *
+ * ParquetColumnarWriter, string columns are written as optional UTF8 binary with dictionary encoding.
+ */
+public class ParquetColumnarWriter extends HdfsColumnarWriter {
+
+    public static final Logger LOG = InlongLoggerFactory.getLogger(ParquetColumnarWriter.class);
+    public static final CompressionCodecName DEFAULT_COMPRESSION = CompressionCodecName.GZIP;
+    public static final String SCHEMA_NAME = "inlong";
+
+    private final ParquetWriter<Group> writer;
+    private final SimpleGroupFactory groupFactory;
+    private final int columnCount;
+
+    /**
+     * Constructor
+     *
+     * @param  columnNames
+     * @param  compression
+     * @param  blockSize
+     * @param  fs
+     * @param  path
+     * @throws IOException
+     */
+    public ParquetColumnarWriter(List<String> columnNames, String compression, long blockSize, FileSystem fs,
+            Path path) throws IOException {
+        Types.MessageTypeBuilder builder = Types.buildMessage();
+        columnNames.forEach((columnName) -> builder.optional(PrimitiveTypeName.BINARY).as(OriginalType.UTF8)
+                .named(columnName));
+        MessageType schema = builder.named(SCHEMA_NAME);
+        this.writer = ExampleParquetWriter.builder(fs.makeQualified(path))
+                .withConf(fs.getConf())
+                .withType(schema)
+                .withCompressionCodec(parseCompression(compression))
+                .withRowGroupSize((int) Math.min(blockSize, Integer.MAX_VALUE))
+                .withDictionaryEncoding(true)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .build();
+        this.groupFactory = new SimpleGroupFactory(schema);
+        this.columnCount = columnNames.size();
+    }
+
+    /**
+     * parseCompression
+     *
+     * @param  compression
+     * @return
+     */
+    public static CompressionCodecName parseCompression(String compression) {
+        if (StringUtils.isBlank(compression)) {
+            return DEFAULT_COMPRESSION;
+        }
+        try {
+            return CompressionCodecName.valueOf(compression.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOG.warn("Unsupported parquet compression:{},use default:{}", compression, DEFAULT_COMPRESSION);
+            return DEFAULT_COMPRESSION;
+        }
+    }
+
+    /**
+     * write
+     *
+     * @param  columnValues
+     * @throws IOException
+     */
+    @Override
+    public void write(List<String> columnValues) throws IOException {
+        Group group = groupFactory.newGroup();
+        int valueCount = Math.min(columnCount, columnValues.size());
+        for (int i = 0; i < valueCount; i++) {
+            String value = columnValues.get(i);
+            if (value != null) {
+                group.add(i, value);
+            }
+        }
+        writer.write(group);
+    }
+
+    /**
+     * close
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
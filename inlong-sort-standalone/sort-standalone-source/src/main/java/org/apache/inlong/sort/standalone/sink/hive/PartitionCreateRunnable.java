@@ -23,7 +23,6 @@ import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
-import org.apache.hadoop.hdfs.DistributedFileSystem;
 import org.slf4j.Logger;
 
 import java.io.FileNotFoundException;
@@ -154,7 +153,7 @@ public class PartitionCreateRunnable implements Runnable {
      * @throws FileNotFoundException
      */
     private void process(HdfsIdFile idFile) throws FileNotFoundException, IOException {
-        DistributedFileSystem fs = idFile.getFs();
+        FileSystem fs = idFile.getFs();
 
         // rename files in "intmp" directory to "in" directory.
         FileStatus[] intmpFiles = fs.listStatus(idFile.getIntmpPath());
@@ -180,6 +179,17 @@ public class PartitionCreateRunnable implements Runnable {
             }
         }
 
+        // columnar files can not be merged, rename them to "outtmp" files.
+        if (idConfig.isColumnar()) {
+            for (FileStatus fileStatus : inFiles) {
+                if (fileStatus.getLen() > 0) {
+                    Path inFile = fileStatus.getPath();
+                    fs.rename(inFile, new Path(idFile.getInPath(), inFile.getName() + HdfsIdFile.OUTTMP_FILE_POSTFIX));
+                }
+            }
+            inFiles = new FileStatus[0];
+        }
+
         // merge and copy files in "in" directory to "outtmp" file.
         long outputFileSize = 0;
         List<Path> concatInFiles = new ArrayList<>();
@@ -244,7 +254,7 @@ public class PartitionCreateRunnable implements Runnable {
      * @param  fs
      * @throws IOException
      */
-    private void concatInFiles2OuttmpFile(HdfsIdFile idFile, List<Path> concatInFiles, DistributedFileSystem fs)
+    private void concatInFiles2OuttmpFile(HdfsIdFile idFile, List<Path> concatInFiles, FileSystem fs)
             throws IOException {
         Path outtmpFilePath = new Path(idFile.getInPath(),
                 HdfsIdFile.getFileName(context, System.currentTimeMillis()) + HdfsIdFile.OUTTMP_FILE_POSTFIX);
@@ -64,6 +64,10 @@ public class WriteHdfsFileRunnable implements Runnable {
             }
             try {
                 IEventFormatHandler handler = context.getEventFormatHandler();
+                if (idFile.getColumnarWriter() != null) {
+                    idFile.writeColumnar(profile, handler, sendTime);
+                    return;
+                }
                 FSDataOutputStream output = idFile.getIntmpOutput();
                 for (ProfileEvent event : profile.getEvents()) {
                     byte[] formatBytes = handler.format(event, idFile.getIdConfig());
@@ -84,7 +84,7 @@ public final class SortSdkSourceContext extends SourceContext {
 
         final Map<String, String> dimensions = this.createSortSdkSourceDimensionMap(event, sortId, topic);
         final SortMetricItem metricItem = metricItemSet.findMetricItem(dimensions);
-        final int msgSize = event != null ? event.getBody().length : -1;
+        final int msgSize = event != null ? event.getBodyLength() : -1;
         this.reportToMetric(event, metricItem, fetchResult, msgSize);
     }
 
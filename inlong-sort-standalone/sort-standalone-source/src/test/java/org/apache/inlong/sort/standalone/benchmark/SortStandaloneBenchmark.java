@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.benchmark;
+
+import org.apache.inlong.common.pojo.sortstandalone.SortClusterConfig;
+import org.apache.inlong.common.pojo.sortstandalone.SortTaskConfig;
+import org.apache.inlong.sort.standalone.channel.BufferQueueChannel;
+import org.apache.inlong.sort.standalone.config.holder.CommonPropertiesHolder;
+import org.apache.inlong.sort.standalone.config.holder.SortClusterConfigType;
+import org.apache.inlong.sort.standalone.config.loader.SortClusterConfigLoader;
+import org.apache.inlong.sort.standalone.sink.clickhouse.ClickHouseSink;
+import org.apache.inlong.sort.standalone.sink.elasticsearch.EsSink;
+import org.apache.inlong.sort.standalone.sink.hive.HiveSink;
+import org.apache.inlong.sort.standalone.source.sortsdk.FetchCallback;
+import org.apache.inlong.sort.standalone.source.sortsdk.SortSdkSourceContext;
+import org.apache.inlong.sort.standalone.utils.Constants;
+import org.apache.inlong.sort.standalone.utils.FlumeConfigGenerator;
+
+import org.apache.flume.Context;
+import org.apache.flume.SinkRunner;
+import org.apache.flume.channel.ChannelProcessor;
+import org.apache.flume.channel.ReplicatingChannelSelector;
+import org.apache.flume.conf.Configurable;
+import org.apache.flume.sink.AbstractSink;
+import org.apache.flume.sink.DefaultSinkProcessor;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of a sort task, run it by the main method.
+ * The synthetic sort client feeds the real FetchCallback, BufferQueueChannel, dispatch and sink context of the sink
+ * type, and the sink writes to the stubs: the local HTTP stub for Elasticsearch, the stub JDBC driver for ClickHouse,
+ * and the local file system with the stub JDBC driver of partitions for Hive.
+ * It reports the acked events per second, the latency percentiles of packs and the bytes allocated per event.
+ * Usage: SortStandaloneBenchmark [es|clickhouse|hive] [pb|inlongmsg] [seconds] [sinkLatencyMs] [key=value ...]
+ * The key=value params override the common properties, such as maxThreads=4 or replayBuffer.enable=true.
+ */
+public class SortStandaloneBenchmark {
+
+    public static final String SINK_ES = "es";
+    public static final String SINK_CLICKHOUSE = "clickhouse";
+    public static final String SINK_HIVE = "hive";
+
+    private static final String TASK_NAME = "benchmark_task";
+    private static final String INLONG_GROUP_ID = "benchmark_group";
+    private static final String INLONG_STREAM_ID = "benchmark_stream";
+    private static final int PACK_SIZE = 500;
+    private static final int MAX_INFLIGHT_PACKS = 200;
+    private static final double[] PERCENTILES = {0.5d, 0.9d, 0.99d, 0.999d};
+
+    public static void main(String[] args) throws Exception {
+        String sinkType = args.length > 0 ? args[0] : SINK_ES;
+        String format = args.length > 1 ? args[1] : SyntheticSortClient.FORMAT_PB;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        long sinkLatencyMs = args.length > 3 ? Long.parseLong(args[3]) : 0L;
+        Map<String, String> commonProperties = CommonPropertiesHolder.get();
+        for (int i = 4; i < args.length; i++) {
+            int index = args[i].indexOf('=');
+            commonProperties.put(args[i].substring(0, index), args[i].substring(index + 1));
+        }
+        commonProperties.put(SortClusterConfigType.KEY_TYPE, BenchmarkSortClusterConfigLoader.class.getName());
+
+        // stubs and sort task config
+        StubEsServer esServer = null;
+        StubJdbcDriver.setBatchLatencyMs(sinkLatencyMs);
+        AbstractSink sink;
+        Map<String, String> sinkParams = new HashMap<>();
+        Map<String, String> idParam = new HashMap<>();
+        idParam.put(Constants.INLONG_GROUP_ID, INLONG_GROUP_ID);
+        idParam.put(Constants.INLONG_STREAM_ID, INLONG_STREAM_ID);
+        idParam.put("separator", "|");
+        if (SINK_CLICKHOUSE.equalsIgnoreCase(sinkType)) {
+            sink = new ClickHouseSink();
+            sinkParams.put("jdbcDriver", StubJdbcDriver.class.getName());
+            sinkParams.put("jdbcUrl", StubJdbcDriver.URL_PREFIX + "//clickhouse");
+            sinkParams.put("jdbcUsername", "benchmark");
+            sinkParams.put("jdbcPassword", "benchmark");
+            idParam.put("tableName", "benchmark");
+            idParam.put("contentFieldNames", fieldNames(","));
+            idParam.put("dbFieldNames", "ftime,extinfo," + fieldNames(","));
+        } else if (SINK_HIVE.equalsIgnoreCase(sinkType)) {
+            sink = new HiveSink();
+            File hdfsDir = Files.createTempDirectory("sort-benchmark").toFile();
+            sinkParams.put("hdfsPath", hdfsDir.toURI().toString().replaceAll("/$", ""));
+            sinkParams.put("hiveJdbcUrl", StubJdbcDriver.URL_PREFIX + "//hive");
+            sinkParams.put("hiveDatabase", "default");
+            sinkParams.put("hiveUsername", "benchmark");
+            sinkParams.put("hivePassword", "benchmark");
+            idParam.put("idRootPath", "/benchmark");
+            idParam.put("partitionSubPath", "/{yyyyMMddHH}");
+            idParam.put("hiveTableName", "benchmark");
+            idParam.put("partitionFieldPattern", "yyyyMMddHH");
+            idParam.put("msgTimeFieldPattern", "yyyy-MM-dd HH:mm:ss");
+            System.out.println("hive files are written to " + hdfsDir);
+        } else {
+            sink = new EsSink();
+            esServer = new StubEsServer(4, sinkLatencyMs);
+            esServer.start();
+            sinkParams.put("httpHosts", esServer.getHttpHost());
+            sinkParams.put("username", "benchmark");
+            sinkParams.put("password", "benchmark");
+            sinkParams.put("bulkAction", "4000");
+            sinkParams.put("bulkSizeMb", "10");
+            sinkParams.put("flushInterval", "1");
+            sinkParams.put("concurrentRequests", "5");
+            idParam.put("indexNamePattern", "benchmark_{yyyyMMdd}");
+            idParam.put("fieldNames", "ftime extinfo " + fieldNames(" "));
+            idParam.put("fieldOffset", "2");
+            idParam.put("contentOffset", "0");
+        }
+        SortTaskConfig taskConfig = SortTaskConfig.builder().name(TASK_NAME).type(sinkType)
+                .idParams(Collections.singletonList(idParam)).sinkParams(sinkParams).build();
+        BenchmarkSortClusterConfigLoader.config = SortClusterConfig.builder()
+                .clusterName(CommonPropertiesHolder.getClusterId())
+                .sortTasks(Collections.singletonList(taskConfig)).build();
+
+        // the components of the sort task, configured like FlumeConfigGenerator
+        Context taskContext = new Context(commonProperties);
+        taskContext.putAll(sinkParams);
+        taskContext.put(FlumeConfigGenerator.KEY_TASK_NAME, TASK_NAME);
+        BufferQueueChannel channel = new BufferQueueChannel();
+        channel.setName(TASK_NAME + "Channel");
+        channel.configure(taskContext);
+        channel.start();
+        sink.setName(TASK_NAME + "Sink");
+        sink.setChannel(channel);
+        ((Configurable) sink).configure(taskContext);
+        DefaultSinkProcessor sinkProcessor = new DefaultSinkProcessor();
+        sinkProcessor.setSinks(Collections.singletonList(sink));
+        SinkRunner sinkRunner = new SinkRunner(sinkProcessor);
+        sinkRunner.start();
+        ReplicatingChannelSelector selector = new ReplicatingChannelSelector();
+        selector.setChannels(Collections.singletonList(channel));
+        ChannelProcessor channelProcessor = new ChannelProcessor(selector);
+        SortSdkSourceContext sourceContext = new SortSdkSourceContext(TASK_NAME + "Source", taskContext);
+
+        SyntheticSortClient client = new SyntheticSortClient(format, INLONG_GROUP_ID, INLONG_STREAM_ID,
+                PACK_SIZE, MAX_INFLIGHT_PACKS);
+        FetchCallback callback = FetchCallback.Factory.create(TASK_NAME, channelProcessor, sourceContext);
+        callback.setClient(client);
+        client.setCallback(callback);
+        System.out.printf("sink:%s, format:%s, pack:%d messages %d bytes, sinkLatencyMs:%d%n",
+                sinkType, format, PACK_SIZE, client.getPackBytes(), sinkLatencyMs);
+        client.init();
+
+        // warm up
+        TimeUnit.SECONDS.sleep(Math.max(1, Math.min(10, seconds / 5)));
+        client.resetLatency();
+        long startEvents = client.getAckedEvents();
+        long startBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        TimeUnit.SECONDS.sleep(seconds);
+        long events = client.getAckedEvents() - startEvents;
+        long allocatedBytes = getAllocatedBytes() - startBytes;
+        long costNanos = System.nanoTime() - startNanos;
+        double[] latencies = client.getLatencyPercentiles(PERCENTILES);
+
+        System.out.printf("throughput: %.1f events/s%n", events * 1e9d / costNanos);
+        System.out.printf("pack latency ms: p50=%.2f p90=%.2f p99=%.2f p999=%.2f%n",
+                latencies[0], latencies[1], latencies[2], latencies[3]);
+        System.out.printf("allocation: %.1f bytes/event%n", events == 0 ? 0d : (double) allocatedBytes / events);
+        if (esServer != null) {
+            System.out.printf("stub es: %d documents in %d bulks%n", esServer.getDocumentCount(),
+                    esServer.getBulkCount());
+        } else if (SINK_CLICKHOUSE.equalsIgnoreCase(sinkType)) {
+            System.out.printf("stub jdbc: %d rows%n", StubJdbcDriver.getRowCount());
+        }
+
+        client.close();
+        sinkRunner.stop();
+        channel.stop();
+        if (esServer != null) {
+            esServer.stop();
+        }
+        System.exit(0);
+    }
+
+    private static String fieldNames(String separator) {
+        List<String> fieldNames = new ArrayList<>(SyntheticSortClient.FIELD_COUNT);
+        for (int i = 0; i < SyntheticSortClient.FIELD_COUNT; i++) {
+            fieldNames.add("f" + i);
+        }
+        return String.join(separator, fieldNames);
+    }
+
+    /**
+     * the allocated bytes of the live threads, the threads exited in the measurement are not counted
+     */
+    private static long getAllocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long total = 0;
+        for (long bytes : threadBean.getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Loader of the sort cluster config prepared by the benchmark.
+     */
+    public static class BenchmarkSortClusterConfigLoader implements SortClusterConfigLoader {
+
+        private static volatile SortClusterConfig config;
+
+        @Override
+        public SortClusterConfig load() {
+            return config;
+        }
+
+        @Override
+        public void configure(Context context) {
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP stub of Elasticsearch, the bulk requests are read fully and answered with a successful item
+ * for every index action after the configured latency, other requests are answered with an empty object.
+ */
+public class StubEsServer {
+
+    private static final String ITEM = "{\"index\":{\"_index\":\"benchmark\",\"_type\":\"_doc\",\"_id\":\"0\","
+            + "\"_version\":1,\"result\":\"created\",\"status\":201}}";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long bulkLatencyMs;
+    private final AtomicLong documentCount = new AtomicLong(0);
+    private final AtomicLong bulkCount = new AtomicLong(0);
+
+    public StubEsServer(int threads, long bulkLatencyMs) throws IOException {
+        this.bulkLatencyMs = bulkLatencyMs;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String getHttpHost() {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long getDocumentCount() {
+        return documentCount.get();
+    }
+
+    public long getBulkCount() {
+        return bulkCount.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String response = "{}";
+            if (exchange.getRequestURI().getPath().endsWith("_bulk")) {
+                int actions = countActions(exchange.getRequestBody());
+                if (bulkLatencyMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(bulkLatencyMs);
+                }
+                StringBuilder builder = new StringBuilder(32 + actions * (ITEM.length() + 1));
+                builder.append("{\"took\":1,\"errors\":false,\"items\":[");
+                for (int i = 0; i < actions; i++) {
+                    if (i > 0) {
+                        builder.append(',');
+                    }
+                    builder.append(ITEM);
+                }
+                builder.append("]}");
+                response = builder.toString();
+                documentCount.addAndGet(actions);
+                bulkCount.incrementAndGet();
+            }
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * every index action is a metadata line followed by a source line
+     */
+    private static int countActions(InputStream input) throws IOException {
+        byte[] buffer = new byte[8192];
+        int lines = 0;
+        int len;
+        while ((len = input.read(buffer)) > 0) {
+            for (int i = 0; i < len; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+        return lines / 2;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * In-process JDBC driver of the benchmark, accepting the urls starting with "jdbc:stub:".
+ * The queries return empty result sets, so the tables have no metadata and the partitions do not exist,
+ * and the batches are counted and dropped after the configured latency.
+ */
+public class StubJdbcDriver implements Driver {
+
+    public static final String URL_PREFIX = "jdbc:stub:";
+
+    private static final AtomicLong ROW_COUNT = new AtomicLong(0);
+    private static volatile long batchLatencyMs = 0;
+
+    static {
+        try {
+            DriverManager.registerDriver(new StubJdbcDriver());
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void setBatchLatencyMs(long latencyMs) {
+        batchLatencyMs = latencyMs;
+    }
+
+    public static long getRowCount() {
+        return ROW_COUNT.get();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        return proxy(Connection.class, new StubHandler());
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubJdbcDriver.class.getClassLoader(), new Class[]{type}, handler));
+    }
+
+    /**
+     * Handler of all the stubbed JDBC objects, the methods are dispatched by name.
+     */
+    private static class StubHandler implements InvocationHandler {
+
+        private int batchSize = 0;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "createStatement":
+                    return proxy(Statement.class, new StubHandler());
+                case "prepareStatement":
+                    return proxy(PreparedStatement.class, new StubHandler());
+                case "executeQuery":
+                    return proxy(ResultSet.class, new StubHandler());
+                case "getMetaData":
+                    return proxy(ResultSetMetaData.class, new StubHandler());
+                case "addBatch":
+                    batchSize++;
+                    return null;
+                case "executeBatch":
+                    if (batchLatencyMs > 0) {
+                        TimeUnit.MILLISECONDS.sleep(batchLatencyMs);
+                    }
+                    ROW_COUNT.addAndGet(batchSize);
+                    int[] result = new int[batchSize];
+                    batchSize = 0;
+                    return result;
+                case "clearBatch":
+                    batchSize = 0;
+                    return null;
+                case "isValid":
+                    return true;
+                case "unwrap":
+                    throw new SQLException("unwrap is not supported by the stub driver");
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "StubJdbc" + method.getDeclaringClass().getSimpleName();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == short.class) {
+                return (short) 0;
+            } else if (type == byte.class) {
+                return (byte) 0;
+            } else if (type == double.class) {
+                return 0d;
+            } else if (type == float.class) {
+                return 0f;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.benchmark;
+
+import org.apache.inlong.common.msg.InLongMsg;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MapFieldEntry;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObj;
+import org.apache.inlong.sdk.commons.protocol.ProxySdk.MessageObjs;
+import org.apache.inlong.sdk.sort.api.ReadCallback;
+import org.apache.inlong.sdk.sort.api.SortClient;
+import org.apache.inlong.sdk.sort.api.SortClientConfig;
+import org.apache.inlong.sdk.sort.entity.InLongMessage;
+import org.apache.inlong.sdk.sort.entity.MessageRecord;
+import org.apache.inlong.sdk.sort.impl.decode.MessageDeserializer;
+import org.apache.inlong.sdk.sort.util.Utils;
+
+import com.google.protobuf.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sort client of the benchmark, the fetch thread decodes the prepared InLongMsg or PB+snappy pack by the real
+ * MessageDeserializer and hands it to the callback like the fetchers, at most maxInflightPacks packs are not acked.
+ * The latency of a pack is the time from the callback to the ack of its last message.
+ */
+public class SyntheticSortClient extends SortClient {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SyntheticSortClient.class);
+
+    public static final String FORMAT_PB = "pb";
+    public static final String FORMAT_INLONG_MSG = "inlongmsg";
+    public static final int FIELD_COUNT = 10;
+
+    private static final int MIN_FIELD_SIZE = 10;
+    private static final int MAX_FIELD_SIZE = 90;
+    private static final int MAX_LATENCY_SAMPLES = 1 << 20;
+
+    private final String inlongGroupId;
+    private final String inlongStreamId;
+    private final int packSize;
+    private final Map<String, String> headers = new HashMap<>();
+    private final byte[] pack;
+    private final MessageDeserializer deserializer = new MessageDeserializer();
+    private final Semaphore inflightPacks;
+    private final Map<String, Long> fetchNanos = new ConcurrentHashMap<>();
+    private final AtomicLong ackedEvents = new AtomicLong(0);
+    private final long[] latencySamples = new long[MAX_LATENCY_SAMPLES];
+    private final AtomicInteger latencyIndex = new AtomicInteger(0);
+    private ReadCallback callback;
+    private Thread fetchThread;
+    private volatile boolean running = false;
+
+    public SyntheticSortClient(String format, String inlongGroupId, String inlongStreamId, int packSize,
+            int maxInflightPacks) throws IOException {
+        this.inlongGroupId = inlongGroupId;
+        this.inlongStreamId = inlongStreamId;
+        this.packSize = packSize;
+        this.inflightPacks = new Semaphore(maxInflightPacks);
+        Random random = new Random(0);
+        if (FORMAT_PB.equalsIgnoreCase(format)) {
+            headers.put("version", "1");
+            headers.put("compressType", "2");
+            headers.put("inlongGroupId", inlongGroupId);
+            headers.put("inlongStreamId", inlongStreamId);
+            this.pack = Utils.snappyCompress(preparePbPack(random).toByteArray());
+        } else {
+            headers.put("version", "2");
+            this.pack = prepareInlongMsgPack(random);
+        }
+    }
+
+    public void setCallback(ReadCallback callback) {
+        this.callback = callback;
+    }
+
+    @Override
+    public boolean init() {
+        this.running = true;
+        this.fetchThread = new Thread(this::fetch, "synthetic-fetcher");
+        this.fetchThread.setDaemon(true);
+        this.fetchThread.start();
+        return true;
+    }
+
+    private void fetch() {
+        long offset = 0;
+        while (running) {
+            try {
+                inflightPacks.acquire();
+                List<InLongMessage> messages = deserializer.deserialize(null, null, headers, pack);
+                String strOffset = String.valueOf(offset++);
+                fetchNanos.put(strOffset, System.nanoTime());
+                callback.onFinished(new MessageRecord(inlongGroupId, messages, strOffset, System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                break;
+            } catch (Exception e) {
+                LOG.error("Synthetic fetch failure, stop fetching", e);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void ack(String msgKey, String msgOffset) {
+        Long startNanos = fetchNanos.remove(msgOffset);
+        if (startNanos == null) {
+            return;
+        }
+        int index = latencyIndex.getAndIncrement();
+        if (index < MAX_LATENCY_SAMPLES) {
+            latencySamples[index] = System.nanoTime() - startNanos;
+        }
+        ackedEvents.addAndGet(packSize);
+        inflightPacks.release();
+    }
+
+    @Override
+    public boolean close() {
+        this.running = false;
+        if (fetchThread != null) {
+            fetchThread.interrupt();
+        }
+        return true;
+    }
+
+    @Override
+    public SortClientConfig getConfig() {
+        return null;
+    }
+
+    public long getAckedEvents() {
+        return ackedEvents.get();
+    }
+
+    public int getPackBytes() {
+        return pack.length;
+    }
+
+    /**
+     * clear the latency samples, such as after warming up
+     */
+    public void resetLatency() {
+        latencyIndex.set(0);
+    }
+
+    /**
+     * get the latency percentiles of packs in milliseconds
+     *
+     * @param  percentiles such as 0.5, 0.99
+     * @return
+     */
+    public double[] getLatencyPercentiles(double... percentiles) {
+        int count = Math.min(latencyIndex.get(), MAX_LATENCY_SAMPLES);
+        long[] samples = Arrays.copyOf(latencySamples, count);
+        Arrays.sort(samples);
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length && count > 0; i++) {
+            int index = Math.min(count - 1, (int) Math.ceil(percentiles[i] * count) - 1);
+            result[i] = samples[Math.max(0, index)] / 1e6d;
+        }
+        return result;
+    }
+
+    private MessageObjs preparePbPack(Random random) {
+        MessageObjs.Builder builder = MessageObjs.newBuilder();
+        long msgTime = System.currentTimeMillis();
+        for (int i = 0; i < packSize; i++) {
+            builder.addMsgs(MessageObj.newBuilder()
+                    .setBody(ByteString.copyFrom(prepareBody(random)))
+                    .setMsgTime(msgTime)
+                    .setSourceIp("127.0.0.1")
+                    .addParams(MapFieldEntry.newBuilder().setKey("dataproxyIp").setValue("127.0.0.2"))
+                    .addParams(MapFieldEntry.newBuilder().setKey("dt").setValue(String.valueOf(msgTime))));
+        }
+        return builder.build();
+    }
+
+    private byte[] prepareInlongMsgPack(Random random) {
+        InLongMsg inLongMsg = InLongMsg.newInLongMsg(true);
+        String attr = "m=0&groupId=" + inlongGroupId + "&streamId=" + inlongStreamId
+                + "&dt=" + System.currentTimeMillis() + "&NodeIP=127.0.0.1";
+        for (int i = 0; i < packSize; i++) {
+            inLongMsg.addMsg(attr, prepareBody(random));
+        }
+        return inLongMsg.buildArray();
+    }
+
+    /**
+     * the body is a delimited row of FIELD_COUNT fields
+     */
+    private static byte[] prepareBody(Random random) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            if (i > 0) {
+                builder.append('|');
+            }
+            int size = MIN_FIELD_SIZE + random.nextInt(MAX_FIELD_SIZE - MIN_FIELD_SIZE);
+            for (int j = 0; j < size; j++) {
+                builder.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return builder.toString().getBytes();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.channel;
+
+import org.apache.inlong.sdk.sort.entity.LazyInLongMessage;
+import org.apache.inlong.sdk.sort.entity.LazyInLongMessage.LazyParams;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TestProfileEvent {
+
+    @Test
+    public void testLazyHeadersAndBody() {
+        Map<String, String> params = new HashMap<>();
+        params.put("key", "val");
+        LazyParams lazyParams = new LazyParams(() -> params);
+        ByteBuffer pack = ByteBuffer.wrap("body1body22".getBytes(StandardCharsets.UTF_8));
+        LazyInLongMessage message1 = new LazyInLongMessage("testGroup", "testStream", 1600000000000L, "ip",
+                slice(pack, 0, 5), lazyParams);
+        LazyInLongMessage message2 = new LazyInLongMessage("testGroup", "testStream", 1600000000000L, "ip",
+                slice(pack, 5, 6), lazyParams);
+        CacheMessageRecord cacheRecord = Mockito.mock(CacheMessageRecord.class);
+        ProfileEvent event1 = new ProfileEvent(message1, cacheRecord);
+        ProfileEvent event2 = new ProfileEvent(message2, cacheRecord);
+
+        // nothing is parsed or copied before the first access
+        Assert.assertFalse(lazyParams.isParsed());
+        Assert.assertEquals(5, event1.getBodyLength());
+        Assert.assertEquals(6, event2.getBodyLength());
+        Assert.assertEquals("testStream", event1.getInlongStreamId());
+        Assert.assertFalse(lazyParams.isParsed());
+
+        // every event owns a copy of the shared params
+        event1.getHeaders().put("topic", "topic1");
+        Assert.assertEquals("val", event2.getHeaders().get("key"));
+        Assert.assertNull(event2.getHeaders().get("topic"));
+        Assert.assertNull(message1.getParams().get("topic"));
+        Assert.assertSame(event1.getHeaders(), event1.getHeaders());
+
+        Assert.assertEquals("body1", new String(event1.getBody(), StandardCharsets.UTF_8));
+        Assert.assertEquals("body22", new String(event2.getBody(), StandardCharsets.UTF_8));
+        Assert.assertSame(event2.getBody(), event2.getBody());
+        event2.setBody(new byte[3]);
+        Assert.assertEquals(3, event2.getBodyLength());
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset).limit(offset + length);
+        return slice.slice();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.channel;
+
+import org.apache.inlong.sdk.commons.segment.SegmentLog;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestSpillLog {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReplayInOrder() throws Exception {
+        File dir = folder.newFolder("task");
+        // every segment holds about two events
+        SpillLog spillLog = new SpillLog(dir, 200, 1024 * 1024);
+        Assert.assertFalse(spillLog.hasBacklog());
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(spillLog.append(Collections.singletonList(prepareEvent("stream" + i))));
+        }
+        Assert.assertTrue(spillLog.hasBacklog());
+        Assert.assertEquals(5, spillLog.getLagCount());
+        Assert.assertTrue(segmentCount(dir) > 1);
+
+        List<SpillLog.SpilledRecord> records = new ArrayList<>();
+        SpillLog.SpilledRecord record;
+        while ((record = spillLog.read()) != null) {
+            records.add(record);
+        }
+        Assert.assertEquals(5, records.size());
+        Assert.assertFalse(spillLog.hasBacklog());
+        for (int i = 0; i < records.size(); i++) {
+            ProfileEvent event = new ProfileEvent(records.get(i), null);
+            Assert.assertEquals("testGroup", event.getInlongGroupId());
+            Assert.assertEquals("stream" + i, event.getInlongStreamId());
+            Assert.assertEquals(1600000000000L, event.getRawLogTime());
+            Assert.assertEquals("body" + i, new String(event.getBody(), StandardCharsets.UTF_8));
+        }
+
+        // the segments are deleted after all the events are acked
+        records.forEach(spillLog::ack);
+        Assert.assertEquals(0, segmentCount(dir));
+        Assert.assertEquals(0, spillLog.getDiskSize());
+        spillLog.close();
+    }
+
+    @Test
+    public void testRecoverAndBudget() throws Exception {
+        File dir = folder.newFolder("task");
+        SpillLog spillLog = new SpillLog(dir, 1024, 1024 * 1024);
+        spillLog.append(Collections.singletonList(prepareEvent("stream0")));
+        spillLog.append(Collections.singletonList(prepareEvent("stream1")));
+        // the first event is replayed but not acked before restart
+        Assert.assertNotNull(spillLog.read());
+        spillLog.close();
+
+        SpillLog recovered = new SpillLog(dir, 1024, recoveredBudget(dir));
+        Assert.assertTrue(recovered.hasBacklog());
+        Assert.assertEquals("stream0", recovered.read().getInlongStreamId());
+        Assert.assertEquals("stream1", recovered.read().getInlongStreamId());
+        Assert.assertNull(recovered.read());
+        // the disk budget is exceeded
+        Assert.assertFalse(recovered.append(Collections.singletonList(prepareEvent("stream2"))));
+        recovered.close();
+    }
+
+    @Test
+    public void testAckOutOfOrder() throws Exception {
+        File dir = folder.newFolder("task");
+        SpillLog spillLog = new SpillLog(dir, 1024, 1024 * 1024);
+        List<ProfileEvent> events = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            events.add(prepareEvent("stream" + i));
+        }
+        Assert.assertTrue(spillLog.append(events));
+        SpillLog.SpilledRecord first = spillLog.read();
+        spillLog.ack(spillLog.read());
+        spillLog.ack(spillLog.read());
+        spillLog.close();
+
+        // the log is committed to the first event which is not acked
+        SpillLog recovered = new SpillLog(dir, 1024, 1024 * 1024);
+        Assert.assertEquals(first.getInlongStreamId(), recovered.read().getInlongStreamId());
+        Assert.assertEquals("stream1", recovered.read().getInlongStreamId());
+        Assert.assertEquals("stream2", recovered.read().getInlongStreamId());
+        Assert.assertNull(recovered.read());
+        recovered.close();
+    }
+
+    private static int segmentCount(File dir) {
+        return dir.listFiles((d, name) -> name.endsWith(SegmentLog.SEGMENT_SUFFIX)).length;
+    }
+
+    private static long recoveredBudget(File dir) {
+        long size = 0;
+        for (File file : dir.listFiles()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    private static ProfileEvent prepareEvent(String inlongStreamId) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, inlongStreamId);
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        return new ProfileEvent(headers,
+                ("body" + inlongStreamId.substring("stream".length())).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.dispatch;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.flume.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class TestDispatchManager {
+
+    @Test
+    public void testCreateDispatchQueues() {
+        Context context = new Context();
+        Assert.assertEquals(1, DispatchManager.createDispatchQueues(context, 8).size());
+        context.put(DispatchManager.KEY_DISPATCH_PARTITIONS, "16");
+        Assert.assertEquals(8, DispatchManager.createDispatchQueues(context, 8).size());
+        context.put(DispatchManager.KEY_DISPATCH_PARTITIONS, "0");
+        Assert.assertEquals(1, DispatchManager.createDispatchQueues(context, 8).size());
+    }
+
+    @Test
+    public void testPartition() {
+        Context context = new Context();
+        context.put(DispatchManager.KEY_DISPATCH_PARTITIONS, "4");
+        context.put(DispatchManager.KEY_DISPATCH_MAX_PACKCOUNT, "2");
+        List<LinkedBlockingQueue<DispatchProfile>> dispatchQueues = DispatchManager.createDispatchQueues(context, 4);
+        DispatchManager dispatchManager = new DispatchManager(context, dispatchQueues);
+        int streamCount = 20;
+        for (int i = 0; i < streamCount * 3; i++) {
+            dispatchManager.addEvent(prepareEvent("stream" + (i % streamCount)));
+        }
+        // the full profile of every stream is offered to the partition of uid
+        int profileCount = 0;
+        for (int partition = 0; partition < dispatchQueues.size(); partition++) {
+            for (DispatchProfile profile : dispatchQueues.get(partition)) {
+                Assert.assertEquals(partition, DispatchManager.getPartition(profile.getUid(), dispatchQueues.size()));
+                Assert.assertEquals(2, profile.getCount());
+                profileCount++;
+            }
+        }
+        Assert.assertEquals(streamCount, profileCount);
+    }
+
+    private static ProfileEvent prepareEvent(String inlongStreamId) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, inlongStreamId);
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        return new ProfileEvent(headers, "body".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import org.apache.inlong.sort.standalone.benchmark.StubJdbcDriver;
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import ru.yandex.clickhouse.except.ClickHouseErrorCode;
+import ru.yandex.clickhouse.except.ClickHouseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class TestClickHouseChannelWorker {
+
+    @Test
+    public void testDropPoisonRecord() throws Exception {
+        LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+        ClickHouseSinkContext context = prepareContext(dispatchQueue,
+                new RuntimeException(badData(ClickHouseErrorCode.CANNOT_PARSE_NUMBER)));
+        ClickHouseChannelWorker worker = new ClickHouseChannelWorker(context, 0);
+
+        DispatchProfile profile = prepareProfile();
+        dispatchQueue.add(profile);
+        // the record is retried maxRetryTimes, and then dropped
+        for (int i = 0; i < 2; i++) {
+            worker.doRun();
+            Assert.assertEquals(1, dispatchQueue.size());
+        }
+        worker.doRun();
+        Assert.assertTrue(dispatchQueue.isEmpty());
+        Mockito.verify(context).addSendFailMetric("retry limit exceeded", profile);
+    }
+
+    @Test
+    public void testRetryOtherErrors() throws Exception {
+        LinkedBlockingQueue<DispatchProfile> dispatchQueue = new LinkedBlockingQueue<>();
+        ClickHouseSinkContext context = prepareContext(dispatchQueue,
+                new IllegalStateException(new SQLException("connection refused")));
+        ClickHouseChannelWorker worker = new ClickHouseChannelWorker(context, 0);
+
+        dispatchQueue.add(prepareProfile());
+        for (int i = 0; i < 5; i++) {
+            worker.doRun();
+            Assert.assertEquals(1, dispatchQueue.size());
+        }
+        Mockito.verify(context, Mockito.never()).addSendFailMetric(Mockito.anyString(),
+                Mockito.any(DispatchProfile.class));
+    }
+
+    @Test
+    public void testIsBadData() {
+        Assert.assertTrue(ClickHouseChannelWorker.isBadData(badData(ClickHouseErrorCode.TYPE_MISMATCH)));
+        Assert.assertTrue(ClickHouseChannelWorker.isBadData(
+                new BatchUpdateException(badData(ClickHouseErrorCode.CANNOT_PARSE_DATETIME))));
+        // the errors without a bad data code are retried without limit
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(badData(ClickHouseErrorCode.NETWORK_ERROR)));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(badData(ClickHouseErrorCode.MEMORY_LIMIT_EXCEEDED)));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(new ClickHouseException(-1, "unknown", null)));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(new NumberFormatException()));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(new SQLSyntaxErrorException()));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(new BatchUpdateException()));
+        Assert.assertFalse(ClickHouseChannelWorker.isBadData(new RuntimeException(new IOException("reset"))));
+    }
+
+    private static ClickHouseException badData(ClickHouseErrorCode errorCode) {
+        return new ClickHouseException(errorCode.code, errorCode.name(), null);
+    }
+
+    private static ClickHouseSinkContext prepareContext(LinkedBlockingQueue<DispatchProfile> dispatchQueue,
+            RuntimeException parseError) throws Exception {
+        Class.forName(StubJdbcDriver.class.getName());
+        ClickHouseIdConfig idConfig = new ClickHouseIdConfig();
+        idConfig.setInsertSql("insert into testTable (c1) values (?)");
+        IEventHandler handler = Mockito.mock(IEventHandler.class);
+        Mockito.when(handler.parse(Mockito.any(), Mockito.any())).thenThrow(parseError);
+        ClickHouseSinkContext context = Mockito.mock(ClickHouseSinkContext.class);
+        Mockito.when(context.getDispatchQueue(0)).thenReturn(dispatchQueue);
+        Mockito.when(context.createEventHandler()).thenReturn(handler);
+        Mockito.when(context.getIdConfig("testUid")).thenReturn(idConfig);
+        Mockito.when(context.getJdbcUrl()).thenReturn(StubJdbcDriver.URL_PREFIX + "test");
+        Mockito.when(context.getMaxRetryTimes()).thenReturn(2);
+        Mockito.when(context.getProcessInterval()).thenReturn(1L);
+        return context;
+    }
+
+    private static DispatchProfile prepareProfile() {
+        DispatchProfile profile = new DispatchProfile("testUid", "testGroup", "testStream", 1600000000000L);
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, "testStream");
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        profile.addEvent(new ProfileEvent(headers, "v1".getBytes(StandardCharsets.UTF_8)), 100, 1024 * 1024);
+        return profile;
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.clickhouse;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.commons.math3.util.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+import ru.yandex.clickhouse.settings.ClickHouseProperties;
+import ru.yandex.clickhouse.util.ClickHouseRowBinaryStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+public class TestClickHouseRowBinaryEncoder {
+
+    @Test
+    public void testFieldParser() {
+        ClickHouseFieldParser parser = new ClickHouseFieldParser();
+        byte[] body = "\tab|c\\|d\\\\|\\n|".getBytes(StandardCharsets.UTF_8);
+        parser.parse(body, 1, (byte) '|');
+        List<String> expected = Arrays.asList("ab", "c|d\\", "\n", "");
+        Assert.assertEquals(expected.size(), parser.getFieldCount());
+        for (int i = 0; i < expected.size(); i++) {
+            String field = new String(parser.getData(i), parser.getStart(i), parser.getLength(i),
+                    StandardCharsets.UTF_8);
+            Assert.assertEquals(expected.get(i), field);
+        }
+    }
+
+    @Test
+    public void testWriteRow() throws IOException {
+        ClickHouseIdConfig idConfig = prepareIdConfig("id,name,price,ftime,missing");
+        ClickHouseRowBinaryEncoder encoder = ClickHouseRowBinaryEncoder.create(idConfig,
+                Arrays.asList("Int32", "LowCardinality(String)", "Decimal(10, 2)", "DateTime", "Nullable(Int64)"));
+        Assert.assertNotNull(encoder);
+        Assert.assertEquals("insert into t_test (id,name,price,ftime,missing)", encoder.getInsertSql());
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, "testStream");
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        ProfileEvent event = new ProfileEvent(headers, "12|abc|3.14159|ignored".getBytes(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        encoder.writeRow(event, new ClickHouseFieldParser(), newStream(actual));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ClickHouseRowBinaryStream stream = newStream(expected);
+        stream.writeInt32(12);
+        stream.writeString("abc");
+        stream.writeDecimal64(new BigDecimal("3.14"), 2);
+        stream.writeDateTime(new Date(1600000000000L));
+        stream.markNextNullable(false);
+        stream.writeInt64(0);
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void testSameAsEventHandler() throws Exception {
+        ClickHouseIdConfig idConfig = prepareIdConfig("id,name,price,extinfo,missing,missingNum");
+        idConfig.setDbFieldList(Arrays.asList(new Pair<>("id", Types.INTEGER), new Pair<>("name", Types.VARCHAR),
+                new Pair<>("price", Types.NUMERIC), new Pair<>("extinfo", Types.VARCHAR),
+                new Pair<>("missing", Types.VARCHAR), new Pair<>("missingNum", Types.BIGINT)));
+        ClickHouseRowBinaryEncoder encoder = ClickHouseRowBinaryEncoder.create(idConfig,
+                Arrays.asList("Int32", "String", "Decimal(10, 4)", "String", "String", "Int64"));
+        Assert.assertNotNull(encoder);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, "testStream");
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        ProfileEvent event = new ProfileEvent(headers, "12|a\\0b\\|c|3.14159".getBytes(StandardCharsets.UTF_8));
+
+        // values set by the jdbc path
+        List<Object> values = new ArrayList<>();
+        PreparedStatement pstat = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set")) {
+                        values.add(args[1]);
+                    }
+                    return null;
+                });
+        DefaultEventHandler handler = new DefaultEventHandler();
+        handler.setValue(idConfig, handler.parse(idConfig, event), pstat);
+        Assert.assertEquals("a0b|c", values.get(1));
+        Assert.assertEquals("", values.get(4));
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ClickHouseRowBinaryStream stream = newStream(expected);
+        stream.writeInt32((Integer) values.get(0));
+        stream.writeString((String) values.get(1));
+        stream.writeDecimal64(((BigDecimal) values.get(2)).setScale(4), 4);
+        stream.writeString((String) values.get(3));
+        stream.writeString((String) values.get(4));
+        stream.writeInt64((Long) values.get(5));
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        encoder.writeRow(event, new ClickHouseFieldParser(), newStream(actual));
+        Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void testUnsupportedType() {
+        ClickHouseIdConfig idConfig = prepareIdConfig("id,name");
+        Assert.assertNull(ClickHouseRowBinaryEncoder.create(idConfig, Arrays.asList("Int32", "Array(String)")));
+        Assert.assertNull(ClickHouseRowBinaryEncoder.create(idConfig, Arrays.asList("Int32", null)));
+    }
+
+    @Test
+    public void testParseLong() {
+        byte[] data = "x-123x".getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(-123L, ClickHouseRowBinaryEncoder.parseLong(data, 1, 4, 0));
+        Assert.assertEquals(0L, ClickHouseRowBinaryEncoder.parseLong(data, 0, 5, 0));
+        Assert.assertEquals(0L, ClickHouseRowBinaryEncoder.parseLong(data, 1, 1, 0));
+    }
+
+    private static ClickHouseRowBinaryStream newStream(ByteArrayOutputStream out) {
+        return new ClickHouseRowBinaryStream(out, TimeZone.getDefault(), new ClickHouseProperties());
+    }
+
+    private static ClickHouseIdConfig prepareIdConfig(String dbFieldNames) {
+        ClickHouseIdConfig idConfig = new ClickHouseIdConfig();
+        idConfig.setInlongGroupId("testGroup");
+        idConfig.setInlongStreamId("testStream");
+        idConfig.setTableName("t_test");
+        idConfig.setContentFieldNames("id,name,price");
+        idConfig.setContentFieldList(ClickHouseIdConfig.parseFieldNames(idConfig.getContentFieldNames()));
+        idConfig.setDbFieldNames(dbFieldNames);
+        List<Pair<String, Integer>> dbFieldList = new ArrayList<>();
+        ClickHouseIdConfig.parseFieldNames(dbFieldNames)
+                .forEach(fieldName -> dbFieldList.add(new Pair<>(fieldName, Types.VARCHAR)));
+        idConfig.setDbFieldList(dbFieldList);
+        return idConfig;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.elasticsearch;
+
+import org.apache.inlong.common.metric.MetricRegister;
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.sink.SinkContext;
+import org.apache.inlong.sort.standalone.utils.BufferQueue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ * TestEsBulkController
+ */
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore("javax.management.*")
+@PrepareForTest({MetricRegister.class})
+public class TestEsBulkController {
+
+    private EsSinkContext context;
+
+    @Before
+    public void before() throws Exception {
+        BufferQueue<EsIndexRequest> dispatchQueue = SinkContext.createBufferQueue();
+        this.context = TestEsSinkContext.mock(dispatchQueue);
+        context.setBulkAction(1000);
+        context.setMinBulkAction(100);
+        context.setConcurrentRequests(4);
+        context.setTargetBulkLatencyMs(1000L);
+    }
+
+    /**
+     * test that the limits are halved by rejection and increased by quick full bulk
+     */
+    @Test
+    public void testAdjust() {
+        EsBulkController controller = new EsBulkController(context);
+        assertEquals(1000, controller.getBulkAction());
+        assertEquals(4, controller.getConcurrentRequests());
+
+        BulkRequest request = mockBulkRequest(10);
+        controller.onBulkStart(1, request);
+        assertEquals(1, controller.getInflightBulks());
+        assertTrue(controller.getInflightBytes() > 0);
+        controller.onBulkEnd(1, request, 1, false);
+        assertEquals(500, controller.getBulkAction());
+        assertEquals(2, controller.getConcurrentRequests());
+        assertEquals(0, controller.getInflightBulks());
+        assertEquals(0, controller.getInflightBytes());
+
+        // min limits
+        for (int i = 0; i < 10; i++) {
+            controller.onBulkStart(i, request);
+            controller.onBulkEnd(i, request, 0, true);
+        }
+        assertEquals(100, controller.getBulkAction());
+        assertEquals(1, controller.getConcurrentRequests());
+
+        // quick full bulk
+        BulkRequest fullRequest = mockBulkRequest(100);
+        controller.onBulkStart(100, fullRequest);
+        assertTrue(controller.isSaturated());
+        controller.onBulkEnd(100, fullRequest, 0, false);
+        assertFalse(controller.isSaturated());
+        assertEquals(200, controller.getBulkAction());
+        assertEquals(2, controller.getConcurrentRequests());
+
+        // unknown execution
+        assertEquals(0, controller.onBulkEnd(101, fullRequest, 1, true));
+        assertEquals(200, controller.getBulkAction());
+    }
+
+    /**
+     * test that the source is serialized into pooled buffer and released after ack
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPooledSource() throws Exception {
+        ProfileEvent event = TestEsSinkContext.mockProfileEvent(TestEsSinkContext.TEST_INLONG_STREAM_ID,
+                TestEsSinkContext.TEST_INLONG_GROUP_ID, "a\\|b|\"c\"\t|d");
+        EsIndexRequest indexRequest = context.createIndexRequestHandler().parse(context, event);
+        byte[] sourceBuffer = indexRequest.getSourceBuffer();
+        assertNotNull(sourceBuffer);
+        assertEquals(context.getSourceBufferPool().getBufferSize(), sourceBuffer.length);
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> source = new ObjectMapper().readValue(indexRequest.source().toBytesRef().bytes,
+                indexRequest.source().toBytesRef().offset, indexRequest.source().length(), Map.class);
+        assertEquals(indexRequest.sourceAsMap(), source);
+        assertTrue(source.containsValue("a|b"));
+        assertTrue(source.containsValue("\"c\"\t"));
+        assertTrue(source.containsKey(DefaultEvent2IndexRequestHandler.KEY_FTIME));
+
+        context.releaseDispatchQueue(indexRequest);
+        assertNull(indexRequest.getSourceBuffer());
+        assertEquals(1, context.getSourceBufferPool().getPooledCount());
+        assertSame(sourceBuffer, context.getSourceBufferPool().borrow());
+    }
+
+    /**
+     * test that the writer encodes the string as UTF-8 json and truncates the long value
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testJsonSourceWriter() throws Exception {
+        EsSourceBufferPool pool = new EsSourceBufferPool(8, 1);
+        EsJsonSourceWriter writer = new EsJsonSourceWriter(pool);
+        EsIndexRequest indexRequest = new EsIndexRequest("index", TestEsSinkContext.mockProfileEvent());
+        writer.begin();
+        writer.writeField("k1", "\u4e2d\u6587\ud83d\ude00\u0001", Integer.MAX_VALUE);
+        writer.writeField("k2", "\u4e2d\u6587", 5);
+        writer.end(indexRequest);
+        // the buffer is grown and not pooled
+        assertTrue(indexRequest.getSourceBuffer().length > pool.getBufferSize());
+        assertEquals(1, pool.getPooledCount());
+        Map<String, Object> source = indexRequest.sourceAsMap();
+        assertEquals("\u4e2d\u6587\ud83d\ude00\u0001", source.get("k1"));
+        assertEquals("\u4e2d", source.get("k2"));
+    }
+
+    private BulkRequest mockBulkRequest(int count) {
+        BulkRequest request = new BulkRequest();
+        for (int i = 0; i < count; i++) {
+            ProfileEvent event = TestEsSinkContext.mockProfileEvent();
+            request.add(context.createIndexRequestHandler().parse(context, event));
+        }
+        return request;
+    }
+}
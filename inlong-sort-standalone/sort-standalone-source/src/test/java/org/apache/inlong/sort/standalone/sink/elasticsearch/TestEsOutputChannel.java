@@ -33,9 +33,11 @@ import org.elasticsearch.client.ClusterClient;
 import org.elasticsearch.client.IndicesClient;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -121,4 +123,29 @@ public class TestEsOutputChannel {
         output.close();
     }
 
+    /**
+     * testDropWithoutIdConfig
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testDropWithoutIdConfig() throws Exception {
+        BufferQueue<EsIndexRequest> dispatchQueue = SinkContext.createBufferQueue();
+        EsSinkContext context = TestEsSinkContext.mock(dispatchQueue);
+        EsOutputChannel output = new EsOutputChannel(context);
+        ProfileEvent event = Mockito.spy(TestEsSinkContext.mockProfileEvent("unknownGroup", "unknownStream",
+                TestEsSinkContext.TEST_CONTENT));
+        EsIndexRequest indexRequest = new EsIndexRequest("index", event);
+        EsSourceBufferPool pool = context.getSourceBufferPool();
+        int pooledCount = pool.getPooledCount();
+        indexRequest.setSourceBuffer(pool.borrow());
+        context.offerDispatchQueue(indexRequest);
+        output.init();
+        output.send();
+        output.close();
+        // the request is acked and its source buffer is back to pool
+        Mockito.verify(event).ack();
+        Assert.assertEquals(pooledCount + 1, pool.getPooledCount());
+        Assert.assertNull(indexRequest.getSourceBuffer());
+    }
 }
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.hive.ql.exec.vector.BytesColumnVector;
+import org.apache.hadoop.hive.ql.exec.vector.VectorizedRowBatch;
+import org.apache.orc.OrcFile;
+import org.apache.orc.Reader;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestHdfsColumnarWriter {
+
+    private static final int ROW_COUNT = 3000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileSystem fs;
+    private IEventFormatHandler handler;
+
+    @Before
+    public void setUp() throws IOException {
+        fs = FileSystem.getLocal(new Configuration());
+        handler = new DefaultEventFormatHandler();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fs.close();
+    }
+
+    @Test
+    public void testFormatColumns() {
+        HdfsIdConfig idConfig = prepareIdConfig(HdfsIdConfig.FILE_FORMAT_ORC);
+        Assert.assertEquals(Arrays.asList("dt", "msgtime", "f1", "f2", "f3"), idConfig.parseColumnNames());
+        List<String> columns = handler.formatColumns(prepareEvent(1), idConfig);
+        // the missing field of body is absent
+        Assert.assertEquals(4, columns.size());
+        Assert.assertEquals("v1", columns.get(2));
+        Assert.assertEquals("a|b", columns.get(3));
+    }
+
+    @Test
+    public void testOrc() throws IOException {
+        HdfsIdConfig idConfig = prepareIdConfig(HdfsIdConfig.FILE_FORMAT_ORC);
+        Path path = new Path(folder.getRoot().getAbsolutePath(), "test.orc");
+        writeRows(idConfig, path);
+
+        Reader reader = OrcFile.createReader(path, OrcFile.readerOptions(fs.getConf()).filesystem(fs));
+        Assert.assertEquals(ROW_COUNT, reader.getNumberOfRows());
+        Assert.assertEquals("struct<dt:string,msgtime:string,f1:string,f2:string,f3:string>",
+                reader.getSchema().toString());
+        VectorizedRowBatch batch = reader.getSchema().createRowBatch();
+        try (org.apache.orc.RecordReader rows = reader.rows()) {
+            Assert.assertTrue(rows.nextBatch(batch));
+            Assert.assertEquals("v1", ((BytesColumnVector) batch.cols[2]).toString(1));
+            Assert.assertEquals("a|b", ((BytesColumnVector) batch.cols[3]).toString(1));
+            Assert.assertTrue(batch.cols[4].isNull[1]);
+        }
+    }
+
+    @Test
+    public void testParquet() throws IOException {
+        HdfsIdConfig idConfig = prepareIdConfig(HdfsIdConfig.FILE_FORMAT_PARQUET);
+        Path path = new Path(folder.getRoot().getAbsolutePath(), "test.parquet");
+        writeRows(idConfig, path);
+
+        long count = 0;
+        Group first = null;
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, fs.getConf()))) {
+            MessageType schema = reader.getFooter().getFileMetaData().getSchema();
+            Assert.assertEquals(5, schema.getFieldCount());
+            MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(schema);
+            PageReadStore pages = reader.readNextRowGroup();
+            while (pages != null) {
+                RecordReader<Group> recordReader = columnIO.getRecordReader(pages, new GroupRecordConverter(schema));
+                for (long i = 0; i < pages.getRowCount(); i++) {
+                    Group group = recordReader.read();
+                    first = first == null ? group : first;
+                    count++;
+                }
+                pages = reader.readNextRowGroup();
+            }
+        }
+        Assert.assertEquals(ROW_COUNT, count);
+        Assert.assertEquals("v0", first.getString("f1", 0));
+        Assert.assertEquals("a|b", first.getString("f2", 0));
+        Assert.assertEquals(0, first.getFieldRepetitionCount("f3"));
+    }
+
+    private void writeRows(HdfsIdConfig idConfig, Path path) throws IOException {
+        HdfsColumnarWriter writer = HdfsColumnarWriter.create(idConfig, null, HiveSinkContext.MB_BYTES, fs, path);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            writer.write(handler.formatColumns(prepareEvent(i), idConfig));
+        }
+        writer.close();
+    }
+
+    private static HdfsIdConfig prepareIdConfig(String fileFormat) {
+        HdfsIdConfig idConfig = new HdfsIdConfig();
+        idConfig.setInlongGroupId("testGroup");
+        idConfig.setInlongStreamId("testStream");
+        idConfig.setFileFormat(fileFormat);
+        idConfig.setFieldNames("f1,f2,f3");
+        idConfig.setPartitionFieldPattern("yyyyMMddHH");
+        idConfig.setMsgTimeFieldPattern("yyyy-MM-dd HH:mm:ss");
+        return idConfig;
+    }
+
+    private static ProfileEvent prepareEvent(int index) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+        headers.put(Constants.INLONG_STREAM_ID, "testStream");
+        headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+        return new ProfileEvent(headers, ("v" + index + "|a\\|b").getBytes(StandardCharsets.UTF_8));
+    }
+}
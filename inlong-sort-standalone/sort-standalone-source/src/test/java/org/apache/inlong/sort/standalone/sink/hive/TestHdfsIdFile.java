@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.apache.inlong.sort.standalone.channel.ProfileEvent;
+import org.apache.inlong.sort.standalone.dispatch.DispatchProfile;
+import org.apache.inlong.sort.standalone.utils.Constants;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class TestHdfsIdFile {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HiveSinkContext context;
+    private LinkedBlockingQueue<DispatchProfile> dispatchQueue;
+
+    @Before
+    public void setUp() {
+        dispatchQueue = new LinkedBlockingQueue<>();
+        context = Mockito.mock(HiveSinkContext.class);
+        Mockito.when(context.getHdfsPath()).thenReturn("file://" + folder.getRoot().getAbsolutePath());
+        Mockito.when(context.getNodeId()).thenReturn("testNode");
+        Mockito.when(context.getTaskName()).thenReturn("testTask");
+        Mockito.when(context.getColumnarBlockSizeMb()).thenReturn(1L);
+        Mockito.when(context.getDispatchQueue()).thenReturn(dispatchQueue);
+    }
+
+    @Test
+    public void testDiscardPartlyWrittenFile() throws Exception {
+        HdfsIdFile idFile = new HdfsIdFile(context, prepareIdConfig(), "/testGroup/testStream");
+        IEventFormatHandler handler = new DefaultEventFormatHandler() {
+
+            @Override
+            public List<String> formatColumns(ProfileEvent event, HdfsIdConfig idConfig) {
+                if (new String(event.getBody(), StandardCharsets.UTF_8).startsWith("bad")) {
+                    throw new IllegalStateException("bad event");
+                }
+                return super.formatColumns(event, idConfig);
+            }
+        };
+        DispatchProfile written = prepareProfile("v1", "v2");
+        idFile.writeColumnar(written, handler, System.currentTimeMillis());
+        Assert.assertTrue(idFile.needRoll(Long.MAX_VALUE, 2, Long.MAX_VALUE, idFile.getCreateTime()));
+
+        DispatchProfile failed = prepareProfile("v3", "bad");
+        Assert.assertThrows(IllegalStateException.class,
+                () -> idFile.writeColumnar(failed, handler, System.currentTimeMillis()));
+        // the file with the partly written profile is dropped, the profile written before is retried
+        Assert.assertFalse(idFile.isOpen());
+        Assert.assertFalse(new File(idFile.getIntmpFilePath().toUri().getPath()).exists());
+        Assert.assertEquals(1, dispatchQueue.size());
+        Assert.assertSame(written, dispatchQueue.poll());
+        String[] inFiles = new File(idFile.getInPath().toUri().getPath()).list();
+        Assert.assertTrue(inFiles == null || inFiles.length == 0);
+    }
+
+    @Test
+    public void testUncachedFileSystem() throws Exception {
+        HdfsIdFile idFile = new HdfsIdFile(context, prepareIdConfig(), "/testGroup/testStream");
+        // the scheme of hdfsPath decides the implementation
+        Assert.assertTrue(idFile.getFs() instanceof LocalFileSystem);
+        Assert.assertTrue(new File(idFile.getOutPath().toUri().getPath()).isDirectory());
+        FileSystem cachedFs = FileSystem.get(idFile.getFs().getUri(), new Configuration());
+        Assert.assertNotSame(cachedFs, idFile.getFs());
+        // closing the file does not close the cached instance shared by others
+        idFile.close();
+        Assert.assertTrue(cachedFs.exists(idFile.getInPath()));
+    }
+
+    private static HdfsIdConfig prepareIdConfig() {
+        HdfsIdConfig idConfig = new HdfsIdConfig();
+        idConfig.setInlongGroupId("testGroup");
+        idConfig.setInlongStreamId("testStream");
+        idConfig.setFileFormat(HdfsIdConfig.FILE_FORMAT_ORC);
+        idConfig.setFieldNames("f1");
+        idConfig.setPartitionFieldPattern("yyyyMMddHH");
+        idConfig.setMsgTimeFieldPattern("yyyy-MM-dd HH:mm:ss");
+        return idConfig;
+    }
+
+    private static DispatchProfile prepareProfile(String... bodies) {
+        DispatchProfile profile = new DispatchProfile("testUid", "testGroup", "testStream", 1600000000000L);
+        for (String body : bodies) {
+            Map<String, String> headers = new HashMap<>();
+            headers.put(Constants.INLONG_GROUP_ID, "testGroup");
+            headers.put(Constants.INLONG_STREAM_ID, "testStream");
+            headers.put(Constants.HEADER_KEY_MSG_TIME, "1600000000000");
+            profile.addEvent(new ProfileEvent(headers, body.getBytes(StandardCharsets.UTF_8)), 100, 1024 * 1024);
+        }
+        return profile;
+    }
+}
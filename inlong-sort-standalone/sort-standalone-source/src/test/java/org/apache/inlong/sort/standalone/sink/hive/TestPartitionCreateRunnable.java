@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.inlong.sort.standalone.sink.hive;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.Statement;
+
+public class TestPartitionCreateRunnable {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testArchiveColumnarFile() throws Exception {
+        Statement stat = Mockito.mock(Statement.class);
+        Connection conn = Mockito.mock(Connection.class);
+        Mockito.when(conn.createStatement()).thenReturn(stat);
+        HiveSinkContext context = Mockito.mock(HiveSinkContext.class);
+        Mockito.when(context.getHdfsPath()).thenReturn("file://" + folder.getRoot().getAbsolutePath());
+        Mockito.when(context.getNodeId()).thenReturn("testNode");
+        Mockito.when(context.getColumnarBlockSizeMb()).thenReturn(1L);
+        Mockito.when(context.getFileArchiveDelayMinute()).thenReturn(0L);
+        Mockito.when(context.getHiveDatabase()).thenReturn("testDb");
+        Mockito.when(context.getHiveConnection()).thenReturn(conn);
+
+        HdfsIdConfig idConfig = new HdfsIdConfig();
+        idConfig.setInlongGroupId("testGroup");
+        idConfig.setInlongStreamId("testStream");
+        idConfig.setHiveTableName("testTable");
+        idConfig.setFileFormat(HdfsIdConfig.FILE_FORMAT_ORC);
+        idConfig.setFieldNames("f1");
+        idConfig.setIdRootPath("/testGroup/testStream");
+        idConfig.setPartitionSubPath("/{yyyyMMddHH}");
+        long partitionTime = 1600000000000L;
+        String strIdRootPath = idConfig.parsePartitionPath(partitionTime);
+
+        // a columnar file closed before the archive delay
+        File intmpDir = new File(folder.getRoot(), strIdRootPath + HdfsIdFile.SUBPATH_INTMP);
+        Assert.assertTrue(intmpDir.mkdirs());
+        File intmpFile = new File(intmpDir, "testNode.20200913200000.1.orc");
+        Files.write(intmpFile.toPath(), "data".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(intmpFile.setLastModified(System.currentTimeMillis() - 60000L));
+
+        PartitionCreateRunnable runnable = new PartitionCreateRunnable(context, idConfig, "2020091320",
+                partitionTime, true);
+        runnable.run();
+        Assert.assertEquals(PartitionState.CREATED, runnable.getState());
+        // the columnar file is moved to "out" directory without concat, which the local file system does not support
+        File outDir = new File(folder.getRoot(), strIdRootPath + HdfsIdFile.SUBPATH_OUT);
+        Assert.assertArrayEquals(new String[]{intmpFile.getName()}, outDir.list());
+        Mockito.verify(stat).executeUpdate(Mockito.contains("testDb.testTable ADD IF NOT EXISTS PARTITION"));
+    }
+}